@@ -15,6 +15,7 @@ import de.tudresden.inf.lat.uel.type.api.Goal;
 import de.tudresden.inf.lat.uel.type.api.Subsumption;
 import de.tudresden.inf.lat.uel.type.impl.AbstractUnificationAlgorithm;
 import de.tudresden.inf.lat.uel.type.impl.ExistentialRestriction;
+import de.tudresden.inf.lat.uel.type.impl.IntArraySet;
 
 /**
  * This class prepares the input for an ASP solver.
@@ -230,10 +231,10 @@ public class AspInput {
 		encodeAtoms(output, axiom.getRight(), 1, index, remainingAtoms);
 	}
 
-	private void encodeAtoms(OutputStreamBuilder output, Set<Integer> atomIds, int side, int index,
+	private void encodeAtoms(OutputStreamBuilder output, IntArraySet atomIds, int side, int index,
 			Set<Integer> remainingAtoms) {
-		for (Integer atomId : atomIds) {
-			encodeAtom(output, atomId, side, index, remainingAtoms);
+		for (int i = 0; i < atomIds.size(); i++) {
+			encodeAtom(output, atomIds.getInt(i), side, index, remainingAtoms);
 		}
 	}
 
@@ -9,6 +9,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
+
 /**
  * Represents the output of an ASP solver.
  *
@@ -29,6 +31,18 @@ public interface AspOutput {
 	 */
 	List<Entry<String, String>> getInfo();
 
+	/**
+	 * Determines whether the ASP solver was stopped by one of the resource
+	 * limits before it enumerated all answer sets. This must only be called
+	 * after 'hasNext' returned 'false'.
+	 *
+	 * @return the reached limit, or 'null' if all answer sets were enumerated
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting for the
+	 *             solver to terminate
+	 */
+	ResourceLimits.Limit getReachedLimit() throws InterruptedException;
+
 	boolean hasNext() throws IOException, InterruptedException;
 
 	Map<Integer, Set<Integer>> next() throws IOException, InterruptedException;
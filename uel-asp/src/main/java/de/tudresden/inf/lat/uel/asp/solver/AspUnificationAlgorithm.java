@@ -6,14 +6,19 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import de.tudresden.inf.lat.uel.type.api.Definition;
 import de.tudresden.inf.lat.uel.type.api.Goal;
 import de.tudresden.inf.lat.uel.type.impl.AbstractUnificationAlgorithm;
-import de.tudresden.inf.lat.uel.type.impl.DefinitionSet;
+import de.tudresden.inf.lat.uel.type.impl.CompactDefinitionSet;
+import de.tudresden.inf.lat.uel.type.impl.LimitReachedException;
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
 import de.tudresden.inf.lat.uel.type.impl.Unifier;
 
 public class AspUnificationAlgorithm extends AbstractUnificationAlgorithm {
 
+	private static final String metricUnifiers = "unifiers";
+	private static final String timerEncoding = "asp.encoding";
+	private static final String timerSolving = "asp.solving";
+
 	private AspInput aspInput;
 	private AspOutput aspOutput;
 	private boolean initialized;
@@ -40,20 +45,38 @@ public class AspUnificationAlgorithm extends AbstractUnificationAlgorithm {
 
 	@Override
 	public boolean computeNextUnifier() throws InterruptedException {
+		if (getReachedLimit() != null) {
+			// clingo has already been stopped
+			return false;
+		}
 		try {
+			checkLimits(0);
 			if (!initialized) {
+				long startTime = System.nanoTime();
 				aspInput = new AspInput(goal, this);
+				metrics.timer(timerEncoding).record(System.nanoTime() - startTime);
 				AspSolver solver = new ClingoSolver(goal.hasNegativePart(), !goal.getTypes().isEmpty(), minimize, this);
 				aspOutput = solver.solve(aspInput);
 				callbackPreprocessing();
 				initialized = true;
 			}
 
+			long startTime = System.nanoTime();
 			hasNext = aspOutput.hasNext();
+			metrics.timer(timerSolving).record(System.nanoTime() - startTime);
 			if (hasNext) {
 				currentUnifier = toUnifier(aspOutput.next());
+				metrics.counter(metricUnifiers).increment();
+			} else {
+				// clingo may have stopped because of its native limits
+				ResourceLimits.Limit limit = aspOutput.getReachedLimit();
+				if (limit != null) {
+					return limitReached(new LimitReachedException(limit));
+				}
 			}
 			return hasNext;
+		} catch (LimitReachedException e) {
+			return limitReached(e);
 		} catch (IOException e) {
 			if (!e.getMessage().contains("Stream closed")) {
 				// ignore 'Stream closed', because it was caused by 'cleanup'
@@ -81,13 +104,13 @@ public class AspUnificationAlgorithm extends AbstractUnificationAlgorithm {
 	}
 
 	private Unifier toUnifier(Map<Integer, Set<Integer>> assignment) {
-		DefinitionSet definitions = new DefinitionSet(goal.getAtomManager().getVariables().size());
+		CompactDefinitionSet definitions = new CompactDefinitionSet(goal.getAtomManager().getVariables().size());
 		for (Integer varId : goal.getAtomManager().getVariables()) {
 			Set<Integer> body = assignment.get(varId);
 			if (body == null) {
 				body = Collections.emptySet();
 			}
-			definitions.add(new Definition(varId, Collections.unmodifiableSet(body), false));
+			definitions.put(varId, body, false);
 		}
 		return new Unifier(definitions);
 	}
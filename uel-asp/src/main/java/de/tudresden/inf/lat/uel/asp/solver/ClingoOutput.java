@@ -17,10 +17,8 @@ import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 
-import de.tudresden.inf.lat.uel.type.api.Atom;
 import de.tudresden.inf.lat.uel.type.api.AtomManager;
-import de.tudresden.inf.lat.uel.type.impl.ConceptName;
-import de.tudresden.inf.lat.uel.type.impl.ExistentialRestriction;
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
 
 /**
  * This class parses the output of clingo.
@@ -116,8 +114,7 @@ public class ClingoOutput implements AspOutput {
 	private void extendAssignment(Map<Integer, Set<Integer>> assignment, String subsumption) throws IOException {
 		int parenthesisIndex = subsumption.indexOf(')');
 		Integer varId = Integer.parseInt(subsumption.substring(13, parenthesisIndex));
-		Atom nonVarAtom = parseAtom(subsumption.substring(parenthesisIndex + 2, subsumption.length() - 1));
-		Integer atomId = atomManager.getIndex(nonVarAtom);
+		Integer atomId = parseAtomId(subsumption.substring(parenthesisIndex + 2, subsumption.length() - 1));
 
 		Set<Integer> subsumers = assignment.get(varId);
 		if (subsumers == null) {
@@ -131,6 +128,11 @@ public class ClingoOutput implements AspOutput {
 		return info;
 	}
 
+	@Override
+	public ResourceLimits.Limit getReachedLimit() throws InterruptedException {
+		return solver.getReachedLimit();
+	}
+
 	@Override
 	public boolean hasNext() throws IOException, InterruptedException {
 		compute();
@@ -147,20 +149,23 @@ public class ClingoOutput implements AspOutput {
 		return currentAssignment;
 	}
 
-	private Atom parseAtom(String encoding) throws IOException {
+	private Integer parseAtomId(String encoding) throws IOException {
 		switch (encoding.charAt(0)) {
 		case 'e':
 			int commaIndex = encoding.indexOf(',');
 			Integer roleId = Integer.parseInt(encoding.substring(8, commaIndex));
-			ConceptName conceptName = (ConceptName) parseAtom(
-					encoding.substring(commaIndex + 1, encoding.length() - 1));
-			return new ExistentialRestriction(roleId, conceptName);
+			Integer childId = parseAtomId(encoding.substring(commaIndex + 1, encoding.length() - 1));
+			// look up the canonical atom instead of creating a new one
+			for (Integer atomId : atomManager.getExistentialRestrictionsWithFiller(childId)) {
+				if (atomManager.getRoleId(atomId).equals(roleId)) {
+					return atomId;
+				}
+			}
+			throw new IOException("Unknown existential restriction.");
 		case 'c':
-			Integer atomId = Integer.parseInt(encoding.substring(7, encoding.length() - 1));
-			return atomManager.getAtom(atomId);
+			return Integer.parseInt(encoding.substring(7, encoding.length() - 1));
 		case 'v':
-			atomId = Integer.parseInt(encoding.substring(5, encoding.length() - 1));
-			return atomManager.getAtom(atomId);
+			return Integer.parseInt(encoding.substring(5, encoding.length() - 1));
 		default:
 			throw new IOException("Invalid atom encoding.");
 		}
@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import de.tudresden.inf.lat.uel.type.impl.AbstractUnificationAlgorithm;
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
 
 /**
  * @author Stefan Borgwardt
@@ -20,6 +22,8 @@ public class ClingoSolver implements AspSolver {
 	private static String CLINGO_COMMAND = "clingo";
 	private static String COMMON_ARGUMENTS = "0 --project --outf=2"; // --enum-mode=domRec";
 	private static String HEURISTIC_ARGUMENTS = "--enum-mode=domRec --dom-mod=5,16 --heu=Domain";
+	// bit of the return code indicating that the search space was exhausted
+	private static int EXHAUSTED = 20;
 
 	private final boolean hasNegativePart;
 	private final boolean types;
@@ -57,6 +61,29 @@ public class ClingoSolver implements AspSolver {
 		}
 	}
 
+	/**
+	 * Wait for clingo to terminate and determine whether it was stopped by
+	 * its time or conflict limit, i.e., before exhausting the search space.
+	 * 
+	 * @return the reached limit, or 'null' if clingo enumerated all answer
+	 *         sets or failed for another reason
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting
+	 */
+	ResourceLimits.Limit getReachedLimit() throws InterruptedException {
+		if ((pClingo.waitFor() & EXHAUSTED) == EXHAUSTED) {
+			return null;
+		}
+		ResourceLimits limits = parent.getResourceLimits();
+		ResourceLimits.Limit limit = limits.getReachedLimit(0);
+		if (limit != null) {
+			return limit;
+		}
+		// the time limit of clingo ends after the deadline, so only the
+		// conflict limit remains
+		return limits.hasMaxNodes() ? ResourceLimits.Limit.NODES : null;
+	}
+
 	private List<String> getClingoArguments() {
 		List<String> arguments = new ArrayList<>();
 		arguments.add(CLINGO_COMMAND);
@@ -64,6 +91,16 @@ public class ClingoSolver implements AspSolver {
 		if (minimize) {
 			arguments.addAll(Arrays.asList(HEURISTIC_ARGUMENTS.split(" ")));
 		}
+		ResourceLimits limits = parent.getResourceLimits();
+		if (limits.hasDeadline()) {
+			// clingo only accepts whole seconds
+			long seconds = (limits.getRemainingTime(TimeUnit.MILLISECONDS) + 999) / 1000;
+			arguments.add("--time-limit=" + Math.max(1, seconds));
+		}
+		if (limits.hasMaxNodes()) {
+			// the conflict limit applies to the whole enumeration
+			arguments.add("--solve-limit=" + limits.getMaxNodes());
+		}
 		return arguments;
 	}
 
@@ -7,6 +7,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.semanticweb.owlapi.apibinding.OWLManager;
@@ -21,10 +23,15 @@ import de.tudresden.inf.lat.uel.core.processor.UelOptions.Verbosity;
 import de.tudresden.inf.lat.uel.core.renderer.OWLRenderer;
 import de.tudresden.inf.lat.uel.core.renderer.StringRenderer;
 import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.api.Definition;
 import de.tudresden.inf.lat.uel.type.api.Goal;
 import de.tudresden.inf.lat.uel.type.api.UnificationAlgorithm;
 import de.tudresden.inf.lat.uel.type.impl.AtomManagerImpl;
 import de.tudresden.inf.lat.uel.type.impl.DefinitionSet;
+import de.tudresden.inf.lat.uel.type.impl.DenseAtomManagerImpl;
+import de.tudresden.inf.lat.uel.type.impl.GoalCompaction;
+import de.tudresden.inf.lat.uel.type.impl.LayeredAtomManager;
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
 import de.tudresden.inf.lat.uel.type.impl.Unifier;
 
 /**
@@ -52,11 +59,14 @@ public class UelModel {
 	private UnificationAlgorithm algorithm;
 	private boolean allUnifiersFound;
 	private AtomManager atomManager;
+	private AtomManager baseAtomManager;
+	private GoalCompaction compaction;
 	private int currentUnifierIndex;
 	private UelOntologyGoal goal;
 	private UelOptions options;
 	private UnifierPostprocessor postprocessor;
 	private OntologyProvider provider;
+	private ForkJoinPool searchPool;
 	private List<Unifier> unifierList;
 
 	/**
@@ -124,6 +134,10 @@ public class UelModel {
 				}
 
 				Unifier result = algorithm.getUnifier();
+				if (compaction != null) {
+					// translate back to the atoms of the original goal
+					result = compaction.expand(result);
+				}
 				if (options.minimizeSolutions) {
 					result = postprocessor.minimizeUnifier(result);
 				}
@@ -164,6 +178,9 @@ public class UelModel {
 			}
 		}
 		allUnifiersFound = true;
+		if ((algorithm.getReachedLimit() != null) && (options.verbosity.level > 0)) {
+			System.out.println("Resource limit reached: " + algorithm.getReachedLimit());
+		}
 		if (options.verbosity.level > 1) {
 			if (!first) {
 				printAlgorithmInfo();
@@ -172,6 +189,44 @@ public class UelModel {
 		return false;
 	}
 
+	private AtomManager createAtomManager() {
+		if (baseAtomManager != null) {
+			return new LayeredAtomManager(baseAtomManager);
+		}
+		return createUnlayeredAtomManager();
+	}
+
+	/**
+	 * Creates a shared base for the atom managers of several goals over the
+	 * same background ontologies (see 'setBaseAtomManager'). The base contains
+	 * the atoms of the flattened definitions of all classes of the background
+	 * ontologies. Whether these classes are variables or constants is only
+	 * decided for each goal separately.
+	 * 
+	 * @param bgOntologies
+	 *            the background ontologies
+	 * @return a frozen atom manager that can be used as the base
+	 */
+	public AtomManager createBaseAtomManager(Set<OWLOntology> bgOntologies) {
+		AtomManager base = createUnlayeredAtomManager();
+		UelOntology ontology = new UelOntology(base, bgOntologies,
+				getOWLThing(options.owlThingAlias, options.snomedMode), options.expandPrimitiveDefinitions);
+		Set<Definition> definitions = new HashSet<Definition>();
+		bgOntologies.stream().flatMap(ont -> ont.getClassesInSignature().stream())
+				.forEach(cls -> ontology.processClassExpression(cls, definitions, false));
+		return base.freeze();
+	}
+
+	private AtomManager createUnlayeredAtomManager() {
+		switch (options.atomManagerType) {
+		case DENSE:
+			return new DenseAtomManagerImpl();
+		case HASH_BASED:
+		default:
+			return new AtomManagerImpl();
+		}
+	}
+
 	/**
 	 * Creates a new anonymous ontology containing all axioms of the given one.
 	 * 
@@ -275,6 +330,41 @@ public class UelModel {
 			return OWLManager.getOWLDataFactory().getOWLThing();
 	}
 
+	/**
+	 * Returns the resource limits for the unification algorithm, as specified
+	 * by the options. The deadline is computed from the current time.
+	 * 
+	 * @return the resource limits
+	 */
+	private ResourceLimits getResourceLimits() {
+		ResourceLimits limits = ResourceLimits.NONE.withMaxNodes(options.maxNodes)
+				.withMaxMemory(options.maxMemory);
+		if (options.timeout > 0) {
+			limits = limits.withTimeout(options.timeout, TimeUnit.MILLISECONDS);
+		}
+		return limits;
+	}
+
+	/**
+	 * Returns the pool for the parallel search of the rule-based algorithm.
+	 * Unless the options specify a pool, the search gets its own pool, so that
+	 * it does not compete with other users of the common pool.
+	 * 
+	 * @return the pool, or 'null' if the search should be sequential
+	 */
+	private ForkJoinPool getSearchPool() {
+		if (!options.parallelSearch) {
+			return null;
+		}
+		if (options.searchPool != null) {
+			return options.searchPool;
+		}
+		if (searchPool == null) {
+			searchPool = new ForkJoinPool();
+		}
+		return searchPool;
+	}
+
 	/**
 	 * Construct a renderer for output of unifiers etc. as strings. The actual
 	 * format is specified in the method 'StringRenderer.createInstance'.
@@ -326,8 +416,26 @@ public class UelModel {
 		unifierList = new ArrayList<Unifier>();
 		currentUnifierIndex = -1;
 		allUnifiersFound = false;
-		algorithm = UnificationAlgorithmFactory.instantiateAlgorithm(options.unificationAlgorithmName, goal);
+		Goal algorithmGoal = goal;
+		compaction = null;
+		if (options.compactAtoms) {
+			compaction = GoalCompaction.compact(goal, this::createUnlayeredAtomManager);
+			algorithmGoal = compaction.getGoal();
+			if (options.verbosity.level > 1) {
+				System.out.println("Number of removed atoms: " + compaction.getNumberOfRemovedAtoms());
+			}
+		}
+		if (options.decomposeGoal) {
+			algorithm = UnificationAlgorithmFactory.instantiateDecomposedAlgorithm(options.unificationAlgorithmName,
+					algorithmGoal, options.parallelComponents,
+					options.constraintSelection, getSearchPool());
+		} else {
+			algorithm = UnificationAlgorithmFactory.instantiateAlgorithm(options.unificationAlgorithmName,
+					algorithmGoal, options.constraintSelection,
+					getSearchPool());
+		}
 		algorithm.setShortFormMap(getStringRenderer(null)::getShortForm);
+		algorithm.setResourceLimits(getResourceLimits());
 		postprocessor = new UnifierPostprocessor(atomManager, goal, getStringRenderer(null));
 	}
 
@@ -356,11 +464,10 @@ public class UelModel {
 	}
 
 	private void makeAllUndefClassesVariables(boolean userVariables) {
-		// first copy the list of constants since we need to modify it
-		Set<Integer> constants = new HashSet<Integer>(atomManager.getConstants());
-		makeIdsVariables(
-				constants.stream().filter(id -> atomManager.printConceptName(id).endsWith(AtomManager.UNDEF_SUFFIX)),
-				userVariables);
+		// first copy the set of UNDEF constants since we need to modify it
+		Set<Integer> undefConstants = new HashSet<Integer>(atomManager.getUndefNames());
+		undefConstants.retainAll(atomManager.getConstants());
+		makeIdsVariables(undefConstants.stream(), userVariables);
 	}
 
 	private void makeClassesVariables(Stream<OWLClass> variables, boolean addUndefSuffix, boolean userVariables) {
@@ -486,12 +593,9 @@ public class UelModel {
 	 */
 	public Integer replaceByUndefId(Integer atomId) {
 		if (atomManager.getDefinitionVariables().contains(atomId)) {
-			for (Integer undefId : goal.getDefinition(atomId).getRight()) {
-				if (atomManager.getAtom(undefId).isConceptName()) {
-					if (atomManager.printConceptName(undefId).endsWith(AtomManager.UNDEF_SUFFIX)) {
-						return undefId;
-					}
-				}
+			Integer undefId = atomManager.getUndefConceptName(atomId);
+			if ((undefId != null) && goal.getDefinition(atomId).getRight().contains(undefId)) {
+				return undefId;
 			}
 		}
 		return atomId;
@@ -504,6 +608,24 @@ public class UelModel {
 		provider.resetCache();
 	}
 
+	/**
+	 * Sets a shared base for the atom managers of all subsequent goals. Each
+	 * call to 'setupGoal' then only creates a private overlay over this base,
+	 * which reuses the ids of the base atoms. The variable and constant
+	 * markings of the base are ignored; all markings of a goal are made in its
+	 * overlay. The base should contain only atoms that are relevant for all
+	 * these goals, i.e., it should be created by 'createBaseAtomManager' from
+	 * the common background ontologies.
+	 * 
+	 * @param base
+	 *            the base atom manager, which is frozen if necessary; 'null'
+	 *            restores the default behavior of creating a new atom manager
+	 *            for each goal
+	 */
+	public void setBaseAtomManager(AtomManager base) {
+		this.baseAtomManager = (base == null) ? null : base.freeze();
+	}
+
 	/**
 	 * Sets the index of the currently selected unifier in the unifier list.
 	 * 
@@ -541,7 +663,7 @@ public class UelModel {
 	public void setupGoal(Set<OWLOntology> bgOntologies, OWLOntology positiveProblem, OWLOntology negativeProblem,
 			OWLOntology constraintOntology, Set<OWLClass> userVariables, boolean resetShortFormCache) {
 
-		atomManager = new AtomManagerImpl();
+		atomManager = createAtomManager();
 
 		if (resetShortFormCache) {
 			resetShortFormCache();
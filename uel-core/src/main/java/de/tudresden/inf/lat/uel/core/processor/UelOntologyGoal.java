@@ -32,6 +32,7 @@ import de.tudresden.inf.lat.uel.type.api.Equation;
 import de.tudresden.inf.lat.uel.type.api.Goal;
 import de.tudresden.inf.lat.uel.type.api.Subsumption;
 import de.tudresden.inf.lat.uel.type.impl.DefinitionSet;
+import de.tudresden.inf.lat.uel.type.impl.TypeHierarchy;
 
 /**
  * This class is a goal of unification.
@@ -59,6 +60,7 @@ public class UelOntologyGoal implements Goal {
 	private final Map<Integer, Integer> roleNumberRestrictions = new HashMap<>();
 	private final Set<Subsumption> subsumptions = new HashSet<>();
 	private final Map<Integer, Integer> typeAssignment = new HashMap<>();
+	private TypeHierarchy typeHierarchy = null;
 	private final Set<Integer> types = new HashSet<Integer>();
 	private final String snomedRoleGroupUri, snomedCtConceptUri;
 
@@ -412,6 +414,7 @@ public class UelOntologyGoal implements Goal {
 		introduceRoleGroupTypes();
 		// System.out.println(renderer.renderGoal(this, true));
 		extractTypeAssignment();
+		typeHierarchy = new TypeHierarchy(types, directSupertype::get);
 	}
 
 	private <S> Set<S> filterSet(Set<S> input, Predicate<S> filter) {
@@ -504,18 +507,21 @@ public class UelOntologyGoal implements Goal {
 		return typeAssignment;
 	}
 
+	@Override
+	public TypeHierarchy getTypeHierarchy() {
+		return typeHierarchy;
+	}
+
 	@Override
 	public Set<Integer> getTypes() {
 		return types;
 	}
 
 	private Integer getUndefIdFromPrimitiveDefinition(Definition definition) {
-		for (Integer atomId : definition.getRight()) {
-			if (atomManager.getConstants().contains(atomId)) {
-				if (atomManager.printConceptName(atomId).endsWith(AtomManager.UNDEF_SUFFIX)) {
-					return atomId;
-				}
-			}
+		Integer undefId = atomManager.getUndefConceptName(definition.getDefiniendum());
+		if ((undefId != null) && definition.getRight().contains(undefId)
+				&& atomManager.getConstants().contains(undefId)) {
+			return undefId;
 		}
 		return null;
 	}
@@ -3,8 +3,12 @@
  */
 package de.tudresden.inf.lat.uel.core.processor;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.semanticweb.owlapi.model.OWLClass;
 
+import de.tudresden.inf.lat.uel.rule.ConstraintSelection;
+
 /**
  * This class bundles all options to UEL.
  * 
@@ -12,6 +16,21 @@ import org.semanticweb.owlapi.model.OWLClass;
  */
 public class UelOptions {
 
+	/**
+	 * Possible implementations of the atom manager.
+	 */
+	public enum AtomManagerType {
+		/**
+		 * The atom manager based on hash maps and hash sets.
+		 */
+		HASH_BASED,
+		/**
+		 * The atom manager based on primitive arrays and BitSets, which is
+		 * better suited for large goals.
+		 */
+		DENSE
+	};
+
 	/**
 	 * Possible treatments for UNDEF names.
 	 */
@@ -55,6 +74,40 @@ public class UelOptions {
 		}
 	}
 
+	/**
+	 * Indicates which implementation of the atom manager should be used.
+	 * 
+	 * Default: HASH_BASED.
+	 */
+	public AtomManagerType atomManagerType = AtomManagerType.HASH_BASED;
+
+	/**
+	 * Indicates whether the atoms that do not occur in the goal should be
+	 * removed and the remaining atoms renumbered before the unification
+	 * algorithm is initialized. The computed unifiers are translated back to
+	 * the original atoms.
+	 * 
+	 * Default: false.
+	 */
+	public boolean compactAtoms = false;
+
+	/**
+	 * Indicates how the rule-based algorithm chooses the next unsolved
+	 * subsumption or dissubsumption.
+	 * 
+	 * Default: FIFO.
+	 */
+	public ConstraintSelection constraintSelection = ConstraintSelection.FIFO;
+
+	/**
+	 * Indicates whether the goal should be split into components that do not
+	 * share any variables, which are then solved independently. The unifiers
+	 * of the components only use the atoms of their own component.
+	 * 
+	 * Default: false.
+	 */
+	public boolean decomposeGoal = false;
+
 	/**
 	 * Indicates whether to expand simple primitive definitions like A ⊑ B and
 	 * introduce the auxiliary name A_UNDEF ('true'), or to simply make A a
@@ -113,6 +166,57 @@ public class UelOptions {
 	 */
 	public boolean restrictUndefContext = false;
 
+	/**
+	 * Indicates whether the components of a decomposed goal should be
+	 * initialized in parallel. Only relevant if 'decomposeGoal' is set.
+	 * 
+	 * Default: false.
+	 */
+	public boolean parallelComponents = false;
+
+	/**
+	 * Indicates whether the rule-based algorithm should explore its search
+	 * tree in parallel. The unifiers are then computed in a nondeterministic
+	 * order.
+	 * 
+	 * Default: false.
+	 */
+	public boolean parallelSearch = false;
+
+	/**
+	 * The pool that explores the search tree of the rule-based algorithm in
+	 * parallel. If it is 'null', the model creates its own pool with one worker
+	 * per processor. Only relevant if 'parallelSearch' is set.
+	 * 
+	 * Default: null.
+	 */
+	public ForkJoinPool searchPool = null;
+
+	/**
+	 * The time in milliseconds after which the unification algorithm stops
+	 * searching for unifiers, measured from its initialization. If it is 0,
+	 * there is no time limit.
+	 * 
+	 * Default: 0.
+	 */
+	public long timeout = 0;
+
+	/**
+	 * The maximal number of search nodes of the unification algorithm
+	 * (conflicts for the SAT- and ASP-based algorithms).
+	 * 
+	 * Default: Long.MAX_VALUE, i.e., no limit.
+	 */
+	public long maxNodes = Long.MAX_VALUE;
+
+	/**
+	 * The maximal number of bytes of the heap that may be in use while the
+	 * unification algorithm searches for unifiers.
+	 * 
+	 * Default: Long.MAX_VALUE, i.e., no limit.
+	 */
+	public long maxMemory = Long.MAX_VALUE;
+
 	/**
 	 * Indicates whether 'SNOMED mode' is active. If yes, then certain
 	 * syntactical restrictions are enabled, e.g., type compatibility and the
@@ -162,6 +266,22 @@ public class UelOptions {
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
 
+		sb.append("Atom manager: ");
+		sb.append(atomManagerType);
+		sb.append(System.lineSeparator());
+
+		sb.append("Compact atoms: ");
+		sb.append(compactAtoms);
+		sb.append(System.lineSeparator());
+
+		sb.append("Constraint selection: ");
+		sb.append(constraintSelection);
+		sb.append(System.lineSeparator());
+
+		sb.append("Decompose goal: ");
+		sb.append(decomposeGoal);
+		sb.append(System.lineSeparator());
+
 		sb.append("Expand primitive definitions: ");
 		sb.append(expandPrimitiveDefinitions);
 		sb.append(System.lineSeparator());
@@ -190,6 +310,26 @@ public class UelOptions {
 		sb.append(restrictUndefContext);
 		sb.append(System.lineSeparator());
 
+		sb.append("Initialize components in parallel: ");
+		sb.append(parallelComponents);
+		sb.append(System.lineSeparator());
+
+		sb.append("Parallel search: ");
+		sb.append(parallelSearch);
+		sb.append(System.lineSeparator());
+
+		sb.append("Time limit (ms): ");
+		sb.append(timeout);
+		sb.append(System.lineSeparator());
+
+		sb.append("Node limit: ");
+		sb.append(maxNodes);
+		sb.append(System.lineSeparator());
+
+		sb.append("Memory limit (bytes): ");
+		sb.append(maxMemory);
+		sb.append(System.lineSeparator());
+
 		sb.append("SNOMED mode: ");
 		sb.append(snomedMode);
 		sb.append(System.lineSeparator());
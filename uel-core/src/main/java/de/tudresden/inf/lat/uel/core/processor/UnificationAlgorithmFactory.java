@@ -3,12 +3,16 @@ package de.tudresden.inf.lat.uel.core.processor;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import de.tudresden.inf.lat.uel.asp.solver.AspUnificationAlgorithm;
-import de.tudresden.inf.lat.uel.rule.RuleBasedUnificationAlgorithm;
+import de.tudresden.inf.lat.uel.rule.ConstraintSelection;
+import de.tudresden.inf.lat.uel.rule.RuleBasedDisunificationAlgorithm;
 import de.tudresden.inf.lat.uel.sat.solver.SatUnificationAlgorithm;
 import de.tudresden.inf.lat.uel.type.api.Goal;
 import de.tudresden.inf.lat.uel.type.api.UnificationAlgorithm;
+import de.tudresden.inf.lat.uel.type.impl.DecomposedUnificationAlgorithm;
+import de.tudresden.inf.lat.uel.type.impl.GoalDecomposition;
 
 /**
  * This factory constructs algorithms referred by name.
@@ -33,9 +37,33 @@ public class UnificationAlgorithmFactory {
 	 * @return a new algorithm with a given UEL input
 	 */
 	public static UnificationAlgorithm instantiateAlgorithm(String name, Goal input) {
+		return instantiateAlgorithm(name, input, ConstraintSelection.FIFO, null);
+	}
+
+	/**
+	 * Creates an algorithm with a given UEL input.
+	 * 
+	 * @param name
+	 *            name of algorithm
+	 * @param input
+	 *            UEL input
+	 * @param selection
+	 *            the strategy of the rule-based algorithm for choosing unsolved
+	 *            constraints; ignored by the other algorithms
+	 * @param searchPool
+	 *            the pool used by the rule-based algorithm for exploring the
+	 *            search tree in parallel, or 'null' for a sequential search;
+	 *            ignored by the other algorithms
+	 * @return a new algorithm with a given UEL input
+	 */
+	public static UnificationAlgorithm instantiateAlgorithm(String name, Goal input, ConstraintSelection selection,
+			ForkJoinPool searchPool) {
 		UnificationAlgorithm ret;
 		if (name.equals(RULE_BASED_ALGORITHM)) {
-			ret = new RuleBasedUnificationAlgorithm(input);
+			RuleBasedDisunificationAlgorithm algorithm = new RuleBasedDisunificationAlgorithm(input);
+			algorithm.setConstraintSelection(selection);
+			algorithm.setParallelSearch(searchPool);
+			ret = algorithm;
 		} else if (name.equals(SAT_BASED_ALGORITHM)) {
 			ret = new SatUnificationAlgorithm(input, false);
 		} else if (name.equals(SAT_BASED_ALGORITHM_MINIMAL)) {
@@ -50,6 +78,55 @@ public class UnificationAlgorithmFactory {
 		return ret;
 	}
 
+	/**
+	 * Creates an algorithm that splits the given UEL input into components
+	 * without shared variables and solves them independently. If the input
+	 * cannot be split, a normal algorithm is returned.
+	 * 
+	 * @param name
+	 *            name of the algorithm used for each component
+	 * @param input
+	 *            UEL input
+	 * @param parallel
+	 *            indicates whether the components should be initialized in
+	 *            parallel
+	 * @return a new algorithm with a given UEL input
+	 */
+	public static UnificationAlgorithm instantiateDecomposedAlgorithm(String name, Goal input, boolean parallel) {
+		return instantiateDecomposedAlgorithm(name, input, parallel, ConstraintSelection.FIFO, null);
+	}
+
+	/**
+	 * Creates an algorithm that splits the given UEL input into components
+	 * without shared variables and solves them independently. If the input
+	 * cannot be split, a normal algorithm is returned.
+	 * 
+	 * @param name
+	 *            name of the algorithm used for each component
+	 * @param input
+	 *            UEL input
+	 * @param parallel
+	 *            indicates whether the components should be initialized in
+	 *            parallel
+	 * @param selection
+	 *            the strategy of the rule-based algorithm for choosing unsolved
+	 *            constraints; ignored by the other algorithms
+	 * @param searchPool
+	 *            the pool used by the rule-based algorithm for exploring the
+	 *            search tree in parallel, or 'null' for a sequential search;
+	 *            ignored by the other algorithms
+	 * @return a new algorithm with a given UEL input
+	 */
+	public static UnificationAlgorithm instantiateDecomposedAlgorithm(String name, Goal input, boolean parallel,
+			ConstraintSelection selection, ForkJoinPool searchPool) {
+		GoalDecomposition decomposition = GoalDecomposition.decompose(input);
+		if (!decomposition.isNontrivial()) {
+			return instantiateAlgorithm(name, input, selection, searchPool);
+		}
+		return new DecomposedUnificationAlgorithm(decomposition,
+				component -> instantiateAlgorithm(name, component, selection, searchPool), parallel);
+	}
+
 	/**
 	 * Returns all the algorithms that this factory can construct.
 	 * 
@@ -247,10 +247,7 @@ public class UnifierPostprocessor {
 	 */
 	public Unifier minimizeUnifier(Unifier unifier) {
 		// copy the unifier
-		DefinitionSet defs = new DefinitionSet();
-		for (Definition def : unifier.getDefinitions()) {
-			defs.add(new Definition(def));
-		}
+		DefinitionSet defs = new DefinitionSet(unifier.getDefinitions());
 
 		// saturate all substitutions of user variables by exhaustively applying
 		// all background definitions "backward"
@@ -269,7 +266,7 @@ public class UnifierPostprocessor {
 
 			// keep only minimal atoms (w.r.t. subsumption and size)
 			List<Integer> minimalAtoms = minimalElements((a, b) -> compare(a, b, defs), defs.getDefiniens(varId));
-			defs.getDefiniens(varId).retainAll(minimalAtoms);
+			replaceDefiniens(defs, varId, new HashSet<Integer>(minimalAtoms));
 
 			// System.out.println(renderer.renderAtomList("Final substitution
 			// set", defs.getDefiniens(varId)));
@@ -306,9 +303,17 @@ public class UnifierPostprocessor {
 		return minimalElements;
 	}
 
+	private void replaceDefiniens(DefinitionSet defs, Integer varId, Set<Integer> newDefiniens) {
+		// definitions are immutable, so the old one has to be replaced
+		Definition def = defs.getDefinition(varId);
+		defs.put(varId, new Definition(varId, newDefiniens, def.isPrimitive()));
+	}
+
 	private void saturateWithDefinitions(DefinitionSet defs) {
 		for (Integer varId : atomManager.getVariables()) {
-			saturateWithDefinitions(defs.getDefiniens(varId));
+			Set<Integer> atomIds = new HashSet<Integer>(defs.getDefiniens(varId));
+			saturateWithDefinitions(atomIds);
+			replaceDefiniens(defs, varId, atomIds);
 		}
 	}
 
@@ -10,11 +10,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.io.StreamDocumentSource;
@@ -35,8 +38,11 @@ import de.tudresden.inf.lat.jcel.owlapi.main.JcelReasonerFactory;
 import de.tudresden.inf.lat.uel.core.processor.BasicOntologyProvider;
 import de.tudresden.inf.lat.uel.core.processor.UelModel;
 import de.tudresden.inf.lat.uel.core.processor.UelOptions;
+import de.tudresden.inf.lat.uel.core.processor.UelOptions.AtomManagerType;
 import de.tudresden.inf.lat.uel.core.processor.UelOptions.UndefBehavior;
 import de.tudresden.inf.lat.uel.core.processor.UelOptions.Verbosity;
+import de.tudresden.inf.lat.uel.core.processor.UnificationAlgorithmFactory;
+import de.tudresden.inf.lat.uel.rule.ConstraintSelection;
 import de.tudresden.inf.lat.uel.type.api.AtomManager;
 import de.tudresden.inf.lat.uel.type.impl.Unifier;
 
@@ -53,6 +59,54 @@ public class ProcessorTest {
 	private static final OWLClass c = toOWLClass(conceptC);
 	private static final OWLClass d = toOWLClass(conceptD);
 
+	/**
+	 * Checks that all computed unifiers solve the goal 'C ≡ D'.
+	 */
+	private static void assertCorrectUnifiers(UelModel uelModel, OWLOntologyManager manager)
+			throws OWLOntologyCreationException {
+		// cannot use the input ontology here, as we may have introduced UNDEF
+		// variables
+		Set<OWLAxiom> background = uelModel.renderDefinitions();
+
+		for (Unifier unifier : uelModel.getUnifierList()) {
+			// for (OWLAxiom ax : uelModel.renderUnifier(unifier)) {
+			// System.out.println(ax);
+			// }
+			// System.out.println();
+			// System.out.println();
+			// System.out.println();
+			// System.out.println();
+			Set<OWLAxiom> s = uelModel.renderUnifier(unifier);
+			OWLOntology extendedOntology = clearManagerAndCreateOntology(manager, background, s);
+			// try {
+			// extendedOntology.saveOntology(new
+			// FunctionalSyntaxDocumentFormat(), System.out);
+			// } catch (Exception e) {
+			// e.printStackTrace();
+			// }
+			OWLReasoner reasoner = createReasoner(extendedOntology);
+			Node<OWLClass> node = reasoner.getEquivalentClasses(c);
+			OWLClass elem = d;
+			Assertions.assertTrue(node.contains(elem));
+			reasoner.dispose();
+		}
+	}
+
+	/**
+	 * Checks that changing the options does not change the set of computed
+	 * unifiers. The unifiers are compared in their rendered form, since the
+	 * atom ids may differ.
+	 */
+	private static void assertSameUnifiers(String ontologyName, Set<String> varNames, Set<String> undefVarNames,
+			String algorithmName, Consumer<UelOptions> changeOptions)
+			throws OWLOntologyCreationException, IOException, InterruptedException {
+		Set<Set<OWLAxiom>> expected = renderUnifiers(ontologyName, varNames, undefVarNames,
+				createOptions(algorithmName));
+		UelOptions options = createOptions(algorithmName);
+		changeOptions.accept(options);
+		Assertions.assertEquals(expected, renderUnifiers(ontologyName, varNames, undefVarNames, options));
+	}
+
 	static OWLOntology clearManagerAndCreateOntology(OWLOntologyManager manager, Set<? extends OWLAxiom> background,
 			Set<? extends OWLAxiom> unifier) throws OWLOntologyCreationException {
 		for (OWLOntology o : manager.getOntologies()) {
@@ -64,6 +118,35 @@ public class ProcessorTest {
 		return ontology;
 	}
 
+	private static UelModel computeAllUnifiers(OWLOntology owlOntology, Set<String> varNames,
+			Set<String> undefVarNames, UelOptions options) throws OWLOntologyCreationException, InterruptedException {
+		OWLOntologyManager manager = owlOntology.getOWLOntologyManager();
+		UelModel uelModel = new UelModel(new BasicOntologyProvider(manager), options);
+
+		OWLOntology positiveProblem = manager.createOntology();
+		manager.addAxiom(positiveProblem, manager.getOWLDataFactory().getOWLEquivalentClassesAxiom(c, d));
+		OWLOntology negativeProblem = manager.createOntology();
+		uelModel.setupGoal(Collections.singleton(owlOntology), positiveProblem, negativeProblem, null,
+				Stream.concat(varNames.stream(), undefVarNames.stream().map(s -> s + AtomManager.UNDEF_SUFFIX))
+						.map(ProcessorTest::toOWLClass).collect(Collectors.toSet()),
+				true);
+		uelModel.initializeUnificationAlgorithm();
+
+		// System.out.println(uelModel.getStringRenderer(null).renderGoal(uelModel.getGoal()));
+
+		while (uelModel.computeNextUnifier()) {
+		}
+		return uelModel;
+	}
+
+	private static UelOptions createOptions(String algorithmName) {
+		UelOptions options = new UelOptions();
+		options.undefBehavior = UndefBehavior.CONSTANTS;
+		options.unificationAlgorithmName = algorithmName;
+		options.verbosity = Verbosity.SILENT;
+		return options;
+	}
+
 	static OWLReasoner createReasoner(OWLOntology ontology) {
 		JcelReasonerFactory factory = new JcelReasonerFactory();
 		OWLReasoner reasoner = factory.createNonBufferingReasoner(ontology);
@@ -133,6 +216,17 @@ public class ProcessorTest {
 		return ontology;
 	}
 
+	private static Set<Set<OWLAxiom>> renderUnifiers(String ontologyName, Set<String> varNames,
+			Set<String> undefVarNames, UelOptions options)
+			throws OWLOntologyCreationException, IOException, InterruptedException {
+		UelModel uelModel = computeAllUnifiers(loadKRSSOntology(ontologyName), varNames, undefVarNames, options);
+		Set<Set<OWLAxiom>> unifiers = new HashSet<Set<OWLAxiom>>();
+		for (Unifier unifier : uelModel.getUnifierList()) {
+			unifiers.add(uelModel.renderUnifier(unifier));
+		}
+		return unifiers;
+	}
+
 	private static Set<String> parseSet(String input) {
 		Set<String> ret = new HashSet<String>(Arrays.asList(input.split(",")));
 		ret.remove("");
@@ -168,55 +262,81 @@ public class ProcessorTest {
 	public void tryOntology() throws OWLOntologyCreationException, IOException, InterruptedException {
 		OWLOntology owlOntology = loadKRSSOntology(ontologyName);
 		OWLOntologyManager manager = owlOntology.getOWLOntologyManager();
-		UelOptions options = new UelOptions();
-		options.undefBehavior = UndefBehavior.CONSTANTS;
-		options.unificationAlgorithmName = algorithmName;
-		options.verbosity = Verbosity.SILENT;
-		UelModel uelModel = new UelModel(new BasicOntologyProvider(manager), options);
+		UelModel uelModel = computeAllUnifiers(owlOntology, varNames, undefVarNames, createOptions(algorithmName));
 
-		OWLOntology positiveProblem = manager.createOntology();
-		manager.addAxiom(positiveProblem, manager.getOWLDataFactory().getOWLEquivalentClassesAxiom(c, d));
-		OWLOntology negativeProblem = manager.createOntology();
-		uelModel.setupGoal(Collections.singleton(owlOntology), positiveProblem, negativeProblem, null,
-				Stream.concat(varNames.stream(), undefVarNames.stream().map(s -> s + AtomManager.UNDEF_SUFFIX))
-						.map(ProcessorTest::toOWLClass).collect(Collectors.toSet()),
-				true);
-		uelModel.initializeUnificationAlgorithm();
+		assertCorrectUnifiers(uelModel, manager);
+		Assertions.assertEquals(numberOfUnifiers, (Integer) uelModel.getUnifierList().size());
+		System.out.println("Test OK " + getMemoryUsage() + ".");
+	}
 
-		// System.out.println(uelModel.getStringRenderer(null).renderGoal(uelModel.getGoal()));
+	@ParameterizedTest
+	@MethodSource("data")
+	public void testCompactAtoms(String ontologyName, Set<String> varNames, Set<String> undefVarNames,
+			Integer numberOfUnifiers, String algorithmName)
+			throws OWLOntologyCreationException, IOException, InterruptedException {
+		assertSameUnifiers(ontologyName, varNames, undefVarNames, algorithmName,
+				options -> options.compactAtoms = true);
+	}
 
-		while (uelModel.computeNextUnifier()) {
+	@ParameterizedTest
+	@MethodSource("data")
+	public void testConstraintSelection(String ontologyName, Set<String> varNames, Set<String> undefVarNames,
+			Integer numberOfUnifiers, String algorithmName)
+			throws OWLOntologyCreationException, IOException, InterruptedException {
+		for (ConstraintSelection selection : ConstraintSelection.values()) {
+			if (algorithmName.equals(UnificationAlgorithmFactory.RULE_BASED_ALGORITHM)) {
+				// the strategy can change which of several equivalent or
+				// non-minimal unifiers are found, but not whether there is one
+				OWLOntology owlOntology = loadKRSSOntology(ontologyName);
+				UelOptions options = createOptions(algorithmName);
+				options.constraintSelection = selection;
+				UelModel uelModel = computeAllUnifiers(owlOntology, varNames, undefVarNames, options);
+				assertCorrectUnifiers(uelModel, owlOntology.getOWLOntologyManager());
+				Assertions.assertEquals(numberOfUnifiers == 0, uelModel.getUnifierList().isEmpty());
+			} else {
+				assertSameUnifiers(ontologyName, varNames, undefVarNames, algorithmName,
+						options -> options.constraintSelection = selection);
+			}
 		}
+	}
 
-		// cannot use 'owlOntology' here, as we may have introduced UNDEF
-		// variables
-		Set<OWLAxiom> background = uelModel.renderDefinitions();
+	@ParameterizedTest
+	@MethodSource("data")
+	public void testDecomposeGoal(String ontologyName, Set<String> varNames, Set<String> undefVarNames,
+			Integer numberOfUnifiers, String algorithmName)
+			throws OWLOntologyCreationException, IOException, InterruptedException {
+		assertSameUnifiers(ontologyName, varNames, undefVarNames, algorithmName,
+				options -> options.decomposeGoal = true);
+	}
 
-		for (Unifier unifier : uelModel.getUnifierList()) {
-			// for (OWLAxiom ax : uelModel.renderUnifier(unifier)) {
-			// System.out.println(ax);
-			// }
-			// System.out.println();
-			// System.out.println();
-			// System.out.println();
-			// System.out.println();
-			Set<OWLAxiom> s = uelModel.renderUnifier(unifier);
-			OWLOntology extendedOntology = clearManagerAndCreateOntology(manager, background, s);
-			// try {
-			// extendedOntology.saveOntology(new
-			// FunctionalSyntaxDocumentFormat(), System.out);
-			// } catch (Exception e) {
-			// e.printStackTrace();
-			// }
-			OWLReasoner reasoner = createReasoner(extendedOntology);
-			Node<OWLClass> node = reasoner.getEquivalentClasses(c);
-			OWLClass elem = d;
-			Assertions.assertTrue(node.contains(elem));
-			reasoner.dispose();
-		}
+	@ParameterizedTest
+	@MethodSource("data")
+	public void testDenseAtomManager(String ontologyName, Set<String> varNames, Set<String> undefVarNames,
+			Integer numberOfUnifiers, String algorithmName)
+			throws OWLOntologyCreationException, IOException, InterruptedException {
+		assertSameUnifiers(ontologyName, varNames, undefVarNames, algorithmName,
+				options -> options.atomManagerType = AtomManagerType.DENSE);
+	}
 
-		Assertions.assertEquals(numberOfUnifiers, (Integer) uelModel.getUnifierList().size());
-		System.out.println("Test OK " + getMemoryUsage() + ".");
+	@ParameterizedTest
+	@MethodSource("data")
+	public void testParallelComponents(String ontologyName, Set<String> varNames, Set<String> undefVarNames,
+			Integer numberOfUnifiers, String algorithmName)
+			throws OWLOntologyCreationException, IOException, InterruptedException {
+		assertSameUnifiers(ontologyName, varNames, undefVarNames, algorithmName, options -> {
+			options.decomposeGoal = true;
+			options.parallelComponents = true;
+		});
+	}
+
+	@ParameterizedTest
+	@MethodSource("data")
+	public void testParallelSearch(String ontologyName, Set<String> varNames, Set<String> undefVarNames,
+			Integer numberOfUnifiers, String algorithmName)
+			throws OWLOntologyCreationException, IOException, InterruptedException {
+		// the unifiers are found in a different order
+		assertSameUnifiers(ontologyName, varNames, undefVarNames, algorithmName,
+				options -> options.parallelSearch = true);
 	}
 
 	private static void tick(Stopwatch timer) {
@@ -1,8 +1,6 @@
 package de.tudresden.inf.lat.uel.rule;
 
 import java.util.*;
-import java.util.Map.Entry;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import de.tudresden.inf.lat.uel.type.api.Atom;
 
@@ -10,17 +8,33 @@ import de.tudresden.inf.lat.uel.type.api.Atom;
  * An assignment of sets of non-variable atoms to variables. Such an assignment
  * should always be acyclic.
  *
+ * If the assignment is constructed with the list of all non-variable atoms,
+ * the subsumers of each variable are stored as a bitset over the positions in
+ * this list, and the variables are looked up by their atom ids. Otherwise,
+ * hash sets are used, which are looked up in a hash map. Moreover, a
+ * topological order of the variables is then maintained to speed up the cycle
+ * checks.
+ *
  * @author Stefan Borgwardt
  */
 public class Assignment {
 
-	private final Map<Atom, Set<Atom>> subs = new HashMap<>();
+	private AtomBitSet[] dense = null;
+	private AtomBitSet.Index index = null;
+	// the variables that have been assigned a set of subsumers, in the order
+	// in which they were first added
+	private final List<Atom> keys = new ArrayList<>();
 	private List<Atom> nonVariableAtoms;
+	private DependencyOrder order = null;
+	private Map<Atom, Set<Atom>> sparse = null;
+	private Trail trail = null;
 
 	/**
 	 * Create an empty assignment.
 	 */
-	Assignment() {}
+	Assignment() {
+		this.sparse = new HashMap<>();
+	}
 
 	/**
 	 * Create an assignment with a list of non-variable atoms.
@@ -29,6 +43,9 @@ public class Assignment {
 	 */
 	Assignment(List<Atom> nonVariableAtoms) {
 		this.nonVariableAtoms = nonVariableAtoms;
+		this.index = new AtomBitSet.Index(nonVariableAtoms);
+		this.dense = new AtomBitSet[16];
+		this.order = new DependencyOrder(this);
 	}
 
 	/**
@@ -38,8 +55,15 @@ public class Assignment {
 	 *            the other assignment
 	 */
 	Assignment(Assignment other) {
-		addAll(other);
 		this.nonVariableAtoms = other.getNonVariableAtoms();
+		if (other.index != null) {
+			this.index = other.index;
+			this.dense = new AtomBitSet[other.dense.length];
+			this.order = new DependencyOrder(this);
+		} else {
+			this.sparse = new HashMap<>();
+		}
+		addAll(other);
 	}
 
 	public List<Atom> getNonVariableAtoms() {
@@ -60,8 +84,16 @@ public class Assignment {
 		if (at == null) {
 			throw new IllegalArgumentException();
 		}
-		Set<Atom> flatAtoms = getOrInit(var);
-		return flatAtoms.add(at);
+		if (!getOrInit(var).add(at)) {
+			return false;
+		}
+		if (order != null) {
+			order.added(var, at);
+		}
+		if (trail != null) {
+			trail.assigned(var, at);
+		}
+		return true;
 	}
 
 	/**
@@ -77,7 +109,30 @@ public class Assignment {
 		if (at == null)
 			return false;
 		Set<Atom> flatAtoms = getOrInit(var);
-		return flatAtoms.addAll(at);
+		if (index == null) {
+			if (trail == null) {
+				return flatAtoms.addAll(at);
+			}
+			// record each new atom separately
+			boolean ret = false;
+			for (Atom a : at) {
+				if (add(var, a))
+					ret = true;
+			}
+			return ret;
+		}
+		// the trail records all new atoms at once
+		AtomBitSet added = ((AtomBitSet) flatAtoms).addNew(at);
+		if (added.isEmpty()) {
+			return false;
+		}
+		for (Atom a : added) {
+			order.added(var, a);
+		}
+		if (trail != null) {
+			trail.assignedAll(var, added);
+		}
+		return true;
 	}
 
 	/**
@@ -91,13 +146,28 @@ public class Assignment {
 		if (other == null)
 			return false;
 		boolean ret = false;
-		for (Entry<Atom, Set<Atom>> entry : other.subs.entrySet()) {
-			if (addAll(entry.getKey(), entry.getValue()))
+		for (Atom var : other.keys) {
+			if (addAll(var, other.lookup(var)))
 				ret = true;
 		}
 		return ret;
 	}
 
+	/**
+	 * Remove an atom from the assignment of a variable. This change is not
+	 * recorded in the trail.
+	 *
+	 * @param var
+	 *            the variable
+	 * @param at
+	 *            the atom to be removed
+	 * @return true iff the assignment was changed as a result of this operation
+	 */
+	boolean remove(Atom var, Atom at) {
+		Set<Atom> flatAtoms = lookup(var);
+		return (flatAtoms != null) && flatAtoms.remove(at);
+	}
+
 	/**
 	 * Remove a set of atoms from the assignment of a variable.
 	 *
@@ -110,9 +180,10 @@ public class Assignment {
 	boolean removeAll(Atom var, Set<Atom> at) {
 		if (at == null)
 			return false;
-		if (subs.get(var) == null)
+		Set<Atom> flatAtoms = lookup(var);
+		if (flatAtoms == null)
 			return false;
-		return subs.get(var).removeAll(at);
+		return flatAtoms.removeAll(at);
 	}
 
 	/**
@@ -126,22 +197,40 @@ public class Assignment {
 		if (other == null)
 			return false;
 		boolean ret = false;
-		for (Entry<Atom, Set<Atom>> entry : other.subs.entrySet()) {
-			if (removeAll(entry.getKey(), entry.getValue()))
+		for (Atom var : other.keys) {
+			if (removeAll(var, other.lookup(var)))
 				ret = true;
 		}
 		return ret;
 	}
 
+	/**
+	 * Check whether a non-variable atom is assigned to a variable.
+	 *
+	 * @param var
+	 *            the variable
+	 * @param at
+	 *            the non-variable atom
+	 * @return true iff 'at' is a subsumer of 'var' according to this assignment
+	 */
+	public boolean contains(Atom var, Atom at) {
+		Set<Atom> flatAtoms = lookup(var);
+		return (flatAtoms != null) && flatAtoms.contains(at);
+	}
+
 	/**
 	 * Retrieve the subsumers of a given variable according to this assignment.
 	 *
 	 * @param var
 	 *            the variable
-	 * @return the set of assigned subsumers
+	 * @return the set of assigned subsumers; this set must not be modified
 	 */
 	public Set<Atom> getSubsumers(Atom var) {
-		return getOrInit(var);
+		Set<Atom> flatAtoms = lookup(var);
+		if (flatAtoms == null) {
+			return Collections.emptySet();
+		}
+		return flatAtoms;
 	}
 
 	/**
@@ -152,27 +241,60 @@ public class Assignment {
 	 * @return a set containing the indices of all variables involved in this
 	 *         assignment
 	 */
-	Set<Atom> getKeys() {
-		return subs.keySet();
+	List<Atom> getKeys() {
+		return Collections.unmodifiableList(keys);
 	}
 
 	private Set<Atom> getOrInit(Atom var) {
-		Set<Atom> flatAtoms = subs.get(var);
+		Set<Atom> flatAtoms = lookup(var);
 		if (flatAtoms == null) {
-			flatAtoms = new HashSet<>();
-			subs.put(var, flatAtoms);
+			if (index == null) {
+				flatAtoms = new HashSet<>();
+				sparse.put(var, flatAtoms);
+			} else {
+				AtomBitSet bits = new AtomBitSet(index);
+				int varId = var.getAtomId();
+				if (varId >= dense.length) {
+					dense = Arrays.copyOf(dense, Math.max(varId + 1, 2 * dense.length));
+				}
+				dense[varId] = bits;
+				flatAtoms = bits;
+			}
+			keys.add(var);
 		}
 		return flatAtoms;
 	}
 
+	private Set<Atom> lookup(Atom var) {
+		if (index == null) {
+			return sparse.get(var);
+		}
+		int varId = var.getAtomId();
+		if ((varId < 0) || (varId >= dense.length)) {
+			return null;
+		}
+		return dense[varId];
+	}
+
+	/**
+	 * Record all subsequent additions to this assignment in a trail, so that
+	 * they can be undone later.
+	 *
+	 * @param trail
+	 *            the trail, or 'null' if changes should not be recorded
+	 */
+	void setTrail(Trail trail) {
+		this.trail = trail;
+	}
+
 	/**
 	 * Check whether this assignment is empty.
 	 *
 	 * @return true iff no variable is assigned any subsumer
 	 */
 	boolean isEmpty() {
-		for (Set<Atom> subsumers : subs.values()) {
-			if (!subsumers.isEmpty())
+		for (Atom var : keys) {
+			if (!lookup(var).isEmpty())
 				return false;
 		}
 		return true;
@@ -181,8 +303,9 @@ public class Assignment {
 	/**
 	 * Checks if there is a dependency of 'a' on 'b', i.e., whether 'b' is
 	 * reachable from 'a' in the graph representation of the current assignment.
-	 * It is important that the current assignment is acyclic; otherwise, this
-	 * implementation might not terminate.
+	 * If no topological order is maintained, it is important that the current
+	 * assignment is acyclic; otherwise, this implementation might not
+	 * terminate.
 	 *
 	 * @param a
 	 *            the start variable
@@ -191,6 +314,9 @@ public class Assignment {
 	 * @return true iff 'a' depends on 'b'
 	 */
 	boolean dependsOn(Atom a, Atom b) {
+		if (order != null) {
+			return order.dependsOn(a, b);
+		}
 		for (Atom at : getSubsumers(a)) {
 			if (!at.isGround()) {
 				Atom nextVar = at.getConceptName();
@@ -245,10 +371,10 @@ public class Assignment {
 	public String toString() {
 		StringBuffer buf = new StringBuffer();
 		buf.append("[");
-		for (Entry<Atom, Set<Atom>> e : subs.entrySet()) {
-			buf.append(e.getKey());
+		for (Atom var : keys) {
+			buf.append(var);
 			buf.append("=");
-			buf.append(e.getValue());
+			buf.append(lookup(var));
 			buf.append(";");
 		}
 		buf.append("]");
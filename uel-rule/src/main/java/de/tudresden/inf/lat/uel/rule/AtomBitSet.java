@@ -0,0 +1,297 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import de.tudresden.inf.lat.uel.type.api.Atom;
+
+/**
+ * A set of non-variable atoms that is represented by a bitset over the
+ * positions of the atoms in a fixed list. If both sets of an operation use the
+ * same list, union, difference and containment are computed word by word.
+ *
+ * @author Stefan Borgwardt
+ */
+final class AtomBitSet extends AbstractSet<Atom> {
+
+	/**
+	 * Assigns consecutive positions to a fixed list of atoms.
+	 */
+	static final class Index {
+
+		private final List<Atom> atoms;
+		private final int[] positions;
+
+		/**
+		 * Construct a new index.
+		 *
+		 * @param atoms
+		 *            the list of atoms; it must not be changed afterwards
+		 */
+		Index(List<Atom> atoms) {
+			this.atoms = atoms;
+			int maxId = 0;
+			for (Atom at : atoms) {
+				maxId = Math.max(maxId, at.getAtomId());
+			}
+			positions = new int[maxId + 1];
+			Arrays.fill(positions, -1);
+			for (int i = 0; i < atoms.size(); i++) {
+				positions[atoms.get(i).getAtomId()] = i;
+			}
+		}
+
+		Atom get(int position) {
+			return atoms.get(position);
+		}
+
+		/**
+		 * Retrieve the position of an atom.
+		 *
+		 * @param at
+		 *            the atom
+		 * @return the position of the atom in the list, or -1 if it is not
+		 *         contained in the list
+		 */
+		int indexOf(Atom at) {
+			int atomId = at.getAtomId();
+			if ((atomId < 0) || (atomId >= positions.length)) {
+				return -1;
+			}
+			return positions[atomId];
+		}
+
+		int size() {
+			return atoms.size();
+		}
+
+	}
+
+	private final Index index;
+	private int size = 0;
+	private final long[] words;
+
+	/**
+	 * Construct an empty set.
+	 *
+	 * @param index
+	 *            the positions of all atoms that can be contained in this set
+	 */
+	AtomBitSet(Index index) {
+		this.index = index;
+		this.words = new long[(index.size() + 63) >>> 6];
+	}
+
+	/**
+	 * Construct a copy of another set.
+	 *
+	 * @param other
+	 *            the other set
+	 */
+	AtomBitSet(AtomBitSet other) {
+		this.index = other.index;
+		this.words = other.words.clone();
+		this.size = other.size;
+	}
+
+	@Override
+	public boolean add(Atom at) {
+		int pos = index.indexOf(at);
+		if (pos < 0) {
+			throw new IllegalArgumentException("Atom is not a non-variable atom of the goal: " + at);
+		}
+		long mask = 1L << pos;
+		long word = words[pos >>> 6];
+		if ((word & mask) != 0) {
+			return false;
+		}
+		words[pos >>> 6] = word | mask;
+		size++;
+		return true;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends Atom> c) {
+		if (!sameIndex(c)) {
+			return super.addAll(c);
+		}
+		long[] otherWords = ((AtomBitSet) c).words;
+		int oldSize = size;
+		for (int i = 0; i < words.length; i++) {
+			long word = words[i] | otherWords[i];
+			size += Long.bitCount(word) - Long.bitCount(words[i]);
+			words[i] = word;
+		}
+		return size != oldSize;
+	}
+
+	/**
+	 * Add all atoms of a collection to this set.
+	 *
+	 * @param c
+	 *            the atoms to be added
+	 * @return a new set containing exactly the atoms that were not contained
+	 *         in this set before
+	 */
+	AtomBitSet addNew(Collection<? extends Atom> c) {
+		AtomBitSet added = new AtomBitSet(index);
+		if (!sameIndex(c)) {
+			for (Atom at : c) {
+				if (add(at)) {
+					added.add(at);
+				}
+			}
+			return added;
+		}
+		long[] otherWords = ((AtomBitSet) c).words;
+		for (int i = 0; i < words.length; i++) {
+			long word = otherWords[i] & ~words[i];
+			added.words[i] = word;
+			added.size += Long.bitCount(word);
+			words[i] |= word;
+		}
+		size += added.size;
+		return added;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(words, 0L);
+		size = 0;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof Atom)) {
+			return false;
+		}
+		int pos = index.indexOf((Atom) o);
+		return (pos >= 0) && ((words[pos >>> 6] & (1L << pos)) != 0);
+	}
+
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		if (!sameIndex(c)) {
+			return super.containsAll(c);
+		}
+		long[] otherWords = ((AtomBitSet) c).words;
+		for (int i = 0; i < words.length; i++) {
+			if ((otherWords[i] & ~words[i]) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public Iterator<Atom> iterator() {
+		return new Iterator<Atom>() {
+
+			private int last = -1;
+			private int next = nextSetBit(0);
+
+			@Override
+			public boolean hasNext() {
+				return next >= 0;
+			}
+
+			@Override
+			public Atom next() {
+				if (next < 0) {
+					throw new NoSuchElementException();
+				}
+				last = next;
+				next = nextSetBit(next + 1);
+				return index.get(last);
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0) {
+					throw new IllegalStateException();
+				}
+				clearBit(last);
+				last = -1;
+			}
+
+		};
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (!(o instanceof Atom)) {
+			return false;
+		}
+		int pos = index.indexOf((Atom) o);
+		return (pos >= 0) && clearBit(pos);
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		if (!sameIndex(c)) {
+			boolean changed = false;
+			for (Object o : c) {
+				if (remove(o)) {
+					changed = true;
+				}
+			}
+			return changed;
+		}
+		long[] otherWords = ((AtomBitSet) c).words;
+		int oldSize = size;
+		for (int i = 0; i < words.length; i++) {
+			long word = words[i] & ~otherWords[i];
+			size -= Long.bitCount(words[i]) - Long.bitCount(word);
+			words[i] = word;
+		}
+		return size != oldSize;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	private boolean clearBit(int pos) {
+		long mask = 1L << pos;
+		long word = words[pos >>> 6];
+		if ((word & mask) == 0) {
+			return false;
+		}
+		words[pos >>> 6] = word & ~mask;
+		size--;
+		return true;
+	}
+
+	private int nextSetBit(int from) {
+		int i = from >>> 6;
+		if (i >= words.length) {
+			return -1;
+		}
+		long word = words[i] & (-1L << from);
+		while (true) {
+			if (word != 0) {
+				return (i << 6) + Long.numberOfTrailingZeros(word);
+			}
+			i++;
+			if (i == words.length) {
+				return -1;
+			}
+			word = words[i];
+		}
+	}
+
+	private boolean sameIndex(Collection<?> c) {
+		return (c instanceof AtomBitSet) && (((AtomBitSet) c).index == index);
+	}
+
+}
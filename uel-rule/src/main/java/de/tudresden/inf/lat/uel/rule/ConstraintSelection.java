@@ -0,0 +1,31 @@
+package de.tudresden.inf.lat.uel.rule;
+
+/**
+ * Possible strategies of the rule-based algorithm for choosing the next
+ * unsolved subsumption or dissubsumption to which a nondeterministic rule is
+ * applied. The choice does not affect whether a unifier is found, but may
+ * considerably change the size of the search tree. It can also change which
+ * unifiers are found: a constraint that is already solved when it is selected
+ * does not lead to another branch of the search, so the strategies can differ
+ * in the non-minimal unifiers and in the representation of equivalent
+ * unifiers.
+ *
+ * @author Stefan Borgwardt
+ */
+public enum ConstraintSelection {
+	/**
+	 * Choose the constraint that has been unsolved for the longest time.
+	 */
+	FIFO,
+	/**
+	 * Choose an unsolved dissubsumption if there is one, and otherwise an
+	 * unsolved subsumption; each in FIFO order.
+	 */
+	DISSUBSUMPTIONS_FIRST,
+	/**
+	 * Choose the constraint with the fewest possible applications of
+	 * nondeterministic rules, in order to detect failures as early as
+	 * possible.
+	 */
+	FAIL_FIRST
+}
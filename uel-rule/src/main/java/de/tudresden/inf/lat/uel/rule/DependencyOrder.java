@@ -0,0 +1,202 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import de.tudresden.inf.lat.uel.type.api.Atom;
+
+/**
+ * A topological order of the variables of an acyclic assignment w.r.t. their
+ * dependencies, i.e., a variable 'x' depends on 'y' if an existential
+ * restriction with filler 'y' is assigned to 'x'. The order is updated
+ * whenever a new dependency is added, by reordering only the variables whose
+ * positions lie between the two variables of the new dependency (algorithm of
+ * Marchetti-Spaccamela, Nanni and Rohnert). Removing subsumers never
+ * invalidates the order, and hence backtracking needs no update.
+ *
+ * Since a variable can only depend on variables that come after it in the
+ * order, most dependency checks can be answered by comparing the positions;
+ * otherwise, the search is restricted to the variables between the two
+ * positions.
+ *
+ * If the assignment nevertheless becomes cyclic, the order is abandoned and
+ * all subsequent checks perform an unrestricted search.
+ *
+ * @author Stefan Borgwardt
+ */
+final class DependencyOrder {
+
+	private final Assignment assignment;
+	private boolean consistent = true;
+	private int numVariables = 0;
+	private int[] positions = new int[16];
+	private int stamp = 0;
+	private Atom[] variables = new Atom[16];
+	private int[] visited = new int[16];
+
+	/**
+	 * Construct an empty order.
+	 *
+	 * @param assignment
+	 *            the assignment whose dependencies are ordered
+	 */
+	DependencyOrder(Assignment assignment) {
+		this.assignment = assignment;
+	}
+
+	/**
+	 * Update the order after a new subsumer has been assigned to a variable.
+	 *
+	 * @param var
+	 *            the variable
+	 * @param at
+	 *            the new subsumer
+	 */
+	void added(Atom var, Atom at) {
+		if (at.isGround()) {
+			return;
+		}
+		Atom succ = at.getConceptName();
+		int lower = register(succ);
+		int upper = register(var);
+		if (!consistent || (upper < lower)) {
+			return;
+		}
+
+		// collect the variables between both positions that depend on 'succ'
+		List<Atom> reached = new ArrayList<Atom>();
+		if ((upper == lower) || search(succ, var, upper, reached)) {
+			// the assignment is now cyclic
+			consistent = false;
+			return;
+		}
+
+		// move them behind all other variables in this range, in particular
+		// behind 'var'
+		int pos = lower;
+		for (int i = lower; i <= upper; i++) {
+			Atom v = variables[i];
+			if (visited[v.getAtomId()] != stamp) {
+				place(v, pos++);
+			}
+		}
+		for (Atom v : reached) {
+			place(v, pos++);
+		}
+	}
+
+	/**
+	 * Checks if 'b' is reachable from 'a' in the graph representation of the
+	 * assignment.
+	 *
+	 * @param a
+	 *            the start variable
+	 * @param b
+	 *            the goal variable
+	 * @return true iff 'a' depends on 'b'
+	 */
+	boolean dependsOn(Atom a, Atom b) {
+		int lower = getPosition(a);
+		int upper = getPosition(b);
+		if ((lower < 0) || (upper < 0)) {
+			// variables without a position have no dependencies
+			return false;
+		}
+		if (!consistent) {
+			return search(a, b, Integer.MAX_VALUE, null);
+		}
+		if (upper <= lower) {
+			return false;
+		}
+		return search(a, b, upper, null);
+	}
+
+	private int getPosition(Atom var) {
+		int varId = var.getAtomId();
+		if (varId >= positions.length) {
+			return -1;
+		}
+		return positions[varId] - 1;
+	}
+
+	private void place(Atom var, int pos) {
+		variables[pos] = var;
+		positions[var.getAtomId()] = pos + 1;
+	}
+
+	private int register(Atom var) {
+		int pos = getPosition(var);
+		if (pos >= 0) {
+			return pos;
+		}
+		int varId = var.getAtomId();
+		if (varId >= positions.length) {
+			int length = Math.max(varId + 1, 2 * positions.length);
+			positions = Arrays.copyOf(positions, length);
+			visited = Arrays.copyOf(visited, length);
+		}
+		if (numVariables == variables.length) {
+			variables = Arrays.copyOf(variables, 2 * numVariables);
+		}
+		place(var, numVariables);
+		return numVariables++;
+	}
+
+	/**
+	 * Search for the variables that can be reached from a start variable
+	 * without leaving the given range of positions.
+	 *
+	 * @param start
+	 *            the start variable
+	 * @param target
+	 *            the variable to look for
+	 * @param bound
+	 *            the maximal position of the visited variables
+	 * @param reached
+	 *            collects the visited variables in the order of their
+	 *            positions, or 'null'
+	 * @return true iff 'target' is reachable from 'start'
+	 */
+	private boolean search(Atom start, Atom target, int bound, List<Atom> reached) {
+		stamp++;
+		boolean found = false;
+		Deque<Atom> toVisit = new ArrayDeque<Atom>();
+		visit(start, toVisit);
+		while (!toVisit.isEmpty()) {
+			Atom var = toVisit.pop();
+			if (reached != null) {
+				reached.add(var);
+			}
+			for (Atom at : assignment.getSubsumers(var)) {
+				if (!at.isGround()) {
+					Atom succ = at.getConceptName();
+					int pos = getPosition(succ);
+					if (succ.equals(target)) {
+						found = true;
+						if (reached == null) {
+							return true;
+						}
+					} else if ((pos >= 0) && (pos <= bound)) {
+						visit(succ, toVisit);
+					}
+				}
+			}
+		}
+		if (reached != null) {
+			reached.sort((v, w) -> Integer.compare(getPosition(v), getPosition(w)));
+		}
+		return found;
+	}
+
+	private void visit(Atom var, Deque<Atom> toVisit) {
+		int varId = var.getAtomId();
+		if (visited[varId] != stamp) {
+			visited[varId] = stamp;
+			toVisit.push(var);
+		}
+	}
+
+}
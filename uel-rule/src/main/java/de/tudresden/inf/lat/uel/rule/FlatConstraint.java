@@ -10,13 +10,66 @@ import de.tudresden.inf.lat.uel.type.api.Atom;
  * This is a class representing a subsumption or dissubsumption between a conjunction of flat
  * atoms (body) and a flat atom or a list of flat atoms (head).
  * 
+ * Since body and head are conjunctions, neither the order of their atoms nor
+ * duplicate atoms are relevant. For equality checks and hashing, both are
+ * therefore represented by the sorted arrays of their distinct atom ids.
+ * 
  * @author Stefan Borgwardt
  */
 public class FlatConstraint {
 
+	private static int computeHashCode(int[] bodyIds, int[] headIds, boolean isDissubsumption) {
+		int hash = Arrays.hashCode(bodyIds) * 31 + Arrays.hashCode(headIds);
+		return isDissubsumption ? ~hash : hash;
+	}
+
+	/**
+	 * Retrieve the atom id of an atom. Atoms that were not created by an atom
+	 * manager do not carry an id and would all be considered equal.
+	 * 
+	 * @param atom
+	 *            the atom
+	 * @return the atom id
+	 * @throws IllegalArgumentException
+	 *             if the atom does not carry an atom id
+	 */
+	private static int toId(Atom atom) {
+		int atomId = atom.getAtomId();
+		if (atomId <= 0) {
+			throw new IllegalArgumentException("Atom without an atom id: " + atom);
+		}
+		return atomId;
+	}
+
+	/**
+	 * Compute the canonical representation of a conjunction of atoms.
+	 * 
+	 * @param atoms
+	 *            the atoms of the conjunction
+	 * @return the sorted array of the distinct ids of the atoms
+	 * @throws IllegalArgumentException
+	 *             if one of the atoms does not carry an atom id
+	 */
+	private static int[] toIds(List<Atom> atoms) {
+		int[] ids = new int[atoms.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = toId(atoms.get(i));
+		}
+		Arrays.sort(ids);
+		int size = 0;
+		for (int i = 0; i < ids.length; i++) {
+			if ((size == 0) || (ids[size - 1] != ids[i])) {
+				ids[size++] = ids[i];
+			}
+		}
+		return (size == ids.length) ? ids : Arrays.copyOf(ids, size);
+	}
+
 	private final List<Atom> body;
+	private final int[] bodyIds;
 	private final Atom head;
 	private final List<Atom> dissubsumptionHead;
+	private final int[] headIds;
 	private final boolean isDissubsumption;
 	private boolean solved;
 	private final int hashCode;
@@ -46,7 +99,9 @@ public class FlatConstraint {
 			this.isDissubsumption = true;
 		}
 		this.solved = false;
-		this.hashCode = body.hashCode() * 31 + head.hashCode();
+		this.bodyIds = toIds(this.body);
+		this.headIds = isDissubsumption ? toIds(dissubsumptionHead) : new int[] { toId(this.head) };
+		this.hashCode = computeHashCode(bodyIds, headIds, isDissubsumption);
 	}
 
 	/**
@@ -71,7 +126,9 @@ public class FlatConstraint {
 			throw new IllegalArgumentException("This is a subsumption.");
 		}
 		this.solved = false;
-		this.hashCode = body.hashCode() * 31 + head.hashCode();
+		this.bodyIds = toIds(this.body);
+		this.headIds = toIds(head);
+		this.hashCode = computeHashCode(bodyIds, headIds, isDissubsumption);
 	}
 
 	/**
@@ -99,7 +156,9 @@ public class FlatConstraint {
 			this.isDissubsumption = true;
 		}
 		this.solved = false;
-		this.hashCode = body.hashCode() * 31 + head.hashCode();
+		this.bodyIds = toIds(this.body);
+		this.headIds = isDissubsumption ? toIds(dissubsumptionHead) : new int[] { toId(this.head) };
+		this.hashCode = computeHashCode(bodyIds, headIds, isDissubsumption);
 	}
 
 	/**
@@ -124,7 +183,27 @@ public class FlatConstraint {
 			throw new IllegalArgumentException("This is a subsumption.");
 		}
 		this.solved = false;
-		this.hashCode = body.hashCode() * 31 + head.hashCode();
+		this.bodyIds = toIds(this.body);
+		this.headIds = toIds(head);
+		this.hashCode = computeHashCode(bodyIds, headIds, isDissubsumption);
+	}
+
+	/**
+	 * Create a copy of another subsumption or dissubsumption, including its
+	 * 'solved' status.
+	 *
+	 * @param other
+	 *            the other subsumption or dissubsumption
+	 */
+	FlatConstraint(FlatConstraint other) {
+		this.body = other.body;
+		this.bodyIds = other.bodyIds;
+		this.head = other.head;
+		this.dissubsumptionHead = other.dissubsumptionHead;
+		this.headIds = other.headIds;
+		this.isDissubsumption = other.isDissubsumption;
+		this.solved = other.solved;
+		this.hashCode = other.hashCode;
 	}
 
 	/**
@@ -136,6 +215,28 @@ public class FlatConstraint {
 		return body;
 	}
 
+	/**
+	 * Retrieve the canonical representation of the body of this subsumption or
+	 * dissubsumption.
+	 * 
+	 * @return the sorted array of the distinct atom ids of the body; must not
+	 *         be modified
+	 */
+	int[] getBodyIds() {
+		return bodyIds;
+	}
+
+	/**
+	 * Retrieve the canonical representation of the head of this subsumption or
+	 * dissubsumption.
+	 * 
+	 * @return the sorted array of the distinct atom ids of the head; must not
+	 *         be modified
+	 */
+	int[] getHeadIds() {
+		return headIds;
+	}
+
 	/**
 	 * Retrieve the head of this subsumption.
 	 * 
@@ -226,24 +327,9 @@ public class FlatConstraint {
 			return false;
 
 		FlatConstraint other = (FlatConstraint) obj;
-
-
-		if (!body.containsAll(other.body))
+		if ((other.hashCode != hashCode) || (other.isDissubsumption != isDissubsumption))
 			return false;
-		if (!other.body.containsAll(body))
-			return false;
-
-		if (isDissubsumption && other.isDissubsumption) {
-			if (!dissubsumptionHead.containsAll(other.dissubsumptionHead))
-				return false;
-			if (!other.dissubsumptionHead.containsAll(dissubsumptionHead))
-				return false;
-		}
-		else if (!isDissubsumption && !other.isDissubsumption){
-			if (!head.equals(other.head))
-				return false;
-		}
-		return isDissubsumption == other.isDissubsumption;
+		return Arrays.equals(bodyIds, other.bodyIds) && Arrays.equals(headIds, other.headIds);
 	}
 
 	@Override
@@ -0,0 +1,114 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.util.Arrays;
+
+/**
+ * Stores the fingerprints of states of the rule-based search from which no
+ * unifier can be reached. The fingerprints are kept in an open-addressing hash
+ * table of bounded capacity; when it is full, all stored nogoods are
+ * forgotten.
+ *
+ * @author Stefan Borgwardt
+ */
+final class NogoodStore {
+
+	private final int capacity;
+	private long[] highs = new long[64];
+	private long[] lows = new long[64];
+	private int size = 0;
+	private boolean[] used = new boolean[64];
+
+	/**
+	 * Construct an empty store.
+	 *
+	 * @param capacity
+	 *            the maximal number of stored nogoods
+	 */
+	NogoodStore(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Add the fingerprint of a state without unifiers.
+	 *
+	 * @param high
+	 *            the upper 64 bits of the fingerprint
+	 * @param low
+	 *            the lower 64 bits of the fingerprint
+	 */
+	void add(long high, long low) {
+		if (size >= capacity) {
+			clear();
+		}
+		if (2 * (size + 1) > used.length) {
+			grow();
+		}
+		if (insert(high, low)) {
+			size++;
+		}
+	}
+
+	/**
+	 * Remove all stored nogoods.
+	 */
+	void clear() {
+		Arrays.fill(used, false);
+		size = 0;
+	}
+
+	/**
+	 * Check whether a state is known to have no unifiers.
+	 *
+	 * @param high
+	 *            the upper 64 bits of the fingerprint of the state
+	 * @param low
+	 *            the lower 64 bits of the fingerprint of the state
+	 * @return true iff the fingerprint has been stored
+	 */
+	boolean contains(long high, long low) {
+		int mask = used.length - 1;
+		for (int i = (int) low & mask; used[i]; i = (i + 1) & mask) {
+			if ((highs[i] == high) && (lows[i] == low)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the number of stored nogoods
+	 */
+	int size() {
+		return size;
+	}
+
+	private void grow() {
+		long[] oldHighs = highs;
+		long[] oldLows = lows;
+		boolean[] oldUsed = used;
+		highs = new long[2 * oldUsed.length];
+		lows = new long[2 * oldUsed.length];
+		used = new boolean[2 * oldUsed.length];
+		for (int i = 0; i < oldUsed.length; i++) {
+			if (oldUsed[i]) {
+				insert(oldHighs[i], oldLows[i]);
+			}
+		}
+	}
+
+	private boolean insert(long high, long low) {
+		int mask = used.length - 1;
+		int i = (int) low & mask;
+		while (used[i]) {
+			if ((highs[i] == high) && (lows[i] == low)) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+		highs[i] = high;
+		lows[i] = low;
+		used[i] = true;
+		return true;
+	}
+
+}
@@ -2,12 +2,15 @@ package de.tudresden.inf.lat.uel.rule;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import de.tudresden.inf.lat.uel.type.api.Atom;
 import de.tudresden.inf.lat.uel.type.api.AtomManager;
@@ -16,11 +19,18 @@ import de.tudresden.inf.lat.uel.type.api.Equation;
 import de.tudresden.inf.lat.uel.type.api.Goal;
 import de.tudresden.inf.lat.uel.type.api.Subsumption;
 import de.tudresden.inf.lat.uel.type.api.Dissubsumption;
+import de.tudresden.inf.lat.uel.type.impl.IntArraySet;
 
 /**
  * This is a class representing the set of goal subsumptions of a unification
  * problem.
  * 
+ * The unsolved subsumptions and dissubsumptions are additionally kept in the
+ * order in which they were added to the goal. This order does not depend on
+ * the branches that were explored before, since constraints that are removed
+ * again during backtracking also lose their position. For this, the 'solved'
+ * status of the constraints must only be changed via 'setSolved'.
+ * 
  * @author Stefan Borgwardt
  */
 class NormalizedGoal implements Set<FlatConstraint> {
@@ -61,7 +71,9 @@ class NormalizedGoal implements Set<FlatConstraint> {
 	}
 
 	private static Set<FlatConstraint> convertInput(Goal input) {
-		Set<FlatConstraint> flatConstraints = new HashSet<>();
+		// keep the order of the input, so that the initial positions of the
+		// constraints do not depend on their hash codes
+		Set<FlatConstraint> flatConstraints = new LinkedHashSet<>();
 		for (Definition d : input.getDefinitions()) {
 			convert(d, input.getAtomManager(), flatConstraints);
 		}
@@ -78,16 +90,22 @@ class NormalizedGoal implements Set<FlatConstraint> {
 		return flatConstraints;
 	}
 
-	private static List<Atom> toAtoms(Set<Integer> atomIds, AtomManager atomManager) {
-		List<Atom> atoms = new ArrayList<>();
-		for (Integer atomId : atomIds) {
-			atoms.add(atomManager.getAtom(atomId));
+	private static List<Atom> toAtoms(IntArraySet atomIds, AtomManager atomManager) {
+		List<Atom> atoms = new ArrayList<>(atomIds.size());
+		for (int i = 0; i < atomIds.size(); i++) {
+			atoms.add(atomManager.getAtom(atomIds.getInt(i)));
 		}
 		return atoms;
 	}
 
 	private Set<FlatConstraint> goal;
 	private int maxSize;
+	private int nextPosition = 0;
+	private final Map<FlatConstraint, Integer> positions = new HashMap<>();
+	private final Comparator<FlatConstraint> byPosition = Comparator.comparing(positions::get);
+	private Trail trail = null;
+	private final TreeSet<FlatConstraint> unsolvedDissubsumptions = new TreeSet<>(byPosition);
+	private final TreeSet<FlatConstraint> unsolvedSubsumptions = new TreeSet<>(byPosition);
 	private Map<Atom, Set<FlatConstraint>> variableBodyIndex;
 	private Map<Atom, Set<FlatConstraint>> variableHeadIndex;
 
@@ -104,6 +122,35 @@ class NormalizedGoal implements Set<FlatConstraint> {
 		variableHeadIndex = new HashMap<>();
 		for (FlatConstraint con : goal) {
 			addToIndex(con);
+			positions.put(con, nextPosition++);
+			getUnsolved(con).add(con);
+		}
+	}
+
+	/**
+	 * Create a copy of another goal. The subsumptions and dissubsumptions are
+	 * copied as well, so that their 'solved' status can be changed
+	 * independently of the other goal. Changes to the copy are not recorded in
+	 * the trail of the other goal.
+	 *
+	 * @param other
+	 *            the other goal
+	 */
+	NormalizedGoal(NormalizedGoal other) {
+		goal = new HashSet<>();
+		maxSize = other.maxSize;
+		variableBodyIndex = new HashMap<>();
+		variableHeadIndex = new HashMap<>();
+		nextPosition = other.nextPosition;
+		for (FlatConstraint con : other.goal) {
+			FlatConstraint copy = new FlatConstraint(con);
+			goal.add(copy);
+			addToIndex(copy);
+			// keep the order of the unsolved constraints
+			positions.put(copy, other.positions.get(con));
+			if (!copy.isSolved()) {
+				getUnsolved(copy).add(copy);
+			}
 		}
 	}
 
@@ -115,20 +162,24 @@ class NormalizedGoal implements Set<FlatConstraint> {
 		if (goal.size() > maxSize)
 			maxSize = goal.size();
 		addToIndex(con);
+		positions.put(con, nextPosition++);
+		if (!con.isSolved()) {
+			getUnsolved(con).add(con);
+		}
+		if (trail != null) {
+			trail.added(con);
+		}
 		return true;
 	}
 
 	@Override
 	public boolean addAll(Collection<? extends FlatConstraint> c) {
-		if (!goal.addAll(c)) {
-			return false;
-		}
-		if (goal.size() > maxSize)
-			maxSize = goal.size();
+		boolean ret = false;
 		for (FlatConstraint con : c) {
-			addToIndex(con);
+			if (add(con))
+				ret = true;
 		}
-		return true;
+		return ret;
 	}
 
 	private void addToIndex(FlatConstraint con) {
@@ -154,6 +205,9 @@ class NormalizedGoal implements Set<FlatConstraint> {
 	@Override
 	public void clear() {
 		goal.clear();
+		unsolvedDissubsumptions.clear();
+		unsolvedSubsumptions.clear();
+		positions.clear();
 		variableBodyIndex.clear();
 		variableHeadIndex.clear();
 	}
@@ -231,6 +285,29 @@ class NormalizedGoal implements Set<FlatConstraint> {
 		}
 	}
 
+	/**
+	 * Retrieve the unsolved subsumption or dissubsumption that was added to
+	 * this goal first.
+	 * 
+	 * @param dissubsumptionsFirst
+	 *            indicates whether unsolved dissubsumptions should be preferred
+	 *            over unsolved subsumptions; otherwise, the older of the first
+	 *            unsolved subsumption and the first unsolved dissubsumption is
+	 *            chosen
+	 * @return the chosen constraint, or 'null' if all constraints are solved
+	 */
+	FlatConstraint getFirstUnsolved(boolean dissubsumptionsFirst) {
+		if (unsolvedDissubsumptions.isEmpty()) {
+			return unsolvedSubsumptions.isEmpty() ? null : unsolvedSubsumptions.first();
+		}
+		if (unsolvedSubsumptions.isEmpty() || dissubsumptionsFirst) {
+			return unsolvedDissubsumptions.first();
+		}
+		FlatConstraint subsumption = unsolvedSubsumptions.first();
+		FlatConstraint dissubsumption = unsolvedDissubsumptions.first();
+		return (byPosition.compare(subsumption, dissubsumption) < 0) ? subsumption : dissubsumption;
+	}
+
 	/**
 	 * Retrieve the maximal number of subsumptions observed so far.
 	 * 
@@ -240,6 +317,41 @@ class NormalizedGoal implements Set<FlatConstraint> {
 		return maxSize;
 	}
 
+	private TreeSet<FlatConstraint> getUnsolved(FlatConstraint con) {
+		return con.isDissubsumption() ? unsolvedDissubsumptions : unsolvedSubsumptions;
+	}
+
+	/**
+	 * Return all unsolved subsumptions and dissubsumptions of this goal.
+	 * 
+	 * @return a collection containing first the unsolved subsumptions and then
+	 *         the unsolved dissubsumptions, each in the order in which they
+	 *         were added to this goal
+	 */
+	Iterable<FlatConstraint> getUnsolvedConstraints() {
+		return () -> new Iterator<FlatConstraint>() {
+
+			private Iterator<FlatConstraint> current = unsolvedSubsumptions.iterator();
+			private boolean second = false;
+
+			@Override
+			public boolean hasNext() {
+				if (!current.hasNext() && !second) {
+					current = unsolvedDissubsumptions.iterator();
+					second = true;
+				}
+				return current.hasNext();
+			}
+
+			@Override
+			public FlatConstraint next() {
+				hasNext();
+				return current.next();
+			}
+
+		};
+	}
+
 	private Set<FlatConstraint> getOrInitBodyIndex(Atom var) {
 		if (!variableBodyIndex.containsKey(var)) {
 			variableBodyIndex.put(var, new HashSet<>());
@@ -294,6 +406,8 @@ class NormalizedGoal implements Set<FlatConstraint> {
 			return false;
 		}
 		removeFromIndex((FlatConstraint) o);
+		getUnsolved((FlatConstraint) o).remove(o);
+		positions.remove(o);
 		return true;
 	}
 
@@ -303,8 +417,10 @@ class NormalizedGoal implements Set<FlatConstraint> {
 			return false;
 		}
 		for (Object o : c) {
-			if (o instanceof FlatConstraint) {
+			if ((o instanceof FlatConstraint) && positions.containsKey(o)) {
 				removeFromIndex((FlatConstraint) o);
+				getUnsolved((FlatConstraint) o).remove(o);
+				positions.remove(o);
 			}
 		}
 		return true;
@@ -319,7 +435,7 @@ class NormalizedGoal implements Set<FlatConstraint> {
 		if (con.isDissubsumption()) {
 			for (Atom at : con.getDissubsumptionHead()) {
 				if (at.isVariable()) {
-					variableBodyIndex.get(at).remove(con);
+					variableHeadIndex.get(at).remove(con);
 				}
 			}
 		}
@@ -330,6 +446,40 @@ class NormalizedGoal implements Set<FlatConstraint> {
 		}
 	}
 
+	/**
+	 * Set the 'solved' status of a subsumption or dissubsumption of this goal.
+	 * The status of a constraint that does not belong to this goal can also be
+	 * changed, but this does not affect the unsolved constraints of this goal.
+	 * 
+	 * @param con
+	 *            the constraint
+	 * @param solved
+	 *            a flag indicating whether the constraint is solved
+	 */
+	void setSolved(FlatConstraint con, boolean solved) {
+		con.setSolved(solved);
+		if (!positions.containsKey(con)) {
+			// the comparator of the unsolved constraints needs a position
+			return;
+		}
+		if (solved) {
+			getUnsolved(con).remove(con);
+		} else {
+			getUnsolved(con).add(con);
+		}
+	}
+
+	/**
+	 * Record all subsequent additions to this goal in a trail, so that they
+	 * can be undone later.
+	 * 
+	 * @param trail
+	 *            the trail, or 'null' if changes should not be recorded
+	 */
+	void setTrail(Trail trail) {
+		this.trail = trail;
+	}
+
 	@Override
 	public boolean retainAll(Collection<?> c) {
 		throw new UnsupportedOperationException();
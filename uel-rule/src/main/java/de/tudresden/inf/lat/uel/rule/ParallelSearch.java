@@ -0,0 +1,253 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.tudresden.inf.lat.uel.type.impl.LimitReachedException;
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
+import de.tudresden.inf.lat.uel.type.impl.Unifier;
+
+/**
+ * Coordinates a parallel search of the rule-based algorithm on a fork/join
+ * pool. Each task explores a subtree of the search tree using its own copy of
+ * the goal and the assignment. When the local queue of a worker runs low, it
+ * splits its next choice point into one new task for each alternative, which
+ * can then be stolen by idle workers. Since every subtree is explored by
+ * exactly one task, the parallel search computes the same unifiers as the
+ * sequential one, albeit in a different order.
+ *
+ * The unifiers are passed to the consumer as soon as they are found. To bound
+ * the memory consumption, the workers are blocked if the consumer falls
+ * behind by more than a fixed number of unifiers.
+ *
+ * @author Stefan Borgwardt
+ */
+final class ParallelSearch {
+
+	/**
+	 * Explores the subtree below the current state of an algorithm.
+	 */
+	private final class SearchTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient RuleBasedDisunificationAlgorithm algorithm;
+
+		SearchTask(RuleBasedDisunificationAlgorithm algorithm) {
+			this.algorithm = algorithm;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				if (!cancelled.get()) {
+					algorithm.exploreSubtree(ParallelSearch.this);
+				}
+			} catch (LimitReachedException e) {
+				fail(e.getLimit(), null);
+			} catch (InterruptedException e) {
+				// the search was cancelled
+			} catch (RuntimeException | Error e) {
+				fail(null, e);
+			} finally {
+				if (pending.decrementAndGet() == 0) {
+					results.add(END);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Marks the end of the results; it is never passed to the consumer.
+	 */
+	private static final Object END = new Object();
+	private static final int SPLIT_THRESHOLD = 2;
+
+	private final Semaphore capacity;
+	private final AtomicBoolean cancelled = new AtomicBoolean();
+	private volatile Throwable failure = null;
+	private final AtomicInteger pending = new AtomicInteger();
+	private final ForkJoinPool pool;
+	private volatile ResourceLimits.Limit reachedLimit = null;
+	private final LinkedBlockingQueue<Object> results = new LinkedBlockingQueue<Object>();
+
+	/**
+	 * Construct a new parallel search.
+	 *
+	 * @param pool
+	 *            the pool that executes the tasks
+	 * @param bufferSize
+	 *            the maximal number of unifiers that are computed in advance
+	 */
+	ParallelSearch(ForkJoinPool pool, int bufferSize) {
+		this.pool = pool;
+		this.capacity = new Semaphore(bufferSize);
+	}
+
+	/**
+	 * Stop the search. Workers that are waiting for the consumer are released
+	 * and all tasks terminate as soon as possible.
+	 */
+	void cancel() {
+		// only the first call releases the workers, which would otherwise
+		// overflow the permits of the semaphore
+		if (cancelled.compareAndSet(false, true)) {
+			capacity.release(Integer.MAX_VALUE / 2);
+		}
+	}
+
+	/**
+	 * Throw an exception if the search has been cancelled.
+	 *
+	 * @throws InterruptedException
+	 *             if the search has been cancelled
+	 */
+	void checkCancelled() throws InterruptedException {
+		if (cancelled.get()) {
+			throw new InterruptedException();
+		}
+	}
+
+	private void fail(ResourceLimits.Limit limit, Throwable t) {
+		if (limit != null) {
+			reachedLimit = limit;
+		}
+		if ((t != null) && (failure == null)) {
+			failure = t;
+		}
+		cancel();
+	}
+
+	/**
+	 * Explore the subtree below the current state of an algorithm in a new
+	 * task.
+	 *
+	 * @param algorithm
+	 *            the algorithm, which must not be used by the caller anymore
+	 */
+	void fork(RuleBasedDisunificationAlgorithm algorithm) {
+		pending.incrementAndGet();
+		new SearchTask(algorithm).fork();
+	}
+
+	/**
+	 * @return the resource limit that was reached by some task, or 'null'
+	 */
+	ResourceLimits.Limit getReachedLimit() {
+		return reachedLimit;
+	}
+
+	/**
+	 * Wait for the next unifier.
+	 *
+	 * @return the next unifier, or 'null' if the search has finished
+	 * @throws InterruptedException
+	 *             if the current thread was interrupted while waiting; the
+	 *             search is then cancelled
+	 */
+	Unifier next() throws InterruptedException {
+		Object[] next = new Object[1];
+		try {
+			ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+
+				@Override
+				public boolean block() throws InterruptedException {
+					if (next[0] == null) {
+						next[0] = results.take();
+					}
+					return true;
+				}
+
+				@Override
+				public boolean isReleasable() {
+					if (next[0] == null) {
+						next[0] = results.poll();
+					}
+					return next[0] != null;
+				}
+
+			});
+		} catch (InterruptedException e) {
+			cancel();
+			throw e;
+		}
+		if (next[0] == END) {
+			// let subsequent calls also terminate immediately
+			results.add(END);
+			if (failure instanceof RuntimeException) {
+				throw (RuntimeException) failure;
+			}
+			if (failure instanceof Error) {
+				throw (Error) failure;
+			}
+			return null;
+		}
+		capacity.release();
+		return (Unifier) next[0];
+	}
+
+	/**
+	 * Pass a new unifier to the consumer. If too many unifiers are waiting to
+	 * be consumed, the current worker is blocked.
+	 *
+	 * @param unifier
+	 *            the unifier
+	 * @throws InterruptedException
+	 *             if the search was cancelled
+	 */
+	void offer(Unifier unifier) throws InterruptedException {
+		ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+
+			private boolean acquired = false;
+
+			@Override
+			public boolean block() throws InterruptedException {
+				if (!acquired) {
+					capacity.acquire();
+					acquired = true;
+				}
+				return true;
+			}
+
+			@Override
+			public boolean isReleasable() {
+				if (!acquired) {
+					acquired = capacity.tryAcquire();
+				}
+				return acquired;
+			}
+
+		});
+		checkCancelled();
+		results.add(unifier);
+	}
+
+	/**
+	 * Decide whether the current worker should split its next choice point
+	 * into separate tasks.
+	 *
+	 * @return true iff the local queue of the worker is almost empty
+	 */
+	boolean shouldSplit() {
+		return ForkJoinTask.getSurplusQueuedTaskCount() < SPLIT_THRESHOLD;
+	}
+
+	/**
+	 * Start the search.
+	 *
+	 * @param algorithm
+	 *            the algorithm whose current state is the root of the search
+	 *            tree
+	 */
+	void start(RuleBasedDisunificationAlgorithm algorithm) {
+		pending.incrementAndGet();
+		pool.execute(new SearchTask(algorithm));
+	}
+
+}
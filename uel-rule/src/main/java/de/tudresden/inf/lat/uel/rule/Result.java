@@ -22,6 +22,8 @@ public final class Result {
 	private final Set<FlatConstraint> solvedConstraints = new HashSet<>();
 	private final Assignment newSubsumers = new Assignment();
 	private boolean successful;
+	private int trailMark = 0;
+	private long unifierMark = 0;
 
 	/**
 	 * Construct a new rule application result.
@@ -121,6 +123,48 @@ public final class Result {
 		successful = value;
 	}
 
+	/**
+	 * Return the position of the trail before this result was committed.
+	 * 
+	 * @return the trail position to which the changes of this result can be
+	 *         undone
+	 */
+	int getTrailMark() {
+		return trailMark;
+	}
+
+	/**
+	 * Retrieve the number of unifiers that had been found when the search
+	 * first chose the constraint of this result.
+	 * 
+	 * @return the number of unifiers found before the choice point of this
+	 *         result
+	 */
+	long getUnifierMark() {
+		return unifierMark;
+	}
+
+	/**
+	 * Set the position of the trail before this result was committed.
+	 * 
+	 * @param mark
+	 *            the trail position
+	 */
+	void setTrailMark(int mark) {
+		trailMark = mark;
+	}
+
+	/**
+	 * Set the number of unifiers that had been found when the search first
+	 * chose the constraint of this result.
+	 * 
+	 * @param mark
+	 *            the number of unifiers
+	 */
+	void setUnifierMark(long mark) {
+		unifierMark = mark;
+	}
+
 	/**
 	 * Retrieve the new assignments that resulted from the rule application or
 	 * subsequent applications of eager rules.
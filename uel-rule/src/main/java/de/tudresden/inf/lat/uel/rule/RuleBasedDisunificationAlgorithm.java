@@ -5,19 +5,23 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 import de.tudresden.inf.lat.uel.rule.rules.*;
 import de.tudresden.inf.lat.uel.rule.rules.Rule.Application;
 import de.tudresden.inf.lat.uel.type.api.Atom;
 import de.tudresden.inf.lat.uel.type.api.AtomManager;
-import de.tudresden.inf.lat.uel.type.api.Definition;
 import de.tudresden.inf.lat.uel.type.api.Goal;
 import de.tudresden.inf.lat.uel.type.api.UnificationAlgorithm;
+import de.tudresden.inf.lat.uel.type.impl.CompactDefinitionSet;
+import de.tudresden.inf.lat.uel.type.impl.LimitReachedException;
+import de.tudresden.inf.lat.uel.type.impl.Metrics;
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
 import de.tudresden.inf.lat.uel.type.impl.Unifier;
 
 /**
@@ -44,8 +48,20 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 	private static final String keyMaxCons = "Max. number of constraints (so far)";
 	private static final String keyTreeSize = "Size of the search tree (so far)";
 	private static final String keyDeadEnds = "Number of encountered dead ends (so far)";
+	private static final String keyNogoods = "Number of learned nogoods (so far)";
+	private static final String keyPruned = "Number of branches pruned by nogoods (so far)";
 	private static final String keyNumberOfVariables = "Number of variables";
 	private static final String algorithmName = "Rule-based algorithm";
+	private static final String metricDeadEnds = "rule.deadEnds";
+	private static final String metricInitialCons = "rule.initialConstraints";
+	private static final String metricMaxCons = "rule.maxConstraints";
+	private static final String metricNogoods = "rule.nogoods";
+	private static final String metricNumberOfVariables = "rule.variables";
+	private static final String metricPruned = "rule.prunedByNogoods";
+	private static final String metricTreeSize = "rule.treeSize";
+	private static final String metricUnifiers = "unifiers";
+	private static final String timerSearch = "rule.search";
+	private static final int parallelBufferSize = 64;
 
 	private List<EagerRule> staticEagerRules;
 	private List<EagerRule> dynamicEagerRules;
@@ -56,11 +72,27 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 	private Assignment assignment;
 	private List<Atom> nonVariableAtoms;
 	private final int initialSize;
-	private int treeSize = 1;
-	private int deadEnds = 0;
+	private final Metrics metrics;
+	private final Metrics.Counter treeSize;
+	private final Metrics.Counter deadEnds;
+	private final Metrics.Counter learnedNogoods;
+	private final Metrics.Counter pruned;
+	private final Metrics.Counter unifiers;
 	private final int numVariables;
+	private ResourceLimits resourceLimits = ResourceLimits.NONE;
+	private ResourceLimits.Limit reachedLimit = null;
 
 	private Deque<Result> searchStack = null;
+	private long foundUnifiers = 0;
+	private ForkJoinPool pool = null;
+	private ParallelSearch parallel = null;
+	private boolean parallelFinished = false;
+	private Unifier parallelUnifier = null;
+	private ConstraintSelection selection = ConstraintSelection.FIFO;
+	private SearchTracer tracer = null;
+	private final Trail trail = new Trail();
+	private final NogoodStore nogoods = new NogoodStore(1 << 20);
+	private boolean useNogoods = true;
 
 	/**
 	 * Initialize a new disunification problem with goal subsumptions and dissubsumptions.
@@ -87,13 +119,22 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 		//this.assignment = new Assignment();
 		this.initialSize = goal.size();
 		this.numVariables = input.getAtomManager().getVariables().size();
+		this.metrics = new Metrics();
+		this.treeSize = metrics.counter(metricTreeSize);
+		this.deadEnds = metrics.counter(metricDeadEnds);
+		this.learnedNogoods = metrics.counter(metricNogoods);
+		this.pruned = metrics.counter(metricPruned);
+		this.unifiers = metrics.counter(metricUnifiers);
+		this.treeSize.increment();
+		metrics.gauge(metricInitialCons).set(initialSize);
+		metrics.gauge(metricNumberOfVariables).set(numVariables);
 
 		for (FlatConstraint con : goal) {
 			if (!con.isDissubsumption()) {
 				if (con.getHead().isVariable()) {
 					// subsumptions with a variable on the right-hand side are
 					// always solved
-					con.setSolved(true);
+					goal.setSolved(con, true);
 				}
 			}
 			else {
@@ -101,7 +142,7 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 					if (con.getBody().get(0).isVariable() && !con.getDissubsumptionHead().get(0).isVariable()) {
 						// dissubsumptions with a variable on the left-hand side and a non-variable atom
 						// on the right-hand aide are always solved
-						con.setSolved(true);
+						goal.setSolved(con, true);
 					}
 				}
 			}
@@ -109,12 +150,54 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 		}
 
 		initRules();
+		assignment.setTrail(trail);
+		goal.setTrail(trail);
+	}
+
+	/**
+	 * Create a copy of the current state of the search of another instance,
+	 * which can then explore the subtree below this state independently. The
+	 * copy has an empty search stack and its own nogoods, but shares the
+	 * metrics, the resource limits, and the rules with the other instance.
+	 * 
+	 * @param other
+	 *            the other instance
+	 */
+	private RuleBasedDisunificationAlgorithm(RuleBasedDisunificationAlgorithm other) {
+		this.input = other.input;
+		this.goal = new NormalizedGoal(other.goal);
+		this.nonVariableAtoms = other.nonVariableAtoms;
+		this.assignment = new Assignment(other.assignment);
+		this.initialSize = other.initialSize;
+		this.numVariables = other.numVariables;
+		this.metrics = other.metrics;
+		this.treeSize = other.treeSize;
+		this.deadEnds = other.deadEnds;
+		this.learnedNogoods = other.learnedNogoods;
+		this.pruned = other.pruned;
+		this.unifiers = other.unifiers;
+		this.resourceLimits = other.resourceLimits;
+		this.selection = other.selection;
+		this.useNogoods = other.useNogoods;
+		this.parallel = other.parallel;
+		this.staticEagerRules = other.staticEagerRules;
+		this.dynamicEagerRules = other.dynamicEagerRules;
+		this.nondeterministicRules = other.nondeterministicRules;
+		this.searchStack = new ArrayDeque<>();
+		assignment.setTrail(trail);
+		goal.setTrail(trail);
 	}
 
 	@Override
 	public void cleanup() {
 		// reset computation of results
 		searchStack = null;
+		if (parallel != null) {
+			parallel.cancel();
+			parallel = null;
+		}
+		parallelFinished = false;
+		parallelUnifier = null;
 	}
 
 	public Goal getGoal() {
@@ -130,12 +213,20 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 		addEntry(ret, keyName, algorithmName);
 		addEntry(ret, keyInitialCons, "" + initialSize);
 		addEntry(ret, keyMaxCons, "" + goal.getMaxSize());
-		addEntry(ret, keyTreeSize, "" + treeSize);
-		addEntry(ret, keyDeadEnds, "" + deadEnds);
+		addEntry(ret, keyTreeSize, "" + treeSize.get());
+		addEntry(ret, keyDeadEnds, "" + deadEnds.get());
+		addEntry(ret, keyNogoods, "" + learnedNogoods.get());
+		addEntry(ret, keyPruned, "" + pruned.get());
 		addEntry(ret, keyNumberOfVariables, "" + numVariables);
 		return ret;
 	}
 
+	@Override
+	public Metrics getMetrics() {
+		metrics.gauge(metricMaxCons).set(goal.getMaxSize());
+		return metrics;
+	}
+
 	/**
 	 * Initialize the rule lists according to the rule-based algorithm for
 	 * unification in EL w.r.t. the empty TBox.
@@ -171,73 +262,131 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 	 *         subsumptions and dissubsumptions
 	 */
 	public boolean computeNextUnifier() throws InterruptedException {
+		if (reachedLimit != null) {
+			// the search stack has already been discarded
+			return false;
+		}
+		if (parallelFinished) {
+			return false;
+		}
+		if (parallel != null) {
+			return computeNextParallelUnifier();
+		}
 		if (searchStack == null) {
 			searchStack = new ArrayDeque<>();
 
-			for (FlatConstraint con : goal) {
-				System.out.println("all cons: " + con);
-			}
-
-			System.out.println("begin Apply static eager rules");
-
 			// apply eager rules to each unsolved subsumption and dissubsumption
 			Result res = applyEagerRules(goal, staticEagerRules, null);
-
-			System.out.println("Applied static eager rules, success: " + res.wasSuccessful());
-
 			if (!res.wasSuccessful())
 				return false;
 			for (FlatConstraint con : res.getSolvedConstraints()) {
-				con.setSolved(true);
+				goal.setSolved(con, true);
 			}
 
-			System.out.println("begin Apply dynamic eager rules");
-
-			Assignment tmp = new Assignment(nonVariableAtoms);
-			res = applyEagerRules(goal, dynamicEagerRules, tmp);
-
-			System.out.println("Applied dynamic eager rules, success: " + res.wasSuccessful());
-
+			res = applyEagerRules(goal, dynamicEagerRules, assignment);
 			if (!res.wasSuccessful())
 				return false;
-			if (!commitResult(res, tmp)) {
-				System.out.println("Commit result failed");
+			if (!commitResult(res, true))
 				return false;
-			}
-			else {
-				System.out.println("Commit result success");
-			}
 
 			// exhaustively apply eager rules to the result of this initial
 			// iteration
 			applyEagerRules(res);
+
+			if (pool != null) {
+				// explore the search tree in parallel, starting from a copy of
+				// the current state
+				parallel = new ParallelSearch(pool, parallelBufferSize);
+				parallel.start(new RuleBasedDisunificationAlgorithm(this));
+				return computeNextParallelUnifier();
+			}
 		} else {
 			// we already have a search stack --> try to backtrack from last
 			// solution
-			System.out.println("Attempting to backtrack");
-			if (!backtrack()) {
-
-				System.out.println("Backtracking failed");
+			if (!backtrack())
 				return false;
+		}
+		long startTime = System.nanoTime();
+		try {
+			if (solve()) {
+				foundUnifiers++;
+				unifiers.increment();
+				return true;
 			}
+			return false;
+		} catch (LimitReachedException e) {
+			reachedLimit = e.getLimit();
+			cleanup();
+			return false;
+		} finally {
+			metrics.timer(timerSearch).record(System.nanoTime() - startTime);
 		}
-		System.out.println("Calling solve()");
-		System.out.println("assignment: " + assignment);
-		return solve();
 
 	}
 
+	/**
+	 * Wait for the next unifier found by the parallel search.
+	 * 
+	 * @return true iff another unifier was found
+	 */
+	private boolean computeNextParallelUnifier() throws InterruptedException {
+		long startTime = System.nanoTime();
+		try {
+			parallelUnifier = parallel.next();
+		} finally {
+			metrics.timer(timerSearch).record(System.nanoTime() - startTime);
+		}
+		if (parallelUnifier != null) {
+			return true;
+		}
+		reachedLimit = parallel.getReachedLimit();
+		parallelFinished = true;
+		return false;
+	}
+
+	/**
+	 * Explore the subtree below the current state and pass all unifiers found
+	 * in it to the parallel search. Whenever the parallel search needs more
+	 * tasks, the next choice point is split into new instances, one for each
+	 * applicable rule.
+	 * 
+	 * @param search
+	 *            the parallel search
+	 * @throws InterruptedException
+	 *             if the search was cancelled or a resource limit was reached
+	 */
+	void exploreSubtree(ParallelSearch search) throws InterruptedException {
+		boolean found = solve();
+		while (found) {
+			foundUnifiers++;
+			unifiers.increment();
+			search.offer(getUnifier());
+			found = backtrack() && solve();
+		}
+	}
+
+	@Override
+	public ResourceLimits.Limit getReachedLimit() {
+		return reachedLimit;
+	}
+
 	@Override
 	public Unifier getUnifier() {
+		if (parallelUnifier != null) {
+			return parallelUnifier;
+		}
 		// convert current assignment to a set of definitions
 		AtomManager atomManager = input.getAtomManager();
-		Set<Definition> definitions = new HashSet<>();
+		CompactDefinitionSet definitions = new CompactDefinitionSet(atomManager.getVariables().size());
 		for (Integer varId : atomManager.getVariables()) {
-			Set<Integer> body = new HashSet<>();
-			for (Atom subsumer : assignment.getSubsumers(atomManager.getAtom(varId))) {
-				body.add(atomManager.getIndex(subsumer));
+			Set<Atom> subsumers = assignment.getSubsumers(atomManager.getAtom(varId));
+			int[] body = new int[subsumers.size()];
+			int i = 0;
+			for (Atom subsumer : subsumers) {
+				body[i] = atomManager.getIndex(subsumer);
+				i++;
 			}
-			definitions.add(new Definition(varId, body, false));
+			definitions.put(varId, body, false);
 		}
 		return new Unifier(definitions);
 	}
@@ -248,47 +397,235 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 			if (Thread.interrupted()) {
 				throw new InterruptedException();
 			}
-
-			FlatConstraint con = chooseUnsolvedConstraint();
-			if (con == null)
-				return true;
-			if (applyNextNondeterministicRule(con, null))
-				continue;
-			deadEnds++;
+			if (parallel != null) {
+				parallel.checkCancelled();
+			}
+			resourceLimits.check(treeSize.get());
+
+			if (useNogoods && nogoods.contains(trail.getStateHigh(), trail.getStateLow())) {
+				// this state has already been explored without success
+				pruned.increment();
+			} else {
+				FlatConstraint con = chooseUnsolvedConstraint();
+				if (con == null)
+					return true;
+				if ((parallel != null) && parallel.shouldSplit()) {
+					// leave all branches to new tasks
+					split(con);
+				} else {
+					long unifierMark = foundUnifiers;
+					if (applyNextNondeterministicRule(con, null, unifierMark))
+						continue;
+					deadEnds.increment();
+					learnNogood(unifierMark);
+				}
+			}
 			if (!backtrack())
 				return false;
-			System.out.println("assignment after solve(): " + assignment);
 		}
 	}
 
 	private boolean backtrack() {
-		System.out.println("Entering backtrack method");
 		while (!searchStack.isEmpty()) {
-			System.out.println("Current search stack size: " + searchStack.size() + searchStack);
 			Result res = searchStack.pop();
-			System.out.println("Popped from search stack: " + res);
+			trace(SearchTracer.Event.POP, res, res.getConstraint());
 			rollBackResult(res);
-			System.out.println("Rolled back result for: " + res.getConstraint());
-			if (applyNextNondeterministicRule(res.getConstraint(), res.getApplication())) {
-				System.out.println("Successfully applied a non-deterministic rule, continuing search.");
+			if (applyNextNondeterministicRule(res.getConstraint(), res.getApplication(), res.getUnifierMark()))
 				return true;
-			}
-			else {
-				System.out.println("Failed to apply non-deterministic rule, continuing backtracking.");
-			}
+			learnNogood(res.getUnifierMark());
 		}
-		System.out.println("Search stack is empty, backtracking failed.");
 		return false;
 	}
 
+	/**
+	 * Apply each possible nondeterministic rule to a constraint and continue
+	 * the search from each resulting state in a new task, while this instance
+	 * continues by backtracking.
+	 * 
+	 * @param con
+	 *            the chosen unsolved constraint
+	 */
+	private void split(FlatConstraint con) {
+		Rule.Application previous = null;
+		boolean forked = false;
+		while (applyNextNondeterministicRule(con, previous, foundUnifiers)) {
+			Result res = searchStack.pop();
+			trace(SearchTracer.Event.POP, res, con);
+			parallel.fork(new RuleBasedDisunificationAlgorithm(this));
+			rollBackResult(res);
+			previous = res.getApplication();
+			forked = true;
+		}
+		if (forked) {
+			// the new tasks may find unifiers below the current state, so
+			// neither this state nor its ancestors are nogoods for this instance
+			foundUnifiers++;
+		} else {
+			deadEnds.increment();
+			learnNogood(foundUnifiers);
+		}
+	}
+
+	/**
+	 * Remember that all rule applications to the constraint chosen in the
+	 * current state have been tried. If no unifier was found in the meantime,
+	 * then no unifier can be reached from this state, regardless of the order
+	 * in which the remaining constraints are chosen, and the state is stored
+	 * as a nogood. If the same state is reached again on another branch, this
+	 * branch is abandoned immediately.
+	 * 
+	 * Nogoods only prune states that recur exactly; the search still
+	 * backtracks chronologically, without jumping back to the choice point
+	 * responsible for a failure. Moreover, the nogood store forgets all
+	 * nogoods when it is full, so recurring states are not always detected.
+	 * 
+	 * @param unifierMark
+	 *            the number of unifiers that had been found when the
+	 *            constraint was chosen
+	 */
+	private void learnNogood(long unifierMark) {
+		if (useNogoods && (foundUnifiers == unifierMark)) {
+			nogoods.add(trail.getStateHigh(), trail.getStateLow());
+			learnedNogoods.increment();
+		}
+	}
+
 	private FlatConstraint chooseUnsolvedConstraint() {
-		for (FlatConstraint con : goal) {
-			if (!con.isSolved())
-				return con;
+		if (selection != ConstraintSelection.FAIL_FIRST) {
+			return goal.getFirstUnsolved(selection == ConstraintSelection.DISSUBSUMPTIONS_FIRST);
+		}
+
+		// choose the constraint with the fewest rule applications
+		FlatConstraint best = null;
+		int bestCount = Integer.MAX_VALUE;
+		for (FlatConstraint con : goal.getUnsolvedConstraints()) {
+			int count = countApplications(con, bestCount);
+			if (count < bestCount) {
+				best = con;
+				bestCount = count;
+				if (count == 0) {
+					// this constraint leads to a dead end
+					break;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Count the possible applications of nondeterministic rules to a
+	 * constraint.
+	 * 
+	 * @param con
+	 *            the constraint
+	 * @param bound
+	 *            the number after which counting can be stopped
+	 * @return the number of applications, or 'bound' if there are more
+	 */
+	private int countApplications(FlatConstraint con, int bound) {
+		int count = 0;
+		for (Rule rule : nondeterministicRules) {
+			Rule.Application appl = rule.getFirstApplication(con, assignment);
+			while (appl != null) {
+				count++;
+				if (count >= bound) {
+					return bound;
+				}
+				appl = rule.getNextApplication(con, assignment, appl);
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void setCallbackPreprocessing(Runnable r) {
+	}
+
+	/**
+	 * Lets the search explore the search tree in parallel using the given
+	 * pool. Whenever a worker of the pool runs out of work, one of the other
+	 * workers splits its next choice point into separate tasks. The unifiers
+	 * are returned in a nondeterministic order, and the tracer is only notified
+	 * of the events before the search tree is explored. The default is to
+	 * search sequentially.
+	 * 
+	 * @param pool
+	 *            the pool executing the search, or 'null' if the search should
+	 *            be sequential
+	 */
+	public void setParallelSearch(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Enables or disables the learning of nogoods, i.e., of states of the
+	 * search from which no unifier can be reached. This does not change the
+	 * computed unifiers, only the size of the search tree. The default is to
+	 * learn nogoods.
+	 * 
+	 * @param useNogoods
+	 *            indicates whether nogoods should be learned and used for
+	 *            pruning
+	 */
+	void setNogoodLearning(boolean useNogoods) {
+		this.useNogoods = useNogoods;
+	}
+
+	/**
+	 * Sets the strategy for choosing the next unsolved subsumption or
+	 * dissubsumption. The default is 'ConstraintSelection.FIFO'.
+	 * 
+	 * @param selection
+	 *            the selection strategy
+	 */
+	public void setConstraintSelection(ConstraintSelection selection) {
+		if (selection == null) {
+			throw new IllegalArgumentException("The selection strategy cannot be null.");
 		}
-		return null;
+		this.selection = selection;
 	}
 
+	@Override
+	public void setResourceLimits(ResourceLimits limits) {
+		resourceLimits = (limits == null) ? ResourceLimits.NONE : limits;
+	}
+
+	@Override
+	public void setShortFormMap(Function<String, String> map) {
+	}
+
+	/**
+	 * Sets a tracer that is notified of the events of the search, e.g., the
+	 * rule applications and backtracking steps.
+	 * 
+	 * @param tracer
+	 *            the tracer, or 'null' if no events should be traced
+	 */
+	public void setTracer(SearchTracer tracer) {
+		this.tracer = tracer;
+	}
+
+	private void trace(SearchTracer.Event event, Object subject, FlatConstraint con) {
+		if (tracer != null) {
+			tracer.trace(event, subject, con, (searchStack == null) ? 0 : searchStack.size());
+		}
+	}
+
+	/**
+	 * Apply eager rules to the given constraints.
+	 * 
+	 * @param cons
+	 *            the constraints
+	 * @param rules
+	 *            the eager rules
+	 * @param currentAssignment
+	 *            the current assignment, to which the new subsumers are added
+	 *            immediately; if this is 'null', the new subsumers are only
+	 *            stored in the result
+	 * @return the combined result of the rule applications; if the
+	 *         assignment is given, it only contains the subsumers that were
+	 *         actually added
+	 */
 	private Result applyEagerRules(Collection<FlatConstraint> cons, List<EagerRule> rules,
 			Assignment currentAssignment) {
 		Result res = new Result(null, null);
@@ -302,12 +639,19 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 					}
 					if (!r.wasSuccessful())
 						return r;
-					System.out.println("TRYAPPLY" +rule + con);
 					res.getSolvedConstraints().add(con);
-					res.getNewSubsumers().addAll(r.getNewSubsumers());
 					res.getNewUnsolvedConstraints().addAll(r.getNewUnsolvedConstraints());
-					if (currentAssignment != null) {
-						currentAssignment.addAll(r.getNewSubsumers());
+					if (currentAssignment == null) {
+						res.getNewSubsumers().addAll(r.getNewSubsumers());
+					} else {
+						Assignment newSubsumers = r.getNewSubsumers();
+						for (Atom var : newSubsumers.getKeys()) {
+							for (Atom at : newSubsumers.getSubsumers(var)) {
+								if (currentAssignment.add(var, at)) {
+									res.getNewSubsumers().add(var, at);
+								}
+							}
+						}
 					}
 					break;
 				}
@@ -316,56 +660,47 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 		return res;
 	}
 
-	private boolean applyNextNondeterministicRule(FlatConstraint con, Rule.Application previous) {
-		System.out.println("Applying next non-deterministic rule for constraint: " + con);
+	private boolean applyNextNondeterministicRule(FlatConstraint con, Rule.Application previous, long unifierMark) {
 		Iterator<Rule> iter = nondeterministicRules
 				.listIterator((previous == null) ? 0 : nondeterministicRules.indexOf(previous.rule()));
 
 		while (iter.hasNext()) {
 			Rule rule = iter.next();
-			System.out.println("Trying rule: " + rule);
 			while (true) {
 				Result res = tryApplyRule(con, rule, previous, assignment);
-				if (res == null) {
-					System.out.println("Rule application returned null, breaking.");
+				if (res == null)
 					break;
-				}
 				previous = res.getApplication();
-				if (!res.wasSuccessful()) {
-					System.out.println("Rule application unsuccessful, continuing with next rule.");
+				if (!res.wasSuccessful())
 					continue;
-				}
-				System.out.println("Rule application successful: " + res);
 
 				// now 'res' is the result of a successful nondeterministic rule
 				// application ->
 				// apply eager rules, put result on the stack
-				if (!commitResult(res, null)) {
+				res.setTrailMark(trail.mark());
+				if (!commitResult(res, false)) {
 					// application of static eager rules failed -> roll back
 					// changes and continue search
-					System.out.println("Commit result failed, rolling back.");
-					deadEnds++;
+					deadEnds.increment();
 					rollBackResult(res);
 					continue;
 				}
-				System.out.println("Commit result successful.");
 
 				if (!applyEagerRules(res)) {
 					// exhaustive application of eager rules failed
-					System.out.println("Apply eager rules failed, rolling back.");
-					deadEnds++;
+					deadEnds.increment();
 					rollBackResult(res);
 					continue;
 				}
-				System.out.println("Eager rules applied successfully, pushing result to search stack.");
 
+				res.setUnifierMark(unifierMark);
 				searchStack.push(res);
-				treeSize++;
+				trace(SearchTracer.Event.PUSH, res, con);
+				treeSize.increment();
 				return true;
 			}
 			previous = null;
 		}
-		System.out.println("No more rules to apply, returning false.");
 		return false;
 	}
 
@@ -381,21 +716,23 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 	private boolean applyEagerRules(Result parent) {
 		Result currentResult = parent;
 		Result nextResult = new Result(null, null);
-		Assignment tmp = new Assignment(assignment);
 		//currentResult = applyEagerRules(currentResult.getNewUnsolvedConstraints(), staticEagerRules, tmp);
 
-		//System.out.println(tmp);
-
 		do {
+			// the new subsumers of this iteration are added to the assignment
+			// immediately, and are only kept if the iteration succeeds
+			int mark = trail.mark();
+
 
 			// apply dynamic eager rules to each new unsolved subsumption and dissubsumption
 			{
-				System.out.println("1unsolved constraints: " + currentResult.getNewUnsolvedConstraints());
-
-				Result res2 = applyEagerRules(currentResult.getNewUnsolvedConstraints(), dynamicEagerRules, tmp);
+				Result res2 = applyEagerRules(currentResult.getNewUnsolvedConstraints(), dynamicEagerRules,
+						assignment);
 				//System.out.println("2unsolved constraints: " + res2.getNewUnsolvedConstraints());
-				if (!res2.wasSuccessful())
+				if (!res2.wasSuccessful()) {
+					trail.undo(mark, assignment, goal);
 					return false;
+				}
 				nextResult.getSolvedConstraints().addAll(res2.getSolvedConstraints());
 				nextResult.getNewUnsolvedConstraints().addAll(res2.getNewUnsolvedConstraints());
 				nextResult.getNewSubsumers().addAll(res2.getNewSubsumers());
@@ -407,24 +744,26 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 			for (Atom var : newSubsumers.getKeys()) {
 				if (!newSubsumers.getSubsumers(var).isEmpty()) {
 					//System.out.println("3unsolved constraints: " + nextResult.getNewUnsolvedConstraints());
-					Result res = applyEagerRules(goal.getConstraintsByBodyVariable(var), dynamicEagerRules, tmp);
+					Result res = applyEagerRules(goal.getConstraintsByBodyVariable(var), dynamicEagerRules,
+							assignment);
 					//System.out.println("4unsolved constraints: " + nextResult.getNewUnsolvedConstraints());
-					if (!res.wasSuccessful())
+					if (!res.wasSuccessful()) {
+						trail.undo(mark, assignment, goal);
 						return false;
+					}
 					nextResult.getSolvedConstraints().addAll(res.getSolvedConstraints());
 					nextResult.getNewUnsolvedConstraints().addAll(res.getNewUnsolvedConstraints());
 					nextResult.getNewSubsumers().addAll(res.getNewSubsumers());
 				}
 			}
 
-			boolean commitSuccessful = commitResult(nextResult, tmp);
+			boolean commitSuccessful = commitResult(nextResult, true);
 			parent.amend(nextResult);
 			if (!commitSuccessful)
 				return false;
 
 			currentResult = nextResult;
 			nextResult = new Result(null, null);
-			tmp = new Assignment(assignment);
 		} while (!currentResult.getNewSubsumers().isEmpty() || !currentResult.getNewUnsolvedConstraints().isEmpty());
 
 		return true;
@@ -445,22 +784,21 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 	 *         applications are possible
 	 */
 	private Result tryApplyRule(FlatConstraint con, Rule rule, Application previous, Assignment currentAssignment) {
-		//System.out.println("Attempting to apply rule: " + rule + " to constraint: " + con + " with previous application: " + previous);
+		trace(SearchTracer.Event.RULE_TRIED, rule, con);
 		Rule.Application next;
 		if (previous == null) {
 			next = rule.getFirstApplication(con, currentAssignment);
-			//System.out.println("First application: " + next);
 		} else {
 			next = rule.getNextApplication(con, currentAssignment, previous);
-			//System.out.println("Next application: " + next);
 		}
 		if (next == null) {
-			//System.out.println("No further applications possible for rule: " + rule);
 			return null;
 		}
 
 		Result res = rule.apply(con, currentAssignment, next);
-		//System.out.println("Rule application result: " + res);
+		if (res != null) {
+			trace(res.wasSuccessful() ? SearchTracer.Event.RULE_APPLIED : SearchTracer.Event.RULE_FAILED, next, con);
+		}
 		return res;
 	}
 
@@ -474,20 +812,17 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 	 * 
 	 * @param res
 	 *            the result to be considered; will be changed in-place
-	 * @param newAssignment
-	 *            the new assignment that will replace the current assignment;
-	 *            if this is 'null', then the change will be computed from
-	 *            'res.getNewSubsumers()'
+	 * @param assigned
+	 *            indicates whether 'res.getNewSubsumers()' have already been
+	 *            added to the current assignment
 	 * @return <code>true</code> if and only if the execution was successful
 	 */
-	private boolean commitResult(Result res, Assignment newAssignment) {
+	private boolean commitResult(Result res, boolean assigned) {
 		// solve subsumption that triggered the rule
 		if (res.getConstraint() != null) {
-			res.getConstraint().setSolved(true);
+			markSolved(res.getConstraint());
 		}
 
-		System.out.println("all unsolved constraints: " + res.getNewUnsolvedConstraints());
-
 		// add new unsolved subsumptions to the goal
 		res.getNewUnsolvedConstraints().removeAll(goal);
 		goal.addAll(res.getNewUnsolvedConstraints());
@@ -496,14 +831,14 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 				if (con.getHead().isVariable()) {
 					// subsumptions with a variable on the right-hand side are
 					// always solved
-					con.setSolved(true);
+					markSolved(con);
 					res.getNewSolvedConstraints().add(con);
 				}
 			}
 			else {
 				if (con.getBody().size() == 1 && con.getDissubsumptionHead().size() == 1) {
 					if (con.getBody().get(0).isVariable() && !con.getDissubsumptionHead().get(0).isVariable()) {
-						con.setSolved(true);
+						markSolved(con);
 						res.getNewSolvedConstraints().add(con);
 					}
 				}
@@ -531,7 +866,7 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 
 		// solve subsumptions and dissubsumptions in 'res.solvedConstraints'
 		for (FlatConstraint con : res.getSolvedConstraints()) {
-			con.setSolved(true);
+			markSolved(con);
 		}
 //		for (FlatConstraint con : res.getNewSolvedConstraints()) {
 //			con.setSolved(true);
@@ -539,11 +874,9 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 
 
 		// update current assignment
-		res.getNewSubsumers().removeAll(assignment);
-		if (newAssignment == null) {
+		if (!assigned) {
+			res.getNewSubsumers().removeAll(assignment);
 			assignment.addAll(res.getNewSubsumers());
-		} else {
-			assignment = newAssignment;
 		}
 
 		// goal expansion (II)
@@ -551,42 +884,48 @@ public class RuleBasedDisunificationAlgorithm implements UnificationAlgorithm {
 		//newCons.removeAll(res.getNewUnsolvedConstraints());
 		res.getNewUnsolvedConstraints().addAll(newCons);
 
-		System.out.println("updated new unsolved cons: " + res.getNewUnsolvedConstraints());
-
 		// try to solve new unsolved subsumptions and dissubsumptions by static eager rules
 		Result eagerRes = applyEagerRules(res.getNewUnsolvedConstraints(), staticEagerRules, null);
-		if (!eagerRes.wasSuccessful())
+		if (!eagerRes.wasSuccessful()) {
+			trace(SearchTracer.Event.COMMIT_FAILED, res, res.getConstraint());
 			return false;
+		}
 
 		for (FlatConstraint con : eagerRes.getSolvedConstraints()) {
-			con.setSolved(true);
+			markSolved(con);
 		}
 
 //		for (FlatConstraint con : eagerRes.getNewSolvedConstraints()) {
 //			con.setSolved(true);
 //		}
 		res.amend(eagerRes);
-		System.out.println("all unsolved constraints: " + res.getNewUnsolvedConstraints());
+		trace(SearchTracer.Event.COMMIT, res, res.getConstraint());
 		return true;
 	}
 
 	/**
-	 * Undo the changes made to the goal by a result.
+	 * Undo the changes made to the goal and the assignment by a result, and by
+	 * all results committed after it.
 	 * 
 	 * @param res
 	 *            the result to undo
 	 */
 	private void rollBackResult(Result res) {
+		trace(SearchTracer.Event.ROLLBACK, res, res.getConstraint());
+		trail.undo(res.getTrailMark(), assignment, goal);
+	}
 
-		assignment.removeAll(res.getNewSubsumers());
-		goal.removeAll(res.getNewSolvedConstraints());
-		goal.removeAll(res.getNewUnsolvedConstraints());
-
-		for (FlatConstraint con : res.getSolvedConstraints()) {
-			con.setSolved(false);
+	/**
+	 * Mark a constraint as solved and record this change in the trail.
+	 * 
+	 * @param con
+	 *            the constraint
+	 */
+	private void markSolved(FlatConstraint con) {
+		if (!con.isSolved()) {
+			goal.setSolved(con, true);
+			trail.solved(con);
 		}
-
-		res.getConstraint().setSolved(false);
 	}
 
 }
@@ -0,0 +1,75 @@
+package de.tudresden.inf.lat.uel.rule;
+
+/**
+ * Receives the events of the search of the rule-based algorithm, e.g., for
+ * debugging. The events only carry references to objects that already exist
+ * during the search; any string representation has to be computed by the
+ * tracer itself. If no tracer is set, the algorithm skips the events
+ * entirely.
+ *
+ * @author Stefan Borgwardt
+ */
+@FunctionalInterface
+public interface SearchTracer {
+
+	/**
+	 * The kinds of events that occur during the search.
+	 */
+	enum Event {
+		/**
+		 * A rule is checked for applicability to a constraint. The subject is
+		 * the rule.
+		 */
+		RULE_TRIED,
+		/**
+		 * A rule was successfully applied to a constraint. The subject is the
+		 * rule application.
+		 */
+		RULE_APPLIED,
+		/**
+		 * The application of a rule to a constraint failed. The subject is
+		 * the rule application.
+		 */
+		RULE_FAILED,
+		/**
+		 * The changes of a rule application were added to the goal and the
+		 * assignment. The subject is the result.
+		 */
+		COMMIT,
+		/**
+		 * The changes of a rule application could not be committed since the
+		 * static eager rules failed. The subject is the result.
+		 */
+		COMMIT_FAILED,
+		/**
+		 * The result of a nondeterministic rule application was pushed on the
+		 * search stack. The subject is the result.
+		 */
+		PUSH,
+		/**
+		 * A result was popped from the search stack during backtracking. The
+		 * subject is the result.
+		 */
+		POP,
+		/**
+		 * The changes of a rule application were undone. The subject is the
+		 * result.
+		 */
+		ROLLBACK
+	}
+
+	/**
+	 * Record an event of the search.
+	 *
+	 * @param event
+	 *            the kind of event
+	 * @param subject
+	 *            the rule, rule application, or result the event refers to
+	 * @param constraint
+	 *            the constraint the event refers to, or 'null'
+	 * @param depth
+	 *            the current size of the search stack
+	 */
+	void trace(Event event, Object subject, FlatConstraint constraint, int depth);
+
+}
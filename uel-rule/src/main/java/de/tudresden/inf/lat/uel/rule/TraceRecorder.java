@@ -0,0 +1,121 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A search tracer that keeps the most recent events in a ring buffer of fixed
+ * capacity. The events are only converted to strings when they are
+ * requested, e.g., after the search has failed unexpectedly.
+ *
+ * Since the recorded events refer to the constraints and results of the
+ * search, which may change later on, their string representation reflects the
+ * state at the time they are requested.
+ *
+ * @author Stefan Borgwardt
+ */
+public class TraceRecorder implements SearchTracer {
+
+	private final FlatConstraint[] constraints;
+	private final int[] depths;
+	private final Event[] events;
+	private int next = 0;
+	private final Object[] subjects;
+	private long total = 0;
+
+	/**
+	 * Construct a new recorder.
+	 *
+	 * @param capacity
+	 *            the maximal number of events that are kept
+	 */
+	public TraceRecorder(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive.");
+		}
+		this.constraints = new FlatConstraint[capacity];
+		this.depths = new int[capacity];
+		this.events = new Event[capacity];
+		this.subjects = new Object[capacity];
+	}
+
+	/**
+	 * Remove all recorded events.
+	 */
+	public synchronized void clear() {
+		for (int i = 0; i < events.length; i++) {
+			constraints[i] = null;
+			events[i] = null;
+			subjects[i] = null;
+		}
+		next = 0;
+		total = 0;
+	}
+
+	/**
+	 * Print the recorded events, one per line.
+	 *
+	 * @param out
+	 *            the output stream
+	 */
+	public void dump(PrintStream out) {
+		for (String event : getEvents()) {
+			out.println(event);
+		}
+	}
+
+	/**
+	 * Returns the recorded events, starting with the oldest one.
+	 *
+	 * @return a list of string representations of the events
+	 */
+	public synchronized List<String> getEvents() {
+		int size = size();
+		List<String> list = new ArrayList<String>(size);
+		long first = total - size;
+		for (int i = 0; i < size; i++) {
+			int index = (int) ((first + i) % events.length);
+			StringBuilder sb = new StringBuilder();
+			sb.append(first + i);
+			sb.append(" [");
+			sb.append(depths[index]);
+			sb.append("] ");
+			sb.append(events[index]);
+			sb.append(" ");
+			sb.append(subjects[index]);
+			if (constraints[index] != null) {
+				sb.append(" ");
+				sb.append(constraints[index]);
+			}
+			list.add(sb.toString());
+		}
+		return list;
+	}
+
+	/**
+	 * @return the number of events that were recorded in total, including
+	 *         those that have already been overwritten
+	 */
+	public synchronized long getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return the number of events currently held by the recorder
+	 */
+	public synchronized int size() {
+		return (int) Math.min(total, events.length);
+	}
+
+	@Override
+	public synchronized void trace(Event event, Object subject, FlatConstraint constraint, int depth) {
+		constraints[next] = constraint;
+		depths[next] = depth;
+		events[next] = event;
+		subjects[next] = subject;
+		next = (next + 1) % events.length;
+		total++;
+	}
+
+}
@@ -0,0 +1,212 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import de.tudresden.inf.lat.uel.type.api.Atom;
+
+/**
+ * A chronological log of the changes made to the current assignment and the
+ * goal during the search of the rule-based algorithm. To backtrack, the
+ * changes made after a certain point in time are undone in reverse order.
+ * Hence, the cost of backtracking is proportional to the number of changes,
+ * and not to the size of the assignment or the goal.
+ *
+ * Since the changes only add facts to the state of the search, the set of
+ * recorded changes determines the current state. The trail therefore also
+ * maintains a 128-bit fingerprint of this set, which does not depend on the
+ * order of the changes or on the identity of the constraint objects.
+ *
+ * @author Stefan Borgwardt
+ */
+final class Trail {
+
+	private static final byte ADDED = 2;
+	private static final byte ASSIGNED = 0;
+	private static final byte ASSIGNED_ALL = 3;
+	private static final byte SOLVED = 1;
+
+	private static final long SEED_HIGH = 0x9E3779B97F4A7C15L;
+	private static final long SEED_LOW = 0xC2B2AE3D27D4EB4FL;
+
+	/**
+	 * The finalizer of the SplitMix64 generator, which is used to spread the
+	 * atom ids over all 64 bits.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	private static long hash(byte kind, Atom var, Object subject, long seed) {
+		long h = mix(seed + kind);
+		if (var != null) {
+			return mix(h + 31 * mix(seed ^ var.getAtomId()) + mix(seed + ((Atom) subject).getAtomId()));
+		}
+		FlatConstraint con = (FlatConstraint) subject;
+		// use the canonical representation, like 'FlatConstraint.equals'
+		long body = 0;
+		for (int atomId : con.getBodyIds()) {
+			body += mix(seed ^ atomId);
+		}
+		long head = 0;
+		for (int atomId : con.getHeadIds()) {
+			head += mix(seed ^ atomId);
+		}
+		if (con.isDissubsumption()) {
+			h = mix(h + 1);
+		}
+		return mix(h + 31 * mix(body) + head);
+	}
+
+	private long high = 0;
+	private long[] highs = new long[64];
+	private byte[] kinds = new byte[64];
+	private long low = 0;
+	private long[] lows = new long[64];
+	private int size = 0;
+	private Object[] subjects = new Object[64];
+	private Atom[] variables = new Atom[64];
+
+	/**
+	 * Hash a set of assigned atoms such that the result is the same as for
+	 * recording each atom separately.
+	 */
+	private static long hashAll(Atom var, Set<Atom> atoms, long seed) {
+		long h = 0;
+		for (Atom at : atoms) {
+			h ^= hash(ASSIGNED, var, at, seed);
+		}
+		return h;
+	}
+
+	private void push(byte kind, Atom var, Object subject) {
+		push(kind, var, subject, hash(kind, var, subject, SEED_HIGH), hash(kind, var, subject, SEED_LOW));
+	}
+
+	private void push(byte kind, Atom var, Object subject, long subjectHigh, long subjectLow) {
+		if (size == kinds.length) {
+			highs = Arrays.copyOf(highs, 2 * size);
+			kinds = Arrays.copyOf(kinds, 2 * size);
+			lows = Arrays.copyOf(lows, 2 * size);
+			subjects = Arrays.copyOf(subjects, 2 * size);
+			variables = Arrays.copyOf(variables, 2 * size);
+		}
+		highs[size] = subjectHigh;
+		kinds[size] = kind;
+		lows[size] = subjectLow;
+		subjects[size] = subject;
+		variables[size] = var;
+		high ^= highs[size];
+		low ^= lows[size];
+		size++;
+	}
+
+	/**
+	 * Record that a constraint was added to the goal.
+	 *
+	 * @param con
+	 *            the new constraint
+	 */
+	void added(FlatConstraint con) {
+		push(ADDED, null, con);
+	}
+
+	/**
+	 * Record that a non-variable atom was assigned to a variable.
+	 *
+	 * @param var
+	 *            the variable
+	 * @param at
+	 *            the new subsumer of the variable
+	 */
+	void assigned(Atom var, Atom at) {
+		push(ASSIGNED, var, at);
+	}
+
+	/**
+	 * Record that several non-variable atoms were assigned to a variable. This
+	 * is a single change, which is undone at once, but it has the same effect
+	 * on the fingerprint as recording each atom separately.
+	 *
+	 * @param var
+	 *            the variable
+	 * @param atoms
+	 *            the new subsumers of the variable, which must not be changed
+	 *            afterwards
+	 */
+	void assignedAll(Atom var, AtomBitSet atoms) {
+		push(ASSIGNED_ALL, var, atoms, hashAll(var, atoms, SEED_HIGH), hashAll(var, atoms, SEED_LOW));
+	}
+
+	/**
+	 * @return the upper 64 bits of the fingerprint of the current state
+	 */
+	long getStateHigh() {
+		return high;
+	}
+
+	/**
+	 * @return the lower 64 bits of the fingerprint of the current state
+	 */
+	long getStateLow() {
+		return low;
+	}
+
+	/**
+	 * Return the current position in the trail, to which the changes can later
+	 * be undone.
+	 *
+	 * @return the number of recorded changes
+	 */
+	int mark() {
+		return size;
+	}
+
+	/**
+	 * Record that a constraint was marked as solved.
+	 *
+	 * @param con
+	 *            the previously unsolved constraint
+	 */
+	void solved(FlatConstraint con) {
+		push(SOLVED, null, con);
+	}
+
+	/**
+	 * Undo all changes that were recorded after the given position, in reverse
+	 * order.
+	 *
+	 * @param mark
+	 *            a position obtained from 'mark()'
+	 * @param assignment
+	 *            the assignment the changes were made to
+	 * @param goal
+	 *            the goal the changes were made to
+	 */
+	void undo(int mark, Assignment assignment, NormalizedGoal goal) {
+		while (size > mark) {
+			size--;
+			high ^= highs[size];
+			low ^= lows[size];
+			switch (kinds[size]) {
+			case ASSIGNED:
+				assignment.remove(variables[size], (Atom) subjects[size]);
+				break;
+			case ASSIGNED_ALL:
+				assignment.removeAll(variables[size], (AtomBitSet) subjects[size]);
+				break;
+			case SOLVED:
+				goal.setSolved((FlatConstraint) subjects[size], false);
+				break;
+			default:
+				goal.remove(subjects[size]);
+				break;
+			}
+			subjects[size] = null;
+			variables[size] = null;
+		}
+	}
+
+}
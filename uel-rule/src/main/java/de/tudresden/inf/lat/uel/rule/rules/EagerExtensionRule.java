@@ -35,7 +35,7 @@ public final class EagerExtensionRule extends EagerRule {
 			// check whether the rest of the body is contained in the assignment of
 			// the variable
 			for (Atom at : sub.getBody()) {
-				if (!at.isVariable() && !assign.getSubsumers(var).contains(at)) {
+				if (!at.isVariable() && !assign.contains(var, at)) {
 					return null;
 				}
 			}
@@ -55,7 +55,6 @@ public final class EagerExtensionRule extends EagerRule {
 		}
 		Result res = new Result(sub, application);
 		res.getNewSubsumers().add(appl.var, sub.getHead());
-		System.out.println("EEx has been applied" + sub);
 		return res;
 	}
 
@@ -28,7 +28,6 @@ public final class EagerSolving1Rule extends EagerRule {
 
 	@Override
 	public Result apply(FlatConstraint sub, Assignment assign, Application application) {
-		System.out.println("ES1 has been applied" + sub);
 		return new Result(sub, application);
 	}
 
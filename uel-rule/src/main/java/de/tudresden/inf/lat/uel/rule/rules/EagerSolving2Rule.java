@@ -19,7 +19,7 @@ public final class EagerSolving2Rule extends EagerRule {
 			Atom head = sub.getHead();
 			for (Atom at : sub.getBody()) {
 				if (at.isVariable()) {
-					if (assign.getSubsumers(at).contains(head)) {
+					if (assign.contains(at, head)) {
 						return new Application();
 					}
 				}
@@ -30,7 +30,6 @@ public final class EagerSolving2Rule extends EagerRule {
 
 	@Override
 	public Result apply(FlatConstraint sub, Assignment assign, Application application) {
-		System.out.println("ES2 has been applied" + sub);
 		return new Result(sub, application);
 	}
 
@@ -15,22 +15,18 @@ public final class ExtensionRule extends Rule {
 
 	@Override
 	public Application getFirstApplication(FlatConstraint sub, Assignment assign) {
-		System.out.println("ExtensionRule: Getting first application for constraint: " + sub);
 		if (!sub.isDissubsumption()) {
 			for (Atom at : sub.getBody()) {
 				if (at.isVariable()) {
-					System.out.println("ExtensionRule: First application found: " + at);
 					return new Application(at);
 				}
 			}
 		}
-		System.out.println("ExtensionRule: No valid first application found.");
 		return null;
 	}
 
 	@Override
 	public Application getNextApplication(FlatConstraint sub, Assignment assign, Rule.Application previous) {
-		System.out.println("ExtensionRule: Getting next application for constraint: " + sub + " after previous: " + previous);
 		if (!sub.isDissubsumption()) {
 			if (!(previous instanceof Application)) {
 				throw new IllegalArgumentException("Expected rule application of type ExtensionRule.Application.");
@@ -39,12 +35,10 @@ public final class ExtensionRule extends Rule {
 			for (int i = sub.getBody().indexOf(appl.at) + 1; i < sub.getBody().size(); i++) {
 				if (sub.getBody().get(i).isVariable()) {
 					appl.at = sub.getBody().get(i);
-					System.out.println("ExtensionRule: Next application found: " + appl.at);
 					return appl;
 				}
 			}
 		}
-		System.out.println("ExtensionRule: No valid next application found.");
 		return null;
 	}
 
@@ -59,7 +53,6 @@ public final class ExtensionRule extends Rule {
 		}
 		Result res = new Result(sub, application);
 		res.getNewSubsumers().add(appl.at, sub.getHead());
-		System.out.println("Ext has been applied" + sub);
 		return res;
 	}
 
@@ -63,7 +63,6 @@ public class LocalExtension extends Rule{
         res.getNewSubsumers().add(X, D);
         FlatConstraint newDissub = new FlatConstraint(dissub.getBody(), D, true);
         res.getNewUnsolvedConstraints().add(newDissub);
-        System.out.println("LE has been applied" + dissub);
         return res;
     }
 
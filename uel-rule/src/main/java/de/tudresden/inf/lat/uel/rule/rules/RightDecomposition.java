@@ -60,7 +60,6 @@ public final class RightDecomposition extends Rule {
         List<Atom> body = dissub.getBody();
         FlatConstraint newDissub = new FlatConstraint(body, Collections.<Atom> singletonList(head), true);
         res.getNewUnsolvedConstraints().add(newDissub);
-        System.out.println("RDec has been applied" + dissub);
         return res;
     }
 
@@ -70,6 +70,11 @@ public abstract class Rule {
 	 */
 	abstract String shortcut();
 
+	@Override
+	public String toString() {
+		return shortcut();
+	}
+
 	/**
 	 * This is the common base class of all rule applications. Classes derived
 	 * from this can be used to store certain details of the specific rule
@@ -0,0 +1,127 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.Atom;
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.impl.AtomManagerImpl;
+
+/**
+ * Test class for 'AtomBitSet'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class AtomBitSetTest {
+
+	private static List<Atom> atoms(AtomManager atomManager, int number) {
+		List<Atom> atoms = new ArrayList<Atom>();
+		for (int i = 0; i < number; i++) {
+			atoms.add(atomManager.getAtom(atomManager.createConceptName("A" + i, false)));
+		}
+		return atoms;
+	}
+
+	@Test
+	public void testAgainstHashSet() {
+		// more than two words
+		List<Atom> atoms = atoms(new AtomManagerImpl(), 150);
+		AtomBitSet.Index index = new AtomBitSet.Index(atoms);
+		Random random = new Random(0);
+		for (int round = 0; round < 100; round++) {
+			AtomBitSet first = new AtomBitSet(index);
+			AtomBitSet second = new AtomBitSet(index);
+			Set<Atom> expectedFirst = new HashSet<Atom>();
+			Set<Atom> expectedSecond = new HashSet<Atom>();
+			for (int i = 0; i < 60; i++) {
+				Atom at = atoms.get(random.nextInt(atoms.size()));
+				Assertions.assertEquals(expectedFirst.add(at), first.add(at));
+				at = atoms.get(random.nextInt(atoms.size()));
+				Assertions.assertEquals(expectedSecond.add(at), second.add(at));
+			}
+			Assertions.assertEquals(expectedFirst, first);
+			Assertions.assertEquals(expectedFirst.size(), first.size());
+			Assertions.assertEquals(expectedFirst.containsAll(expectedSecond), first.containsAll(second));
+
+			AtomBitSet copy = new AtomBitSet(first);
+			Assertions.assertEquals(expectedFirst.removeAll(expectedSecond), first.removeAll(second));
+			Assertions.assertEquals(expectedFirst, first);
+			Assertions.assertEquals(expectedFirst.size(), first.size());
+			Assertions.assertTrue(copy.containsAll(first));
+
+			Assertions.assertEquals(expectedFirst.addAll(expectedSecond), first.addAll(second));
+			Assertions.assertEquals(expectedFirst, first);
+			Assertions.assertEquals(expectedFirst.size(), first.size());
+			Assertions.assertTrue(first.containsAll(second));
+
+			// operations with other kinds of sets
+			Assertions.assertEquals(expectedFirst.removeAll(expectedSecond), first.removeAll(expectedSecond));
+			Assertions.assertEquals(expectedFirst, first);
+			Assertions.assertEquals(expectedFirst.addAll(copy), first.addAll(new HashSet<Atom>(copy)));
+			Assertions.assertEquals(expectedFirst, first);
+
+			// only the atoms that were not contained before are returned
+			for (Set<Atom> other : List.of(second, new HashSet<Atom>(second))) {
+				AtomBitSet target = new AtomBitSet(copy);
+				Set<Atom> expectedAdded = new HashSet<Atom>(other);
+				expectedAdded.removeAll(copy);
+				Set<Atom> expectedTarget = new HashSet<Atom>(copy);
+				expectedTarget.addAll(other);
+				AtomBitSet added = target.addNew(other);
+				Assertions.assertEquals(expectedAdded, added);
+				Assertions.assertEquals(expectedAdded.size(), added.size());
+				Assertions.assertEquals(expectedTarget, target);
+				Assertions.assertEquals(expectedTarget.size(), target.size());
+			}
+		}
+	}
+
+	@Test
+	public void testIterator() {
+		List<Atom> atoms = atoms(new AtomManagerImpl(), 130);
+		AtomBitSet set = new AtomBitSet(new AtomBitSet.Index(atoms));
+		for (int i = 0; i < atoms.size(); i += 3) {
+			set.add(atoms.get(i));
+		}
+
+		// the atoms are returned in the order of the list
+		int expected = 0;
+		for (Iterator<Atom> iterator = set.iterator(); iterator.hasNext();) {
+			Assertions.assertSame(atoms.get(expected), iterator.next());
+			if (expected % 2 == 0) {
+				iterator.remove();
+			}
+			expected += 3;
+		}
+		// 44 atoms were visited, and every second one was removed
+		Assertions.assertEquals(132, expected);
+		Assertions.assertEquals(22, set.size());
+		for (int i = 0; i < atoms.size(); i++) {
+			Assertions.assertEquals((i % 6) == 3, set.contains(atoms.get(i)));
+		}
+		set.clear();
+		Assertions.assertTrue(set.isEmpty());
+		Assertions.assertFalse(set.iterator().hasNext());
+	}
+
+	@Test
+	public void testForeignAtoms() {
+		AtomManager atomManager = new AtomManagerImpl();
+		List<Atom> atoms = atoms(atomManager, 10);
+		AtomBitSet set = new AtomBitSet(new AtomBitSet.Index(atoms.subList(0, 5)));
+		Atom foreign = atoms.get(7);
+		Assertions.assertFalse(set.contains(foreign));
+		Assertions.assertFalse(set.remove(foreign));
+		Assertions.assertFalse(set.contains("A0"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> set.add(foreign));
+	}
+
+}
@@ -0,0 +1,106 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.Atom;
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.impl.GoalBuilder;
+
+/**
+ * Test class for 'DependencyOrder'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class DependencyOrderTest {
+
+	private final List<Atom> restrictions = new ArrayList<Atom>();
+	private final List<Atom> variables = new ArrayList<Atom>();
+	private List<Atom> nonVariableAtoms;
+
+	private void createAtoms(int numberOfVariables) {
+		GoalBuilder builder = new GoalBuilder();
+		int[] varIds = new int[numberOfVariables];
+		int[] restrictionIds = new int[numberOfVariables];
+		for (int i = 0; i < numberOfVariables; i++) {
+			varIds[i] = builder.userVariable("X" + i);
+			restrictionIds[i] = builder.existentialRestriction("r", varIds[i]);
+		}
+		builder.conceptName("A");
+		AtomManager atomManager = builder.build().getAtomManager();
+		for (int i = 0; i < numberOfVariables; i++) {
+			variables.add(atomManager.getAtom(varIds[i]));
+			restrictions.add(atomManager.getAtom(restrictionIds[i]));
+		}
+		nonVariableAtoms = atomManager.getNonvariableAtoms();
+	}
+
+	@Test
+	public void testChain() {
+		createAtoms(4);
+		// the variables are added in the reverse order of their dependencies
+		Assignment assignment = new Assignment(nonVariableAtoms);
+		assignment.add(variables.get(2), restrictions.get(3));
+		assignment.add(variables.get(1), restrictions.get(2));
+		assignment.add(variables.get(0), restrictions.get(1));
+
+		Assertions.assertTrue(assignment.dependsOn(variables.get(0), variables.get(3)));
+		Assertions.assertTrue(assignment.dependsOn(variables.get(1), variables.get(3)));
+		Assertions.assertFalse(assignment.dependsOn(variables.get(3), variables.get(0)));
+		Assertions.assertTrue(assignment.makesCyclic(variables.get(3), restrictions.get(0)));
+		Assertions.assertTrue(assignment.makesCyclic(variables.get(0), restrictions.get(0)));
+		Assertions.assertFalse(assignment.makesCyclic(variables.get(0), restrictions.get(3)));
+
+		// removing a dependency does not invalidate the order
+		assignment.remove(variables.get(1), restrictions.get(2));
+		Assertions.assertFalse(assignment.dependsOn(variables.get(0), variables.get(3)));
+		Assertions.assertFalse(assignment.makesCyclic(variables.get(3), restrictions.get(0)));
+	}
+
+	@Test
+	public void testAgainstUnorderedAssignment() {
+		createAtoms(12);
+		Random random = new Random(0);
+		for (int round = 0; round < 50; round++) {
+			Assignment ordered = new Assignment(nonVariableAtoms);
+			Assignment unordered = new Assignment();
+			for (int i = 0; i < 60; i++) {
+				Atom var = variables.get(random.nextInt(variables.size()));
+				Atom at = restrictions.get(random.nextInt(restrictions.size()));
+				boolean cyclic = unordered.makesCyclic(var, at);
+				Assertions.assertEquals(cyclic, ordered.makesCyclic(var, at));
+				if (random.nextInt(4) == 0) {
+					ordered.remove(var, at);
+					unordered.remove(var, at);
+				} else if (!cyclic) {
+					ordered.add(var, at);
+					unordered.add(var, at);
+				}
+			}
+			for (Atom a : variables) {
+				for (Atom b : variables) {
+					Assertions.assertEquals(unordered.dependsOn(a, b), ordered.dependsOn(a, b));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCyclicAssignment() {
+		createAtoms(3);
+		Assignment assignment = new Assignment(nonVariableAtoms);
+		assignment.add(variables.get(0), restrictions.get(1));
+		assignment.add(variables.get(1), restrictions.get(2));
+		// the order is abandoned, but the dependencies are still found
+		assignment.add(variables.get(2), restrictions.get(0));
+		Assertions.assertTrue(assignment.dependsOn(variables.get(2), variables.get(1)));
+		Assertions.assertTrue(assignment.dependsOn(variables.get(0), variables.get(2)));
+		Assertions.assertTrue(assignment.dependsOn(variables.get(1), variables.get(1)));
+	}
+
+}
@@ -0,0 +1,93 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.Atom;
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.impl.AtomManagerImpl;
+import de.tudresden.inf.lat.uel.type.impl.ConceptName;
+
+/**
+ * Test class for 'FlatConstraint'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class FlatConstraintTest {
+
+	/**
+	 * An atom that was not created by an atom manager.
+	 */
+	private static final Atom UNMANAGED = new Atom() {
+
+		@Override
+		public int getAtomId() {
+			return 0;
+		}
+
+		@Override
+		public ConceptName getConceptName() {
+			return null;
+		}
+
+		@Override
+		public boolean isConceptName() {
+			return true;
+		}
+
+		@Override
+		public boolean isConstant() {
+			return true;
+		}
+
+		@Override
+		public boolean isExistentialRestriction() {
+			return false;
+		}
+
+		@Override
+		public boolean isGround() {
+			return true;
+		}
+
+		@Override
+		public boolean isVariable() {
+			return false;
+		}
+
+	};
+
+	@Test
+	public void testEqualityIgnoresOrderAndDuplicates() {
+		AtomManager atomManager = new AtomManagerImpl();
+		Atom a = atomManager.getAtom(atomManager.createConceptName("A", false));
+		Atom b = atomManager.getAtom(atomManager.createConceptName("B", false));
+		Atom ra = atomManager.getAtom(atomManager.createExistentialRestriction("r", a.getAtomId()));
+
+		FlatConstraint first = new FlatConstraint(Arrays.asList(a, b, a), ra, false);
+		FlatConstraint second = new FlatConstraint(Arrays.asList(b, a), ra, false);
+		Assertions.assertEquals(first, second);
+		Assertions.assertEquals(first.hashCode(), second.hashCode());
+
+		FlatConstraint dissubsumption = new FlatConstraint(Arrays.asList(a, b), Collections.singletonList(ra), true);
+		Assertions.assertNotEquals(first, dissubsumption);
+		Assertions.assertEquals(dissubsumption,
+				new FlatConstraint(Arrays.asList(b, a, b), Collections.singletonList(ra), true));
+	}
+
+	@Test
+	public void testAtomsWithoutIdAreRejected() {
+		AtomManager atomManager = new AtomManagerImpl();
+		Atom a = atomManager.getAtom(atomManager.createConceptName("A", false));
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new FlatConstraint(UNMANAGED, a, false));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new FlatConstraint(a, UNMANAGED, false));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new FlatConstraint(Arrays.asList(a, UNMANAGED), Collections.singletonList(a), true));
+	}
+
+}
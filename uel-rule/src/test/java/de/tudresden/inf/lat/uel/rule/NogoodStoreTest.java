@@ -0,0 +1,47 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for 'NogoodStore'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class NogoodStoreTest {
+
+	@Test
+	public void testAddAndContains() {
+		NogoodStore store = new NogoodStore(1000);
+		for (long i = 0; i < 500; i++) {
+			// equal lower halves, so that all entries collide
+			store.add(i, 42);
+		}
+		store.add(7, 42);
+		Assertions.assertEquals(500, store.size());
+		for (long i = 0; i < 500; i++) {
+			Assertions.assertTrue(store.contains(i, 42));
+		}
+		Assertions.assertFalse(store.contains(500, 42));
+		Assertions.assertFalse(store.contains(0, 43));
+	}
+
+	@Test
+	public void testClearWhenFull() {
+		NogoodStore store = new NogoodStore(4);
+		for (long i = 0; i < 4; i++) {
+			store.add(i, i);
+		}
+		Assertions.assertEquals(4, store.size());
+		store.add(4, 4);
+		Assertions.assertEquals(1, store.size());
+		Assertions.assertTrue(store.contains(4, 4));
+		Assertions.assertFalse(store.contains(0, 0));
+
+		store.clear();
+		Assertions.assertEquals(0, store.size());
+		Assertions.assertFalse(store.contains(4, 4));
+	}
+
+}
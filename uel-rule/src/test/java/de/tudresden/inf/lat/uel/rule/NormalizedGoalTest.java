@@ -0,0 +1,153 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.impl.GoalBuilder;
+
+/**
+ * Test class for 'NormalizedGoal'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class NormalizedGoalTest {
+
+	private static List<FlatConstraint> unsolved(NormalizedGoal goal) {
+		List<FlatConstraint> list = new ArrayList<FlatConstraint>();
+		goal.getUnsolvedConstraints().forEach(list::add);
+		return list;
+	}
+
+	@Test
+	public void testUnsolvedConstraints() {
+		GoalBuilder builder = new GoalBuilder();
+		AtomManager atomManager = builder.getAtomManager();
+		int x = builder.userVariable("X");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		builder.subsumption(new int[] { x }, new int[] { a, b });
+		builder.dissubsumption(new int[] { x }, new int[] { a });
+		NormalizedGoal goal = new NormalizedGoal(builder.build());
+
+		Assertions.assertEquals(3, goal.size());
+		List<FlatConstraint> unsolved = unsolved(goal);
+		Assertions.assertEquals(3, unsolved.size());
+		// subsumptions come first
+		Assertions.assertFalse(unsolved.get(0).isDissubsumption());
+		Assertions.assertFalse(unsolved.get(1).isDissubsumption());
+		FlatConstraint dissubsumption = unsolved.get(2);
+		Assertions.assertTrue(dissubsumption.isDissubsumption());
+		Assertions.assertEquals(dissubsumption, goal.getFirstUnsolved(true));
+		Assertions.assertFalse(goal.getFirstUnsolved(false).isDissubsumption());
+
+		goal.setSolved(dissubsumption, true);
+		Assertions.assertTrue(dissubsumption.isSolved());
+		Assertions.assertEquals(2, unsolved(goal).size());
+		Assertions.assertFalse(goal.getFirstUnsolved(true).isDissubsumption());
+		for (FlatConstraint con : unsolved) {
+			goal.setSolved(con, true);
+		}
+		Assertions.assertNull(goal.getFirstUnsolved(true));
+		Assertions.assertNull(goal.getFirstUnsolved(false));
+
+		goal.setSolved(dissubsumption, false);
+		Assertions.assertEquals(dissubsumption, goal.getFirstUnsolved(false));
+
+		// solved or removed constraints are not unsolved
+		goal.remove(dissubsumption);
+		Assertions.assertNull(goal.getFirstUnsolved(false));
+		goal.setSolved(dissubsumption, false);
+		Assertions.assertNull(goal.getFirstUnsolved(false));
+		Assertions.assertFalse(goal.contains(dissubsumption));
+
+		FlatConstraint added = new FlatConstraint(Arrays.asList(atomManager.getAtom(b)), atomManager.getAtom(x),
+				false);
+		goal.add(added);
+		Assertions.assertEquals(Arrays.asList(added), unsolved(goal));
+		goal.clear();
+		Assertions.assertTrue(unsolved(goal).isEmpty());
+	}
+
+	@Test
+	public void testFirstUnsolvedIsOldest() {
+		GoalBuilder builder = new GoalBuilder();
+		AtomManager atomManager = builder.getAtomManager();
+		int x = builder.userVariable("X");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		builder.subsumption(new int[] { x }, new int[] { a });
+		builder.dissubsumption(new int[] { x }, new int[] { b });
+		NormalizedGoal goal = new NormalizedGoal(builder.build());
+
+		FlatConstraint subsumption = goal.getFirstUnsolved(false);
+		Assertions.assertFalse(subsumption.isDissubsumption());
+		goal.setSolved(subsumption, true);
+		FlatConstraint dissubsumption = goal.getFirstUnsolved(false);
+		Assertions.assertTrue(dissubsumption.isDissubsumption());
+
+		// the dissubsumption is older than a subsumption added later
+		FlatConstraint added = new FlatConstraint(Arrays.asList(atomManager.getAtom(b)), atomManager.getAtom(x),
+				false);
+		goal.add(added);
+		Assertions.assertEquals(dissubsumption, goal.getFirstUnsolved(false));
+		Assertions.assertEquals(dissubsumption, goal.getFirstUnsolved(true));
+		goal.setSolved(dissubsumption, true);
+		Assertions.assertEquals(added, goal.getFirstUnsolved(false));
+		Assertions.assertEquals(added, goal.getFirstUnsolved(true));
+
+		// a subsumption that becomes unsolved again keeps its position
+		goal.setSolved(subsumption, false);
+		Assertions.assertEquals(subsumption, goal.getFirstUnsolved(false));
+	}
+
+	@Test
+	public void testInitialOrderFollowsInput() {
+		GoalBuilder builder = new GoalBuilder();
+		AtomManager atomManager = builder.getAtomManager();
+		int x = builder.userVariable("X");
+		// spread the atom ids, so that the hash codes of the constraints are
+		// not ordered like the atoms
+		int[] names = new int[20];
+		for (int i = 0; i < 7 * names.length; i++) {
+			int name = builder.conceptName("A" + i);
+			if (i % 7 == 0) {
+				names[i / 7] = name;
+			}
+		}
+		builder.subsumption(new int[] { x }, names);
+		NormalizedGoal goal = new NormalizedGoal(builder.build());
+
+		List<FlatConstraint> unsolved = unsolved(goal);
+		Assertions.assertEquals(names.length, unsolved.size());
+		for (int i = 0; i < names.length; i++) {
+			Assertions.assertEquals(atomManager.getAtom(names[i]), unsolved.get(i).getHead());
+		}
+	}
+
+	@Test
+	public void testSetSolvedOfForeignConstraint() {
+		GoalBuilder builder = new GoalBuilder();
+		AtomManager atomManager = builder.getAtomManager();
+		int x = builder.userVariable("X");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		builder.subsumption(new int[] { x }, new int[] { a });
+		NormalizedGoal goal = new NormalizedGoal(builder.build());
+
+		FlatConstraint foreign = new FlatConstraint(Arrays.asList(atomManager.getAtom(b)), atomManager.getAtom(x),
+				false);
+		goal.setSolved(foreign, true);
+		Assertions.assertTrue(foreign.isSolved());
+		goal.setSolved(foreign, false);
+		Assertions.assertFalse(foreign.isSolved());
+		Assertions.assertEquals(1, unsolved(goal).size());
+		Assertions.assertFalse(goal.contains(foreign));
+	}
+
+}
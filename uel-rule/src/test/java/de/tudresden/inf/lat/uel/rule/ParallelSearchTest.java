@@ -0,0 +1,105 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.impl.CompactDefinitionSet;
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
+import de.tudresden.inf.lat.uel.type.impl.Unifier;
+
+/**
+ * Test class for 'ParallelSearch'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class ParallelSearchTest {
+
+	private static Unifier unifier() {
+		return new Unifier(new CompactDefinitionSet(0));
+	}
+
+	private static Thread offerAll(ParallelSearch search, AtomicReference<Throwable> failure, Unifier... unifiers) {
+		Thread thread = new Thread(() -> {
+			try {
+				for (Unifier unifier : unifiers) {
+					search.offer(unifier);
+				}
+			} catch (Throwable t) {
+				failure.set(t);
+			}
+		});
+		thread.start();
+		return thread;
+	}
+
+	private static void awaitBlocked(Thread thread) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while ((thread.getState() != Thread.State.WAITING) && (System.nanoTime() < deadline)) {
+			Thread.sleep(10);
+		}
+		Assertions.assertEquals(Thread.State.WAITING, thread.getState());
+	}
+
+	@Test
+	public void testOfferBlocksWhenBufferIsFull() throws InterruptedException {
+		ParallelSearch search = new ParallelSearch(ForkJoinPool.commonPool(), 1);
+		Unifier first = unifier();
+		Unifier second = unifier();
+		AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread producer = offerAll(search, failure, first, second);
+
+		// the second unifier is only accepted after the first was taken
+		awaitBlocked(producer);
+		Assertions.assertSame(first, search.next());
+		producer.join(10000);
+		Assertions.assertFalse(producer.isAlive());
+		Assertions.assertNull(failure.get());
+		Assertions.assertSame(second, search.next());
+	}
+
+	@Test
+	public void testCancelReleasesBlockedWorkers() throws InterruptedException {
+		ParallelSearch search = new ParallelSearch(ForkJoinPool.commonPool(), 1);
+		AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread producer = offerAll(search, failure, unifier(), unifier());
+
+		awaitBlocked(producer);
+		search.checkCancelled();
+		search.cancel();
+		// cancelling again has no effect
+		search.cancel();
+		search.cancel();
+		producer.join(10000);
+		Assertions.assertFalse(producer.isAlive());
+		Assertions.assertTrue(failure.get() instanceof InterruptedException);
+		Assertions.assertThrows(InterruptedException.class, () -> search.checkCancelled());
+		Assertions.assertThrows(InterruptedException.class, () -> search.offer(unifier()));
+	}
+
+	@Test
+	public void testLimitStopsSearch() throws InterruptedException {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			RuleBasedDisunificationAlgorithm algorithm = new RuleBasedDisunificationAlgorithm(
+					RuleBasedDisunificationAlgorithmTest.randomGoal(57));
+			algorithm.setParallelSearch(pool);
+			algorithm.setResourceLimits(ResourceLimits.NONE.withMaxNodes(1));
+			while (algorithm.computeNextUnifier()) {
+				// skip the unifiers that were found before the limit was
+				// reached
+			}
+			Assertions.assertEquals(ResourceLimits.Limit.NODES, algorithm.getReachedLimit());
+			Assertions.assertFalse(algorithm.computeNextUnifier());
+			algorithm.cleanup();
+			Assertions.assertTrue(pool.awaitQuiescence(10, TimeUnit.SECONDS));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,220 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.Goal;
+import de.tudresden.inf.lat.uel.type.api.UnificationAlgorithm;
+import de.tudresden.inf.lat.uel.type.impl.DecomposedUnificationAlgorithm;
+import de.tudresden.inf.lat.uel.type.impl.GoalBuilder;
+import de.tudresden.inf.lat.uel.type.impl.GoalDecomposition;
+import de.tudresden.inf.lat.uel.type.impl.Unifier;
+
+/**
+ * Test class for 'RuleBasedDisunificationAlgorithm'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class RuleBasedDisunificationAlgorithmTest {
+
+	/**
+	 * Generate a random goal with six variables, one concept name, and three
+	 * existential restrictions. Most constraints are subsumptions with three
+	 * body atoms, so that the same state is often reached on different
+	 * branches of the search.
+	 * 
+	 * @param seed
+	 *            the seed of the random generator
+	 * @return a new goal
+	 */
+	static Goal randomGoal(long seed) {
+		return randomGoal(seed, 2);
+	}
+
+	/**
+	 * Generate a random goal as above with the given number of
+	 * dissubsumptions.
+	 * 
+	 * @param seed
+	 *            the seed of the random generator
+	 * @param numberOfDissubsumptions
+	 *            the number of dissubsumptions
+	 * @return a new goal
+	 */
+	static Goal randomGoal(long seed, int numberOfDissubsumptions) {
+		Random random = new Random(seed);
+		GoalBuilder builder = new GoalBuilder();
+		int[] variables = new int[6];
+		for (int i = 0; i < variables.length; i++) {
+			variables[i] = builder.userVariable("X" + i);
+		}
+		List<Integer> restrictions = new ArrayList<Integer>();
+		for (int i = 0; i < 3; i++) {
+			restrictions.add(builder.existentialRestriction("r", variables[random.nextInt(variables.length)]));
+		}
+		List<Integer> heads = new ArrayList<Integer>(restrictions);
+		heads.add(builder.conceptName("A"));
+		for (int i = 0; i < 10; i++) {
+			int[] body = new int[3];
+			for (int j = 0; j < body.length; j++) {
+				body[j] = (random.nextInt(3) == 0) ? restrictions.get(random.nextInt(restrictions.size()))
+						: variables[random.nextInt(variables.length)];
+			}
+			builder.subsumption(body, new int[] { heads.get(random.nextInt(heads.size())) });
+		}
+		for (int i = 0; i < numberOfDissubsumptions; i++) {
+			int[] body = new int[1 + random.nextInt(2)];
+			for (int j = 0; j < body.length; j++) {
+				body[j] = variables[random.nextInt(variables.length)];
+			}
+			builder.dissubsumption(body, new int[] { heads.get(random.nextInt(heads.size())) });
+		}
+		return builder.build();
+	}
+
+	static Set<Unifier> unifiers(UnificationAlgorithm algorithm) throws InterruptedException {
+		Set<Unifier> unifiers = new HashSet<Unifier>();
+		try {
+			while (algorithm.computeNextUnifier()) {
+				unifiers.add(algorithm.getUnifier());
+			}
+		} finally {
+			algorithm.cleanup();
+		}
+		return unifiers;
+	}
+
+	@Test
+	public void testDissubsumptionUsesAtomsOfOtherAxioms() throws InterruptedException {
+		// 'A ⋢ X' is only solved by 'X = B', where 'B' occurs only in 'Y ⊑ B'
+		GoalBuilder builder = new GoalBuilder();
+		int x = builder.userVariable("X");
+		int y = builder.userVariable("Y");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		builder.dissubsumption(new int[] { a }, new int[] { x });
+		builder.subsumption(new int[] { y }, new int[] { b });
+		Goal goal = builder.build();
+
+		Set<Unifier> expected = unifiers(new RuleBasedDisunificationAlgorithm(goal));
+		Assertions.assertFalse(expected.isEmpty());
+		for (Unifier unifier : expected) {
+			Assertions.assertTrue(unifier.getDefinitions().getDefiniens(x).contains(b));
+		}
+
+		Set<Unifier> decomposed = unifiers(new DecomposedUnificationAlgorithm(GoalDecomposition.decompose(goal),
+				RuleBasedDisunificationAlgorithm::new));
+		Assertions.assertEquals(expected, decomposed);
+	}
+
+	@Test
+	public void testConstraintSelection() throws InterruptedException {
+		boolean differentUnifiers = false;
+		for (int seed = 0; seed < 100; seed++) {
+			for (int numberOfDissubsumptions = 0; numberOfDissubsumptions <= 2; numberOfDissubsumptions += 2) {
+				Goal goal = randomGoal(seed, numberOfDissubsumptions);
+				Set<Unifier> expected = unifiers(new RuleBasedDisunificationAlgorithm(goal));
+				for (ConstraintSelection selection : ConstraintSelection.values()) {
+					RuleBasedDisunificationAlgorithm algorithm = new RuleBasedDisunificationAlgorithm(goal);
+					algorithm.setConstraintSelection(selection);
+					Set<Unifier> actual = unifiers(algorithm);
+					Assertions.assertEquals(expected.isEmpty(), actual.isEmpty(), "seed " + seed + ", " + selection);
+					if ((numberOfDissubsumptions == 0) && (selection == ConstraintSelection.DISSUBSUMPTIONS_FIRST)) {
+						// without dissubsumptions, this is the same as FIFO
+						Assertions.assertEquals(expected, actual, "seed " + seed);
+					}
+					differentUnifiers |= !expected.equals(actual);
+				}
+			}
+		}
+		// the strategy can change which of several equivalent or non-minimal
+		// unifiers are found
+		Assertions.assertTrue(differentUnifiers);
+	}
+
+	@Test
+	public void testNogoodsPreserveUnifiers() throws InterruptedException {
+		for (ConstraintSelection selection : ConstraintSelection.values()) {
+			long pruned = 0;
+			for (int seed = 0; seed < 100; seed++) {
+				Goal goal = randomGoal(seed);
+				RuleBasedDisunificationAlgorithm withNogoods = new RuleBasedDisunificationAlgorithm(goal);
+				withNogoods.setConstraintSelection(selection);
+				RuleBasedDisunificationAlgorithm withoutNogoods = new RuleBasedDisunificationAlgorithm(goal);
+				withoutNogoods.setConstraintSelection(selection);
+				withoutNogoods.setNogoodLearning(false);
+
+				Assertions.assertEquals(unifiers(withoutNogoods), unifiers(withNogoods), "seed " + seed);
+				Assertions.assertEquals(0, withoutNogoods.getMetrics().counter("rule.prunedByNogoods").get());
+				pruned += withNogoods.getMetrics().counter("rule.prunedByNogoods").get();
+			}
+			Assertions.assertTrue(pruned > 0, "no branch was pruned with " + selection);
+		}
+	}
+
+	@Test
+	public void testParallelSearchComputesSameUnifiers() throws InterruptedException {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (ConstraintSelection selection : ConstraintSelection.values()) {
+				for (int seed = 0; seed < 100; seed++) {
+					Goal goal = randomGoal(seed);
+					RuleBasedDisunificationAlgorithm sequential = new RuleBasedDisunificationAlgorithm(goal);
+					sequential.setConstraintSelection(selection);
+					RuleBasedDisunificationAlgorithm parallel = new RuleBasedDisunificationAlgorithm(goal);
+					parallel.setConstraintSelection(selection);
+					parallel.setParallelSearch(pool);
+
+					Set<Unifier> expected = unifiers(sequential);
+					Assertions.assertEquals(expected, unifiers(parallel), "seed " + seed);
+					Assertions.assertEquals(sequential.getMetrics().counter("unifiers").get(),
+							parallel.getMetrics().counter("unifiers").get(), "seed " + seed);
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testCleanupReleasesBlockedWorkers() throws InterruptedException {
+		// this goal has many more unifiers than are computed in advance
+		Goal goal = randomGoal(57);
+		RuleBasedDisunificationAlgorithm sequential = new RuleBasedDisunificationAlgorithm(goal);
+		unifiers(sequential);
+		long total = sequential.getMetrics().counter("unifiers").get();
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			RuleBasedDisunificationAlgorithm algorithm = new RuleBasedDisunificationAlgorithm(goal);
+			algorithm.setParallelSearch(pool);
+			Assertions.assertTrue(algorithm.computeNextUnifier());
+
+			// wait until all workers are blocked because the consumer does not
+			// take any more unifiers
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (((pool.getRunningThreadCount() > 0) || (pool.getActiveThreadCount() == 0))
+					&& (System.nanoTime() < deadline)) {
+				Thread.sleep(10);
+			}
+			Assertions.assertEquals(0, pool.getRunningThreadCount());
+			Assertions.assertFalse(pool.isQuiescent());
+
+			algorithm.cleanup();
+			Assertions.assertTrue(pool.awaitQuiescence(10, TimeUnit.SECONDS));
+			Assertions.assertTrue(algorithm.getMetrics().counter("unifiers").get() < total);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+}
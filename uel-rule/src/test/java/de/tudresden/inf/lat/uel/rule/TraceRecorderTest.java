@@ -0,0 +1,106 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.rule.SearchTracer.Event;
+import de.tudresden.inf.lat.uel.type.api.Goal;
+import de.tudresden.inf.lat.uel.type.impl.GoalBuilder;
+import de.tudresden.inf.lat.uel.type.impl.Unifier;
+
+/**
+ * Test class for 'TraceRecorder'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class TraceRecorderTest {
+
+	private static Set<Unifier> unifiers(RuleBasedDisunificationAlgorithm algorithm) throws InterruptedException {
+		Set<Unifier> unifiers = new HashSet<Unifier>();
+		while (algorithm.computeNextUnifier()) {
+			unifiers.add(algorithm.getUnifier());
+		}
+		return unifiers;
+	}
+
+	@Test
+	public void testRingBuffer() {
+		TraceRecorder recorder = new TraceRecorder(3);
+		Assertions.assertEquals(0, recorder.size());
+		Assertions.assertTrue(recorder.getEvents().isEmpty());
+
+		for (int i = 0; i < 5; i++) {
+			recorder.trace(Event.PUSH, "s" + i, null, i);
+		}
+		Assertions.assertEquals(3, recorder.size());
+		Assertions.assertEquals(5, recorder.getTotal());
+		List<String> events = recorder.getEvents();
+		Assertions.assertEquals("2 [2] PUSH s2", events.get(0));
+		Assertions.assertEquals("3 [3] PUSH s3", events.get(1));
+		Assertions.assertEquals("4 [4] PUSH s4", events.get(2));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		recorder.dump(new PrintStream(out, true));
+		Assertions.assertEquals(String.join(System.lineSeparator(), events) + System.lineSeparator(),
+				out.toString());
+
+		recorder.clear();
+		Assertions.assertEquals(0, recorder.size());
+		Assertions.assertEquals(0, recorder.getTotal());
+		recorder.trace(Event.POP, "t", null, 0);
+		Assertions.assertEquals("0 [0] POP t", recorder.getEvents().get(0));
+	}
+
+	@Test
+	public void testInvalidCapacity() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new TraceRecorder(0));
+	}
+
+	@Test
+	public void testTraceSearch() throws InterruptedException {
+		GoalBuilder builder = new GoalBuilder();
+		int x = builder.userVariable("X");
+		int y = builder.userVariable("Y");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		builder.subsumption(new int[] { x, y }, new int[] { a });
+		builder.subsumption(new int[] { y }, new int[] { b });
+		builder.dissubsumption(new int[] { x }, new int[] { b });
+		Goal goal = builder.build();
+
+		Map<Event, Integer> counts = new EnumMap<Event, Integer>(Event.class);
+		RuleBasedDisunificationAlgorithm traced = new RuleBasedDisunificationAlgorithm(goal);
+		traced.setTracer((event, subject, constraint, depth) -> {
+			Assertions.assertNotNull(subject);
+			Assertions.assertTrue(depth >= 0);
+			counts.merge(event, 1, Integer::sum);
+		});
+		TraceRecorder recorder = new TraceRecorder(10);
+		RuleBasedDisunificationAlgorithm recorded = new RuleBasedDisunificationAlgorithm(goal);
+		recorded.setTracer(recorder);
+
+		// tracing does not change the result
+		Set<Unifier> expected = unifiers(new RuleBasedDisunificationAlgorithm(goal));
+		Assertions.assertFalse(expected.isEmpty());
+		Assertions.assertEquals(expected, unifiers(traced));
+		Assertions.assertEquals(expected, unifiers(recorded));
+
+		Assertions.assertTrue(counts.get(Event.RULE_TRIED) > 0);
+		Assertions.assertTrue(counts.get(Event.RULE_APPLIED) > 0);
+		Assertions.assertTrue(counts.get(Event.PUSH) > 0);
+		// every result on the stack is eventually popped
+		Assertions.assertEquals(counts.get(Event.PUSH), counts.get(Event.POP));
+		Assertions.assertEquals(10, recorder.size());
+		Assertions.assertEquals(counts.values().stream().mapToLong(Integer::longValue).sum(), recorder.getTotal());
+	}
+
+}
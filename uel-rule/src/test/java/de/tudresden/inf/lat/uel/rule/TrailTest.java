@@ -0,0 +1,206 @@
+package de.tudresden.inf.lat.uel.rule;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.Atom;
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.api.Goal;
+import de.tudresden.inf.lat.uel.type.impl.GoalBuilder;
+
+/**
+ * Test class for 'Trail'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class TrailTest {
+
+	private static int countUnsolved(NormalizedGoal goal) {
+		int count = 0;
+		for (FlatConstraint con : goal.getUnsolvedConstraints()) {
+			Assertions.assertFalse(con.isSolved());
+			count++;
+		}
+		return count;
+	}
+
+	@Test
+	public void testUndoRestoresState() {
+		GoalBuilder builder = new GoalBuilder();
+		int x = builder.userVariable("X");
+		int y = builder.userVariable("Y");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		int ry = builder.existentialRestriction("r", y);
+		builder.subsumption(new int[] { x }, new int[] { a });
+		builder.subsumption(new int[] { y }, new int[] { b });
+		builder.subsumption(new int[] { x }, new int[] { ry });
+		Goal input = builder.build();
+		AtomManager atomManager = input.getAtomManager();
+		Atom xAtom = atomManager.getAtom(x);
+		Atom aAtom = atomManager.getAtom(a);
+		Atom bAtom = atomManager.getAtom(b);
+
+		NormalizedGoal goal = new NormalizedGoal(input);
+		Assignment assignment = new Assignment(atomManager.getNonvariableAtoms());
+		Trail trail = new Trail();
+		goal.setTrail(trail);
+		assignment.setTrail(trail);
+		Set<FlatConstraint> constraints = new HashSet<FlatConstraint>(goal);
+		FlatConstraint first = goal.getFirstUnsolved(false);
+		long high = trail.getStateHigh();
+		long low = trail.getStateLow();
+		int mark = trail.mark();
+
+		assignment.add(xAtom, aAtom);
+		Assertions.assertTrue(goal.add(new FlatConstraint(aAtom, bAtom, false)));
+		goal.setSolved(first, true);
+		trail.solved(first);
+		Assertions.assertEquals(mark + 3, trail.mark());
+		Assertions.assertNotEquals(high, trail.getStateHigh());
+		Assertions.assertNotSame(first, goal.getFirstUnsolved(false));
+
+		trail.undo(mark, assignment, goal);
+		Assertions.assertEquals(mark, trail.mark());
+		Assertions.assertTrue(assignment.getSubsumers(xAtom).isEmpty());
+		Assertions.assertEquals(constraints, new HashSet<FlatConstraint>(goal));
+		Assertions.assertFalse(first.isSolved());
+		Assertions.assertEquals(3, countUnsolved(goal));
+		// the constraint regains its original position
+		Assertions.assertSame(first, goal.getFirstUnsolved(false));
+		Assertions.assertEquals(high, trail.getStateHigh());
+		Assertions.assertEquals(low, trail.getStateLow());
+	}
+
+	@Test
+	public void testNestedMarks() {
+		GoalBuilder builder = new GoalBuilder();
+		int x = builder.userVariable("X");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		builder.subsumption(new int[] { x }, new int[] { a });
+		Goal input = builder.build();
+		AtomManager atomManager = input.getAtomManager();
+		Atom xAtom = atomManager.getAtom(x);
+		Atom aAtom = atomManager.getAtom(a);
+		Atom bAtom = atomManager.getAtom(b);
+
+		NormalizedGoal goal = new NormalizedGoal(input);
+		Assignment assignment = new Assignment(atomManager.getNonvariableAtoms());
+		Trail trail = new Trail();
+		goal.setTrail(trail);
+		assignment.setTrail(trail);
+
+		int outer = trail.mark();
+		assignment.add(xAtom, aAtom);
+		// adding an existing subsumer or constraint is not recorded
+		assignment.add(xAtom, aAtom);
+		Assertions.assertFalse(goal.add(goal.iterator().next()));
+		int inner = trail.mark();
+		Assertions.assertEquals(outer + 1, inner);
+		for (int i = 0; i < 100; i++) {
+			goal.add(new FlatConstraint(bAtom, atomManager.getAtom(builder.conceptName("C" + i)), false));
+		}
+		assignment.add(xAtom, bAtom);
+
+		trail.undo(inner, assignment, goal);
+		Assertions.assertEquals(1, goal.size());
+		Assertions.assertEquals(1, assignment.getSubsumers(xAtom).size());
+		Assertions.assertTrue(assignment.getSubsumers(xAtom).contains(aAtom));
+
+		// undoing to a later position has no effect
+		trail.undo(inner + 5, assignment, goal);
+		Assertions.assertEquals(inner, trail.mark());
+
+		trail.undo(outer, assignment, goal);
+		Assertions.assertTrue(assignment.getSubsumers(xAtom).isEmpty());
+		Assertions.assertEquals(1, goal.size());
+	}
+
+	@Test
+	public void testAddAllIsOneChange() {
+		GoalBuilder builder = new GoalBuilder();
+		int x = builder.userVariable("X");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		int c = builder.conceptName("C");
+		builder.subsumption(new int[] { x }, new int[] { a });
+		Goal input = builder.build();
+		AtomManager atomManager = input.getAtomManager();
+		Atom xAtom = atomManager.getAtom(x);
+		Atom aAtom = atomManager.getAtom(a);
+		Atom bAtom = atomManager.getAtom(b);
+		Atom cAtom = atomManager.getAtom(c);
+
+		NormalizedGoal goal = new NormalizedGoal(input);
+		Assignment assignment = new Assignment(atomManager.getNonvariableAtoms());
+		Trail trail = new Trail();
+		assignment.setTrail(trail);
+		assignment.add(xAtom, aAtom);
+		int mark = trail.mark();
+
+		Set<Atom> subsumers = new HashSet<Atom>();
+		subsumers.add(aAtom);
+		subsumers.add(bAtom);
+		subsumers.add(cAtom);
+		Assertions.assertTrue(assignment.addAll(xAtom, subsumers));
+		Assertions.assertEquals(mark + 1, trail.mark());
+		Assertions.assertFalse(assignment.addAll(xAtom, subsumers));
+		Assertions.assertEquals(mark + 1, trail.mark());
+
+		// the fingerprint is the same as for separate assignments
+		Trail separate = new Trail();
+		separate.assigned(xAtom, aAtom);
+		separate.assigned(xAtom, cAtom);
+		separate.assigned(xAtom, bAtom);
+		Assertions.assertEquals(separate.getStateHigh(), trail.getStateHigh());
+		Assertions.assertEquals(separate.getStateLow(), trail.getStateLow());
+
+		trail.undo(mark, assignment, goal);
+		Assertions.assertEquals(1, assignment.getSubsumers(xAtom).size());
+		Assertions.assertTrue(assignment.contains(xAtom, aAtom));
+	}
+
+	@Test
+	public void testFingerprintIgnoresOrderAndIdentity() {
+		GoalBuilder builder = new GoalBuilder();
+		int x = builder.userVariable("X");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		AtomManager atomManager = builder.build().getAtomManager();
+		Atom xAtom = atomManager.getAtom(x);
+		Atom aAtom = atomManager.getAtom(a);
+		Atom bAtom = atomManager.getAtom(b);
+
+		Trail first = new Trail();
+		first.assigned(xAtom, aAtom);
+		first.added(new FlatConstraint(aAtom, bAtom, false));
+		first.solved(new FlatConstraint(bAtom, aAtom, false));
+
+		Trail second = new Trail();
+		second.solved(new FlatConstraint(bAtom, aAtom, false));
+		second.added(new FlatConstraint(aAtom, bAtom, false));
+		second.assigned(xAtom, aAtom);
+		Assertions.assertEquals(first.getStateHigh(), second.getStateHigh());
+		Assertions.assertEquals(first.getStateLow(), second.getStateLow());
+
+		// the kind of change matters
+		Trail third = new Trail();
+		third.assigned(xAtom, aAtom);
+		third.added(new FlatConstraint(aAtom, bAtom, false));
+		third.added(new FlatConstraint(bAtom, aAtom, false));
+		Assertions.assertNotEquals(first.getStateHigh(), third.getStateHigh());
+
+		// a dissubsumption differs from the subsumption with the same atoms
+		Trail fourth = new Trail();
+		fourth.assigned(xAtom, aAtom);
+		fourth.added(new FlatConstraint(aAtom, bAtom, true));
+		fourth.solved(new FlatConstraint(bAtom, aAtom, false));
+		Assertions.assertNotEquals(first.getStateHigh(), fourth.getStateHigh());
+	}
+
+}
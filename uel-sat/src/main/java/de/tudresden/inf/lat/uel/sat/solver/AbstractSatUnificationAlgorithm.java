@@ -13,7 +13,6 @@ import java.util.Vector;
 import java.util.stream.Collectors;
 
 import de.tudresden.inf.lat.uel.sat.literals.Choice;
-import de.tudresden.inf.lat.uel.sat.literals.ChoiceLiteral;
 import de.tudresden.inf.lat.uel.sat.literals.Literal;
 import de.tudresden.inf.lat.uel.sat.literals.OrderLiteral;
 import de.tudresden.inf.lat.uel.sat.literals.SubsumptionLiteral;
@@ -28,7 +27,9 @@ import de.tudresden.inf.lat.uel.type.api.Goal;
 import de.tudresden.inf.lat.uel.type.api.IndexedSet;
 import de.tudresden.inf.lat.uel.type.api.Subsumption;
 import de.tudresden.inf.lat.uel.type.impl.AbstractUnificationAlgorithm;
-import de.tudresden.inf.lat.uel.type.impl.IndexedSetImpl;
+import de.tudresden.inf.lat.uel.type.impl.ArrayIndexedSet;
+import de.tudresden.inf.lat.uel.type.impl.IntArraySet;
+import de.tudresden.inf.lat.uel.type.impl.Metrics;
 
 /**
  * @author Stefan Borgwardt
@@ -47,6 +48,20 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 	private static final String keySubsumptionPropositions = "Subsumption propositions";
 	private static final String keySubtypePropositions = "Subtype propositions";
 	private static final String keyTotalSize = "Total size of all clauses";
+	private static final String metricChoicePropositions = "sat.propositions.choice";
+	private static final String metricClauses = "sat.clauses";
+	private static final String metricOrderPropositions = "sat.propositions.order";
+	private static final String metricPropositions = "sat.propositions";
+	private static final String metricSubsumptionPropositions = "sat.propositions.subsumption";
+	private static final String metricSubtypePropositions = "sat.propositions.subtype";
+	private static final String metricTotalSize = "sat.clauses.totalSize";
+	private static final String timerEncoding = "sat.encoding";
+	private static final String timerEncodingDisunification = "sat.encoding.disunification";
+	private static final String timerEncodingGoal = "sat.encoding.goal";
+	private static final String timerEncodingMinimality = "sat.encoding.minimality";
+	private static final String timerEncodingOrder = "sat.encoding.order";
+	private static final String timerEncodingRestrictions = "sat.encoding.restrictions";
+	private static final String timerEncodingSubsumption = "sat.encoding.subsumption";
 	private static final String notUsingMinimalAssignments = "all local assignments";
 	private static final String usingMinimalAssignments = "only minimal assignments";
 
@@ -58,13 +73,17 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 	/**
 	 * An index of all literals used in the SAT encoding.
 	 */
-	protected final IndexedSet<Literal> literalManager = new IndexedSetImpl<Literal>();
+	protected final IndexedSet<Literal> literalManager = new ArrayIndexedSet<Literal>();
 
 	/**
 	 * Indicates whether assignments should be minimized.
 	 */
 	protected final boolean onlyMinimalAssignments;
 
+	private final Metrics.Counter orderPropositions = metrics.counter(metricOrderPropositions);
+	private final Metrics.Counter subsumptionPropositions = metrics.counter(metricSubsumptionPropositions);
+	private final Metrics.Counter subtypePropositions = metrics.counter(metricSubtypePropositions);
+
 	/**
 	 * Initialize a new SAT-based unification algorithm.
 	 * 
@@ -85,10 +104,13 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 		}
 	}
 
-	private void checkInterrupted() throws InterruptedException {
-		if (Thread.interrupted()) {
-			throw new InterruptedException();
+	private Integer addLiteral(Literal literal, Metrics.Counter counter) {
+		int size = literalManager.size();
+		Integer literalId = literalManager.addAndGetIndex(literal);
+		if (literalManager.size() > size) {
+			counter.increment();
 		}
+		return literalId;
 	}
 
 	private Choice choice(SatInput input, Set<Integer> previousChoiceLiterals, IndexedSet<Literal> literalManager,
@@ -96,8 +118,12 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 		return new UnaryChoice(input, previousChoiceLiterals, literalManager, numberOfChoices);
 	}
 
-	private Set<Integer> chooseSubsumption(Set<Integer> leftIds, Integer rightId) {
-		return leftIds.stream().map(leftId -> subsumption(leftId, rightId)).collect(Collectors.toSet());
+	private Set<Integer> chooseSubsumption(IntArraySet leftIds, Integer rightId) {
+		Set<Integer> clause = new HashSet<Integer>();
+		for (int i = 0; i < leftIds.size(); i++) {
+			clause.add(subsumption(leftIds.getInt(i), rightId));
+		}
+		return clause;
 	}
 
 	/**
@@ -115,20 +141,28 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 	 */
 	protected SatInput computeSatInput() throws InterruptedException {
 		input = new SatInput();
+		long startTime = System.nanoTime();
+		long phaseTime = startTime;
 
 		encodeGoal();
+		phaseTime = endPhase(timerEncodingGoal, phaseTime);
+
 		encodeSubsumptionBetweenConstants();
 		encodeSubsumptionBetweenExistentialRestrictions();
 		encodeSubsumptionBetweenConstantsAndExistentialRestrictions();
 		encodeTransitivityOfSubsumption();
+		phaseTime = endPhase(timerEncodingSubsumption, phaseTime);
+
 		encodeReflexivityOfOrder();
 		encodeTransitivityOfOrder();
 		encodeConnectionBetweenOrderAndSubsumption();
+		phaseTime = endPhase(timerEncodingOrder, phaseTime);
 
 		if (goal.hasNegativePart()) {
 			// add clauses with auxiliary variables needed for soundness of
 			// disunification
 			encodeConditionsForDissubsumptions();
+			phaseTime = endPhase(timerEncodingDisunification, phaseTime);
 		}
 
 		if (!goal.getTypes().isEmpty()) {
@@ -144,11 +178,14 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 		if (goal.restrictUndefContext()) {
 			encodeUndefContextRestriction();
 		}
+		phaseTime = endPhase(timerEncodingRestrictions, phaseTime);
 
 		if (onlyMinimalAssignments) {
 			encodeMinimalAssignments();
+			phaseTime = endPhase(timerEncodingMinimality, phaseTime);
 		}
 
+		metrics.timer(timerEncoding).record(phaseTime - startTime);
 		updateInfo();
 		return input;
 	}
@@ -184,7 +221,7 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 		for (Integer atomId1 : getVariables()) {
 			for (Integer atomId2 : getVariables()) {
 				if (!goal.areCompatible(atomId1, atomId2)) {
-					checkInterrupted();
+					checkLimits(0);
 
 					for (Integer varId : getVariables()) {
 						input.addNegativeClause(subsumption(varId, atomId1), subsumption(varId, atomId2));
@@ -198,7 +235,7 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 			Integer type1 = typePair.get(0);
 			Integer type2 = typePair.get(1);
 			if (!goal.areCompatible(type1, type2)) {
-				checkInterrupted();
+				checkLimits(0);
 
 				Integer roleGroupType1 = goal.getRoleGroupTypes().get(type1);
 				Integer roleGroupType2 = goal.getRoleGroupTypes().get(type2);
@@ -211,7 +248,7 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 		// no variable can have a role group type and a normal type
 		for (Integer type : goal.getTypes()) {
 			for (Integer roleGroupType : goal.getRoleGroupTypes().values()) {
-				checkInterrupted();
+				checkLimits(0);
 
 				for (Integer varId : getVariables()) {
 					input.addNegativeClause(subsumption(varId, type), subtype(varId, roleGroupType));
@@ -223,19 +260,18 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 	private void encodeConditionsForDissubsumptions() throws InterruptedException {
 		for (Integer atomId : getUsedAtomIds()) {
 			for (Integer varId : getVariables()) {
-				checkInterrupted();
+				checkLimits(0);
 
 				// TODO negate choice literals?
 				encodeDissubsumptionVariable(Collections.singleton(subsumption(atomId, varId)),
-						Collections.singleton(atomId), varId);
+						IntArraySet.of(atomId), varId);
 			}
 		}
 	}
 
 	private void encodeConnectionBetweenOrderAndSubsumption() {
-		for (Integer atomId1 : getExistentialRestrictions()) {
-			Integer childId = goal.getAtomManager().getChild(atomId1);
-			if (getVariables().contains(childId)) {
+		for (Integer childId : getVariables()) {
+			for (Integer atomId1 : goal.getAtomManager().getExistentialRestrictionsWithFiller(childId)) {
 				for (Integer atomId2 : getVariables()) {
 					input.addImplication(order(atomId2, childId), subsumption(atomId2, atomId1));
 				}
@@ -265,25 +301,23 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 		if (e.getRight().size() == 0) {
 			input.add(choiceLiterals);
 		} else if (e.getRight().size() == 1) {
-			encodeDissubsumption(choiceLiterals, e.getLeft(), e.getRight().iterator().next());
+			encodeDissubsumption(choiceLiterals, e.getLeft(), e.getRight().getInt(0));
 		} else {
 			// choose which of the right-hand side atoms does not subsume the
 			// left-hand side
 			Choice c = choice(input, choiceLiterals, literalManager, e.getRight().size());
-			int j = 0;
-			for (Integer rightId : e.getRight()) {
-				encodeDissubsumption(c.addChoiceLiterals(choiceLiterals, j), e.getLeft(), rightId);
-				j++;
+			for (int j = 0; j < e.getRight().size(); j++) {
+				encodeDissubsumption(c.addChoiceLiterals(choiceLiterals, j), e.getLeft(), e.getRight().getInt(j));
 			}
 		}
 	}
 
-	private void encodeDissubsumption(Set<Integer> choiceLiterals, Set<Integer> leftIds, Integer rightId) {
+	private void encodeDissubsumption(Set<Integer> choiceLiterals, IntArraySet leftIds, Integer rightId) {
 		if (leftIds.size() == 1) {
 			// assert single dissubsumption, the rest will be handled by
 			// 'addClausesForDisunification'
 			Set<Integer> clause = new HashSet<Integer>(choiceLiterals);
-			clause.add(-subsumption(leftIds.iterator().next(), rightId));
+			clause.add(-subsumption(leftIds.getInt(0), rightId));
 			input.add(clause);
 		} else if (getVariables().contains(rightId)) {
 			encodeDissubsumptionVariable(choiceLiterals, leftIds, rightId);
@@ -294,18 +328,18 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 		}
 	}
 
-	private void encodeDissubsumptionNonVariableAtom(Set<Integer> choiceLiterals, Set<Integer> leftIds,
+	private void encodeDissubsumptionNonVariableAtom(Set<Integer> choiceLiterals, IntArraySet leftIds,
 			Integer rightId) {
 		Set<Integer> clause;
-		for (Integer leftId : leftIds) {
+		for (int i = 0; i < leftIds.size(); i++) {
 			// TODO negate choice literals?
 			clause = new HashSet<Integer>(choiceLiterals);
-			clause.add(-subsumption(leftId, rightId));
+			clause.add(-subsumption(leftIds.getInt(i), rightId));
 			input.add(clause);
 		}
 	}
 
-	private void encodeDissubsumptionVariable(Set<Integer> choiceLiterals, Set<Integer> leftIds, Integer rightId) {
+	private void encodeDissubsumptionVariable(Set<Integer> choiceLiterals, IntArraySet leftIds, Integer rightId) {
 		// choose which non-variable atom solves the dissubsumption
 		Choice c = choice(input, choiceLiterals, literalManager, getNonVariableAtoms().size());
 		int j = 0;
@@ -333,7 +367,7 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 				Integer roleId = goal.getAtomManager().getRoleId(eatomId);
 				Set<Integer> domain = goal.getDomains().get(roleId);
 				if (domain != null) {
-					checkInterrupted();
+					checkLimits(0);
 
 					Set<Integer> head = domain.stream().map(type -> goal.getRoleGroupTypes().values().contains(type)
 							? subtype(varId, type) : subsumption(varId, type)).collect(Collectors.toSet());
@@ -348,7 +382,7 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 			Integer childId = goal.getAtomManager().getChild(eatomId);
 			Set<Integer> range = goal.getRanges().get(roleId);
 			if (range != null) {
-				checkInterrupted();
+				checkLimits(0);
 
 				input.add(range.stream().map(type -> subsumption(childId, type)).collect(Collectors.toSet()));
 			}
@@ -381,7 +415,7 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 	private void encodeMinimalAssignments() throws InterruptedException {
 		// minimize substitution sets
 		for (Integer varId : getUserVariables()) {
-			checkInterrupted();
+			checkLimits(0);
 
 			for (Integer atomId : getNonVariableAtoms()) {
 				input.addMinimizeLiteral(subsumption(varId, atomId));
@@ -389,7 +423,7 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 		}
 		// minimize subtype literals
 		for (Integer type : goal.getTypes()) {
-			checkInterrupted();
+			checkLimits(0);
 
 			for (Integer conceptNameId : getConceptNames()) {
 				input.addMinimizeLiteral(subtype(conceptNameId, type));
@@ -437,7 +471,7 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 				// restrictions in a conjunction
 				Set<Integer> ex = goal.getAtomManager().getExistentialRestrictions(roleId);
 				for (List<Integer> subset : computeSubsets(ex, number + 1)) {
-					checkInterrupted();
+					checkLimits(0);
 
 					// for each collection of 'number'+1 such restrictions, ...
 					Set<Integer> options = new HashSet<Integer>();
@@ -485,7 +519,9 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 
 	private void encodeSubsumption(Subsumption s) {
 		// if top is on the right-hand side, do nothing
-		for (Integer rightId : s.getRight()) {
+		IntArraySet rightIds = s.getRight();
+		for (int i = 0; i < rightIds.size(); i++) {
+			int rightId = rightIds.getInt(i);
 			if (getVariables().contains(rightId)) {
 				encodeSubsumptionVariable(s.getLeft(), rightId);
 			} else {
@@ -557,13 +593,13 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 		}
 	}
 
-	private void encodeSubsumptionNonVariableAtom(Set<Integer> leftIds, Integer rightId) {
+	private void encodeSubsumptionNonVariableAtom(IntArraySet leftIds, Integer rightId) {
 		input.add(chooseSubsumption(leftIds, rightId));
 	}
 
-	private void encodeSubsumptionVariable(Set<Integer> leftIds, Integer rightId) {
+	private void encodeSubsumptionVariable(IntArraySet leftIds, Integer rightId) {
 		for (Integer atomId : getNonVariableAtoms()) {
-			if (!leftIds.contains(atomId)) {
+			if (!leftIds.containsInt(atomId)) {
 				input.addImplication(chooseSubsumption(leftIds, atomId), subsumption(rightId, atomId));
 			}
 		}
@@ -572,7 +608,7 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 	private void encodeTransitivityOfOrder() throws InterruptedException {
 		for (Integer atomId1 : getVariables()) {
 			for (Integer atomId2 : getVariables()) {
-				checkInterrupted();
+				checkLimits(0);
 
 				for (Integer atomId3 : getVariables()) {
 					if (!atomId1.equals(atomId2) && !atomId2.equals(atomId3)) {
@@ -591,7 +627,7 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 			for (Integer atomId2 : getUsedAtomIds()) {
 				if (var1 || getVariables().contains(atomId2)) {
 					if (!atomId1.equals(atomId2)) {
-						checkInterrupted();
+						checkLimits(0);
 
 						for (Integer atomId3 : getUsedAtomIds()) {
 							if (!atomId1.equals(atomId3) && !atomId2.equals(atomId3)) {
@@ -610,7 +646,7 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 		// definition
 		for (Integer undefId : goal.getAtomManager().getUndefNames()) {
 			Integer origId = goal.getAtomManager().removeUndef(undefId);
-			checkInterrupted();
+			checkLimits(0);
 
 			for (Integer varId : getVariables()) {
 				input.addImplication(subsumption(varId, origId), subsumption(varId, undefId));
@@ -618,6 +654,22 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 		}
 	}
 
+	/**
+	 * Record the duration of an encoding phase and update the size metrics.
+	 * 
+	 * @param timerName
+	 *            the name of the timer for the phase
+	 * @param startTime
+	 *            the start time of the phase
+	 * @return the end time of the phase
+	 */
+	private long endPhase(String timerName, long startTime) {
+		long endTime = System.nanoTime();
+		metrics.timer(timerName).record(endTime - startTime);
+		updateSizeMetrics();
+		return endTime;
+	}
+
 	/**
 	 * Construct a new OrderLiteral.
 	 * 
@@ -630,7 +682,7 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 	 */
 	protected Integer order(Integer varId1, Integer varId2) {
 		Literal literal = new OrderLiteral(varId1, varId2);
-		return literalManager.addAndGetIndex(literal);
+		return addLiteral(literal, orderPropositions);
 	}
 
 	/**
@@ -645,7 +697,7 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 	 */
 	protected Integer subsumption(Integer atomId1, Integer atomId2) {
 		Literal literal = new SubsumptionLiteral(atomId1, atomId2);
-		return literalManager.addAndGetIndex(literal);
+		return addLiteral(literal, subsumptionPropositions);
 	}
 
 	/**
@@ -659,26 +711,37 @@ public abstract class AbstractSatUnificationAlgorithm extends AbstractUnificatio
 	 */
 	protected Integer subtype(Integer atomId, Integer type) {
 		Literal literal = new SubtypeLiteral(atomId, type);
-		return literalManager.addAndGetIndex(literal);
+		return addLiteral(literal, subtypePropositions);
 	}
 
 	@Override
 	protected void updateInfo() {
-		if (literalManager != null) {
-			addInfo(keyNumberOfPropositions, literalManager.size());
-			addInfo(keyChoicePropositions, literalManager.stream().filter(l -> l instanceof ChoiceLiteral).count());
-			addInfo(keySubsumptionPropositions,
-					literalManager.stream().filter(l -> l instanceof SubsumptionLiteral).count());
-			addInfo(keySubtypePropositions, literalManager.stream().filter(l -> l instanceof SubtypeLiteral).count());
-			addInfo(keyOrderPropositions, literalManager.stream().filter(l -> l instanceof OrderLiteral).count());
-		}
+		updateSizeMetrics();
+		addInfo(keyNumberOfPropositions, literalManager.size());
+		addInfo(keyChoicePropositions, (long) metrics.gauge(metricChoicePropositions).get());
+		addInfo(keySubsumptionPropositions, subsumptionPropositions.get());
+		addInfo(keySubtypePropositions, subtypePropositions.get());
+		addInfo(keyOrderPropositions, orderPropositions.get());
 		if (input != null) {
 			long numberOfClauses = input.getClauses().size();
-			long totalSize = input.getClauses().stream().mapToInt(c -> c.size()).sum();
+			long totalSize = input.getTotalSize();
 			addInfo(keyNumberOfClauses, numberOfClauses);
 			addInfo(keyTotalSize, totalSize);
 			addInfo(keyAverageSize, ((float) totalSize) / ((float) numberOfClauses));
 		}
 	}
 
+	private void updateSizeMetrics() {
+		// choice literals are created by the Choice objects, all other
+		// literals are counted when they are added
+		long numberOfPropositions = literalManager.size();
+		metrics.gauge(metricPropositions).set(numberOfPropositions);
+		metrics.gauge(metricChoicePropositions).set(numberOfPropositions - subsumptionPropositions.get()
+				- subtypePropositions.get() - orderPropositions.get());
+		if (input != null) {
+			metrics.gauge(metricClauses).set(input.getClauses().size());
+			metrics.gauge(metricTotalSize).set(input.getTotalSize());
+		}
+	}
+
 }
@@ -0,0 +1,53 @@
+package de.tudresden.inf.lat.uel.sat.solver;
+
+import java.util.concurrent.TimeUnit;
+
+import org.sat4j.specs.ISolver;
+
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
+
+/**
+ * Maps resource limits to the timeouts of Sat4j solvers.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+final class Sat4jLimits {
+
+	/**
+	 * Configure the timeout of the given solver for the next call. Sat4j only
+	 * supports one kind of timeout at a time, so a deadline takes precedence
+	 * over a conflict budget. The conflict budget applies to each solver call
+	 * separately.
+	 *
+	 * @param solver
+	 *            the Sat4j solver
+	 * @param limits
+	 *            the resource limits
+	 */
+	static void apply(ISolver solver, ResourceLimits limits) {
+		if (limits.hasDeadline()) {
+			solver.setTimeoutMs(Math.max(1, limits.getRemainingTime(TimeUnit.MILLISECONDS)));
+		} else if (limits.hasMaxNodes()) {
+			solver.setTimeoutOnConflicts((int) Math.min(Math.max(1, limits.getMaxNodes()), Integer.MAX_VALUE));
+		}
+	}
+
+	/**
+	 * Determine which limit caused a Sat4j timeout.
+	 *
+	 * @param limits
+	 *            the resource limits
+	 * @return the reached limit
+	 */
+	static ResourceLimits.Limit getReachedLimit(ResourceLimits limits) {
+		if (!limits.hasDeadline() && limits.hasMaxNodes()) {
+			return ResourceLimits.Limit.NODES;
+		}
+		return ResourceLimits.Limit.DEADLINE;
+	}
+
+	private Sat4jLimits() {
+	}
+
+}
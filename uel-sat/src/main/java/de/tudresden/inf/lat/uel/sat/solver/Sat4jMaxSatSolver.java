@@ -15,6 +15,8 @@ import org.sat4j.specs.TimeoutException;
 import de.tudresden.inf.lat.uel.sat.type.SatInput;
 import de.tudresden.inf.lat.uel.sat.type.SatOutput;
 import de.tudresden.inf.lat.uel.sat.type.SatSolver;
+import de.tudresden.inf.lat.uel.type.impl.LimitReachedException;
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
 
 /**
  * An object of this class uses the Sat4j MaxSAT solver to solve a SAT problem
@@ -28,6 +30,7 @@ public class Sat4jMaxSatSolver implements SatSolver {
 	private Integer nbVars;
 	private WeightedMaxSatDecorator solver;
 	private boolean cleanedUp = false;
+	private ResourceLimits limits = ResourceLimits.NONE;
 
 	/**
 	 * Constructs a new solver.
@@ -45,6 +48,8 @@ public class Sat4jMaxSatSolver implements SatSolver {
 	}
 
 	private SatOutput getSatOutput() throws InterruptedException {
+		limits.check(0);
+		Sat4jLimits.apply(solver, limits);
 		IOptimizationProblem problem = new PseudoOptDecorator(solver, false);
 		Set<Integer> model = new HashSet<Integer>();
 		boolean satisfiable = false;
@@ -57,9 +62,10 @@ public class Sat4jMaxSatSolver implements SatSolver {
 				if (Thread.interrupted()) {
 					throw new InterruptedException();
 				}
+				limits.check(0);
 			}
 		} catch (TimeoutException e) {
-			throw new RuntimeException(e);
+			throw new LimitReachedException(Sat4jLimits.getReachedLimit(limits));
 		} catch (ContradictionException e) {
 			// this means that the current model is optimal
 		}
@@ -113,6 +119,11 @@ public class Sat4jMaxSatSolver implements SatSolver {
 		return getSatOutput();
 	}
 
+	@Override
+	public void setResourceLimits(ResourceLimits limits) {
+		this.limits = limits;
+	}
+
 	public SatOutput update(Set<Integer> clause) throws InterruptedException {
 		try {
 			solver.addHardClause(new VecInt(SatInput.toArray(clause)));
@@ -14,6 +14,8 @@ import org.sat4j.specs.TimeoutException;
 import de.tudresden.inf.lat.uel.sat.type.SatInput;
 import de.tudresden.inf.lat.uel.sat.type.SatOutput;
 import de.tudresden.inf.lat.uel.sat.type.SatSolver;
+import de.tudresden.inf.lat.uel.type.impl.LimitReachedException;
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
 
 /**
  * An object of this class uses the Sat4j solver to solve a SAT problem.
@@ -24,6 +26,7 @@ public class Sat4jSolver implements SatSolver {
 
 	private ISolver solver;
 	private boolean cleanedUp = false;
+	private ResourceLimits limits = ResourceLimits.NONE;
 
 	/**
 	 * Constructs a new solver.
@@ -39,14 +42,16 @@ public class Sat4jSolver implements SatSolver {
 		}
 	}
 
-	private SatOutput getSatOutput() {
+	private SatOutput getSatOutput() throws InterruptedException {
+		limits.check(0);
+		Sat4jLimits.apply(solver, limits);
 		IProblem problem = solver;
 		Set<Integer> model = new HashSet<Integer>();
 		boolean satisfiable;
 		try {
 			satisfiable = problem.isSatisfiable();
 		} catch (TimeoutException e) {
-			throw new RuntimeException(e);
+			throw new LimitReachedException(Sat4jLimits.getReachedLimit(limits));
 		}
 		if (satisfiable) {
 			for (Integer e : problem.model()) {
@@ -81,7 +86,12 @@ public class Sat4jSolver implements SatSolver {
 		return getSatOutput();
 	}
 
-	public SatOutput update(Set<Integer> clause) {
+	@Override
+	public void setResourceLimits(ResourceLimits limits) {
+		this.limits = limits;
+	}
+
+	public SatOutput update(Set<Integer> clause) throws InterruptedException {
 		try {
 			solver.addClause(new VecInt(SatInput.toArray(clause)));
 		} catch (ContradictionException e) {
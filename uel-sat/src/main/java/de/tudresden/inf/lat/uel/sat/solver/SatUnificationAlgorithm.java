@@ -9,9 +9,10 @@ import java.util.stream.Collectors;
 
 import de.tudresden.inf.lat.uel.sat.type.SatOutput;
 import de.tudresden.inf.lat.uel.sat.type.SatSolver;
-import de.tudresden.inf.lat.uel.type.api.Definition;
 import de.tudresden.inf.lat.uel.type.api.Goal;
-import de.tudresden.inf.lat.uel.type.impl.DefinitionSet;
+import de.tudresden.inf.lat.uel.type.impl.CompactDefinitionSet;
+import de.tudresden.inf.lat.uel.type.impl.LimitReachedException;
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
 import de.tudresden.inf.lat.uel.type.impl.Unifier;
 
 /**
@@ -110,6 +111,11 @@ import de.tudresden.inf.lat.uel.type.impl.Unifier;
  */
 public class SatUnificationAlgorithm extends AbstractSatUnificationAlgorithm {
 
+	private static final String metricUnifiers = "unifiers";
+	private static final String timerSolving = "sat.solving";
+	private static final String timerUnifier = "sat.unifier";
+	private static final String timerUpdate = "sat.update";
+
 	private boolean firstTime = true;
 	private Unifier result;
 	private SatSolver solver;
@@ -135,15 +141,20 @@ public class SatUnificationAlgorithm extends AbstractSatUnificationAlgorithm {
 		}
 	}
 
-	private DefinitionSet computeDefinitions() {
-		DefinitionSet definitions = new DefinitionSet(getVariables().size());
-		getVariables().stream().map(varId -> new Definition(varId, computeSubsumers(varId), false))
-				.forEach(definitions::add);
+	private CompactDefinitionSet computeDefinitions() {
+		CompactDefinitionSet definitions = new CompactDefinitionSet(getVariables().size());
+		for (Integer varId : getVariables()) {
+			definitions.put(varId, computeSubsumers(varId), false);
+		}
 		return definitions;
 	}
 
 	@Override
 	public boolean computeNextUnifier() throws InterruptedException {
+		if (getReachedLimit() != null) {
+			// the solver has already been cleaned up
+			return false;
+		}
 		SatOutput satoutput = null;
 		boolean unifiable = false;
 		try {
@@ -154,6 +165,7 @@ public class SatUnificationAlgorithm extends AbstractSatUnificationAlgorithm {
 				} else {
 					solver = new Sat4jSolver();
 				}
+				solver.setResourceLimits(resourceLimits);
 				computeSatInput();
 
 				//// DEBUG
@@ -192,7 +204,9 @@ public class SatUnificationAlgorithm extends AbstractSatUnificationAlgorithm {
 				// System.out.println(sbuf);
 
 				callbackPreprocessing();
+				long startTime = System.nanoTime();
 				satoutput = solver.solve(input);
+				metrics.timer(timerSolving).record(System.nanoTime() - startTime);
 				unifiable = satoutput.isSatisfiable();
 
 				// the SatInput object is not needed anymore
@@ -203,18 +217,25 @@ public class SatUnificationAlgorithm extends AbstractSatUnificationAlgorithm {
 					unifiable = false;
 				} else {
 					// this.numberOfClauses++;
+					long startTime = System.nanoTime();
 					satoutput = solver.update(update);
+					metrics.timer(timerUpdate).record(System.nanoTime() - startTime);
 					unifiable = satoutput.isSatisfiable();
 				}
 			}
 		} catch (IOException e) {
 			throw new RuntimeException(e);
+		} catch (LimitReachedException e) {
+			return limitReached(e);
 		}
 
 		if (unifiable) {
 			valuation = satoutput.getOutput();
 			// outputUnsatisfiedSoftClauses();
+			long startTime = System.nanoTime();
 			result = computeUnifier();
+			metrics.timer(timerUnifier).record(System.nanoTime() - startTime);
+			metrics.counter(metricUnifiers).increment();
 		} else {
 			// release resources used by the solver after all unifiers have been
 			// computed
@@ -236,9 +257,9 @@ public class SatUnificationAlgorithm extends AbstractSatUnificationAlgorithm {
 	// }
 	// }
 
-	private Set<Integer> computeSubsumers(Integer varId) {
+	private int[] computeSubsumers(Integer varId) {
 		return getNonVariableAtoms().stream().filter(atomId -> valuation.contains(subsumption(varId, atomId)))
-				.collect(Collectors.toSet());
+				.mapToInt(Integer::intValue).toArray();
 	}
 
 	private Map<Integer, Set<Integer>> computeTypeAssignment() {
@@ -279,4 +300,12 @@ public class SatUnificationAlgorithm extends AbstractSatUnificationAlgorithm {
 		return result;
 	}
 
+	@Override
+	public void setResourceLimits(ResourceLimits limits) {
+		super.setResourceLimits(limits);
+		if (solver != null) {
+			solver.setResourceLimits(resourceLimits);
+		}
+	}
+
 }
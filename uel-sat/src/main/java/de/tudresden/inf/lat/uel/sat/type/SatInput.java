@@ -71,6 +71,7 @@ public class SatInput {
 	private Integer lastId = 0;
 	private Set<Integer> minimizeLiterals = new HashSet<Integer>();
 	private Collection<Set<Integer>> softClauses = new ArrayList<Set<Integer>>();
+	private long totalSize = 0;
 
 	/**
 	 * Constructs a new SAT input.
@@ -107,6 +108,7 @@ public class SatInput {
 		}
 
 		clauses.add(clause);
+		totalSize += clause.size();
 		updateLastId(clause);
 	}
 
@@ -159,6 +161,7 @@ public class SatInput {
 	public void clear() {
 		this.clauses.clear();
 		this.lastId = 0;
+		this.totalSize = 0;
 	}
 
 	@Override
@@ -202,6 +205,15 @@ public class SatInput {
 		return Collections.unmodifiableSet(minimizeLiterals);
 	}
 
+	/**
+	 * Returns the total number of literal occurrences in all clauses.
+	 * 
+	 * @return the sum of the sizes of all clauses
+	 */
+	public long getTotalSize() {
+		return totalSize;
+	}
+
 	@Override
 	public int hashCode() {
 		return this.clauses.hashCode();
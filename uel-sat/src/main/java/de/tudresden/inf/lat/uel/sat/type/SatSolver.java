@@ -3,6 +3,8 @@ package de.tudresden.inf.lat.uel.sat.type;
 import java.io.IOException;
 import java.util.Set;
 
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
+
 /**
  * An object implementing this interface can solve a SAT problem.
  *
@@ -51,6 +53,18 @@ public interface SatSolver {
 	 */
 	void cleanup();
 
+	/**
+	 * Restrict the resources used by subsequent calls to the solver. Solvers
+	 * that support native limits should use them and throw a
+	 * LimitReachedException if they are reached. By default, the limits are
+	 * ignored.
+	 *
+	 * @param limits
+	 *            the resource limits
+	 */
+	default void setResourceLimits(ResourceLimits limits) {
+	}
+
 	/**
 	 * Solves a SAT problem. The input must be in the DIMACS CNF format.
 	 *
@@ -60,7 +74,8 @@ public interface SatSolver {
 	 * @throws IOException
 	 *             if an I/O error occurs
 	 * @throws InterruptedException
-	 *             if the process is interrupted
+	 *             if the process is interrupted or a resource limit was
+	 *             reached
 	 */
 	SatOutput solve(SatInput input) throws IOException, InterruptedException;
 
@@ -74,7 +89,8 @@ public interface SatSolver {
 	 * @throws IOException
 	 *             if an I/O error occurs
 	 * @throws InterruptedException
-	 *             if the process is interrupted
+	 *             if the process is interrupted or a resource limit was
+	 *             reached
 	 */
 	SatOutput update(Set<Integer> clause) throws IOException, InterruptedException;
 }
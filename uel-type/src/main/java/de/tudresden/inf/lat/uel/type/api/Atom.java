@@ -11,6 +11,15 @@ import de.tudresden.inf.lat.uel.type.impl.ConceptName;
  */
 public interface Atom {
 
+	/**
+	 * Retrieve the atom id that was assigned to this atom when it was created
+	 * by an atom manager.
+	 * 
+	 * @return the atom id, or 0 if this atom was not created by an atom
+	 *         manager
+	 */
+	int getAtomId();
+
 	/**
 	 * Retrieve the concept name of this flat atom.
 	 * 
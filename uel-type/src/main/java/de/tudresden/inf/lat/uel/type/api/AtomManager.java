@@ -1,5 +1,6 @@
 package de.tudresden.inf.lat.uel.type.api;
 
+import java.util.List;
 import java.util.Set;
 
 import de.tudresden.inf.lat.uel.type.impl.ConceptName;
@@ -85,6 +86,17 @@ public interface AtomManager {
 	 */
 	Integer createUndefConceptName(Integer originId);
 
+	/**
+	 * Create an immutable snapshot of this atom manager that can be shared
+	 * between several threads without synchronization. The snapshot uses the
+	 * same ids as this atom manager, and later changes to this atom manager are
+	 * not reflected in it. All operations of the snapshot that would modify it
+	 * throw an UnsupportedOperationException.
+	 * 
+	 * @return a frozen copy of this atom manager
+	 */
+	AtomManager freeze();
+
 	/**
 	 * Retrieve a certain atom.
 	 * 
@@ -151,6 +163,16 @@ public interface AtomManager {
 	 */
 	Set<Integer> getExistentialRestrictions(Integer roleId);
 
+	/**
+	 * Retrieve all existential restrictions that use a given concept name as
+	 * their filler.
+	 * 
+	 * @param fillerId
+	 *            the atom id of the filler
+	 * @return the set of all existential restrictions with this filler
+	 */
+	Set<Integer> getExistentialRestrictionsWithFiller(Integer fillerId);
+
 	/**
 	 * Obtain the set of all flattening variables.
 	 * 
@@ -167,6 +189,34 @@ public interface AtomManager {
 	 */
 	Integer getIndex(Atom atom);
 
+	/**
+	 * Return all atoms that are not variables, i.e., constants and existential
+	 * restrictions, in the order of their atom ids.
+	 * 
+	 * @return a list containing all non-variable atoms
+	 */
+	List<Atom> getNonvariableAtoms();
+
+	/**
+	 * Retrieve the 'role group' type that was created from a given type id by
+	 * {@link #createRoleGroupConceptName(Integer)}.
+	 * 
+	 * @param originId
+	 *            the original id
+	 * @return the 'role group' id, or 'null' if it has not been created
+	 */
+	Integer getRoleGroupConceptName(Integer originId);
+
+	/**
+	 * Retrieve the type id from which a given 'role group' type was created.
+	 * 
+	 * @param roleGroupId
+	 *            the 'role group' id
+	 * @return the original id, or 'null' if the argument is not a 'role
+	 *         group' id
+	 */
+	Integer getRoleGroupOrigin(Integer roleGroupId);
+
 	/**
 	 * Retrieve the role id of an existential restriction.
 	 * 
@@ -202,6 +252,16 @@ public interface AtomManager {
 	 */
 	String getRoleName(Integer roleId);
 
+	/**
+	 * Retrieve the UNDEF concept name that was created from a given concept
+	 * name by {@link #createUndefConceptName(Integer)}.
+	 * 
+	 * @param originId
+	 *            the original id
+	 * @return the 'undef' id, or 'null' if it has not been created
+	 */
+	Integer getUndefConceptName(Integer originId);
+
 	/**
 	 * Obtain the set of all UNDEF concept names, both variables and constants.
 	 * 
@@ -3,21 +3,26 @@
  */
 package de.tudresden.inf.lat.uel.type.api;
 
-import java.util.Collections;
 import java.util.Set;
 
+import de.tudresden.inf.lat.uel.type.impl.IntArraySet;
+
 /**
+ * An axiom between two conjunctions of atoms. Both sides are stored as
+ * immutable sorted arrays of atom ids, which can be walked without boxing via
+ * {@link IntArraySet#getInt(int)}.
+ * 
  * @author Stefan Borgwardt
  *
  */
 public abstract class Axiom {
 
-	final Set<Integer> left;
-	final Set<Integer> right;
+	final IntArraySet left;
+	final IntArraySet right;
 
 	Axiom(Set<Integer> left, Set<Integer> right) {
-		this.left = left;
-		this.right = right;
+		this.left = IntArraySet.of(left);
+		this.right = IntArraySet.of(right);
 	}
 
 	@Override
@@ -34,12 +39,12 @@ public abstract class Axiom {
 
 	public abstract String getConnective();
 
-	public Set<Integer> getLeft() {
-		return Collections.unmodifiableSet(left);
+	public IntArraySet getLeft() {
+		return left;
 	}
 
-	public Set<Integer> getRight() {
-		return Collections.unmodifiableSet(right);
+	public IntArraySet getRight() {
+		return right;
 	}
 
 	@Override
@@ -3,10 +3,10 @@
  */
 package de.tudresden.inf.lat.uel.type.api;
 
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 
+import de.tudresden.inf.lat.uel.type.impl.IntArraySet;
+
 public class Definition extends Axiom {
 	private boolean primitive;
 
@@ -19,12 +19,12 @@ public class Definition extends Axiom {
 	}
 
 	public Definition(Integer left, Set<Integer> right, boolean primitive) {
-		super(Collections.singleton(left), right);
+		super(IntArraySet.of(left), right);
 		this.primitive = primitive;
 	}
 
 	public Definition(Definition orig) {
-		super(Collections.singleton(orig.getDefiniendum()), new HashSet<Integer>(orig.getRight()));
+		super(orig.left, orig.right);
 		this.primitive = orig.primitive;
 	}
 
@@ -39,10 +39,10 @@ public class Definition extends Axiom {
 	}
 
 	public Integer getDefiniendum() {
-		return left.iterator().next();
+		return left.getInt(0);
 	}
 
-	public Set<Integer> getDefiniens() {
+	public IntArraySet getDefiniens() {
 		return right;
 	}
 
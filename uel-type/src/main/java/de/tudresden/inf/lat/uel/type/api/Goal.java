@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.Set;
 
 import de.tudresden.inf.lat.uel.type.impl.DefinitionSet;
+import de.tudresden.inf.lat.uel.type.impl.TypeHierarchy;
 
 /**
  * An object implementing this interface is an input for the UEL system.
@@ -89,7 +90,22 @@ public interface Goal {
 		return null;
 	}
 
+	/**
+	 * Returns the precomputed closure of the type hierarchy, if it is
+	 * available.
+	 * 
+	 * @return the type hierarchy, or 'null' if the subtype relation has to be
+	 *         computed from the direct supertypes
+	 */
+	default TypeHierarchy getTypeHierarchy() {
+		return null;
+	}
+
 	default boolean subtypeOrEquals(Integer type1, Integer type2) {
+		TypeHierarchy hierarchy = getTypeHierarchy();
+		if (hierarchy != null) {
+			return hierarchy.subtypeOrEquals(type1, type2);
+		}
 		while (type1 != null) {
 			if (type1.equals(type2)) {
 				return true;
@@ -100,6 +116,10 @@ public interface Goal {
 	}
 
 	default boolean areDisjoint(Integer type1, Integer type2) {
+		TypeHierarchy hierarchy = getTypeHierarchy();
+		if (hierarchy != null) {
+			return hierarchy.areDisjoint(type1, type2);
+		}
 		return !subtypeOrEquals(type1, type2) && !subtypeOrEquals(type2, type1);
 	}
 
@@ -2,9 +2,17 @@ package de.tudresden.inf.lat.uel.type.api;
 
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import de.tudresden.inf.lat.uel.type.impl.Metrics;
+import de.tudresden.inf.lat.uel.type.impl.ResourceLimits;
 import de.tudresden.inf.lat.uel.type.impl.Unifier;
+import de.tudresden.inf.lat.uel.type.impl.UnifierPublisher;
+import de.tudresden.inf.lat.uel.type.impl.UnifierSpliterator;
 
 /**
  * An object implementing this interface computes unifiers.
@@ -21,7 +29,10 @@ public interface UnificationAlgorithm {
 
 	/**
 	 * Computes the next unifier. Returns <code>true</code> if and only if the
-	 * unifier has been successfully computed.
+	 * unifier has been successfully computed. If <code>false</code> is
+	 * returned, either all unifiers have been computed or a resource limit was
+	 * reached, which can be checked using {@link #getReachedLimit()}. After a
+	 * limit has been reached, no further unifiers are computed.
 	 * 
 	 * @return <code>true</code> if and only if the unifier has been
 	 *         successfully computed
@@ -40,6 +51,22 @@ public interface UnificationAlgorithm {
 	 */
 	List<Entry<String, String>> getInfo();
 
+	/**
+	 * Returns the metrics of this algorithm, e.g. sizes of the encoding and
+	 * timings of the solving phases. The metrics are updated during the
+	 * computation and can be read at any time.
+	 * 
+	 * @return the metrics registry of this algorithm
+	 */
+	Metrics getMetrics();
+
+	/**
+	 * Returns the resource limit that stopped the last computation.
+	 * 
+	 * @return the reached limit, or <code>null</code> if no limit was reached
+	 */
+	ResourceLimits.Limit getReachedLimit();
+
 	/**
 	 * Returns the result of the last computation.
 	 * 
@@ -52,6 +79,49 @@ public interface UnificationAlgorithm {
 
 	void setCallbackPreprocessing(Runnable r);
 
+	/**
+	 * Restrict the resources that may be used by subsequent computations.
+	 * 
+	 * @param limits
+	 *            the resource limits
+	 */
+	void setResourceLimits(ResourceLimits limits);
+
 	void setShortFormMap(Function<String, String> map);
 
+	/**
+	 * Returns a spliterator over the remaining unifiers. Each unifier is only
+	 * computed when it is requested by the spliterator's consumer.
+	 * 
+	 * @return a spliterator computing the unifiers on demand
+	 */
+	default Spliterator<Unifier> spliterator() {
+		return new UnifierSpliterator(this);
+	}
+
+	/**
+	 * Returns a sequential stream of the remaining unifiers, which are
+	 * computed lazily as the stream is consumed. Short-circuiting operations
+	 * like 'limit' stop the computation early. Closing the stream cleans up
+	 * the algorithm. If the algorithm reaches a resource limit, the stream
+	 * throws a CompletionException caused by a LimitReachedException.
+	 * 
+	 * @return a stream of unifiers
+	 */
+	default Stream<Unifier> stream() {
+		return StreamSupport.stream(spliterator(), false).onClose(this::cleanup);
+	}
+
+	/**
+	 * Returns a publisher that computes the remaining unifiers in tasks run by
+	 * the given executor, as far as requested by its subscriber.
+	 * 
+	 * @param executor
+	 *            the executor running the algorithm
+	 * @return a publisher of unifiers
+	 */
+	default UnifierPublisher publisher(Executor executor) {
+		return new UnifierPublisher(this, executor);
+	}
+
 }
@@ -27,7 +27,10 @@ public abstract class AbstractUnificationAlgorithm implements UnificationAlgorit
 	protected final Set<Integer> conceptNames = new HashSet<Integer>();
 	protected final Goal goal;
 	private List<Entry<String, String>> info = new ArrayList<Entry<String, String>>();
+	protected final Metrics metrics = new Metrics();
 	protected final Set<Integer> nonVariableAtoms = new HashSet<Integer>();
+	private ResourceLimits.Limit reachedLimit = null;
+	protected ResourceLimits resourceLimits = ResourceLimits.NONE;
 	private Function<String, String> shortFormMap = Function.identity();
 	private final Set<Integer> usedAtomIds = new HashSet<Integer>();
 
@@ -52,6 +55,23 @@ public abstract class AbstractUnificationAlgorithm implements UnificationAlgorit
 		}
 	}
 
+	/**
+	 * Check whether the algorithm was interrupted or reached one of its
+	 * resource limits.
+	 * 
+	 * @param nodes
+	 *            the number of search nodes explored so far
+	 * @throws InterruptedException
+	 *             if the process is interrupted or a limit was reached, in
+	 *             which case a LimitReachedException is thrown
+	 */
+	protected void checkLimits(long nodes) throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		resourceLimits.check(nodes);
+	}
+
 	protected Set<Integer> getConceptNames() {
 		return conceptNames;
 	}
@@ -70,10 +90,24 @@ public abstract class AbstractUnificationAlgorithm implements UnificationAlgorit
 		return Collections.unmodifiableList(info);
 	}
 
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
 	protected Set<Integer> getNonVariableAtoms() {
 		return nonVariableAtoms;
 	}
 
+	@Override
+	public ResourceLimits.Limit getReachedLimit() {
+		return reachedLimit;
+	}
+
+	public ResourceLimits getResourceLimits() {
+		return resourceLimits;
+	}
+
 	protected Set<Integer> getUsedAtomIds() {
 		return usedAtomIds;
 	}
@@ -86,6 +120,20 @@ public abstract class AbstractUnificationAlgorithm implements UnificationAlgorit
 		return goal.getAtomManager().getVariables();
 	}
 
+	/**
+	 * Record that the computation stopped because of a resource limit. The
+	 * resources used by the algorithm are cleaned up.
+	 * 
+	 * @param e
+	 *            the exception signaling the reached limit
+	 * @return 'false', to be returned by 'computeNextUnifier'
+	 */
+	protected boolean limitReached(LimitReachedException e) {
+		reachedLimit = e.getLimit();
+		cleanup();
+		return false;
+	}
+
 	public String printAtom(Integer atomId) {
 		Atom a = goal.getAtomManager().getAtom(atomId);
 		if (a instanceof ExistentialRestriction) {
@@ -115,6 +163,11 @@ public abstract class AbstractUnificationAlgorithm implements UnificationAlgorit
 		callbackPreprocessing = r;
 	}
 
+	@Override
+	public void setResourceLimits(ResourceLimits limits) {
+		resourceLimits = (limits == null) ? ResourceLimits.NONE : limits;
+	}
+
 	@Override
 	public void setShortFormMap(Function<String, String> map) {
 		shortFormMap = map;
@@ -0,0 +1,334 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import de.tudresden.inf.lat.uel.type.api.IndexedSet;
+
+/**
+ * An indexed set that stores the elements in an array indexed by their
+ * (usually consecutive) indices, and uses an open-addressing hash table with
+ * primitive int values for the reverse lookup. Neither {@link #get(int)} nor
+ * {@link #getIndex(Object)} allocate any objects.
+ *
+ * Like {@link IndexedSetImpl}, this set does not support removal of elements.
+ *
+ * @author Stefan Borgwardt
+ * @param <T>
+ *            type of the object stored in this indexed set
+ */
+public class ArrayIndexedSet<T> extends AbstractSet<T> implements IndexedSet<T> {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private Object[] elements;
+	private Object[] keys;
+	private int maxIndex = 0;
+	private int size = 0;
+	private int[] values;
+
+	/**
+	 * Constructs a new indexed set.
+	 */
+	public ArrayIndexedSet() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Constructs a new indexed set with enough initial space for the given
+	 * number of elements.
+	 *
+	 * @param expectedSize
+	 *            the expected number of elements
+	 */
+	public ArrayIndexedSet(int expectedSize) {
+		int capacity = INITIAL_CAPACITY;
+		while (capacity < 2 * expectedSize) {
+			capacity <<= 1;
+		}
+		elements = new Object[expectedSize + 1];
+		keys = new Object[capacity];
+		values = new int[capacity];
+	}
+
+	private static int hash(Object element) {
+		int h = element.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	@Override
+	public boolean add(T element) {
+		if (element == null) {
+			throw new NullPointerException();
+		}
+		return add(element, getNextIndex());
+	}
+
+	@Override
+	public boolean add(T element, Integer index) {
+		if (element == null) {
+			throw new NullPointerException();
+		}
+		int slot = findSlot(element);
+		if (keys[slot] != null) {
+			int oldIndex = values[slot];
+			if (oldIndex != index) {
+				throw new IllegalArgumentException("Element '" + element + "' has already index " + oldIndex
+						+ " but new index " + index + " was given.");
+			}
+			return false;
+		}
+		Object oldElement = get(index);
+		if (oldElement != null) {
+			throw new IllegalArgumentException("Index " + index + " has been used for element '" + oldElement
+					+ "' but new element '" + element + "' was given.");
+		}
+		insert(slot, element, index);
+		return true;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends T> elements) {
+		if (elements == null) {
+			throw new NullPointerException();
+		}
+
+		boolean ret = false;
+		for (T elem : elements) {
+			boolean changed = add(elem);
+			ret = ret || changed;
+		}
+		return ret;
+	}
+
+	@Override
+	public int addAndGetIndex(T element) {
+		if (element == null) {
+			throw new IllegalArgumentException("Null argument.");
+		}
+
+		int slot = findSlot(element);
+		if (keys[slot] != null) {
+			return values[slot];
+		}
+		int index = maxIndex + 1;
+		insert(slot, element, index);
+		return index;
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean contains(Object element) {
+		if (element == null) {
+			throw new NullPointerException();
+		}
+
+		return keys[findSlot(element)] != null;
+	}
+
+	private int findSlot(Object element) {
+		int mask = keys.length - 1;
+		int slot = hash(element) & mask;
+		Object key = keys[slot];
+		while ((key != null) && !key.equals(element)) {
+			slot = (slot + 1) & mask;
+			key = keys[slot];
+		}
+		return slot;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T get(int id) {
+		if ((id < 0) || (id >= elements.length)) {
+			return null;
+		}
+		return (T) elements[id];
+	}
+
+	@Override
+	public int getIndex(T element) {
+		if (element == null) {
+			return -1;
+		}
+
+		int slot = findSlot(element);
+		return (keys[slot] == null) ? -1 : values[slot];
+	}
+
+	@Override
+	public Set<Integer> getIndices() {
+		return new AbstractSet<Integer>() {
+
+			@Override
+			public boolean contains(Object o) {
+				return (o instanceof Integer) && (get((Integer) o) != null);
+			}
+
+			@Override
+			public Iterator<Integer> iterator() {
+				return new IndexIterator<Integer>() {
+					@Override
+					Integer current(int index) {
+						return index;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public Integer getMaxIndex() {
+		return maxIndex;
+	}
+
+	@Override
+	public Integer getNextIndex() {
+		return maxIndex + 1;
+	}
+
+	private void insert(int slot, T element, int index) {
+		if (index < 0) {
+			throw new IllegalArgumentException("Negative index: " + index);
+		}
+		keys[slot] = element;
+		values[slot] = index;
+		if (index >= elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(index + 1, 2 * elements.length));
+		}
+		elements[index] = element;
+		if (maxIndex < index) {
+			maxIndex = index;
+		}
+		size++;
+		if (2 * size > keys.length) {
+			rehash();
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new IndexIterator<T>() {
+			@SuppressWarnings("unchecked")
+			@Override
+			T current(int index) {
+				return (T) elements[index];
+			}
+		};
+	}
+
+	private void rehash() {
+		Object[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new Object[2 * oldKeys.length];
+		values = new int[2 * oldValues.length];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				int slot = findSlot(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	@Override
+	public boolean remove(Object element) {
+		if (element == null) {
+			throw new NullPointerException();
+		}
+
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> elements) {
+		if (elements == null) {
+			throw new NullPointerException();
+		}
+
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> elements) {
+		if (elements == null) {
+			throw new NullPointerException();
+		}
+
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int index = 0; index <= maxIndex; index++) {
+			if (get(index) != null) {
+				if (sb.length() > 1) {
+					sb.append(", ");
+				}
+				sb.append(index);
+				sb.append("=");
+				sb.append(elements[index]);
+			}
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+
+	/**
+	 * Iterates over all used indices in increasing order.
+	 */
+	private abstract class IndexIterator<S> implements Iterator<S> {
+
+		private int next = advance(0);
+
+		private int advance(int index) {
+			while ((index <= maxIndex) && (get(index) == null)) {
+				index++;
+			}
+			return index;
+		}
+
+		abstract S current(int index);
+
+		@Override
+		public boolean hasNext() {
+			return next <= maxIndex;
+		}
+
+		@Override
+		public S next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			S ret = current(next);
+			next = advance(next + 1);
+			return ret;
+		}
+
+	}
+
+}
@@ -0,0 +1,337 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import de.tudresden.inf.lat.uel.type.api.Atom;
+import de.tudresden.inf.lat.uel.type.api.IndexedSet;
+
+/**
+ * A factory that creates canonical (hash-consed) atoms, i.e., each distinct
+ * concept name and existential restriction is represented by exactly one
+ * object. The atoms are numbered consecutively, starting at 1, and carry their
+ * atom id. Hence, comparing two atoms created by the same factory amounts to a
+ * reference comparison, and looking up the index of such an atom does not
+ * require any hashing.
+ *
+ * This factory can be viewed as an indexed set of atoms. Atoms can only be
+ * added via {@link #addAndGetIndex(Atom)}, which returns the index of the
+ * canonical representative, and cannot be removed.
+ *
+ * @author Stefan Borgwardt
+ */
+public class AtomFactory extends AbstractSet<Atom> implements IndexedSet<Atom> {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private Atom[] atoms = new Atom[INITIAL_CAPACITY];
+	private ConceptName[] conceptNames = new ConceptName[INITIAL_CAPACITY];
+	private long[] existentialRestrictionKeys = new long[INITIAL_CAPACITY];
+	private ExistentialRestriction[] existentialRestrictions = new ExistentialRestriction[INITIAL_CAPACITY];
+	private int numberOfExistentialRestrictions = 0;
+	private int size = 0;
+
+	/**
+	 * Construct a new factory without any atoms.
+	 */
+	public AtomFactory() {
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private static long key(int roleId, int childConceptNameId) {
+		return (((long) roleId) << 32) | (childConceptNameId & 0xFFFFFFFFL);
+	}
+
+	@Override
+	public boolean add(Atom atom) {
+		throw new UnsupportedOperationException("Use addAndGetIndex to obtain the canonical atom.");
+	}
+
+	@Override
+	public boolean add(Atom atom, Integer index) {
+		throw new UnsupportedOperationException("Indices of atoms are determined by the factory.");
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends Atom> atoms) {
+		throw new UnsupportedOperationException("Use addAndGetIndex to obtain the canonical atom.");
+	}
+
+	@Override
+	public int addAndGetIndex(Atom atom) {
+		if (atom == null) {
+			throw new IllegalArgumentException("Null argument.");
+		}
+		return canonical(atom).getAtomId();
+	}
+
+	private int allocateAtomId(Atom atom) {
+		int atomId = size + 1;
+		if (atomId >= atoms.length) {
+			atoms = Arrays.copyOf(atoms, 2 * atoms.length);
+		}
+		atoms[atomId] = atom;
+		size++;
+		return atomId;
+	}
+
+	/**
+	 * Return the canonical representative of the given atom, creating it if
+	 * necessary.
+	 *
+	 * @param atom
+	 *            an atom, which may have been created outside of this factory
+	 * @return the canonical atom that is equal to the given one
+	 */
+	public Atom canonical(Atom atom) {
+		if (isCanonical(atom)) {
+			return atom;
+		}
+		if (atom.isConceptName()) {
+			return conceptName(((ConceptName) atom).getConceptNameId());
+		}
+		ExistentialRestriction er = (ExistentialRestriction) atom;
+		return existentialRestriction(er.getRoleId(), conceptName(er.getConceptName().getConceptNameId()));
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Retrieve the canonical concept name with the given concept name id,
+	 * creating it if necessary.
+	 *
+	 * @param conceptNameId
+	 *            the concept name id
+	 * @return the canonical concept name
+	 */
+	public ConceptName conceptName(int conceptNameId) {
+		ConceptName atom = findConceptName(conceptNameId);
+		if (atom == null) {
+			if (conceptNameId >= conceptNames.length) {
+				conceptNames = Arrays.copyOf(conceptNames, Math.max(conceptNameId + 1, 2 * conceptNames.length));
+			}
+			atom = new ConceptName(conceptNameId, size + 1);
+			allocateAtomId(atom);
+			conceptNames[conceptNameId] = atom;
+		}
+		return atom;
+	}
+
+	@Override
+	public boolean contains(Object obj) {
+		if (obj == null) {
+			throw new NullPointerException();
+		}
+		return (obj instanceof Atom) && (getIndex((Atom) obj) != -1);
+	}
+
+	/**
+	 * Retrieve the canonical existential restriction with the given role id
+	 * and filler, creating it if necessary.
+	 *
+	 * @param roleId
+	 *            the role id
+	 * @param child
+	 *            the canonical concept name used as the filler
+	 * @return the canonical existential restriction
+	 */
+	public ExistentialRestriction existentialRestriction(int roleId, ConceptName child) {
+		long key = key(roleId, child.getConceptNameId());
+		int slot = findSlot(key);
+		ExistentialRestriction atom = existentialRestrictions[slot];
+		if (atom == null) {
+			atom = new ExistentialRestriction(roleId, child, size + 1, this);
+			allocateAtomId(atom);
+			existentialRestrictionKeys[slot] = key;
+			existentialRestrictions[slot] = atom;
+			numberOfExistentialRestrictions++;
+			if (2 * numberOfExistentialRestrictions > existentialRestrictions.length) {
+				rehash();
+			}
+		}
+		return atom;
+	}
+
+	/**
+	 * Retrieve the canonical concept name with the given concept name id, if
+	 * it exists.
+	 *
+	 * @param conceptNameId
+	 *            the concept name id
+	 * @return the canonical concept name, or 'null' if there is none
+	 */
+	public ConceptName findConceptName(int conceptNameId) {
+		if ((conceptNameId < 0) || (conceptNameId >= conceptNames.length)) {
+			return null;
+		}
+		return conceptNames[conceptNameId];
+	}
+
+	/**
+	 * Retrieve the canonical existential restriction with the given role id
+	 * and filler, if it exists.
+	 *
+	 * @param roleId
+	 *            the role id
+	 * @param child
+	 *            the concept name used as the filler
+	 * @return the canonical existential restriction, or 'null' if there is
+	 *         none
+	 */
+	public ExistentialRestriction findExistentialRestriction(int roleId, ConceptName child) {
+		return existentialRestrictions[findSlot(key(roleId, child.getConceptNameId()))];
+	}
+
+	private int findSlot(long key) {
+		int mask = existentialRestrictions.length - 1;
+		int slot = hash(key) & mask;
+		while ((existentialRestrictions[slot] != null) && (existentialRestrictionKeys[slot] != key)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	@Override
+	public Atom get(int atomId) {
+		if ((atomId < 0) || (atomId >= atoms.length)) {
+			return null;
+		}
+		return atoms[atomId];
+	}
+
+	@Override
+	public int getIndex(Atom atom) {
+		if (isCanonical(atom)) {
+			return atom.getAtomId();
+		}
+		Atom canonical;
+		if (atom.isConceptName()) {
+			canonical = findConceptName(((ConceptName) atom).getConceptNameId());
+		} else {
+			ExistentialRestriction er = (ExistentialRestriction) atom;
+			canonical = findExistentialRestriction(er.getRoleId(), er.getConceptName());
+		}
+		return (canonical == null) ? -1 : canonical.getAtomId();
+	}
+
+	@Override
+	public Set<Integer> getIndices() {
+		return new AbstractSet<Integer>() {
+
+			@Override
+			public boolean contains(Object o) {
+				if (!(o instanceof Integer)) {
+					return false;
+				}
+				int atomId = (Integer) o;
+				return (atomId > 0) && (atomId <= size);
+			}
+
+			@Override
+			public Iterator<Integer> iterator() {
+				return new Iterator<Integer>() {
+					private int next = 1;
+
+					@Override
+					public boolean hasNext() {
+						return next <= size;
+					}
+
+					@Override
+					public Integer next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						return next++;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public Integer getMaxIndex() {
+		return size;
+	}
+
+	@Override
+	public Integer getNextIndex() {
+		return size + 1;
+	}
+
+	private boolean isCanonical(Atom atom) {
+		int atomId = atom.getAtomId();
+		return (atomId > 0) && (atomId <= size) && (atoms[atomId] == atom);
+	}
+
+	@Override
+	public Iterator<Atom> iterator() {
+		return new Iterator<Atom>() {
+			private int next = 1;
+
+			@Override
+			public boolean hasNext() {
+				return next <= size;
+			}
+
+			@Override
+			public Atom next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return atoms[next++];
+			}
+		};
+	}
+
+	private void rehash() {
+		long[] oldKeys = existentialRestrictionKeys;
+		ExistentialRestriction[] oldValues = existentialRestrictions;
+		existentialRestrictionKeys = new long[2 * oldKeys.length];
+		existentialRestrictions = new ExistentialRestriction[2 * oldValues.length];
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != null) {
+				int slot = findSlot(oldKeys[i]);
+				existentialRestrictionKeys[slot] = oldKeys[i];
+				existentialRestrictions[slot] = oldValues[i];
+			}
+		}
+	}
+
+	@Override
+	public boolean remove(Object obj) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+}
@@ -20,16 +20,20 @@ import de.tudresden.inf.lat.uel.type.api.IndexedSet;
  */
 public class AtomManagerImpl implements AtomManager {
 
-	private final IndexedSet<Atom> atoms = new IndexedSetImpl<Atom>();
+	private final AtomFactory atoms = new AtomFactory();
 	private final Map<Integer, Integer> childMap = new HashMap<Integer, Integer>();
-	private final IndexedSet<String> conceptNames = new IndexedSetImpl<String>();
+	private final IndexedSet<String> conceptNames = new NameTable();
 	private final Set<Integer> constants = new HashSet<Integer>();
 	private final Set<Integer> definitionVariables = new HashSet<Integer>();
 	private final Map<Integer, Set<Integer>> existentialRestrictions = new HashMap<Integer, Set<Integer>>();
+	private final Map<Integer, Set<Integer>> existentialRestrictionsByFiller = new HashMap<Integer, Set<Integer>>();
 	private final Set<Integer> flatteningVariables = new HashSet<Integer>();
+	private final Map<Integer, Integer> roleGroupOrigins = new HashMap<Integer, Integer>();
+	private final Map<Integer, Integer> roleGroups = new HashMap<Integer, Integer>();
 	private final Map<Integer, Integer> roleIdMap = new HashMap<Integer, Integer>();
-	private final IndexedSet<String> roleNames = new IndexedSetImpl<String>();
-	private final Set<Integer> undefs = new HashSet<Integer>();
+	private final IndexedSet<String> roleNames = new NameTable();
+	private final Map<Integer, Integer> undefOrigins = new HashMap<Integer, Integer>();
+	private final Map<Integer, Integer> undefs = new HashMap<Integer, Integer>();
 	private final Set<Integer> userVariables = new HashSet<Integer>();
 	private final Set<Integer> variables = new HashSet<Integer>();
 
@@ -55,7 +59,7 @@ public class AtomManagerImpl implements AtomManager {
 	@Override
 	public Integer createConceptName(String conceptName, boolean onlyTypes) {
 		Integer conceptNameId = conceptNames.addAndGetIndex(conceptName);
-		Integer atomId = atoms.addAndGetIndex(new ConceptName(conceptNameId));
+		Integer atomId = atoms.conceptName(conceptNameId).getAtomId();
 		if (!variables.contains(atomId) && !onlyTypes) {
 			// if the concept name had already been created earlier and marked
 			// as a variable, then do not mark it as a constant
@@ -67,7 +71,7 @@ public class AtomManagerImpl implements AtomManager {
 	@Override
 	public Integer createExistentialRestriction(String roleName, Integer childId) {
 		Integer roleId = roleNames.addAndGetIndex(roleName);
-		Integer atomId = atoms.addAndGetIndex(new ExistentialRestriction(roleId, getConceptName(childId)));
+		Integer atomId = atoms.existentialRestriction(roleId, getConceptName(childId)).getAtomId();
 
 		childMap.put(atomId, childId);
 		roleIdMap.put(atomId, roleId);
@@ -79,22 +83,43 @@ public class AtomManagerImpl implements AtomManager {
 		}
 		set.add(atomId);
 
+		Set<Integer> fillerSet = existentialRestrictionsByFiller.get(childId);
+		if (fillerSet == null) {
+			fillerSet = new HashSet<Integer>();
+			existentialRestrictionsByFiller.put(childId, fillerSet);
+		}
+		fillerSet.add(atomId);
+
 		return atomId;
 	}
 
 	@Override
 	public Integer createRoleGroupConceptName(Integer originId) {
-		Integer newId = createAppendedName(originId, ROLEGROUP_SUFFIX, true);
+		Integer newId = roleGroups.get(originId);
+		if (newId == null) {
+			newId = createAppendedName(originId, ROLEGROUP_SUFFIX, true);
+			roleGroups.put(originId, newId);
+			roleGroupOrigins.put(newId, originId);
+		}
 		return newId;
 	}
 
 	@Override
 	public Integer createUndefConceptName(Integer originId) {
-		Integer undefId = createAppendedName(originId, UNDEF_SUFFIX, false);
-		undefs.add(undefId);
+		Integer undefId = undefs.get(originId);
+		if (undefId == null) {
+			undefId = createAppendedName(originId, UNDEF_SUFFIX, false);
+			undefs.put(originId, undefId);
+			undefOrigins.put(undefId, originId);
+		}
 		return undefId;
 	}
 
+	@Override
+	public AtomManager freeze() {
+		return new FrozenAtomManager(this);
+	}
+
 	@Override
 	public Atom getAtom(Integer atomId) {
 		return atoms.get(atomId);
@@ -150,6 +175,15 @@ public class AtomManagerImpl implements AtomManager {
 		return ret;
 	}
 
+	@Override
+	public Set<Integer> getExistentialRestrictionsWithFiller(Integer fillerId) {
+		Set<Integer> set = existentialRestrictionsByFiller.get(fillerId);
+		if (set == null) {
+			return Collections.emptySet();
+		}
+		return Collections.unmodifiableSet(set);
+	}
+
 	@Override
 	public Set<Integer> getFlatteningVariables() {
 		return Collections.unmodifiableSet(flatteningVariables);
@@ -160,6 +194,16 @@ public class AtomManagerImpl implements AtomManager {
 		return atoms.getIndex(atom);
 	}
 
+	@Override
+	public Integer getRoleGroupConceptName(Integer originId) {
+		return roleGroups.get(originId);
+	}
+
+	@Override
+	public Integer getRoleGroupOrigin(Integer roleGroupId) {
+		return roleGroupOrigins.get(roleGroupId);
+	}
+
 	@Override
 	public Integer getRoleId(Integer atomId) {
 		return roleIdMap.get(atomId);
@@ -180,9 +224,14 @@ public class AtomManagerImpl implements AtomManager {
 		return roleNames.get(roleId);
 	}
 
+	@Override
+	public Integer getUndefConceptName(Integer originId) {
+		return undefs.get(originId);
+	}
+
 	@Override
 	public Set<Integer> getUndefNames() {
-		return Collections.unmodifiableSet(undefs);
+		return Collections.unmodifiableSet(undefOrigins.keySet());
 	}
 
 	@Override
@@ -247,6 +296,13 @@ public class AtomManagerImpl implements AtomManager {
 
 	@Override
 	public Integer removeUndef(Integer undefId) {
+		Integer origId = undefOrigins.get(undefId);
+		if (origId != null) {
+			if (!variables.contains(origId)) {
+				constants.add(origId);
+			}
+			return origId;
+		}
 		String undefName = printConceptName(undefId);
 		if (!undefName.endsWith(UNDEF_SUFFIX)) {
 			throw new IllegalArgumentException("Argument does not represent an UNDEF concept name.");
@@ -260,12 +316,12 @@ public class AtomManagerImpl implements AtomManager {
 		return atoms.size();
 	}
 
+	@Override
 	public List<Atom> getNonvariableAtoms() {
 		List<Atom> nonVariableAtoms = new ArrayList<>();
 		for (Atom at : atoms) {
-			if (!variables.contains(getIndex(at))) {
+			if (!variables.contains(at.getAtomId())) {
 				nonVariableAtoms.add(at);
-				// System.out.println(getIndex(at));
 			}
 		}
 		return nonVariableAtoms;
@@ -0,0 +1,69 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An unmodifiable view of a BitSet as a set of integers. Changes to the
+ * underlying BitSet are reflected in the view.
+ *
+ * @author Stefan Borgwardt
+ */
+class BitSetView extends AbstractSet<Integer> {
+
+	private final BitSet bits;
+
+	/**
+	 * Construct a new view of the given BitSet.
+	 *
+	 * @param bits
+	 *            the underlying BitSet
+	 */
+	BitSetView(BitSet bits) {
+		this.bits = bits;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof Integer)) {
+			return false;
+		}
+		int i = (Integer) o;
+		return (i >= 0) && bits.get(i);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return bits.isEmpty();
+	}
+
+	@Override
+	public Iterator<Integer> iterator() {
+		return new Iterator<Integer>() {
+			private int next = bits.nextSetBit(0);
+
+			@Override
+			public boolean hasNext() {
+				return next >= 0;
+			}
+
+			@Override
+			public Integer next() {
+				if (next < 0) {
+					throw new NoSuchElementException();
+				}
+				int ret = next;
+				next = bits.nextSetBit(next + 1);
+				return ret;
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return bits.cardinality();
+	}
+
+}
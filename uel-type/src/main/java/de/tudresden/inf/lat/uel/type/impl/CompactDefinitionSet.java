@@ -0,0 +1,348 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import de.tudresden.inf.lat.uel.type.api.Definition;
+
+/**
+ * A set of definitions that is keyed by the primitive atom ids of the
+ * definienda. The definientia are stored as sorted arrays of atom ids and the
+ * 'primitive' flags in a boolean array, so that no Definition or Set objects
+ * need to be allocated while constructing a unifier. The definitions are
+ * available as Definition objects through the read-only view returned by
+ * {@link #asMap()}, which creates them only on demand, or as a DefinitionSet
+ * by {@link #asDefinitionSet()}.
+ *
+ * Definitions are kept in the order in which they were added. Adding a
+ * definition for a definiendum that is already present replaces the old one.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class CompactDefinitionSet {
+
+	private static final int FREE = 0;
+	private static final int INITIAL_CAPACITY = 16;
+
+	private int[][] definientia;
+	private int[] definienda;
+	private boolean[] primitive;
+	private int size = 0;
+	// open addressing table mapping definienda to (position + 1)
+	private int[] slotKeys;
+	private int[] slotPositions;
+	private final Map<Integer, Definition> view = new View();
+
+	/**
+	 * Construct a new empty set of definitions.
+	 */
+	public CompactDefinitionSet() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Construct a new empty set of definitions with enough initial space for
+	 * the given number of definitions.
+	 *
+	 * @param expectedSize
+	 *            the expected number of definitions
+	 */
+	public CompactDefinitionSet(int expectedSize) {
+		int length = Math.max(expectedSize, 1);
+		int capacity = INITIAL_CAPACITY;
+		while (capacity < 2 * length) {
+			capacity <<= 1;
+		}
+		definientia = new int[length][];
+		definienda = new int[length];
+		primitive = new boolean[length];
+		slotKeys = new int[capacity];
+		slotPositions = new int[capacity];
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static int sum(int[] elements) {
+		int sum = 0;
+		for (int element : elements) {
+			sum += element;
+		}
+		return sum;
+	}
+
+	/**
+	 * Copy the definitions of this set into a new DefinitionSet.
+	 *
+	 * @return a DefinitionSet containing the same definitions
+	 */
+	public DefinitionSet asDefinitionSet() {
+		DefinitionSet definitions = new DefinitionSet(size);
+		for (int pos = 0; pos < size; pos++) {
+			definitions.add(getDefinitionAt(pos));
+		}
+		return definitions;
+	}
+
+	/**
+	 * Return a read-only view of this set as a map from the definienda to
+	 * their definitions. The view reflects later changes to this set and
+	 * iterates over the definitions in the order in which they were added.
+	 *
+	 * @return a map backed by this set
+	 */
+	public Map<Integer, Definition> asMap() {
+		return view;
+	}
+
+	/**
+	 * Check whether this set contains a definition for the given atom id.
+	 *
+	 * @param definiendum
+	 *            the atom id of the definiendum
+	 * @return 'true' iff there is a definition for this atom
+	 */
+	public boolean containsDefiniendum(int definiendum) {
+		return position(definiendum) >= 0;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof CompactDefinitionSet)) {
+			return false;
+		}
+		CompactDefinitionSet other = (CompactDefinitionSet) o;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			int j = other.position(definienda[i]);
+			if ((j < 0) || (primitive[i] != other.primitive[j]) || !Arrays.equals(definientia[i], other.definientia[j])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int findSlot(int definiendum) {
+		int mask = slotKeys.length - 1;
+		int slot = hash(definiendum) & mask;
+		while ((slotPositions[slot] != FREE) && (slotKeys[slot] != definiendum)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Retrieve the definiens of the given atom id.
+	 *
+	 * @param definiendum
+	 *            the atom id of the definiendum
+	 * @return the definiens, or 'null' if there is no definition for this atom
+	 */
+	public IntArraySet getDefiniens(int definiendum) {
+		int pos = position(definiendum);
+		return (pos < 0) ? null : IntArraySet.wrap(definientia[pos]);
+	}
+
+	private Definition getDefinitionAt(int pos) {
+		return new Definition(definienda[pos], IntArraySet.wrap(definientia[pos]), primitive[pos]);
+	}
+
+	/**
+	 * Computes the same hash code as {@link DefinitionSet#hashCode()} would for
+	 * the same definitions.
+	 */
+	@Override
+	public int hashCode() {
+		int h = 0;
+		for (int i = 0; i < size; i++) {
+			// key ^ (left.hashCode() + 37 * right.hashCode())
+			h += definienda[i] ^ (definienda[i] + 37 * sum(definientia[i]));
+		}
+		return h;
+	}
+
+	/**
+	 * Check whether the definition of the given atom id is primitive.
+	 *
+	 * @param definiendum
+	 *            the atom id of the definiendum
+	 * @return 'true' iff there is a primitive definition for this atom
+	 */
+	public boolean isPrimitive(int definiendum) {
+		int pos = position(definiendum);
+		return (pos >= 0) && primitive[pos];
+	}
+
+	private int position(int definiendum) {
+		return slotPositions[findSlot(definiendum)] - 1;
+	}
+
+	/**
+	 * Add a definition to this set, replacing any previous definition of the
+	 * same atom. The given array is sorted and may be used directly as the
+	 * storage of the definiens, so it must not be modified afterwards.
+	 *
+	 * @param definiendum
+	 *            the atom id of the definiendum
+	 * @param definiens
+	 *            the atom ids of the definiens, in any order
+	 * @param isPrimitive
+	 *            indicates whether the definition is primitive
+	 */
+	public void put(int definiendum, int[] definiens, boolean isPrimitive) {
+		int[] sorted = IntArraySet.normalize(definiens);
+		int slot = findSlot(definiendum);
+		int pos = slotPositions[slot] - 1;
+		if (pos < 0) {
+			pos = size;
+			if (pos == definienda.length) {
+				int length = 2 * definienda.length;
+				definientia = Arrays.copyOf(definientia, length);
+				definienda = Arrays.copyOf(definienda, length);
+				primitive = Arrays.copyOf(primitive, length);
+			}
+			definienda[pos] = definiendum;
+			slotKeys[slot] = definiendum;
+			slotPositions[slot] = pos + 1;
+			size++;
+			if (2 * size > slotKeys.length) {
+				rehash();
+			}
+		}
+		definientia[pos] = sorted;
+		primitive[pos] = isPrimitive;
+	}
+
+	/**
+	 * Add a definition to this set, replacing any previous definition of the
+	 * same atom.
+	 *
+	 * @param definiendum
+	 *            the atom id of the definiendum
+	 * @param definiens
+	 *            the atom ids of the definiens
+	 * @param isPrimitive
+	 *            indicates whether the definition is primitive
+	 */
+	public void put(int definiendum, Set<Integer> definiens, boolean isPrimitive) {
+		if (definiens instanceof IntArraySet) {
+			// already sorted and immutable
+			put(definiendum, ((IntArraySet) definiens).toIntArray(), isPrimitive);
+			return;
+		}
+		int[] array = new int[definiens.size()];
+		int i = 0;
+		for (Integer atomId : definiens) {
+			array[i] = atomId;
+			i++;
+		}
+		put(definiendum, array, isPrimitive);
+	}
+
+	private void rehash() {
+		int[] oldKeys = slotKeys;
+		int[] oldPositions = slotPositions;
+		slotKeys = new int[2 * oldKeys.length];
+		slotPositions = new int[2 * oldPositions.length];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldPositions[i] != FREE) {
+				int slot = findSlot(oldKeys[i]);
+				slotKeys[slot] = oldKeys[i];
+				slotPositions[slot] = oldPositions[i];
+			}
+		}
+	}
+
+	/**
+	 * Return the number of definitions in this set.
+	 *
+	 * @return the number of definitions
+	 */
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return asMap().toString();
+	}
+
+	/**
+	 * A read-only view of the enclosing set. The Definition objects are
+	 * created anew on each access, so that the view can be shared between
+	 * threads.
+	 */
+	private final class View extends AbstractMap<Integer, Definition> {
+
+		@Override
+		public boolean containsKey(Object key) {
+			return (key instanceof Integer) && containsDefiniendum((Integer) key);
+		}
+
+		@Override
+		public Set<Map.Entry<Integer, Definition>> entrySet() {
+			return new AbstractSet<Map.Entry<Integer, Definition>>() {
+
+				@Override
+				public Iterator<Map.Entry<Integer, Definition>> iterator() {
+					return new Iterator<Map.Entry<Integer, Definition>>() {
+
+						private int next = 0;
+
+						@Override
+						public boolean hasNext() {
+							return next < size;
+						}
+
+						@Override
+						public Map.Entry<Integer, Definition> next() {
+							if (!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							Map.Entry<Integer, Definition> entry = new SimpleImmutableEntry<Integer, Definition>(
+									definienda[next], getDefinitionAt(next));
+							next++;
+							return entry;
+						}
+
+					};
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+
+			};
+		}
+
+		@Override
+		public Definition get(Object key) {
+			if (!(key instanceof Integer)) {
+				return null;
+			}
+			int pos = position((Integer) key);
+			return (pos < 0) ? null : getDefinitionAt(pos);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+}
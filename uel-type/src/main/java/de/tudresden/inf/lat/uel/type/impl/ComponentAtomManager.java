@@ -0,0 +1,266 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import de.tudresden.inf.lat.uel.type.api.Atom;
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+
+/**
+ * A read-only view of an atom manager that restricts the sets of constants,
+ * variables and existential restrictions to the atoms of one component of a
+ * decomposed goal. All atoms keep their ids, and lookups of single atoms,
+ * concept names and role names are delegated to the underlying atom manager.
+ * Operations that would change the atom manager throw an
+ * UnsupportedOperationException.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+final class ComponentAtomManager implements AtomManager {
+
+	private static UnsupportedOperationException readOnly() {
+		return new UnsupportedOperationException("The atom manager of a goal component cannot be modified.");
+	}
+
+	private final AtomManager base;
+	private final Set<Integer> constants;
+	private final Set<Integer> definitionVariables;
+	private final Set<Integer> existentialRestrictions;
+	private final Set<Integer> flatteningVariables;
+	private final Set<Integer> undefNames;
+	private final Set<Integer> userVariables;
+	private final Set<Integer> variables;
+
+	/**
+	 * Construct a new view.
+	 *
+	 * @param base
+	 *            the atom manager of the whole goal
+	 * @param atomIds
+	 *            the ids of all atoms of the component
+	 */
+	ComponentAtomManager(AtomManager base, Set<Integer> atomIds) {
+		this.base = base;
+		this.constants = restrict(base.getConstants(), atomIds);
+		this.definitionVariables = restrict(base.getDefinitionVariables(), atomIds);
+		this.existentialRestrictions = restrict(base.getExistentialRestrictions(), atomIds);
+		this.flatteningVariables = restrict(base.getFlatteningVariables(), atomIds);
+		this.undefNames = restrict(base.getUndefNames(), atomIds);
+		this.userVariables = restrict(base.getUserVariables(), atomIds);
+		this.variables = restrict(base.getVariables(), atomIds);
+	}
+
+	private static Set<Integer> restrict(Set<Integer> set, Set<Integer> atomIds) {
+		Set<Integer> restriction = new HashSet<Integer>();
+		// iterate over the smaller set
+		if (set.size() < atomIds.size()) {
+			for (Integer atomId : set) {
+				if (atomIds.contains(atomId)) {
+					restriction.add(atomId);
+				}
+			}
+		} else {
+			for (Integer atomId : atomIds) {
+				if (set.contains(atomId)) {
+					restriction.add(atomId);
+				}
+			}
+		}
+		return Collections.unmodifiableSet(restriction);
+	}
+
+	@Override
+	public Integer createBlankExistentialRestriction(Integer roleId) {
+		throw readOnly();
+	}
+
+	@Override
+	public Integer createConceptName(String conceptName, boolean onlyTypes) {
+		throw readOnly();
+	}
+
+	@Override
+	public Integer createExistentialRestriction(String roleName, Integer child) {
+		throw readOnly();
+	}
+
+	@Override
+	public Integer createRoleGroupConceptName(Integer originid) {
+		throw readOnly();
+	}
+
+	@Override
+	public Integer createUndefConceptName(Integer originId) {
+		throw readOnly();
+	}
+
+	@Override
+	public AtomManager freeze() {
+		return new FrozenAtomManager(this);
+	}
+
+	@Override
+	public Atom getAtom(Integer atomId) {
+		return base.getAtom(atomId);
+	}
+
+	@Override
+	public Integer getChild(Integer atomId) {
+		return base.getChild(atomId);
+	}
+
+	@Override
+	public ConceptName getConceptName(Integer atomId) {
+		return base.getConceptName(atomId);
+	}
+
+	@Override
+	public Set<Integer> getConstants() {
+		return constants;
+	}
+
+	@Override
+	public Set<Integer> getDefinitionVariables() {
+		return definitionVariables;
+	}
+
+	@Override
+	public ExistentialRestriction getExistentialRestriction(Integer atomId) {
+		return base.getExistentialRestriction(atomId);
+	}
+
+	@Override
+	public Set<Integer> getExistentialRestrictions() {
+		return existentialRestrictions;
+	}
+
+	@Override
+	public Set<Integer> getExistentialRestrictions(Integer roleId) {
+		return base.getExistentialRestrictions(roleId).stream().filter(existentialRestrictions::contains)
+				.collect(Collectors.toSet());
+	}
+
+	@Override
+	public Set<Integer> getExistentialRestrictionsWithFiller(Integer fillerId) {
+		return base.getExistentialRestrictionsWithFiller(fillerId).stream().filter(existentialRestrictions::contains)
+				.collect(Collectors.toSet());
+	}
+
+	@Override
+	public Set<Integer> getFlatteningVariables() {
+		return flatteningVariables;
+	}
+
+	@Override
+	public Integer getIndex(Atom atom) {
+		return base.getIndex(atom);
+	}
+
+	@Override
+	public List<Atom> getNonvariableAtoms() {
+		List<Atom> nonVariableAtoms = new ArrayList<Atom>();
+		for (Atom atom : base.getNonvariableAtoms()) {
+			Integer atomId = atom.getAtomId();
+			if (constants.contains(atomId) || existentialRestrictions.contains(atomId)) {
+				nonVariableAtoms.add(atom);
+			}
+		}
+		return nonVariableAtoms;
+	}
+
+	@Override
+	public Integer getRoleGroupConceptName(Integer originId) {
+		return base.getRoleGroupConceptName(originId);
+	}
+
+	@Override
+	public Integer getRoleGroupOrigin(Integer roleGroupId) {
+		return base.getRoleGroupOrigin(roleGroupId);
+	}
+
+	@Override
+	public Integer getRoleId(Integer atomId) {
+		return base.getRoleId(atomId);
+	}
+
+	@Override
+	public Integer getRoleId(String roleName) {
+		return base.getRoleId(roleName);
+	}
+
+	@Override
+	public Set<Integer> getRoleIds() {
+		return base.getRoleIds();
+	}
+
+	@Override
+	public String getRoleName(Integer roleId) {
+		return base.getRoleName(roleId);
+	}
+
+	@Override
+	public Integer getUndefConceptName(Integer originId) {
+		return base.getUndefConceptName(originId);
+	}
+
+	@Override
+	public Set<Integer> getUndefNames() {
+		return undefNames;
+	}
+
+	@Override
+	public Set<Integer> getUserVariables() {
+		return userVariables;
+	}
+
+	@Override
+	public Set<Integer> getVariables() {
+		return variables;
+	}
+
+	@Override
+	public void makeConstant(Integer atomId) {
+		throw readOnly();
+	}
+
+	@Override
+	public void makeDefinitionVariable(Integer atomId) {
+		throw readOnly();
+	}
+
+	@Override
+	public void makeFlatteningVariable(Integer atomId) {
+		throw readOnly();
+	}
+
+	@Override
+	public void makeUserVariable(Integer atomId) {
+		throw readOnly();
+	}
+
+	@Override
+	public String printConceptName(Integer atomId) {
+		return base.printConceptName(atomId);
+	}
+
+	@Override
+	public String printRoleName(Integer atomId) {
+		return base.printRoleName(atomId);
+	}
+
+	@Override
+	public Integer removeUndef(Integer undefId) {
+		return base.removeUndef(undefId);
+	}
+
+	@Override
+	public int size() {
+		return base.size();
+	}
+
+}
@@ -5,11 +5,15 @@ import de.tudresden.inf.lat.uel.type.api.Atom;
 /**
  * Represents a flat EL-atom consisting of a concept name.
  * 
+ * Concept names created by an {@link AtomFactory} are canonical, i.e., there
+ * is only one such object for each concept name, and it carries its atom id.
+ * 
  * @author Stefan Borgwardt
  */
 public class ConceptName implements Atom {
 
-	private final Integer conceptNameId;
+	private final int atomId;
+	private final int conceptNameId;
 	private boolean isVariable = false;
 
 	/**
@@ -19,14 +23,24 @@ public class ConceptName implements Atom {
 	 *            the concept name identifier
 	 */
 	protected ConceptName(Integer conceptNameId) {
+		this(conceptNameId, 0);
+	}
+
+	/**
+	 * Construct a new canonical concept name.
+	 * 
+	 * @param conceptNameId
+	 *            the concept name identifier
+	 * @param atomId
+	 *            the atom id
+	 */
+	ConceptName(int conceptNameId, int atomId) {
 		this.conceptNameId = conceptNameId;
+		this.atomId = atomId;
 	}
 
 	@Override
 	public boolean equals(Object obj) {
-		if (obj == null) {
-			return false;
-		}
 		if (obj == this) {
 			return true;
 		}
@@ -35,10 +49,12 @@ public class ConceptName implements Atom {
 		}
 
 		ConceptName other = (ConceptName) obj;
-		if (!other.conceptNameId.equals(conceptNameId)) {
-			return false;
-		}
-		return true;
+		return other.conceptNameId == conceptNameId;
+	}
+
+	@Override
+	public int getAtomId() {
+		return atomId;
 	}
 
 	@Override
@@ -46,7 +62,7 @@ public class ConceptName implements Atom {
 		return this;
 	}
 
-	Integer getConceptNameId() {
+	int getConceptNameId() {
 		return conceptNameId;
 	}
 
@@ -90,7 +106,7 @@ public class ConceptName implements Atom {
 
 	@Override
 	public String toString() {
-		return conceptNameId.toString() + " {" + (isVariable() ? "v" : "c") + "}";
+		return conceptNameId + " {" + (isVariable() ? "v" : "c") + "}";
 	}
 
 }
@@ -0,0 +1,339 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import de.tudresden.inf.lat.uel.type.api.Definition;
+import de.tudresden.inf.lat.uel.type.api.Goal;
+import de.tudresden.inf.lat.uel.type.api.UnificationAlgorithm;
+
+/**
+ * Solves the components of a decomposed goal independently and enumerates the
+ * combinations of their unifiers. Each component is solved by its own
+ * unification algorithm. The unifiers of a component are only computed when
+ * the enumeration needs them: the combinations are enumerated like the digits
+ * of a counter, where the last component changes fastest, so the first
+ * component only has to compute its next unifier after all combinations of
+ * the other components have been returned.
+ *
+ * Optionally, the first unifiers of all components, which usually includes
+ * the costly encoding, are computed in parallel. For this, the algorithm uses
+ * its own threads, which are shut down as soon as the first unifiers are
+ * known; if one of the components has no unifier, the computations of the
+ * other components are interrupted.
+ *
+ * The metrics of the components are exposed in the registry of this algorithm
+ * under the prefix 'component<i>.', where 'i' is the index of the component
+ * starting from 1.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class DecomposedUnificationAlgorithm implements UnificationAlgorithm {
+
+	private static final String keyComponentPrefix = "Component ";
+	private static final String metricComponentPrefix = "component";
+	private static final String keyNumberOfComponents = "Number of components";
+	private static final String keyUnconstrainedVariables = "Unconstrained variables";
+	private static final String metricComponents = "decomposition.components";
+	private static final String metricLargestComponent = "decomposition.largestComponent";
+	private static final String metricUnifiers = "unifiers";
+	private static final String timerFirstUnifiers = "decomposition.firstUnifiers";
+
+	private final List<UnificationAlgorithm> algorithms = new ArrayList<UnificationAlgorithm>();
+	private Runnable callbackPreprocessing = null;
+	private Unifier currentUnifier = null;
+	private final boolean[] exhausted;
+	private boolean finished = false;
+	private int[] indices = null;
+	private final Metrics metrics = new Metrics();
+	private final int numberOfVariables;
+	private final boolean parallel;
+	private ResourceLimits.Limit reachedLimit = null;
+	private ResourceLimits resourceLimits = ResourceLimits.NONE;
+	private final Set<Integer> unconstrainedVariables;
+	private final List<List<Unifier>> unifiers = new ArrayList<List<Unifier>>();
+
+	/**
+	 * Construct a new algorithm that solves the components sequentially.
+	 *
+	 * @param decomposition
+	 *            the decomposed goal
+	 * @param factory
+	 *            constructs the unification algorithm for each component
+	 */
+	public DecomposedUnificationAlgorithm(GoalDecomposition decomposition,
+			Function<Goal, UnificationAlgorithm> factory) {
+		this(decomposition, factory, false);
+	}
+
+	/**
+	 * Construct a new algorithm.
+	 *
+	 * @param decomposition
+	 *            the decomposed goal
+	 * @param factory
+	 *            constructs the unification algorithm for each component
+	 * @param parallel
+	 *            indicates whether the first unifiers of the components should
+	 *            be computed in parallel
+	 */
+	public DecomposedUnificationAlgorithm(GoalDecomposition decomposition, Function<Goal, UnificationAlgorithm> factory,
+			boolean parallel) {
+		this.parallel = parallel;
+		this.unconstrainedVariables = decomposition.getUnconstrainedVariables();
+
+		int numberOfVariables = unconstrainedVariables.size();
+		int largestComponent = 0;
+		AtomicInteger preprocessed = new AtomicInteger(0);
+		int numberOfComponents = decomposition.getComponents().size();
+		for (Goal component : decomposition.getComponents()) {
+			UnificationAlgorithm algorithm = factory.apply(component);
+			algorithm.setCallbackPreprocessing(() -> {
+				// notify the callback once all components have been
+				// preprocessed
+				if (preprocessed.incrementAndGet() == numberOfComponents) {
+					callbackPreprocessing();
+				}
+			});
+			algorithms.add(algorithm);
+			unifiers.add(new ArrayList<Unifier>());
+			int size = component.getAtomManager().getVariables().size();
+			numberOfVariables += size;
+			largestComponent = Math.max(largestComponent, size);
+		}
+		this.exhausted = new boolean[algorithms.size()];
+		this.numberOfVariables = numberOfVariables;
+
+		metrics.gauge(metricComponents).set(algorithms.size());
+		metrics.gauge(metricLargestComponent).set(largestComponent);
+	}
+
+	private boolean advance() throws InterruptedException {
+		for (int i = algorithms.size() - 1; i >= 0; i--) {
+			resourceLimits.check(0);
+			int next = indices[i] + 1;
+			if ((next < unifiers.get(i).size()) || (!exhausted[i] && fetch(i))) {
+				indices[i] = next;
+				return true;
+			}
+			indices[i] = 0;
+		}
+		return false;
+	}
+
+	private void callbackPreprocessing() {
+		if (callbackPreprocessing != null) {
+			callbackPreprocessing.run();
+		}
+	}
+
+	@Override
+	public void cleanup() {
+		for (UnificationAlgorithm algorithm : algorithms) {
+			algorithm.cleanup();
+		}
+	}
+
+	private Unifier combine() {
+		CompactDefinitionSet definitions = new CompactDefinitionSet(numberOfVariables);
+		Map<Integer, Set<Integer>> typeAssignment = null;
+		for (int i = 0; i < algorithms.size(); i++) {
+			Unifier unifier = unifiers.get(i).get(indices[i]);
+			for (Definition d : unifier.getDefinitionMap().values()) {
+				definitions.put(d.getDefiniendum(), d.getDefiniens().toIntArray(), d.isPrimitive());
+			}
+			if (unifier.getTypeAssignment() != null) {
+				if (typeAssignment == null) {
+					typeAssignment = new HashMap<Integer, Set<Integer>>();
+				}
+				typeAssignment.putAll(unifier.getTypeAssignment());
+			}
+		}
+		for (Integer varId : unconstrainedVariables) {
+			// unconstrained variables are mapped to top
+			definitions.put(varId, new int[0], false);
+		}
+		return new Unifier(definitions, typeAssignment);
+	}
+
+	private boolean computeFirstUnifiers() throws InterruptedException {
+		if (algorithms.isEmpty()) {
+			callbackPreprocessing();
+			return true;
+		}
+		if (!parallel || (algorithms.size() == 1)) {
+			for (int i = 0; i < algorithms.size(); i++) {
+				if (!fetch(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		// use dedicated threads, so that interrupting them cannot affect
+		// other computations
+		int numberOfThreads = Math.min(algorithms.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads, r -> {
+			Thread thread = new Thread(r, "uel-component");
+			thread.setDaemon(true);
+			return thread;
+		});
+		CompletionService<Boolean> tasks = new ExecutorCompletionService<Boolean>(executor);
+		for (int i = 0; i < algorithms.size(); i++) {
+			int index = i;
+			tasks.submit(() -> fetch(index));
+		}
+		try {
+			// stop as soon as one of the components has no unifier
+			for (int i = 0; i < algorithms.size(); i++) {
+				if (!tasks.take().get()) {
+					return false;
+				}
+			}
+			return true;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof InterruptedException) {
+				throw (InterruptedException) e.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Override
+	public boolean computeNextUnifier() throws InterruptedException {
+		if (finished) {
+			return false;
+		}
+		try {
+			resourceLimits.check(0);
+			boolean found;
+			if (indices == null) {
+				indices = new int[algorithms.size()];
+				long startTime = System.nanoTime();
+				found = computeFirstUnifiers();
+				metrics.timer(timerFirstUnifiers).record(System.nanoTime() - startTime);
+			} else {
+				found = advance();
+			}
+			if (!found) {
+				finished = true;
+				return false;
+			}
+		} catch (LimitReachedException e) {
+			finished = true;
+			reachedLimit = e.getLimit();
+			cleanup();
+			return false;
+		}
+		currentUnifier = combine();
+		metrics.counter(metricUnifiers).increment();
+		return true;
+	}
+
+	/**
+	 * Compute the next unifier of a component.
+	 *
+	 * @param i
+	 *            the index of the component
+	 * @return 'true' iff a new unifier was found
+	 * @throws InterruptedException
+	 *             if the process is interrupted or the algorithm of the
+	 *             component reached a resource limit
+	 */
+	private boolean fetch(int i) throws InterruptedException {
+		UnificationAlgorithm algorithm = algorithms.get(i);
+		if (algorithm.computeNextUnifier()) {
+			unifiers.get(i).add(algorithm.getUnifier());
+			return true;
+		}
+		if (algorithm.getReachedLimit() != null) {
+			throw new LimitReachedException(algorithm.getReachedLimit());
+		}
+		exhausted[i] = true;
+		return false;
+	}
+
+	/**
+	 * Returns the unification algorithms of the components.
+	 *
+	 * @return the unification algorithms, in the order of the components
+	 */
+	public List<UnificationAlgorithm> getComponentAlgorithms() {
+		return algorithms;
+	}
+
+	@Override
+	public List<Entry<String, String>> getInfo() {
+		List<Entry<String, String>> info = new ArrayList<Entry<String, String>>();
+		info.add(new SimpleEntry<String, String>(keyNumberOfComponents, Integer.toString(algorithms.size())));
+		info.add(new SimpleEntry<String, String>(keyUnconstrainedVariables,
+				Integer.toString(unconstrainedVariables.size())));
+		for (int i = 0; i < algorithms.size(); i++) {
+			for (Entry<String, String> e : algorithms.get(i).getInfo()) {
+				info.add(new SimpleEntry<String, String>(keyComponentPrefix + (i + 1) + ": " + e.getKey(),
+						e.getValue()));
+			}
+		}
+		return info;
+	}
+
+	@Override
+	public Metrics getMetrics() {
+		for (int i = 0; i < algorithms.size(); i++) {
+			metrics.include(metricComponentPrefix + (i + 1) + ".", algorithms.get(i).getMetrics());
+		}
+		return metrics;
+	}
+
+	@Override
+	public ResourceLimits.Limit getReachedLimit() {
+		return reachedLimit;
+	}
+
+	@Override
+	public Unifier getUnifier() {
+		if (currentUnifier == null) {
+			throw new IllegalStateException("The unifiers have not been computed yet.");
+		}
+		return currentUnifier;
+	}
+
+	@Override
+	public void setCallbackPreprocessing(Runnable r) {
+		callbackPreprocessing = r;
+	}
+
+	@Override
+	public void setResourceLimits(ResourceLimits limits) {
+		resourceLimits = (limits == null) ? ResourceLimits.NONE : limits;
+		for (UnificationAlgorithm algorithm : algorithms) {
+			algorithm.setResourceLimits(limits);
+		}
+	}
+
+	@Override
+	public void setShortFormMap(Function<String, String> map) {
+		for (UnificationAlgorithm algorithm : algorithms) {
+			algorithm.setShortFormMap(map);
+		}
+	}
+
+}
@@ -0,0 +1,409 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import de.tudresden.inf.lat.uel.type.api.Atom;
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.api.IndexedSet;
+
+/**
+ * An atom manager that stores all relations between atoms in primitive arrays
+ * indexed by the (dense) atom ids, and all sets of atoms as BitSets. This
+ * avoids boxing and hashing when the same information is queried many times,
+ * e.g., during the encoding of large goals.
+ *
+ * The sets returned by this implementation are unmodifiable views that reflect
+ * later changes to the atom manager.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class DenseAtomManagerImpl implements AtomManager {
+
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int NONE = 0;
+
+	private final AtomFactory atoms = new AtomFactory();
+	private int[] childTable = new int[INITIAL_CAPACITY];
+	private final IndexedSet<String> conceptNames = new NameTable();
+	private final BitSet constants = new BitSet();
+	private final BitSet definitionVariables = new BitSet();
+	private final BitSet existentialRestrictions = new BitSet();
+	private BitSet[] existentialRestrictionsByRole = new BitSet[INITIAL_CAPACITY];
+	private int[] fillerCounts = new int[INITIAL_CAPACITY];
+	private int[][] fillerTable = new int[INITIAL_CAPACITY][];
+	private final BitSet flatteningVariables = new BitSet();
+	private int[] roleGroupOriginTable = new int[INITIAL_CAPACITY];
+	private int[] roleGroupTable = new int[INITIAL_CAPACITY];
+	private int[] roleTable = new int[INITIAL_CAPACITY];
+	private final IndexedSet<String> roleNames = new NameTable();
+	private int[] undefOriginTable = new int[INITIAL_CAPACITY];
+	private final BitSet undefs = new BitSet();
+	private int[] undefTable = new int[INITIAL_CAPACITY];
+	private final BitSet userVariables = new BitSet();
+	private final BitSet variables = new BitSet();
+
+	private final Set<Integer> constantsView = new BitSetView(constants);
+	private final Set<Integer> definitionVariablesView = new BitSetView(definitionVariables);
+	private final Set<Integer> existentialRestrictionsView = new BitSetView(existentialRestrictions);
+	private final Set<Integer> flatteningVariablesView = new BitSetView(flatteningVariables);
+	private final Set<Integer> undefsView = new BitSetView(undefs);
+	private final Set<Integer> userVariablesView = new BitSetView(userVariables);
+	private final Set<Integer> variablesView = new BitSetView(variables);
+
+	/**
+	 * Initialize a new atom manager with empty indices.
+	 */
+	public DenseAtomManagerImpl() {
+	}
+
+	private static int[] ensureCapacity(int[] table, int index) {
+		if (index < table.length) {
+			return table;
+		}
+		return Arrays.copyOf(table, Math.max(index + 1, 2 * table.length));
+	}
+
+	private Integer createAppendedName(Integer originId, String suffix, boolean onlyTypes) {
+		String newName = conceptNames.get(getConceptName(originId).getConceptNameId()) + suffix;
+		return createConceptName(newName, onlyTypes);
+	}
+
+	@Override
+	public Integer createBlankExistentialRestriction(Integer roleId) {
+		String roleName = getRoleName(roleId);
+		Integer fillerId = createConceptName(roleName + VAR_SUFFIX, false);
+		makeUserVariable(fillerId);
+		return createExistentialRestriction(roleName, fillerId);
+	}
+
+	@Override
+	public Integer createConceptName(String conceptName, boolean onlyTypes) {
+		int conceptNameId = conceptNames.addAndGetIndex(conceptName);
+		int atomId = atoms.conceptName(conceptNameId).getAtomId();
+		if (!variables.get(atomId) && !onlyTypes) {
+			// if the concept name had already been created earlier and marked
+			// as a variable, then do not mark it as a constant
+			constants.set(atomId);
+		}
+		return atomId;
+	}
+
+	@Override
+	public Integer createExistentialRestriction(String roleName, Integer childId) {
+		int roleId = roleNames.addAndGetIndex(roleName);
+		int atomId = atoms.existentialRestriction(roleId, getConceptName(childId)).getAtomId();
+
+		childTable = ensureCapacity(childTable, atomId);
+		roleTable = ensureCapacity(roleTable, atomId);
+		childTable[atomId] = childId;
+		roleTable[atomId] = roleId;
+		existentialRestrictions.set(atomId);
+
+		if (roleId >= existentialRestrictionsByRole.length) {
+			existentialRestrictionsByRole = Arrays.copyOf(existentialRestrictionsByRole,
+					Math.max(roleId + 1, 2 * existentialRestrictionsByRole.length));
+		}
+		BitSet set = existentialRestrictionsByRole[roleId];
+		if (set == null) {
+			set = new BitSet();
+			existentialRestrictionsByRole[roleId] = set;
+		}
+		set.set(atomId);
+
+		if (childId >= fillerTable.length) {
+			fillerTable = Arrays.copyOf(fillerTable, Math.max(childId + 1, 2 * fillerTable.length));
+		}
+		fillerCounts = ensureCapacity(fillerCounts, childId);
+		int[] row = fillerTable[childId];
+		int count = fillerCounts[childId];
+		if ((count == 0) || (row[count - 1] < atomId)) {
+			// new atoms have larger ids than all existing ones, so the row
+			// stays sorted and existing atoms are not added again
+			if (row == null) {
+				row = new int[2];
+			} else if (count == row.length) {
+				row = Arrays.copyOf(row, 2 * count);
+			}
+			row[count] = atomId;
+			fillerTable[childId] = row;
+			fillerCounts[childId] = count + 1;
+		}
+
+		return atomId;
+	}
+
+	@Override
+	public Integer createRoleGroupConceptName(Integer originId) {
+		int newId = lookup(roleGroupTable, originId);
+		if (newId == NONE) {
+			newId = createAppendedName(originId, ROLEGROUP_SUFFIX, true);
+			roleGroupTable = ensureCapacity(roleGroupTable, originId);
+			roleGroupOriginTable = ensureCapacity(roleGroupOriginTable, newId);
+			roleGroupTable[originId] = newId;
+			roleGroupOriginTable[newId] = originId;
+		}
+		return newId;
+	}
+
+	@Override
+	public Integer createUndefConceptName(Integer originId) {
+		int undefId = lookup(undefTable, originId);
+		if (undefId == NONE) {
+			undefId = createAppendedName(originId, UNDEF_SUFFIX, false);
+			undefTable = ensureCapacity(undefTable, originId);
+			undefOriginTable = ensureCapacity(undefOriginTable, undefId);
+			undefTable[originId] = undefId;
+			undefOriginTable[undefId] = originId;
+			undefs.set(undefId);
+		}
+		return undefId;
+	}
+
+	@Override
+	public AtomManager freeze() {
+		return new FrozenAtomManager(this);
+	}
+
+	@Override
+	public Atom getAtom(Integer atomId) {
+		return atoms.get(atomId);
+	}
+
+	/**
+	 * Retrieve the index of all atoms.
+	 *
+	 * @return the indexed set of all atoms
+	 */
+	public IndexedSet<Atom> getAtoms() {
+		return atoms;
+	}
+
+	@Override
+	public Integer getChild(Integer atomId) {
+		int childId = lookup(childTable, atomId);
+		return (childId == NONE) ? null : childId;
+	}
+
+	@Override
+	public ConceptName getConceptName(Integer atomId) {
+		Atom atom = atoms.get(atomId);
+		if ((atom == null) || !atom.isConceptName()) {
+			throw new IllegalArgumentException("Argument does not represent a concept name.");
+		}
+		return (ConceptName) atom;
+	}
+
+	@Override
+	public Set<Integer> getConstants() {
+		return constantsView;
+	}
+
+	@Override
+	public Set<Integer> getDefinitionVariables() {
+		return definitionVariablesView;
+	}
+
+	@Override
+	public ExistentialRestriction getExistentialRestriction(Integer atomId) {
+		Atom atom = atoms.get(atomId);
+		if ((atom == null) || !atom.isExistentialRestriction()) {
+			throw new IllegalArgumentException("Argument does not represent an existential restriction.");
+		}
+		return (ExistentialRestriction) atom;
+	}
+
+	@Override
+	public Set<Integer> getExistentialRestrictions() {
+		return existentialRestrictionsView;
+	}
+
+	@Override
+	public Set<Integer> getExistentialRestrictions(Integer roleId) {
+		if ((roleId == null) || (roleId < 0) || (roleId >= existentialRestrictionsByRole.length)
+				|| (existentialRestrictionsByRole[roleId] == null)) {
+			// in case there are no role group atoms
+			return Collections.emptySet();
+		}
+		return new BitSetView(existentialRestrictionsByRole[roleId]);
+	}
+
+	/**
+	 * The returned set is an immutable copy that does not reflect later
+	 * changes to the atom manager.
+	 */
+	@Override
+	public Set<Integer> getExistentialRestrictionsWithFiller(Integer fillerId) {
+		if ((fillerId == null) || (fillerId < 0) || (fillerId >= fillerTable.length)
+				|| (fillerTable[fillerId] == null)) {
+			return IntArraySet.EMPTY;
+		}
+		return IntArraySet.wrap(Arrays.copyOf(fillerTable[fillerId], fillerCounts[fillerId]));
+	}
+
+	@Override
+	public Set<Integer> getFlatteningVariables() {
+		return flatteningVariablesView;
+	}
+
+	@Override
+	public Integer getIndex(Atom atom) {
+		return atoms.getIndex(atom);
+	}
+
+	@Override
+	public List<Atom> getNonvariableAtoms() {
+		List<Atom> nonVariableAtoms = new ArrayList<Atom>();
+		int maxIndex = atoms.getMaxIndex();
+		for (int atomId = variables.nextClearBit(1); atomId <= maxIndex; atomId = variables
+				.nextClearBit(atomId + 1)) {
+			Atom atom = atoms.get(atomId);
+			if (atom != null) {
+				nonVariableAtoms.add(atom);
+			}
+		}
+		return nonVariableAtoms;
+	}
+
+	@Override
+	public Integer getRoleGroupConceptName(Integer originId) {
+		int roleGroupId = lookup(roleGroupTable, originId);
+		return (roleGroupId == NONE) ? null : roleGroupId;
+	}
+
+	@Override
+	public Integer getRoleGroupOrigin(Integer roleGroupId) {
+		int originId = lookup(roleGroupOriginTable, roleGroupId);
+		return (originId == NONE) ? null : originId;
+	}
+
+	@Override
+	public Integer getRoleId(Integer atomId) {
+		int roleId = lookup(roleTable, atomId);
+		return (roleId == NONE) ? null : roleId;
+	}
+
+	@Override
+	public Integer getRoleId(String roleName) {
+		return roleNames.getIndex(roleName);
+	}
+
+	@Override
+	public Set<Integer> getRoleIds() {
+		return Collections.unmodifiableSet(roleNames.getIndices());
+	}
+
+	@Override
+	public String getRoleName(Integer roleId) {
+		return roleNames.get(roleId);
+	}
+
+	@Override
+	public Integer getUndefConceptName(Integer originId) {
+		int undefId = lookup(undefTable, originId);
+		return (undefId == NONE) ? null : undefId;
+	}
+
+	@Override
+	public Set<Integer> getUndefNames() {
+		return undefsView;
+	}
+
+	@Override
+	public Set<Integer> getUserVariables() {
+		return userVariablesView;
+	}
+
+	@Override
+	public Set<Integer> getVariables() {
+		return variablesView;
+	}
+
+	private static int lookup(int[] table, Integer atomId) {
+		if ((atomId == null) || (atomId < 0) || (atomId >= table.length)) {
+			return NONE;
+		}
+		return table[atomId];
+	}
+
+	@Override
+	public void makeConstant(Integer atomId) {
+		getConceptName(atomId).makeConstant();
+		constants.set(atomId);
+		variables.clear(atomId);
+		userVariables.clear(atomId);
+		definitionVariables.clear(atomId);
+		flatteningVariables.clear(atomId);
+	}
+
+	@Override
+	public void makeDefinitionVariable(Integer atomId) {
+		getConceptName(atomId).makeVariable();
+		constants.clear(atomId);
+		variables.set(atomId);
+		userVariables.clear(atomId);
+		definitionVariables.set(atomId);
+		flatteningVariables.clear(atomId);
+	}
+
+	@Override
+	public void makeFlatteningVariable(Integer atomId) {
+		getConceptName(atomId).makeVariable();
+		constants.clear(atomId);
+		variables.set(atomId);
+		userVariables.clear(atomId);
+		definitionVariables.clear(atomId);
+		flatteningVariables.set(atomId);
+	}
+
+	@Override
+	public void makeUserVariable(Integer atomId) {
+		getConceptName(atomId).makeVariable();
+		constants.clear(atomId);
+		variables.set(atomId);
+		userVariables.set(atomId);
+		definitionVariables.clear(atomId);
+		flatteningVariables.clear(atomId);
+	}
+
+	@Override
+	public String printConceptName(Integer atomId) {
+		return conceptNames.get(getConceptName(atomId).getConceptNameId());
+	}
+
+	@Override
+	public String printRoleName(Integer atomId) {
+		if ((atomId == null) || (atomId < 0) || !existentialRestrictions.get(atomId)) {
+			throw new IllegalArgumentException("Argument does not represent an existential restriction.");
+		}
+		return roleNames.get(roleTable[atomId]);
+	}
+
+	@Override
+	public Integer removeUndef(Integer undefId) {
+		int origId = lookup(undefOriginTable, undefId);
+		if (origId != NONE) {
+			if (!variables.get(origId)) {
+				constants.set(origId);
+			}
+			return origId;
+		}
+		String undefName = printConceptName(undefId);
+		if (!undefName.endsWith(UNDEF_SUFFIX)) {
+			throw new IllegalArgumentException("Argument does not represent an UNDEF concept name.");
+		}
+		String origName = undefName.substring(0, undefName.length() - UNDEF_SUFFIX.length());
+		return createConceptName(origName, false);
+	}
+
+	@Override
+	public int size() {
+		return atoms.size();
+	}
+
+}
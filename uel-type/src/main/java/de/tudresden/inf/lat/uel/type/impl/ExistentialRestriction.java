@@ -5,12 +5,22 @@ import de.tudresden.inf.lat.uel.type.api.Atom;
 /**
  * Represents a flat EL-atom consisting of a role name and a concept name.
  * 
+ * Existential restrictions created by an {@link AtomFactory} are canonical,
+ * i.e., there is only one such object for each combination of role name and
+ * concept name, and it carries its atom id. Canonical existential restrictions
+ * of the same owner are therefore equal only if they are identical, which
+ * makes comparing them cheap. Existential restrictions of different owners are
+ * compared by their role names and fillers.
+ * 
  * @author Stefan Borgwardt
  */
 public class ExistentialRestriction implements Atom {
 
+	private final int atomId;
 	private final ConceptName child;
-	private final Integer role;
+	private final int hashCode;
+	private final Object owner;
+	private final int role;
 
 	/**
 	 * Construct a new flat existential restriction.
@@ -21,15 +31,41 @@ public class ExistentialRestriction implements Atom {
 	 *            the concept name
 	 */
 	public ExistentialRestriction(Integer role, ConceptName child) {
+		this(role, child, 0, null);
+	}
+
+	/**
+	 * Construct a new canonical flat existential restriction.
+	 * 
+	 * @param role
+	 *            the role name identifier
+	 * @param child
+	 *            the (canonical) concept name
+	 * @param atomId
+	 *            the atom id
+	 * @param owner
+	 *            the object that ensures that there is no other existential
+	 *            restriction with the same role name and filler and the same
+	 *            owner
+	 */
+	ExistentialRestriction(int role, ConceptName child, int atomId, Object owner) {
 		this.role = role;
 		this.child = child;
+		this.atomId = atomId;
+		this.hashCode = computeHashCode(role, child.getConceptNameId());
+		this.owner = owner;
+	}
+
+	static int computeHashCode(int role, int childConceptNameId) {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + childConceptNameId;
+		result = prime * result + role;
+		return result;
 	}
 
 	@Override
 	public boolean equals(Object obj) {
-		if (obj == null) {
-			return false;
-		}
 		if (obj == this) {
 			return true;
 		}
@@ -38,13 +74,15 @@ public class ExistentialRestriction implements Atom {
 		}
 
 		ExistentialRestriction other = (ExistentialRestriction) obj;
-		if (!other.role.equals(role)) {
+		if ((other.hashCode != hashCode) || ((owner != null) && (other.owner == owner))) {
 			return false;
 		}
-		if (!other.child.equals(child)) {
-			return false;
-		}
-		return true;
+		return (other.role == role) && ((other.child == child) || other.child.equals(child));
+	}
+
+	@Override
+	public int getAtomId() {
+		return atomId;
 	}
 
 	@Override
@@ -63,11 +101,7 @@ public class ExistentialRestriction implements Atom {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + child.hashCode();
-		result = prime * result + role;
-		return result;
+		return hashCode;
 	}
 
 	@Override
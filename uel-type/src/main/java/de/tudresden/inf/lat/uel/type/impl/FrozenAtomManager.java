@@ -0,0 +1,578 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import de.tudresden.inf.lat.uel.type.api.Atom;
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+
+/**
+ * An immutable snapshot of another atom manager. All atoms are copied, so that
+ * later changes to the original atom manager do not affect the snapshot, and
+ * all indices are stored in arrays and BitSets of exactly the required size.
+ * Since the snapshot is never modified after construction, it can be read by
+ * several threads without synchronization.
+ *
+ * The snapshot uses the same atom ids, concept name ids and role ids as the
+ * original atom manager. Operations that would change the snapshot throw an
+ * UnsupportedOperationException; 'create' operations for atoms that already
+ * exist (with the requested properties) simply return the existing ids, and
+ * marking a concept name with its current status is allowed as well.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public final class FrozenAtomManager implements AtomManager {
+
+	private static final int NONE = 0;
+
+	private final Atom[] atoms;
+	private final int[] childTable;
+	private final int[] conceptNameAtomIds;
+	private final NameTable conceptNames;
+	private final BitSet constants = new BitSet();
+	private final BitSet definitionVariables = new BitSet();
+	private final long[] existentialRestrictionKeys;
+	private final int[] existentialRestrictionSlots;
+	private final BitSet existentialRestrictions = new BitSet();
+	private final Set<Integer>[] existentialRestrictionsByRole;
+	private final int[] fillerIndex;
+	private final int[] fillerIndexStart;
+	private final BitSet flatteningVariables = new BitSet();
+	private final List<Atom> nonVariableAtoms;
+	private final int[] roleGroupOriginTable;
+	private final int[] roleGroupTable;
+	private final Set<Integer> roleIds;
+	private final NameTable roleNames;
+	private final int[] roleTable;
+	private final int size;
+	private final int[] undefOriginTable;
+	private final BitSet undefs = new BitSet();
+	private final int[] undefTable;
+	private final BitSet userVariables = new BitSet();
+	private final BitSet variables = new BitSet();
+
+	private final Set<Integer> constantsView = new BitSetView(constants);
+	private final Set<Integer> definitionVariablesView = new BitSetView(definitionVariables);
+	private final Set<Integer> existentialRestrictionsView = new BitSetView(existentialRestrictions);
+	private final Set<Integer> flatteningVariablesView = new BitSetView(flatteningVariables);
+	private final Set<Integer> undefsView = new BitSetView(undefs);
+	private final Set<Integer> userVariablesView = new BitSetView(userVariables);
+	private final Set<Integer> variablesView = new BitSetView(variables);
+
+	/**
+	 * Construct a snapshot of the given atom manager. The atom ids of the
+	 * original atom manager must be the consecutive numbers from 1 to
+	 * source.size().
+	 *
+	 * @param source
+	 *            the atom manager to be copied
+	 */
+	public FrozenAtomManager(AtomManager source) {
+		size = source.size();
+		atoms = new Atom[size + 1];
+		childTable = new int[size + 1];
+		roleTable = new int[size + 1];
+
+		// role names
+		int maxRoleId = 0;
+		for (Integer roleId : source.getRoleIds()) {
+			maxRoleId = Math.max(maxRoleId, roleId);
+		}
+		roleNames = new NameTable(maxRoleId);
+		for (Integer roleId : source.getRoleIds()) {
+			roleNames.add(source.getRoleName(roleId), roleId);
+		}
+		roleIds = Collections.unmodifiableSet(roleNames.getIndices());
+
+		// concept names, including the indices of variables etc.
+		int maxConceptNameId = 0;
+		int numberOfExistentialRestrictions = 0;
+		for (int atomId = 1; atomId <= size; atomId++) {
+			Atom atom = source.getAtom(atomId);
+			if (atom == null) {
+				throw new IllegalArgumentException("The atom ids of the given atom manager are not consecutive.");
+			}
+			if (atom.isConceptName()) {
+				maxConceptNameId = Math.max(maxConceptNameId, source.getConceptName(atomId).getConceptNameId());
+			} else {
+				numberOfExistentialRestrictions++;
+			}
+		}
+		conceptNames = new NameTable(maxConceptNameId);
+		conceptNameAtomIds = new int[maxConceptNameId + 1];
+		Set<Integer> sourceVariables = source.getVariables();
+		for (int atomId = 1; atomId <= size; atomId++) {
+			if (source.getAtom(atomId).isConceptName()) {
+				int conceptNameId = source.getConceptName(atomId).getConceptNameId();
+				ConceptName conceptName = new ConceptName(conceptNameId, atomId);
+				if (sourceVariables.contains(atomId)) {
+					conceptName.makeVariable();
+				}
+				atoms[atomId] = conceptName;
+				conceptNames.add(source.printConceptName(atomId), conceptNameId);
+				conceptNameAtomIds[conceptNameId] = atomId;
+			}
+		}
+		undefTable = new int[size + 1];
+		undefOriginTable = new int[size + 1];
+		roleGroupTable = new int[size + 1];
+		roleGroupOriginTable = new int[size + 1];
+		for (int atomId = 1; atomId <= size; atomId++) {
+			if (atoms[atomId] != null) {
+				Integer undefId = source.getUndefConceptName(atomId);
+				if (undefId != null) {
+					undefTable[atomId] = undefId;
+					undefOriginTable[undefId] = atomId;
+				}
+				Integer roleGroupId = source.getRoleGroupConceptName(atomId);
+				if (roleGroupId != null) {
+					roleGroupTable[atomId] = roleGroupId;
+					roleGroupOriginTable[roleGroupId] = atomId;
+				}
+			}
+		}
+		copyInto(source.getConstants(), constants);
+		copyInto(source.getDefinitionVariables(), definitionVariables);
+		copyInto(source.getFlatteningVariables(), flatteningVariables);
+		copyInto(source.getUndefNames(), undefs);
+		copyInto(source.getUserVariables(), userVariables);
+		copyInto(sourceVariables, variables);
+
+		// existential restrictions
+		int capacity = 2;
+		while (capacity < 2 * numberOfExistentialRestrictions) {
+			capacity <<= 1;
+		}
+		existentialRestrictionKeys = new long[capacity];
+		existentialRestrictionSlots = new int[capacity];
+		BitSet[] byRole = new BitSet[maxRoleId + 1];
+		for (int atomId = 1; atomId <= size; atomId++) {
+			if (atoms[atomId] == null) {
+				int roleId = source.getRoleId(atomId);
+				int childId = source.getChild(atomId);
+				ConceptName child = (ConceptName) atoms[childId];
+				atoms[atomId] = new ExistentialRestriction(roleId, child, atomId, this);
+				childTable[atomId] = childId;
+				roleTable[atomId] = roleId;
+				existentialRestrictions.set(atomId);
+				if (byRole[roleId] == null) {
+					byRole[roleId] = new BitSet();
+				}
+				byRole[roleId].set(atomId);
+				long key = key(roleId, child.getConceptNameId());
+				int slot = findSlot(key);
+				existentialRestrictionKeys[slot] = key;
+				existentialRestrictionSlots[slot] = atomId;
+			}
+		}
+		// index of existential restrictions by their fillers
+		fillerIndexStart = new int[size + 2];
+		fillerIndex = new int[numberOfExistentialRestrictions];
+		for (int atomId = existentialRestrictions.nextSetBit(0); atomId >= 0; atomId = existentialRestrictions
+				.nextSetBit(atomId + 1)) {
+			fillerIndexStart[childTable[atomId] + 1]++;
+		}
+		for (int atomId = 1; atomId <= size; atomId++) {
+			fillerIndexStart[atomId + 1] += fillerIndexStart[atomId];
+		}
+		int[] next = Arrays.copyOf(fillerIndexStart, size + 1);
+		for (int atomId = existentialRestrictions.nextSetBit(0); atomId >= 0; atomId = existentialRestrictions
+				.nextSetBit(atomId + 1)) {
+			fillerIndex[next[childTable[atomId]]++] = atomId;
+		}
+
+		@SuppressWarnings("unchecked")
+		Set<Integer>[] views = (Set<Integer>[]) new Set<?>[byRole.length];
+		for (int roleId = 0; roleId < byRole.length; roleId++) {
+			views[roleId] = (byRole[roleId] == null) ? Collections.<Integer> emptySet() : new BitSetView(byRole[roleId]);
+		}
+		existentialRestrictionsByRole = views;
+
+		List<Atom> list = new ArrayList<Atom>(size - variables.cardinality());
+		for (int atomId = 1; atomId <= size; atomId++) {
+			if (!variables.get(atomId)) {
+				list.add(atoms[atomId]);
+			}
+		}
+		nonVariableAtoms = Collections.unmodifiableList(list);
+	}
+
+	private static void copyInto(Set<Integer> source, BitSet target) {
+		for (Integer atomId : source) {
+			target.set(atomId);
+		}
+	}
+
+	private static UnsupportedOperationException frozen() {
+		return new UnsupportedOperationException("The atom manager is frozen and cannot be modified.");
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private static long key(int roleId, int childConceptNameId) {
+		return (((long) roleId) << 32) | (childConceptNameId & 0xFFFFFFFFL);
+	}
+
+	private static int lookup(int[] table, Integer atomId) {
+		if ((atomId == null) || (atomId < 0) || (atomId >= table.length)) {
+			return NONE;
+		}
+		return table[atomId];
+	}
+
+	@Override
+	public Integer createBlankExistentialRestriction(Integer roleId) {
+		String roleName = getRoleName(roleId);
+		Integer fillerId = createConceptName(roleName + VAR_SUFFIX, false);
+		makeUserVariable(fillerId);
+		return createExistentialRestriction(roleName, fillerId);
+	}
+
+	@Override
+	public Integer createConceptName(String conceptName, boolean onlyTypes) {
+		int atomId = findConceptName(conceptName);
+		if (atomId == NONE) {
+			throw frozen();
+		}
+		if (!onlyTypes && !variables.get(atomId) && !constants.get(atomId)) {
+			// the concept name would become a constant
+			throw frozen();
+		}
+		return atomId;
+	}
+
+	@Override
+	public Integer createExistentialRestriction(String roleName, Integer childId) {
+		int roleId = roleNames.getIndex(roleName);
+		if (roleId == -1) {
+			throw frozen();
+		}
+		int atomId = findExistentialRestriction(roleId, getConceptName(childId).getConceptNameId());
+		if (atomId == NONE) {
+			throw frozen();
+		}
+		return atomId;
+	}
+
+	@Override
+	public Integer createRoleGroupConceptName(Integer originId) {
+		Integer roleGroupId = getRoleGroupConceptName(originId);
+		if (roleGroupId == null) {
+			throw frozen();
+		}
+		return roleGroupId;
+	}
+
+	@Override
+	public Integer createUndefConceptName(Integer originId) {
+		Integer undefId = getUndefConceptName(originId);
+		if (undefId == null) {
+			throw frozen();
+		}
+		return undefId;
+	}
+
+	/**
+	 * Retrieve the atom id of a concept name without creating it.
+	 * 
+	 * @param conceptName
+	 *            the string representation of the concept name
+	 * @return the atom id, or 0 if there is no such concept name
+	 */
+	int findConceptName(String conceptName) {
+		int conceptNameId = conceptNames.getIndex(conceptName);
+		return (conceptNameId == -1) ? NONE : conceptNameAtomIds[conceptNameId];
+	}
+
+	/**
+	 * Retrieve the atom id of an existential restriction without creating it.
+	 * 
+	 * @param roleId
+	 *            the role id
+	 * @param childConceptNameId
+	 *            the concept name id of the filler
+	 * @return the atom id, or 0 if there is no such existential restriction
+	 */
+	int findExistentialRestriction(int roleId, int childConceptNameId) {
+		return existentialRestrictionSlots[findSlot(key(roleId, childConceptNameId))];
+	}
+
+	private int findSlot(long key) {
+		int mask = existentialRestrictionKeys.length - 1;
+		int slot = hash(key) & mask;
+		while ((existentialRestrictionSlots[slot] != NONE) && (existentialRestrictionKeys[slot] != key)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	@Override
+	public AtomManager freeze() {
+		return this;
+	}
+
+	/**
+	 * Retrieve the atom ids of all existential restrictions that have the
+	 * given concept name as their filler.
+	 * 
+	 * @param childId
+	 *            the atom id of the filler
+	 * @return a new array containing the atom ids, in increasing order
+	 */
+	int[] findExistentialRestrictionsWithFiller(int childId) {
+		if ((childId <= 0) || (childId > size)) {
+			return new int[0];
+		}
+		return Arrays.copyOfRange(fillerIndex, fillerIndexStart[childId], fillerIndexStart[childId + 1]);
+	}
+
+	@Override
+	public Atom getAtom(Integer atomId) {
+		if ((atomId == null) || (atomId < 0) || (atomId >= atoms.length)) {
+			return null;
+		}
+		return atoms[atomId];
+	}
+
+	@Override
+	public Integer getChild(Integer atomId) {
+		int childId = lookup(childTable, atomId);
+		return (childId == NONE) ? null : childId;
+	}
+
+	@Override
+	public ConceptName getConceptName(Integer atomId) {
+		Atom atom = getAtom(atomId);
+		if ((atom == null) || !atom.isConceptName()) {
+			throw new IllegalArgumentException("Argument does not represent a concept name.");
+		}
+		return (ConceptName) atom;
+	}
+
+	@Override
+	public Set<Integer> getConstants() {
+		return constantsView;
+	}
+
+	@Override
+	public Set<Integer> getDefinitionVariables() {
+		return definitionVariablesView;
+	}
+
+	@Override
+	public ExistentialRestriction getExistentialRestriction(Integer atomId) {
+		Atom atom = getAtom(atomId);
+		if ((atom == null) || !atom.isExistentialRestriction()) {
+			throw new IllegalArgumentException("Argument does not represent an existential restriction.");
+		}
+		return (ExistentialRestriction) atom;
+	}
+
+	@Override
+	public Set<Integer> getExistentialRestrictions() {
+		return existentialRestrictionsView;
+	}
+
+	@Override
+	public Set<Integer> getExistentialRestrictions(Integer roleId) {
+		if ((roleId == null) || (roleId < 0) || (roleId >= existentialRestrictionsByRole.length)) {
+			// in case there are no role group atoms
+			return Collections.emptySet();
+		}
+		return existentialRestrictionsByRole[roleId];
+	}
+
+	@Override
+	public Set<Integer> getExistentialRestrictionsWithFiller(Integer fillerId) {
+		return (fillerId == null) ? IntArraySet.EMPTY : IntArraySet.wrap(findExistentialRestrictionsWithFiller(fillerId));
+	}
+
+	@Override
+	public Set<Integer> getFlatteningVariables() {
+		return flatteningVariablesView;
+	}
+
+	@Override
+	public Integer getIndex(Atom atom) {
+		int atomId = atom.getAtomId();
+		if ((atomId > 0) && (atomId <= size) && atoms[atomId].equals(atom)) {
+			return atomId;
+		}
+		int found;
+		if (atom.isConceptName()) {
+			int conceptNameId = ((ConceptName) atom).getConceptNameId();
+			found = ((conceptNameId < 0) || (conceptNameId >= conceptNameAtomIds.length)) ? NONE
+					: conceptNameAtomIds[conceptNameId];
+		} else {
+			ExistentialRestriction er = (ExistentialRestriction) atom;
+			found = findExistentialRestriction(er.getRoleId(), er.getConceptName().getConceptNameId());
+		}
+		return (found == NONE) ? -1 : found;
+	}
+
+	/**
+	 * Return the largest concept name id used by this atom manager.
+	 * 
+	 * @return the maximal concept name id
+	 */
+	int getMaxConceptNameId() {
+		return conceptNameAtomIds.length - 1;
+	}
+
+	/**
+	 * Return the largest role id used by this atom manager.
+	 * 
+	 * @return the maximal role id
+	 */
+	int getMaxRoleId() {
+		return existentialRestrictionsByRole.length - 1;
+	}
+
+	@Override
+	public List<Atom> getNonvariableAtoms() {
+		return nonVariableAtoms;
+	}
+
+	@Override
+	public Integer getRoleGroupConceptName(Integer originId) {
+		int roleGroupId = lookup(roleGroupTable, originId);
+		return (roleGroupId == NONE) ? null : roleGroupId;
+	}
+
+	@Override
+	public Integer getRoleGroupOrigin(Integer roleGroupId) {
+		int originId = lookup(roleGroupOriginTable, roleGroupId);
+		return (originId == NONE) ? null : originId;
+	}
+
+	@Override
+	public Integer getRoleId(Integer atomId) {
+		int roleId = lookup(roleTable, atomId);
+		return (roleId == NONE) ? null : roleId;
+	}
+
+	@Override
+	public Integer getRoleId(String roleName) {
+		return roleNames.getIndex(roleName);
+	}
+
+	@Override
+	public Set<Integer> getRoleIds() {
+		return roleIds;
+	}
+
+	@Override
+	public String getRoleName(Integer roleId) {
+		return roleNames.get(roleId);
+	}
+
+	@Override
+	public Integer getUndefConceptName(Integer originId) {
+		int undefId = lookup(undefTable, originId);
+		return (undefId == NONE) ? null : undefId;
+	}
+
+	@Override
+	public Set<Integer> getUndefNames() {
+		return undefsView;
+	}
+
+	/**
+	 * Retrieve the concept name from which a given UNDEF concept name was
+	 * created, without any further checks.
+	 * 
+	 * @param undefId
+	 *            the atom id of the UNDEF concept name
+	 * @return the atom id of the original concept name, or 0 if there is none
+	 */
+	int getUndefOrigin(int undefId) {
+		return lookup(undefOriginTable, undefId);
+	}
+
+	@Override
+	public Set<Integer> getUserVariables() {
+		return userVariablesView;
+	}
+
+	@Override
+	public Set<Integer> getVariables() {
+		return variablesView;
+	}
+
+	@Override
+	public void makeConstant(Integer atomId) {
+		getConceptName(atomId);
+		if (!constants.get(atomId)) {
+			throw frozen();
+		}
+	}
+
+	@Override
+	public void makeDefinitionVariable(Integer atomId) {
+		getConceptName(atomId);
+		if (!definitionVariables.get(atomId)) {
+			throw frozen();
+		}
+	}
+
+	@Override
+	public void makeFlatteningVariable(Integer atomId) {
+		getConceptName(atomId);
+		if (!flatteningVariables.get(atomId)) {
+			throw frozen();
+		}
+	}
+
+	@Override
+	public void makeUserVariable(Integer atomId) {
+		getConceptName(atomId);
+		if (!userVariables.get(atomId)) {
+			throw frozen();
+		}
+	}
+
+	@Override
+	public String printConceptName(Integer atomId) {
+		return conceptNames.get(getConceptName(atomId).getConceptNameId());
+	}
+
+	@Override
+	public String printRoleName(Integer atomId) {
+		if ((atomId == null) || (atomId < 0) || !existentialRestrictions.get(atomId)) {
+			throw new IllegalArgumentException("Argument does not represent an existential restriction.");
+		}
+		return roleNames.get(roleTable[atomId]);
+	}
+
+	@Override
+	public Integer removeUndef(Integer undefId) {
+		int origId = lookup(undefOriginTable, undefId);
+		if (origId != NONE) {
+			if (!variables.get(origId) && !constants.get(origId)) {
+				// the concept name would become a constant
+				throw frozen();
+			}
+			return origId;
+		}
+		String undefName = printConceptName(undefId);
+		if (!undefName.endsWith(UNDEF_SUFFIX)) {
+			throw new IllegalArgumentException("Argument does not represent an UNDEF concept name.");
+		}
+		String origName = undefName.substring(0, undefName.length() - UNDEF_SUFFIX.length());
+		return createConceptName(origName, false);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+}
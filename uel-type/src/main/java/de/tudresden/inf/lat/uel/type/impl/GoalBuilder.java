@@ -0,0 +1,352 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.api.Definition;
+import de.tudresden.inf.lat.uel.type.api.Disequation;
+import de.tudresden.inf.lat.uel.type.api.Dissubsumption;
+import de.tudresden.inf.lat.uel.type.api.Equation;
+import de.tudresden.inf.lat.uel.type.api.Goal;
+import de.tudresden.inf.lat.uel.type.api.Subsumption;
+
+/**
+ * Constructs goals directly from names and atom ids, without going through the
+ * OWL API. All axioms have to be flat, i.e., their sides are sets of atom ids
+ * created by this builder; nested expressions can be introduced by
+ * {@link #flatten(int...)}. Primitive definitions are converted into full
+ * definitions using an UNDEF concept name, in the same way as for ontology
+ * goals.
+ *
+ * Example: the goal X ≡? A ⊓ ∃r.B with the user variable X can be built by
+ *
+ * <pre>
+ * GoalBuilder builder = new GoalBuilder();
+ * int x = builder.userVariable("X");
+ * int a = builder.conceptName("A");
+ * int rb = builder.existentialRestriction("r", "B");
+ * Goal goal = builder.equation(new int[] { x }, new int[] { a, rb }).build();
+ * </pre>
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class GoalBuilder {
+
+	private static final String flatteningVariablePrefix = "var";
+
+	private final AtomManager atomManager;
+	private final DefinitionSet definitions = new DefinitionSet();
+	private final Set<Disequation> disequations = new HashSet<Disequation>();
+	private final Set<Dissubsumption> dissubsumptions = new HashSet<Dissubsumption>();
+	private final Set<Equation> equations = new HashSet<Equation>();
+	private int flatteningVariableIndex = 0;
+	private final Map<IntArraySet, Integer> flatteningVariables = new HashMap<IntArraySet, Integer>();
+	private final Set<Subsumption> subsumptions = new HashSet<Subsumption>();
+
+	/**
+	 * Construct a new goal builder using a fresh atom manager.
+	 */
+	public GoalBuilder() {
+		this(new AtomManagerImpl());
+	}
+
+	/**
+	 * Construct a new goal builder that stores all atoms in the given atom
+	 * manager.
+	 *
+	 * @param atomManager
+	 *            the atom manager
+	 */
+	public GoalBuilder(AtomManager atomManager) {
+		this.atomManager = atomManager;
+	}
+
+	private void addDefinition(int definiendum, IntArraySet definiens) {
+		atomManager.getConceptName(definiendum);
+		if (definitions.containsKey(definiendum)) {
+			throw new IllegalArgumentException("Concept name already has a definition: " + definiendum);
+		}
+		atomManager.makeDefinitionVariable(definiendum);
+		definitions.add(new Definition(definiendum, definiens, false));
+	}
+
+	private IntArraySet atoms(int[] atomIds) {
+		for (int atomId : atomIds) {
+			if (atomManager.getAtom(atomId) == null) {
+				throw new IllegalArgumentException("Unknown atom id: " + atomId);
+			}
+		}
+		return IntArraySet.of(atomIds);
+	}
+
+	/**
+	 * Construct a goal containing all axioms added so far. The goal shares the
+	 * atom manager with this builder, but later changes to the builder do not
+	 * affect the axioms of the goal.
+	 *
+	 * @return the new goal
+	 */
+	public Goal build() {
+		return new BuiltGoal(atomManager, new DefinitionSet(definitions), copy(disequations),
+				copy(dissubsumptions), copy(equations), copy(subsumptions));
+	}
+
+	/**
+	 * Retrieve the atom id of a concept name, creating it as a constant if it
+	 * does not exist yet.
+	 *
+	 * @param name
+	 *            the name of the concept
+	 * @return the atom id
+	 */
+	public int conceptName(String name) {
+		return atomManager.createConceptName(name, false);
+	}
+
+	private static <T> Set<T> copy(Set<T> axioms) {
+		return Collections.unmodifiableSet(new HashSet<T>(axioms));
+	}
+
+	/**
+	 * Add a full definition of a concept name to the background knowledge of
+	 * the goal. The concept name is marked as a definition variable.
+	 *
+	 * @param definiendum
+	 *            the atom id of the defined concept name
+	 * @param definiens
+	 *            the atom ids of the definition
+	 * @return this builder
+	 */
+	public GoalBuilder define(int definiendum, int... definiens) {
+		addDefinition(definiendum, atoms(definiens));
+		return this;
+	}
+
+	/**
+	 * Add a primitive definition of a concept name to the background knowledge
+	 * of the goal. It is stored as a full definition whose right-hand side
+	 * additionally contains the UNDEF concept name of the definiendum.
+	 *
+	 * @param definiendum
+	 *            the atom id of the defined concept name
+	 * @param definiens
+	 *            the atom ids of the right-hand side
+	 * @return this builder
+	 */
+	public GoalBuilder definePrimitive(int definiendum, int... definiens) {
+		int[] ids = atoms(definiens).toIntArray();
+		int[] right = Arrays.copyOf(ids, ids.length + 1);
+		right[ids.length] = atomManager.createUndefConceptName(definiendum);
+		addDefinition(definiendum, IntArraySet.of(right));
+		return this;
+	}
+
+	/**
+	 * Add a goal disequation.
+	 *
+	 * @param left
+	 *            the atom ids of the left-hand side
+	 * @param right
+	 *            the atom ids of the right-hand side
+	 * @return this builder
+	 */
+	public GoalBuilder disequation(int[] left, int[] right) {
+		disequations.add(new Disequation(atoms(left), atoms(right)));
+		return this;
+	}
+
+	/**
+	 * Add a goal dissubsumption.
+	 *
+	 * @param left
+	 *            the atom ids of the left-hand side
+	 * @param right
+	 *            the atom ids of the right-hand side
+	 * @return this builder
+	 */
+	public GoalBuilder dissubsumption(int[] left, int[] right) {
+		dissubsumptions.add(new Dissubsumption(atoms(left), atoms(right)));
+		return this;
+	}
+
+	/**
+	 * Add a goal equation.
+	 *
+	 * @param left
+	 *            the atom ids of the left-hand side
+	 * @param right
+	 *            the atom ids of the right-hand side
+	 * @return this builder
+	 */
+	public GoalBuilder equation(int[] left, int[] right) {
+		equations.add(new Equation(atoms(left), atoms(right)));
+		return this;
+	}
+
+	/**
+	 * Retrieve the atom id of an existential restriction, creating it if it
+	 * does not exist yet.
+	 *
+	 * @param roleName
+	 *            the name of the role
+	 * @param fillerId
+	 *            the atom id of the filler, which must be a concept name
+	 * @return the atom id
+	 */
+	public int existentialRestriction(String roleName, int fillerId) {
+		atomManager.getConceptName(fillerId);
+		return atomManager.createExistentialRestriction(roleName, fillerId);
+	}
+
+	/**
+	 * Retrieve the atom id of an existential restriction, creating it and its
+	 * filler if they do not exist yet. A new filler is created as a constant.
+	 *
+	 * @param roleName
+	 *            the name of the role
+	 * @param fillerName
+	 *            the name of the filler
+	 * @return the atom id
+	 */
+	public int existentialRestriction(String roleName, String fillerName) {
+		return existentialRestriction(roleName, conceptName(fillerName));
+	}
+
+	/**
+	 * Retrieve a concept name representing the conjunction of the given atoms.
+	 * A single concept name is returned unchanged; otherwise, a flattening
+	 * variable is defined as the conjunction, and reused for the same set of
+	 * atoms.
+	 *
+	 * @param atomIds
+	 *            the atom ids of the conjunction
+	 * @return the atom id of a concept name equivalent to the conjunction
+	 */
+	public int flatten(int... atomIds) {
+		IntArraySet conjunction = atoms(atomIds);
+		if ((conjunction.size() == 1) && atomManager.getAtom(conjunction.getInt(0)).isConceptName()) {
+			return conjunction.getInt(0);
+		}
+		Integer varId = flatteningVariables.get(conjunction);
+		if (varId == null) {
+			varId = atomManager.createConceptName(flatteningVariablePrefix + flatteningVariableIndex, false);
+			flatteningVariableIndex++;
+			atomManager.makeFlatteningVariable(varId);
+			flatteningVariables.put(conjunction, varId);
+			definitions.add(new Definition(varId, conjunction, false));
+		}
+		return varId;
+	}
+
+	/**
+	 * Retrieve the atom manager used by this builder.
+	 *
+	 * @return the atom manager
+	 */
+	public AtomManager getAtomManager() {
+		return atomManager;
+	}
+
+	/**
+	 * Add a goal subsumption.
+	 *
+	 * @param left
+	 *            the atom ids of the left-hand side
+	 * @param right
+	 *            the atom ids of the right-hand side
+	 * @return this builder
+	 */
+	public GoalBuilder subsumption(int[] left, int[] right) {
+		subsumptions.add(new Subsumption(atoms(left), atoms(right)));
+		return this;
+	}
+
+	/**
+	 * Retrieve the atom id of a concept name and mark it as a user variable.
+	 *
+	 * @param name
+	 *            the name of the variable
+	 * @return the atom id
+	 */
+	public int userVariable(String name) {
+		int atomId = atomManager.createConceptName(name, false);
+		atomManager.makeUserVariable(atomId);
+		return atomId;
+	}
+
+	/**
+	 * A goal consisting only of flat axioms, without type information.
+	 */
+	private static final class BuiltGoal implements Goal {
+
+		private final AtomManager atomManager;
+		private final DefinitionSet definitions;
+		private final Set<Disequation> disequations;
+		private final Set<Dissubsumption> dissubsumptions;
+		private final Set<Equation> equations;
+		private final Set<Subsumption> subsumptions;
+
+		BuiltGoal(AtomManager atomManager, DefinitionSet definitions, Set<Disequation> disequations,
+				Set<Dissubsumption> dissubsumptions, Set<Equation> equations, Set<Subsumption> subsumptions) {
+			this.atomManager = atomManager;
+			this.definitions = definitions;
+			this.disequations = disequations;
+			this.dissubsumptions = dissubsumptions;
+			this.equations = equations;
+			this.subsumptions = subsumptions;
+		}
+
+		@Override
+		public AtomManager getAtomManager() {
+			return atomManager;
+		}
+
+		@Override
+		public Set<Integer> getDefiniens(Integer varId) {
+			return definitions.getDefiniens(varId);
+		}
+
+		@Override
+		public Definition getDefinition(Integer varId) {
+			return definitions.getDefinition(varId);
+		}
+
+		@Override
+		public DefinitionSet getDefinitions() {
+			return definitions;
+		}
+
+		@Override
+		public Set<Disequation> getDisequations() {
+			return disequations;
+		}
+
+		@Override
+		public Set<Dissubsumption> getDissubsumptions() {
+			return dissubsumptions;
+		}
+
+		@Override
+		public Set<Equation> getEquations() {
+			return equations;
+		}
+
+		@Override
+		public Set<Subsumption> getSubsumptions() {
+			return subsumptions;
+		}
+
+		@Override
+		public boolean hasNegativePart() {
+			return !disequations.isEmpty() || !dissubsumptions.isEmpty();
+		}
+
+	}
+
+}
@@ -0,0 +1,383 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.api.Axiom;
+import de.tudresden.inf.lat.uel.type.api.Definition;
+import de.tudresden.inf.lat.uel.type.api.Disequation;
+import de.tudresden.inf.lat.uel.type.api.Dissubsumption;
+import de.tudresden.inf.lat.uel.type.api.Equation;
+import de.tudresden.inf.lat.uel.type.api.Goal;
+import de.tudresden.inf.lat.uel.type.api.Subsumption;
+
+/**
+ * Removes the atoms of a goal that are not needed to solve it, and renumbers
+ * the remaining atoms densely. During the setup of a goal, the flattening of
+ * the background ontologies creates many atoms that do not occur in any axiom
+ * of the goal; nevertheless, the unification algorithms consider all atoms of
+ * the atom manager, e.g., as possible elements of substitution sets.
+ *
+ * An atom is kept if it is reachable from the axioms of the goal or is a user
+ * variable. An atom is reachable if it occurs in an axiom, is the filler of a
+ * reachable existential restriction, or is the origin of a reachable UNDEF
+ * name. The compacted goal uses a new atom manager that only contains these
+ * atoms, with the same names and the same variable markings; its
+ * implementation can be chosen by the caller. Unifiers of the
+ * compacted goal can be translated back to the atom ids of the original goal,
+ * e.g., for rendering them.
+ *
+ * Goals with type information or role number restrictions (SNOMED mode) refer
+ * to atoms and roles in many additional places, and are thus never compacted.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public final class GoalCompaction {
+
+	/**
+	 * A copy of a goal that uses the compacted atom ids.
+	 */
+	private static final class CompactGoal implements Goal {
+
+		private final AtomManager atomManager;
+		private final GoalCompaction compaction;
+		private final DefinitionSet definitions = new DefinitionSet();
+		private final Set<Disequation> disequations = new HashSet<Disequation>();
+		private final Set<Dissubsumption> dissubsumptions = new HashSet<Dissubsumption>();
+		private final Set<Equation> equations = new HashSet<Equation>();
+		private final Goal goal;
+		private final Set<Subsumption> subsumptions = new HashSet<Subsumption>();
+
+		CompactGoal(Goal goal, AtomManager atomManager, GoalCompaction compaction) {
+			this.goal = goal;
+			this.atomManager = atomManager;
+			this.compaction = compaction;
+			for (Definition d : goal.getDefinitions().values()) {
+				definitions.add(new Definition(compaction.getCompactId(d.getDefiniendum()),
+						compaction.toCompactIds(d.getDefiniens()), d.isPrimitive()));
+			}
+			for (Equation e : goal.getEquations()) {
+				equations.add(new Equation(compaction.toCompactIds(e.getLeft()), compaction.toCompactIds(e.getRight())));
+			}
+			for (Subsumption s : goal.getSubsumptions()) {
+				subsumptions.add(
+						new Subsumption(compaction.toCompactIds(s.getLeft()), compaction.toCompactIds(s.getRight())));
+			}
+			for (Disequation e : goal.getDisequations()) {
+				disequations.add(
+						new Disequation(compaction.toCompactIds(e.getLeft()), compaction.toCompactIds(e.getRight())));
+			}
+			for (Dissubsumption s : goal.getDissubsumptions()) {
+				dissubsumptions.add(
+						new Dissubsumption(compaction.toCompactIds(s.getLeft()), compaction.toCompactIds(s.getRight())));
+			}
+		}
+
+		@Override
+		public boolean areCompatible(Integer atomId1, Integer atomId2) {
+			return goal.areCompatible(compaction.getOriginalId(atomId1), compaction.getOriginalId(atomId2));
+		}
+
+		@Override
+		public AtomManager getAtomManager() {
+			return atomManager;
+		}
+
+		@Override
+		public Set<Integer> getDefiniens(Integer varId) {
+			return definitions.getDefiniens(varId);
+		}
+
+		@Override
+		public Definition getDefinition(Integer varId) {
+			return definitions.getDefinition(varId);
+		}
+
+		@Override
+		public DefinitionSet getDefinitions() {
+			return definitions;
+		}
+
+		@Override
+		public Set<Disequation> getDisequations() {
+			return disequations;
+		}
+
+		@Override
+		public Set<Dissubsumption> getDissubsumptions() {
+			return dissubsumptions;
+		}
+
+		@Override
+		public Set<Equation> getEquations() {
+			return equations;
+		}
+
+		@Override
+		public Set<Subsumption> getSubsumptions() {
+			return subsumptions;
+		}
+
+		@Override
+		public boolean hasNegativePart() {
+			return !disequations.isEmpty() || !dissubsumptions.isEmpty();
+		}
+
+		@Override
+		public boolean isCommonSubsumee(Integer subsumee, Integer subsumer1, Integer subsumer2) {
+			return goal.isCommonSubsumee(compaction.getOriginalId(subsumee), compaction.getOriginalId(subsumer1),
+					compaction.getOriginalId(subsumer2));
+		}
+
+		@Override
+		public boolean isTop(Integer id) {
+			return goal.isTop(compaction.getOriginalId(id));
+		}
+
+		@Override
+		public boolean restrictUndefContext() {
+			return goal.restrictUndefContext();
+		}
+
+		@Override
+		public String SNOMED_CT_Concept_URI() {
+			return goal.SNOMED_CT_Concept_URI();
+		}
+
+		@Override
+		public String SNOMED_RoleGroup_URI() {
+			return goal.SNOMED_RoleGroup_URI();
+		}
+
+	}
+
+	/**
+	 * Compact the atoms of a goal into a dense atom manager.
+	 *
+	 * @param goal
+	 *            the goal
+	 * @return the compaction of the goal
+	 */
+	public static GoalCompaction compact(Goal goal) {
+		return compact(goal, DenseAtomManagerImpl::new);
+	}
+
+	/**
+	 * Compact the atoms of a goal.
+	 *
+	 * @param goal
+	 *            the goal
+	 * @param atomManagerFactory
+	 *            creates the empty atom manager of the compacted goal
+	 * @return the compaction of the goal
+	 */
+	public static GoalCompaction compact(Goal goal, Supplier<AtomManager> atomManagerFactory) {
+		if (!goal.getTypes().isEmpty() || !goal.getRoleNumberRestrictions().isEmpty()) {
+			return new GoalCompaction(goal, goal.getAtomManager().size());
+		}
+		return new GoalCompaction(goal, atomManagerFactory.get());
+	}
+
+	// maps the original atom ids to the compacted ones; 0 if removed
+	private int[] compactIds;
+	private final Goal goal;
+	private final int numberOfAtoms;
+	private int[] originalIds = new int[16];
+
+	private GoalCompaction(Goal goal, AtomManager newAtomManager) {
+		AtomManager atomManager = goal.getAtomManager();
+		this.numberOfAtoms = atomManager.size();
+
+		// UNDEF names cannot be mapped back to their origin without modifying
+		// the atom manager, so we collect the origins beforehand
+		Map<Integer, Integer> undefOrigins = new HashMap<Integer, Integer>();
+		addUndefOrigins(atomManager, atomManager.getConstants(), undefOrigins);
+		addUndefOrigins(atomManager, atomManager.getVariables(), undefOrigins);
+
+		// compute the reachable atoms
+		Set<Integer> reachable = new HashSet<Integer>();
+		Deque<Integer> toVisit = new ArrayDeque<Integer>(atomManager.getUserVariables());
+		addAtoms(goal.getDefinitions().values(), toVisit);
+		addAtoms(goal.getEquations(), toVisit);
+		addAtoms(goal.getSubsumptions(), toVisit);
+		addAtoms(goal.getDisequations(), toVisit);
+		addAtoms(goal.getDissubsumptions(), toVisit);
+		while (!toVisit.isEmpty()) {
+			Integer atomId = toVisit.pop();
+			if (reachable.add(atomId)) {
+				if (atomManager.getExistentialRestrictions().contains(atomId)) {
+					toVisit.push(atomManager.getChild(atomId));
+				} else if (undefOrigins.containsKey(atomId)) {
+					toVisit.push(undefOrigins.get(atomId));
+				}
+			}
+		}
+
+		// recreate the atoms in the order of their original ids
+		int[] atomIds = new int[reachable.size()];
+		int i = 0;
+		for (Integer atomId : reachable) {
+			atomIds[i++] = atomId;
+		}
+		Arrays.sort(atomIds);
+		compactIds = new int[(atomIds.length == 0) ? 1 : atomIds[atomIds.length - 1] + 1];
+		for (int atomId : atomIds) {
+			copyAtom(atomManager, newAtomManager, atomId, undefOrigins);
+		}
+		for (int atomId : atomIds) {
+			int newId = compactIds[atomId];
+			if (atomManager.getUserVariables().contains(atomId)) {
+				newAtomManager.makeUserVariable(newId);
+			} else if (atomManager.getDefinitionVariables().contains(atomId)) {
+				newAtomManager.makeDefinitionVariable(newId);
+			} else if (atomManager.getFlatteningVariables().contains(atomId)) {
+				newAtomManager.makeFlatteningVariable(newId);
+			}
+		}
+
+		this.goal = new CompactGoal(goal, newAtomManager, this);
+	}
+
+	private GoalCompaction(Goal goal, int numberOfAtoms) {
+		this.goal = goal;
+		this.numberOfAtoms = numberOfAtoms;
+		this.originalIds = null;
+	}
+
+	private static void addAtoms(Iterable<? extends Axiom> axioms, Deque<Integer> toVisit) {
+		for (Axiom axiom : axioms) {
+			toVisit.addAll(axiom.getLeft());
+			toVisit.addAll(axiom.getRight());
+		}
+	}
+
+	private static void addUndefOrigins(AtomManager atomManager, Set<Integer> atomIds,
+			Map<Integer, Integer> undefOrigins) {
+		for (Integer atomId : atomIds) {
+			Integer undefId = atomManager.getUndefConceptName(atomId);
+			if (undefId != null) {
+				undefOrigins.put(undefId, atomId);
+			}
+		}
+	}
+
+	private int copyAtom(AtomManager source, AtomManager target, int atomId, Map<Integer, Integer> undefOrigins) {
+		int newId = compactIds[atomId];
+		if (newId != 0) {
+			return newId;
+		}
+		if (source.getExistentialRestrictions().contains(atomId)) {
+			int childId = copyAtom(source, target, source.getChild(atomId), undefOrigins);
+			newId = target.createExistentialRestriction(source.printRoleName(atomId), childId);
+		} else if (undefOrigins.containsKey(atomId)) {
+			newId = target.createUndefConceptName(copyAtom(source, target, undefOrigins.get(atomId), undefOrigins));
+		} else {
+			boolean onlyTypes = !source.getConstants().contains(atomId) && !source.getVariables().contains(atomId);
+			newId = target.createConceptName(source.printConceptName(atomId), onlyTypes);
+		}
+		compactIds[atomId] = newId;
+		if (newId >= originalIds.length) {
+			originalIds = Arrays.copyOf(originalIds, Math.max(newId + 1, 2 * originalIds.length));
+		}
+		originalIds[newId] = atomId;
+		return newId;
+	}
+
+	/**
+	 * Translate a unifier of the compacted goal into a unifier of the original
+	 * goal.
+	 *
+	 * @param unifier
+	 *            a unifier of the compacted goal
+	 * @return the same unifier, expressed in the atom ids of the original goal
+	 */
+	public Unifier expand(Unifier unifier) {
+		if (originalIds == null) {
+			return unifier;
+		}
+		Map<Integer, Definition> compactDefinitions = unifier.getDefinitionMap();
+		CompactDefinitionSet definitions = new CompactDefinitionSet(compactDefinitions.size());
+		for (Definition d : compactDefinitions.values()) {
+			IntArraySet definiens = d.getDefiniens();
+			int[] ids = new int[definiens.size()];
+			for (int i = 0; i < ids.length; i++) {
+				ids[i] = originalIds[definiens.getInt(i)];
+			}
+			definitions.put(originalIds[d.getDefiniendum()], ids, d.isPrimitive());
+		}
+		return new Unifier(definitions, unifier.getTypeAssignment());
+	}
+
+	/**
+	 * Returns the atom id of an atom in the compacted goal.
+	 *
+	 * @param atomId
+	 *            the atom id in the original goal
+	 * @return the atom id in the compacted goal, or 'null' if the atom was
+	 *         removed
+	 */
+	public Integer getCompactId(Integer atomId) {
+		if (originalIds == null) {
+			return atomId;
+		}
+		if ((atomId < 0) || (atomId >= compactIds.length) || (compactIds[atomId] == 0)) {
+			return null;
+		}
+		return compactIds[atomId];
+	}
+
+	/**
+	 * Returns the compacted goal. The original goal is returned if it cannot
+	 * be compacted.
+	 *
+	 * @return the compacted goal
+	 */
+	public Goal getGoal() {
+		return goal;
+	}
+
+	/**
+	 * @return the number of atoms that were removed from the goal
+	 */
+	public int getNumberOfRemovedAtoms() {
+		return numberOfAtoms - goal.getAtomManager().size();
+	}
+
+	/**
+	 * Returns the atom id of an atom in the original goal.
+	 *
+	 * @param atomId
+	 *            the atom id in the compacted goal
+	 * @return the atom id in the original goal
+	 */
+	public Integer getOriginalId(Integer atomId) {
+		if (originalIds == null) {
+			return atomId;
+		}
+		return originalIds[atomId];
+	}
+
+	/**
+	 * @return 'true' iff the goal was compacted
+	 */
+	public boolean isNontrivial() {
+		return originalIds != null;
+	}
+
+	private Set<Integer> toCompactIds(IntArraySet atomIds) {
+		int[] ids = new int[atomIds.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = compactIds[atomIds.getInt(i)];
+		}
+		return IntArraySet.of(ids);
+	}
+
+}
@@ -0,0 +1,291 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.api.Axiom;
+import de.tudresden.inf.lat.uel.type.api.Definition;
+import de.tudresden.inf.lat.uel.type.api.Disequation;
+import de.tudresden.inf.lat.uel.type.api.Dissubsumption;
+import de.tudresden.inf.lat.uel.type.api.Equation;
+import de.tudresden.inf.lat.uel.type.api.Goal;
+import de.tudresden.inf.lat.uel.type.api.Subsumption;
+
+/**
+ * Splits a goal into components that do not share any variables. Two axioms
+ * belong to the same component if they are connected by a chain of axioms in
+ * which each consecutive pair has a common variable, either directly or as the
+ * filler of an existential restriction. Axioms without variables are collected
+ * in one additional component. Since the components have disjoint variables,
+ * the union of unifiers of all components is a unifier of the whole goal.
+ *
+ * Each component is a goal whose atom manager only contains the atoms
+ * occurring in its axioms. Hence, a unification algorithm only considers
+ * these atoms for the substitution sets of the variables of the component.
+ * Variables that do not occur in any axiom are not part of a component; they
+ * can be mapped to top.
+ *
+ * Goals with type information or role number restrictions (SNOMED mode)
+ * contain global constraints between all variables, and are thus never split.
+ * The same holds for goals with dissubsumptions or disequations, since these
+ * may only be satisfiable using atoms that occur in other components.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public final class GoalDecomposition {
+
+	/**
+	 * A goal consisting of some of the axioms of another goal.
+	 */
+	private static final class ComponentGoal implements Goal {
+
+		private final AtomManager atomManager;
+		private final DefinitionSet definitions = new DefinitionSet();
+		private final Set<Disequation> disequations = new HashSet<Disequation>();
+		private final Set<Dissubsumption> dissubsumptions = new HashSet<Dissubsumption>();
+		private final Set<Equation> equations = new HashSet<Equation>();
+		private final Goal goal;
+		private final Set<Subsumption> subsumptions = new HashSet<Subsumption>();
+
+		ComponentGoal(Goal goal, List<Axiom> axioms, Set<Integer> atomIds) {
+			this.goal = goal;
+			this.atomManager = new ComponentAtomManager(goal.getAtomManager(), atomIds);
+			for (Axiom axiom : axioms) {
+				if (axiom instanceof Definition) {
+					definitions.add((Definition) axiom);
+				} else if (axiom instanceof Equation) {
+					equations.add((Equation) axiom);
+				} else if (axiom instanceof Subsumption) {
+					subsumptions.add((Subsumption) axiom);
+				} else if (axiom instanceof Disequation) {
+					disequations.add((Disequation) axiom);
+				} else {
+					dissubsumptions.add((Dissubsumption) axiom);
+				}
+			}
+		}
+
+		@Override
+		public boolean areCompatible(Integer atomId1, Integer atomId2) {
+			return goal.areCompatible(atomId1, atomId2);
+		}
+
+		@Override
+		public AtomManager getAtomManager() {
+			return atomManager;
+		}
+
+		@Override
+		public Set<Integer> getDefiniens(Integer varId) {
+			return definitions.getDefiniens(varId);
+		}
+
+		@Override
+		public Definition getDefinition(Integer varId) {
+			return definitions.getDefinition(varId);
+		}
+
+		@Override
+		public DefinitionSet getDefinitions() {
+			return definitions;
+		}
+
+		@Override
+		public Set<Disequation> getDisequations() {
+			return disequations;
+		}
+
+		@Override
+		public Set<Dissubsumption> getDissubsumptions() {
+			return dissubsumptions;
+		}
+
+		@Override
+		public Set<Equation> getEquations() {
+			return equations;
+		}
+
+		@Override
+		public Set<Subsumption> getSubsumptions() {
+			return subsumptions;
+		}
+
+		@Override
+		public boolean hasNegativePart() {
+			return !disequations.isEmpty() || !dissubsumptions.isEmpty();
+		}
+
+		@Override
+		public boolean isTop(Integer id) {
+			return goal.isTop(id);
+		}
+
+		@Override
+		public boolean restrictUndefContext() {
+			return goal.restrictUndefContext();
+		}
+
+		@Override
+		public String SNOMED_CT_Concept_URI() {
+			return goal.SNOMED_CT_Concept_URI();
+		}
+
+		@Override
+		public String SNOMED_RoleGroup_URI() {
+			return goal.SNOMED_RoleGroup_URI();
+		}
+
+	}
+
+	/**
+	 * Decompose a goal into its variable-connected components.
+	 *
+	 * @param goal
+	 *            the goal
+	 * @return the decomposition of the goal
+	 */
+	public static GoalDecomposition decompose(Goal goal) {
+		if (!goal.getTypes().isEmpty() || !goal.getRoleNumberRestrictions().isEmpty() || goal.hasNegativePart()) {
+			return new GoalDecomposition(Collections.singletonList(goal), Collections.emptySet());
+		}
+		return new GoalDecomposition(goal);
+	}
+
+	private final List<Goal> components;
+	private final Set<Integer> unconstrainedVariables;
+
+	private GoalDecomposition(Goal goal) {
+		AtomManager atomManager = goal.getAtomManager();
+		List<Axiom> axioms = new ArrayList<Axiom>();
+		axioms.addAll(goal.getDefinitions().values());
+		axioms.addAll(goal.getEquations());
+		axioms.addAll(goal.getSubsumptions());
+		axioms.addAll(goal.getDisequations());
+		axioms.addAll(goal.getDissubsumptions());
+
+		// union-find over the variables occurring in the axioms
+		Map<Integer, Integer> parent = new HashMap<Integer, Integer>();
+		List<Set<Integer>> axiomAtoms = new ArrayList<Set<Integer>>(axioms.size());
+		for (Axiom axiom : axioms) {
+			Set<Integer> atomIds = new HashSet<Integer>();
+			addAtoms(atomManager, axiom.getLeft(), atomIds);
+			addAtoms(atomManager, axiom.getRight(), atomIds);
+			axiomAtoms.add(atomIds);
+
+			Integer firstVar = null;
+			for (Integer atomId : atomIds) {
+				if (atomManager.getVariables().contains(atomId)) {
+					parent.putIfAbsent(atomId, atomId);
+					if (firstVar == null) {
+						firstVar = atomId;
+					} else {
+						union(parent, firstVar, atomId);
+					}
+				}
+			}
+		}
+
+		// collect the axioms and atoms of each component, in the order of
+		// their first occurrence; the key 'null' denotes the ground component
+		Map<Integer, List<Axiom>> componentAxioms = new LinkedHashMap<Integer, List<Axiom>>();
+		Map<Integer, Set<Integer>> componentAtoms = new HashMap<Integer, Set<Integer>>();
+		for (int i = 0; i < axioms.size(); i++) {
+			Integer root = null;
+			for (Integer atomId : axiomAtoms.get(i)) {
+				if (parent.containsKey(atomId)) {
+					root = find(parent, atomId);
+					break;
+				}
+			}
+			componentAxioms.computeIfAbsent(root, r -> new ArrayList<Axiom>()).add(axioms.get(i));
+			componentAtoms.computeIfAbsent(root, r -> new HashSet<Integer>()).addAll(axiomAtoms.get(i));
+		}
+
+		List<Goal> components = new ArrayList<Goal>(componentAxioms.size());
+		for (Map.Entry<Integer, List<Axiom>> e : componentAxioms.entrySet()) {
+			components.add(new ComponentGoal(goal, e.getValue(), componentAtoms.get(e.getKey())));
+		}
+		this.components = Collections.unmodifiableList(components);
+
+		Set<Integer> unconstrainedVariables = new HashSet<Integer>();
+		for (Integer varId : atomManager.getVariables()) {
+			if (!parent.containsKey(varId)) {
+				unconstrainedVariables.add(varId);
+			}
+		}
+		this.unconstrainedVariables = Collections.unmodifiableSet(unconstrainedVariables);
+	}
+
+	private GoalDecomposition(List<Goal> components, Set<Integer> unconstrainedVariables) {
+		this.components = components;
+		this.unconstrainedVariables = unconstrainedVariables;
+	}
+
+	private static void addAtoms(AtomManager atomManager, IntArraySet ids, Set<Integer> atomIds) {
+		for (int i = 0; i < ids.size(); i++) {
+			int atomId = ids.getInt(i);
+			atomIds.add(atomId);
+			if (atomManager.getExistentialRestrictions().contains(atomId)) {
+				atomIds.add(atomManager.getChild(atomId));
+			}
+		}
+	}
+
+	private static Integer find(Map<Integer, Integer> parent, Integer atomId) {
+		Integer root = atomId;
+		while (!parent.get(root).equals(root)) {
+			root = parent.get(root);
+		}
+		// path compression
+		while (!atomId.equals(root)) {
+			Integer next = parent.get(atomId);
+			parent.put(atomId, root);
+			atomId = next;
+		}
+		return root;
+	}
+
+	private static void union(Map<Integer, Integer> parent, Integer atomId1, Integer atomId2) {
+		Integer root1 = find(parent, atomId1);
+		Integer root2 = find(parent, atomId2);
+		if (!root1.equals(root2)) {
+			parent.put(root2, root1);
+		}
+	}
+
+	/**
+	 * Returns the components of the goal. The original goal is returned as
+	 * the only component if it cannot be split.
+	 *
+	 * @return the components
+	 */
+	public List<Goal> getComponents() {
+		return components;
+	}
+
+	/**
+	 * Returns the variables that do not occur in any axiom of the goal.
+	 *
+	 * @return the atom ids of the unconstrained variables
+	 */
+	public Set<Integer> getUnconstrainedVariables() {
+		return unconstrainedVariables;
+	}
+
+	/**
+	 * @return 'true' iff the goal was split into more than one component or
+	 *         has unconstrained variables
+	 */
+	public boolean isNontrivial() {
+		return components.size() > 1 || !unconstrainedVariables.isEmpty();
+	}
+
+}
@@ -0,0 +1,254 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.api.Axiom;
+import de.tudresden.inf.lat.uel.type.api.Definition;
+import de.tudresden.inf.lat.uel.type.api.Goal;
+
+/**
+ * A 128-bit fingerprint of a goal that does not depend on the numbering of
+ * the atoms. Two goals that consist of the same axioms over the same concept
+ * and role names, with the same variables, types and role restrictions, have
+ * the same fingerprint, even if their atoms were created in a different
+ * order. This allows to cache the results for a goal.
+ *
+ * The fingerprint is the MD5 hash of a canonical textual form of the goal. In
+ * this form, a concept name is represented by its name, an existential
+ * restriction by its role name and the representation of its filler, and
+ * each part of the goal by the sorted representations of its elements. Names
+ * are prefixed by their length, so that no name can be confused with the
+ * surrounding syntax, and all other parts of the form are plain ASCII.
+ * Flattening variables are the only atoms whose names depend on the order in
+ * which the goal was constructed; they are instead represented by the
+ * conjunction they were introduced for, i.e., by their definiens.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public final class GoalFingerprint {
+
+	/**
+	 * Computes the canonical representations of atoms.
+	 */
+	private static final class Canonicalizer {
+
+		private final AtomManager atomManager;
+		private final Map<Integer, String> cache = new HashMap<Integer, String>();
+		private final Goal goal;
+		private final Set<Integer> visiting = new HashSet<Integer>();
+
+		Canonicalizer(Goal goal) {
+			this.goal = goal;
+			this.atomManager = goal.getAtomManager();
+		}
+
+		String atom(Integer atomId) {
+			String str = cache.get(atomId);
+			if (str != null) {
+				return str;
+			}
+			if (atomManager.getExistentialRestrictions().contains(atomId)) {
+				str = "some " + role(atomManager.getRoleId(atomId)) + " " + atom(atomManager.getChild(atomId));
+			} else {
+				Definition definition = goal.getDefinition(atomId);
+				if (atomManager.getFlatteningVariables().contains(atomId) && (definition != null)
+						&& !definition.isPrimitive() && visiting.add(atomId)) {
+					str = atoms(definition.getDefiniens());
+					visiting.remove(atomId);
+				} else {
+					str = name(atomManager.printConceptName(atomId));
+				}
+			}
+			cache.put(atomId, str);
+			return str;
+		}
+
+		String atoms(Collection<Integer> atomIds) {
+			return sorted(atomIds, this::atom);
+		}
+
+		String axiom(Axiom axiom, String connective, boolean symmetric) {
+			String left = atoms(axiom.getLeft());
+			String right = atoms(axiom.getRight());
+			if (symmetric && (left.compareTo(right) > 0)) {
+				String tmp = left;
+				left = right;
+				right = tmp;
+			}
+			return left + " " + connective + " " + right;
+		}
+
+		String role(Integer roleId) {
+			return name(atomManager.getRoleName(roleId));
+		}
+
+	}
+
+	/**
+	 * Computes the canonical textual form of a goal.
+	 *
+	 * @param goal
+	 *            the goal
+	 * @return a string that only depends on the names of the atoms of the
+	 *         goal, but not on their ids
+	 */
+	public static String canonicalForm(Goal goal) {
+		Canonicalizer c = new Canonicalizer(goal);
+		AtomManager atomManager = goal.getAtomManager();
+		StringBuilder sb = new StringBuilder();
+
+		appendSection(sb, "Definitions", goal.getDefinitions().values(),
+				d -> c.axiom(d, d.isPrimitive() ? "sub" : "eq", false));
+		appendSection(sb, "Equations", goal.getEquations(), e -> c.axiom(e, "eq", true));
+		appendSection(sb, "Subsumptions", goal.getSubsumptions(), s -> c.axiom(s, "sub", false));
+		appendSection(sb, "Disequations", goal.getDisequations(), e -> c.axiom(e, "neq", true));
+		appendSection(sb, "Dissubsumptions", goal.getDissubsumptions(), s -> c.axiom(s, "nsub", false));
+		appendSection(sb, "User variables", atomManager.getUserVariables(), c::atom);
+		appendSection(sb, "Definition variables", atomManager.getDefinitionVariables(), c::atom);
+		appendSection(sb, "Types", goal.getTypes(), type -> {
+			Integer supertype = goal.getDirectSupertype(type);
+			return c.atom(type) + ((supertype == null) ? "" : " sub " + c.atom(supertype));
+		});
+		appendSection(sb, "Domains", goal.getDomains().entrySet(),
+				e -> c.role(e.getKey()) + " : " + c.atoms(e.getValue()));
+		appendSection(sb, "Ranges", goal.getRanges().entrySet(),
+				e -> c.role(e.getKey()) + " : " + c.atoms(e.getValue()));
+		appendSection(sb, "Role group types", goal.getRoleGroupTypes().entrySet(),
+				e -> c.atom(e.getKey()) + " -> " + c.atom(e.getValue()));
+		appendSection(sb, "Type assignment", goal.getTypeAssignment().entrySet(),
+				e -> c.atom(e.getKey()) + " : " + c.atom(e.getValue()));
+		appendSection(sb, "Role number restrictions", goal.getRoleNumberRestrictions().entrySet(),
+				e -> c.role(e.getKey()) + " <= " + e.getValue());
+		sb.append("Restrict UNDEF context: ");
+		sb.append(goal.restrictUndefContext());
+		sb.append("\n");
+
+		return sb.toString();
+	}
+
+	/**
+	 * Computes the fingerprint of a goal.
+	 *
+	 * @param goal
+	 *            the goal
+	 * @return the fingerprint of the goal
+	 */
+	public static GoalFingerprint of(Goal goal) {
+		try {
+			byte[] digest = MessageDigest.getInstance("MD5")
+					.digest(canonicalForm(goal).getBytes(StandardCharsets.UTF_8));
+			return new GoalFingerprint(toLong(digest, 0), toLong(digest, 8));
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform is required to support MD5
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static <T> void appendSection(StringBuilder sb, String name, Collection<T> elements,
+			Function<T, String> canonical) {
+		if (elements.isEmpty()) {
+			return;
+		}
+		sb.append(name);
+		sb.append(":\n");
+		List<String> lines = new ArrayList<String>(elements.size());
+		for (T element : elements) {
+			lines.add(canonical.apply(element));
+		}
+		Collections.sort(lines);
+		for (String line : lines) {
+			sb.append(line);
+			sb.append("\n");
+		}
+	}
+
+	private static String name(String name) {
+		return name.length() + "'" + name;
+	}
+
+	private static <T> String sorted(Collection<T> elements, Function<T, String> canonical) {
+		List<String> strings = new ArrayList<String>(elements.size());
+		for (T element : elements) {
+			strings.add(canonical.apply(element));
+		}
+		Collections.sort(strings);
+		return "{" + String.join(", ", strings) + "}";
+	}
+
+	private static long toLong(byte[] bytes, int offset) {
+		long value = 0;
+		for (int i = offset; i < offset + 8; i++) {
+			value = (value << 8) | (bytes[i] & 0xFF);
+		}
+		return value;
+	}
+
+	private final long high;
+	private final long low;
+
+	/**
+	 * Construct a fingerprint from its two halves.
+	 *
+	 * @param high
+	 *            the upper 64 bits
+	 * @param low
+	 *            the lower 64 bits
+	 */
+	public GoalFingerprint(long high, long low) {
+		this.high = high;
+		this.low = low;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof GoalFingerprint)) {
+			return false;
+		}
+		GoalFingerprint other = (GoalFingerprint) o;
+		return (high == other.high) && (low == other.low);
+	}
+
+	/**
+	 * @return the upper 64 bits of the fingerprint
+	 */
+	public long getHigh() {
+		return high;
+	}
+
+	/**
+	 * @return the lower 64 bits of the fingerprint
+	 */
+	public long getLow() {
+		return low;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(high) * 31 + Long.hashCode(low);
+	}
+
+	/**
+	 * Returns the fingerprint as a hexadecimal string of 32 characters.
+	 */
+	@Override
+	public String toString() {
+		return String.format("%016x%016x", high, low);
+	}
+
+}
@@ -0,0 +1,215 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable set of integers that is backed by a sorted array without
+ * duplicates. The hash code is computed once on construction. Apart from the
+ * usual Set interface, the elements can be accessed without boxing by their
+ * position in the sorted order.
+ *
+ * @author Stefan Borgwardt
+ */
+public final class IntArraySet extends AbstractSet<Integer> {
+
+	/**
+	 * The empty set.
+	 */
+	public static final IntArraySet EMPTY = new IntArraySet(new int[0]);
+
+	/**
+	 * Construct a new set containing the given integers.
+	 *
+	 * @param elements
+	 *            the elements of the new set, in any order and possibly with
+	 *            duplicates
+	 * @return a set containing the given elements
+	 */
+	public static IntArraySet of(int... elements) {
+		if (elements.length == 0) {
+			return EMPTY;
+		}
+		int[] sorted = Arrays.copyOf(elements, elements.length);
+		Arrays.sort(sorted);
+		return new IntArraySet(removeDuplicates(sorted));
+	}
+
+	/**
+	 * Construct a new set containing the given integers. If the argument is
+	 * already an IntArraySet, it is returned unchanged.
+	 *
+	 * @param elements
+	 *            the elements of the new set
+	 * @return a set containing the given elements
+	 */
+	public static IntArraySet of(Collection<Integer> elements) {
+		if (elements instanceof IntArraySet) {
+			return (IntArraySet) elements;
+		}
+		if (elements.isEmpty()) {
+			return EMPTY;
+		}
+		int[] sorted = new int[elements.size()];
+		int i = 0;
+		for (Integer element : elements) {
+			sorted[i] = element;
+			i++;
+		}
+		Arrays.sort(sorted);
+		return new IntArraySet(removeDuplicates(sorted));
+	}
+
+	/**
+	 * Wrap the given array without copying it. The caller must ensure that the
+	 * array is sorted, does not contain duplicates, and is never modified
+	 * afterwards.
+	 *
+	 * @param sortedElements
+	 *            the sorted array
+	 * @return a set backed by the given array
+	 */
+	static IntArraySet wrap(int[] sortedElements) {
+		return (sortedElements.length == 0) ? EMPTY : new IntArraySet(sortedElements);
+	}
+
+	/**
+	 * Sort the given array in place and remove duplicate entries.
+	 *
+	 * @param elements
+	 *            an array of integers
+	 * @return an array containing the same integers in increasing order and
+	 *         without duplicates, which may be the given array itself
+	 */
+	static int[] normalize(int[] elements) {
+		if (elements.length == 0) {
+			return elements;
+		}
+		Arrays.sort(elements);
+		return removeDuplicates(elements);
+	}
+
+	private static int[] removeDuplicates(int[] sorted) {
+		int length = 1;
+		for (int i = 1; i < sorted.length; i++) {
+			if (sorted[i] != sorted[length - 1]) {
+				sorted[length] = sorted[i];
+				length++;
+			}
+		}
+		return (length == sorted.length) ? sorted : Arrays.copyOf(sorted, length);
+	}
+
+	private final int[] elements;
+	private final int hashCode;
+
+	private IntArraySet(int[] elements) {
+		this.elements = elements;
+		int sum = 0;
+		for (int element : elements) {
+			sum += element;
+		}
+		// consistent with Set.hashCode()
+		this.hashCode = sum;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return (o instanceof Integer) && containsInt((Integer) o);
+	}
+
+	/**
+	 * Check whether the given integer is contained in this set.
+	 *
+	 * @param element
+	 *            an integer
+	 * @return 'true' iff the integer is an element of this set
+	 */
+	public boolean containsInt(int element) {
+		return Arrays.binarySearch(elements, element) >= 0;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (o instanceof IntArraySet) {
+			IntArraySet other = (IntArraySet) o;
+			return (other.hashCode == hashCode) && Arrays.equals(other.elements, elements);
+		}
+		return super.equals(o);
+	}
+
+	/**
+	 * Apply the given action to all elements of this set, in increasing order.
+	 *
+	 * @param action
+	 *            the action
+	 */
+	public void forEachInt(IntConsumer action) {
+		for (int element : elements) {
+			action.accept(element);
+		}
+	}
+
+	/**
+	 * Retrieve the element at the given position in the sorted order.
+	 *
+	 * @param index
+	 *            the position, between 0 and size()-1
+	 * @return the element at this position
+	 */
+	public int getInt(int index) {
+		return elements[index];
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return elements.length == 0;
+	}
+
+	@Override
+	public Iterator<Integer> iterator() {
+		return new Iterator<Integer>() {
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < elements.length;
+			}
+
+			@Override
+			public Integer next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return elements[next++];
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return elements.length;
+	}
+
+	/**
+	 * Return a copy of the elements of this set as a sorted array.
+	 *
+	 * @return a new array containing all elements in increasing order
+	 */
+	public int[] toIntArray() {
+		return Arrays.copyOf(elements, elements.length);
+	}
+
+}
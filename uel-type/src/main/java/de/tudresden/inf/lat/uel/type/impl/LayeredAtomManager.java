@@ -0,0 +1,628 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import de.tudresden.inf.lat.uel.type.api.Atom;
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.api.IndexedSet;
+
+/**
+ * An atom manager that consists of a shared, frozen base atom manager and a
+ * private overlay. All atoms of the base keep their ids; new atoms, concept
+ * names and role names are stored in the overlay and get ids that continue
+ * after the largest ids of the base.
+ *
+ * Only the atoms and names of the base are shared; its variable and constant
+ * markings are ignored. All concept names of the base start out unmarked, and
+ * all markings are stored in the overlay. Changing the status of a base
+ * concept name (e.g., marking it as a user variable) shadows the affected
+ * atoms by private copies, so the base can be shared by several layered atom
+ * managers (also in different threads) without interference.
+ *
+ * The sets returned by this implementation are unmodifiable views that reflect
+ * later changes to the overlay.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class LayeredAtomManager implements AtomManager {
+
+	private static final int NONE = 0;
+
+	private final FrozenAtomManager base;
+	private final int baseSize;
+	private final int firstConceptNameId;
+	private final int firstRoleId;
+
+	private final List<Atom> atoms = new ArrayList<Atom>();
+	private int[] childTable = new int[16];
+	private final Map<Integer, Integer> conceptNameAtomIds = new HashMap<Integer, Integer>();
+	private final IndexedSet<String> conceptNames = new NameTable();
+	private final LayeredSet constants = new LayeredSet(Collections.emptySet());
+	private final LayeredSet definitionVariables = new LayeredSet(Collections.emptySet());
+	private final LayeredSet existentialRestrictions;
+	private final Map<Integer, LayeredSet> existentialRestrictionsByRole = new HashMap<Integer, LayeredSet>();
+	private final Map<Integer, Set<Integer>> existentialRestrictionsByFiller = new HashMap<Integer, Set<Integer>>();
+	private final Map<Long, Integer> existentialRestrictionIds = new HashMap<Long, Integer>();
+	private final LayeredSet flatteningVariables = new LayeredSet(Collections.emptySet());
+	private final Map<Integer, Integer> roleGroupOrigins = new HashMap<Integer, Integer>();
+	private final Map<Integer, Integer> roleGroups = new HashMap<Integer, Integer>();
+	private int[] roleTable = new int[16];
+	private final IndexedSet<String> roleNames = new NameTable();
+	private final Map<Integer, Atom> shadows = new HashMap<Integer, Atom>();
+	private final Map<Integer, Integer> undefNames = new HashMap<Integer, Integer>();
+	private final Map<Integer, Integer> undefOrigins = new HashMap<Integer, Integer>();
+	private final LayeredSet undefs;
+	private final LayeredSet userVariables = new LayeredSet(Collections.emptySet());
+	private final LayeredSet variables = new LayeredSet(Collections.emptySet());
+
+	private final Set<Integer> roleIdsView;
+
+	/**
+	 * Construct a new atom manager with an empty overlay on top of the given
+	 * base. If the base is not already frozen, a frozen snapshot of it is used
+	 * instead. The variable and constant markings of the base are ignored.
+	 *
+	 * @param base
+	 *            the base atom manager
+	 */
+	public LayeredAtomManager(AtomManager base) {
+		this.base = (base instanceof FrozenAtomManager) ? (FrozenAtomManager) base : new FrozenAtomManager(base);
+		this.baseSize = this.base.size();
+		this.firstConceptNameId = this.base.getMaxConceptNameId() + 1;
+		this.firstRoleId = this.base.getMaxRoleId() + 1;
+
+		this.existentialRestrictions = new LayeredSet(this.base.getExistentialRestrictions());
+		this.undefs = new LayeredSet(this.base.getUndefNames());
+		for (Integer varId : this.base.getVariables()) {
+			// replace the concept names marked as variables in the base by
+			// unmarked copies
+			shadow(varId);
+		}
+		roleIdsView = new AbstractSet<Integer>() {
+
+			@Override
+			public boolean contains(Object o) {
+				return LayeredAtomManager.this.base.getRoleIds().contains(o) || roleNames.getIndices().contains(o);
+			}
+
+			@Override
+			public Iterator<Integer> iterator() {
+				Iterator<Integer> first = LayeredAtomManager.this.base.getRoleIds().iterator();
+				Iterator<Integer> second = roleNames.getIndices().iterator();
+				return new Iterator<Integer>() {
+
+					@Override
+					public boolean hasNext() {
+						return first.hasNext() || second.hasNext();
+					}
+
+					@Override
+					public Integer next() {
+						return first.hasNext() ? first.next() : second.next();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return LayeredAtomManager.this.base.getRoleIds().size() + roleNames.size();
+			}
+		};
+	}
+
+	private static int[] ensureCapacity(int[] table, int index) {
+		if (index < table.length) {
+			return table;
+		}
+		return Arrays.copyOf(table, Math.max(index + 1, 2 * table.length));
+	}
+
+	private static long key(int roleId, int childConceptNameId) {
+		return (((long) roleId) << 32) | (childConceptNameId & 0xFFFFFFFFL);
+	}
+
+	private int addAtom(Atom atom) {
+		atoms.add(atom);
+		return baseSize + atoms.size();
+	}
+
+	private Integer createAppendedName(Integer originId, String suffix, boolean onlyTypes) {
+		String newName = printConceptName(originId) + suffix;
+		return createConceptName(newName, onlyTypes);
+	}
+
+	@Override
+	public Integer createBlankExistentialRestriction(Integer roleId) {
+		String roleName = getRoleName(roleId);
+		Integer fillerId = createConceptName(roleName + VAR_SUFFIX, false);
+		makeUserVariable(fillerId);
+		return createExistentialRestriction(roleName, fillerId);
+	}
+
+	@Override
+	public Integer createConceptName(String conceptName, boolean onlyTypes) {
+		int atomId = base.findConceptName(conceptName);
+		if (atomId == NONE) {
+			int conceptNameId = conceptNames.getIndex(conceptName);
+			if (conceptNameId == -1) {
+				conceptNameId = firstConceptNameId + conceptNames.size();
+				conceptNames.add(conceptName, conceptNameId);
+				atomId = addAtom(new ConceptName(conceptNameId, baseSize + atoms.size() + 1));
+				conceptNameAtomIds.put(conceptNameId, atomId);
+			} else {
+				atomId = conceptNameAtomIds.get(conceptNameId);
+			}
+		}
+		if (!onlyTypes && !variables.contains(atomId) && !constants.contains(atomId)) {
+			// if the concept name had already been created earlier and marked
+			// as a variable, then do not mark it as a constant
+			setStatus(atomId, true, false, false, false);
+		}
+		return atomId;
+	}
+
+	@Override
+	public Integer createExistentialRestriction(String roleName, Integer childId) {
+		Integer roleId = getRoleId(roleName);
+		if (roleId == -1) {
+			roleId = firstRoleId + roleNames.size();
+			roleNames.add(roleName, roleId);
+		}
+		ConceptName child = getConceptName(childId);
+		if ((roleId < firstRoleId) && (childId <= baseSize)) {
+			int atomId = base.findExistentialRestriction(roleId, child.getConceptNameId());
+			if (atomId != NONE) {
+				return atomId;
+			}
+		}
+
+		long key = key(roleId, child.getConceptNameId());
+		Integer atomId = existentialRestrictionIds.get(key);
+		if (atomId == null) {
+			if (childId <= baseSize) {
+				// use a private copy of the filler so that later status
+				// changes are visible in the new atom
+				child = shadow(childId);
+			}
+			atomId = addAtom(new ExistentialRestriction(roleId, child, baseSize + atoms.size() + 1, this));
+			existentialRestrictionIds.put(key, atomId);
+			int index = atomId - baseSize;
+			childTable = ensureCapacity(childTable, index);
+			roleTable = ensureCapacity(roleTable, index);
+			childTable[index] = childId;
+			roleTable[index] = roleId;
+			existentialRestrictions.set(atomId, true);
+			LayeredSet set = existentialRestrictionsByRole.get(roleId);
+			if (set == null) {
+				set = new LayeredSet(base.getExistentialRestrictions(roleId));
+				existentialRestrictionsByRole.put(roleId, set);
+			}
+			set.set(atomId, true);
+			Set<Integer> fillerSet = existentialRestrictionsByFiller.get(childId);
+			if (fillerSet == null) {
+				fillerSet = new HashSet<Integer>();
+				existentialRestrictionsByFiller.put(childId, fillerSet);
+			}
+			fillerSet.add(atomId);
+		}
+		return atomId;
+	}
+
+	@Override
+	public Integer createRoleGroupConceptName(Integer originId) {
+		Integer roleGroupId = getRoleGroupConceptName(originId);
+		if (roleGroupId == null) {
+			roleGroupId = createAppendedName(originId, ROLEGROUP_SUFFIX, true);
+			roleGroups.put(originId, roleGroupId);
+			roleGroupOrigins.put(roleGroupId, originId);
+		}
+		return roleGroupId;
+	}
+
+	@Override
+	public Integer createUndefConceptName(Integer originId) {
+		Integer undefId = getUndefConceptName(originId);
+		if (undefId == null) {
+			undefId = createAppendedName(originId, UNDEF_SUFFIX, false);
+			if (!undefs.contains(undefId)) {
+				undefs.set(undefId, true);
+			}
+			undefNames.put(originId, undefId);
+			undefOrigins.put(undefId, originId);
+		}
+		return undefId;
+	}
+
+	@Override
+	public AtomManager freeze() {
+		return new FrozenAtomManager(this);
+	}
+
+	@Override
+	public Atom getAtom(Integer atomId) {
+		if ((atomId == null) || (atomId <= 0)) {
+			return null;
+		}
+		if (atomId <= baseSize) {
+			Atom shadow = shadows.get(atomId);
+			return (shadow == null) ? base.getAtom(atomId) : shadow;
+		}
+		int index = atomId - baseSize - 1;
+		return (index < atoms.size()) ? atoms.get(index) : null;
+	}
+
+	/**
+	 * Retrieve the shared base of this atom manager.
+	 *
+	 * @return the frozen base atom manager
+	 */
+	public AtomManager getBase() {
+		return base;
+	}
+
+	@Override
+	public Integer getChild(Integer atomId) {
+		if ((atomId != null) && (atomId <= baseSize)) {
+			return base.getChild(atomId);
+		}
+		int childId = lookup(childTable, atomId);
+		return (childId == NONE) ? null : childId;
+	}
+
+	@Override
+	public ConceptName getConceptName(Integer atomId) {
+		Atom atom = getAtom(atomId);
+		if ((atom == null) || !atom.isConceptName()) {
+			throw new IllegalArgumentException("Argument does not represent a concept name.");
+		}
+		return (ConceptName) atom;
+	}
+
+	@Override
+	public Set<Integer> getConstants() {
+		return constants;
+	}
+
+	@Override
+	public Set<Integer> getDefinitionVariables() {
+		return definitionVariables;
+	}
+
+	@Override
+	public ExistentialRestriction getExistentialRestriction(Integer atomId) {
+		Atom atom = getAtom(atomId);
+		if ((atom == null) || !atom.isExistentialRestriction()) {
+			throw new IllegalArgumentException("Argument does not represent an existential restriction.");
+		}
+		return (ExistentialRestriction) atom;
+	}
+
+	@Override
+	public Set<Integer> getExistentialRestrictions() {
+		return existentialRestrictions;
+	}
+
+	@Override
+	public Set<Integer> getExistentialRestrictions(Integer roleId) {
+		LayeredSet set = existentialRestrictionsByRole.get(roleId);
+		return (set == null) ? base.getExistentialRestrictions(roleId) : set;
+	}
+
+	/**
+	 * The returned set is an immutable copy that does not reflect later
+	 * changes to the atom manager.
+	 */
+	@Override
+	public Set<Integer> getExistentialRestrictionsWithFiller(Integer fillerId) {
+		Set<Integer> baseSet = base.getExistentialRestrictionsWithFiller(fillerId);
+		Set<Integer> overlaySet = existentialRestrictionsByFiller.get(fillerId);
+		if (overlaySet == null) {
+			return baseSet;
+		}
+		Set<Integer> union = new HashSet<Integer>(baseSet);
+		union.addAll(overlaySet);
+		return IntArraySet.of(union);
+	}
+
+	@Override
+	public Set<Integer> getFlatteningVariables() {
+		return flatteningVariables;
+	}
+
+	@Override
+	public Integer getIndex(Atom atom) {
+		int atomId = atom.getAtomId();
+		Atom current = getAtom(atomId);
+		if ((current != null) && current.equals(atom)) {
+			return atomId;
+		}
+		if (atom.isConceptName()) {
+			int conceptNameId = ((ConceptName) atom).getConceptNameId();
+			if (conceptNameId < firstConceptNameId) {
+				int found = base.getIndex(atom);
+				return found;
+			}
+			Integer found = conceptNameAtomIds.get(conceptNameId);
+			return (found == null) ? -1 : found;
+		}
+		ExistentialRestriction er = (ExistentialRestriction) atom;
+		int found = base.getIndex(er);
+		if (found != -1) {
+			return found;
+		}
+		Integer overlayId = existentialRestrictionIds
+				.get(key(er.getRoleId(), er.getConceptName().getConceptNameId()));
+		return (overlayId == null) ? -1 : overlayId;
+	}
+
+	@Override
+	public List<Atom> getNonvariableAtoms() {
+		List<Atom> nonVariableAtoms = new ArrayList<Atom>();
+		for (int atomId = 1; atomId <= size(); atomId++) {
+			if (!variables.contains(atomId)) {
+				nonVariableAtoms.add(getAtom(atomId));
+			}
+		}
+		return nonVariableAtoms;
+	}
+
+	@Override
+	public Integer getRoleGroupConceptName(Integer originId) {
+		Integer roleGroupId = roleGroups.get(originId);
+		return (roleGroupId == null) ? base.getRoleGroupConceptName(originId) : roleGroupId;
+	}
+
+	@Override
+	public Integer getRoleGroupOrigin(Integer roleGroupId) {
+		Integer originId = roleGroupOrigins.get(roleGroupId);
+		return (originId == null) ? base.getRoleGroupOrigin(roleGroupId) : originId;
+	}
+
+	@Override
+	public Integer getRoleId(Integer atomId) {
+		if ((atomId != null) && (atomId <= baseSize)) {
+			return base.getRoleId(atomId);
+		}
+		int roleId = lookup(roleTable, atomId);
+		return (roleId == NONE) ? null : roleId;
+	}
+
+	@Override
+	public Integer getRoleId(String roleName) {
+		int roleId = base.getRoleId(roleName);
+		return (roleId == -1) ? roleNames.getIndex(roleName) : roleId;
+	}
+
+	@Override
+	public Set<Integer> getRoleIds() {
+		return roleIdsView;
+	}
+
+	@Override
+	public String getRoleName(Integer roleId) {
+		return (roleId < firstRoleId) ? base.getRoleName(roleId) : roleNames.get(roleId);
+	}
+
+	@Override
+	public Integer getUndefConceptName(Integer originId) {
+		Integer undefId = undefNames.get(originId);
+		return (undefId == null) ? base.getUndefConceptName(originId) : undefId;
+	}
+
+	@Override
+	public Set<Integer> getUndefNames() {
+		return undefs;
+	}
+
+	@Override
+	public Set<Integer> getUserVariables() {
+		return userVariables;
+	}
+
+	@Override
+	public Set<Integer> getVariables() {
+		return variables;
+	}
+
+	private int lookup(int[] table, Integer atomId) {
+		if (atomId == null) {
+			return NONE;
+		}
+		int index = atomId - baseSize;
+		if ((index <= 0) || (index >= table.length)) {
+			return NONE;
+		}
+		return table[index];
+	}
+
+	@Override
+	public void makeConstant(Integer atomId) {
+		setStatus(atomId, true, false, false, false);
+	}
+
+	@Override
+	public void makeDefinitionVariable(Integer atomId) {
+		setStatus(atomId, false, false, true, false);
+	}
+
+	@Override
+	public void makeFlatteningVariable(Integer atomId) {
+		setStatus(atomId, false, false, false, true);
+	}
+
+	@Override
+	public void makeUserVariable(Integer atomId) {
+		setStatus(atomId, false, true, false, false);
+	}
+
+	@Override
+	public String printConceptName(Integer atomId) {
+		int conceptNameId = getConceptName(atomId).getConceptNameId();
+		return (conceptNameId < firstConceptNameId) ? base.printConceptName(atomId) : conceptNames.get(conceptNameId);
+	}
+
+	@Override
+	public String printRoleName(Integer atomId) {
+		return getRoleName(getRoleId(atomId));
+	}
+
+	@Override
+	public Integer removeUndef(Integer undefId) {
+		Integer origId = undefOrigins.get(undefId);
+		if ((origId == null) && (undefId != null)) {
+			int baseOrigId = base.getUndefOrigin(undefId);
+			origId = (baseOrigId == NONE) ? null : baseOrigId;
+		}
+		if (origId != null) {
+			if (!variables.contains(origId) && !constants.contains(origId)) {
+				setStatus(origId, true, false, false, false);
+			}
+			return origId;
+		}
+		String undefName = printConceptName(undefId);
+		if (!undefName.endsWith(UNDEF_SUFFIX)) {
+			throw new IllegalArgumentException("Argument does not represent an UNDEF concept name.");
+		}
+		String origName = undefName.substring(0, undefName.length() - UNDEF_SUFFIX.length());
+		return createConceptName(origName, false);
+	}
+
+	private void setStatus(Integer atomId, boolean constant, boolean userVariable, boolean definitionVariable,
+			boolean flatteningVariable) {
+		ConceptName conceptName = getConceptName(atomId);
+		if (conceptName.isVariable() == constant) {
+			if (atomId <= baseSize) {
+				conceptName = shadow(atomId);
+			}
+			if (constant) {
+				conceptName.makeConstant();
+			} else {
+				conceptName.makeVariable();
+			}
+		}
+		constants.set(atomId, constant);
+		variables.set(atomId, !constant);
+		userVariables.set(atomId, userVariable);
+		definitionVariables.set(atomId, definitionVariable);
+		flatteningVariables.set(atomId, flatteningVariable);
+	}
+
+	/**
+	 * Create an unmarked private copy of a base concept name and of all base
+	 * existential restrictions using it as a filler, unless this has already
+	 * been done.
+	 *
+	 * @param atomId
+	 *            the atom id of a base concept name
+	 * @return the private copy of the concept name
+	 */
+	private ConceptName shadow(int atomId) {
+		Atom shadow = shadows.get(atomId);
+		if (shadow != null) {
+			return (ConceptName) shadow;
+		}
+		ConceptName original = base.getConceptName(atomId);
+		ConceptName copy = new ConceptName(original.getConceptNameId(), atomId);
+		shadows.put(atomId, copy);
+		for (int erId : base.findExistentialRestrictionsWithFiller(atomId)) {
+			shadows.put(erId, new ExistentialRestriction(base.getRoleId(erId), copy, erId, this));
+		}
+		return copy;
+	}
+
+	@Override
+	public int size() {
+		return baseSize + atoms.size();
+	}
+
+	/**
+	 * A view of a set of atom ids that consists of the elements of a base set
+	 * together with the elements of an overlay, which is disjoint from the
+	 * base set. The overlay can only be changed via 'set', which also keeps
+	 * track of the size of the view.
+	 */
+	private static class LayeredSet extends AbstractSet<Integer> {
+
+		private final Set<Integer> baseSet;
+		private final BitSet overlay = new BitSet();
+		private int size;
+
+		LayeredSet(Set<Integer> baseSet) {
+			this.baseSet = baseSet;
+			this.size = baseSet.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Integer)) {
+				return false;
+			}
+			int i = (Integer) o;
+			if (i < 0) {
+				return false;
+			}
+			return overlay.get(i) || baseSet.contains(i);
+		}
+
+		@Override
+		public Iterator<Integer> iterator() {
+			Iterator<Integer> baseIterator = baseSet.iterator();
+			return new Iterator<Integer>() {
+				private int nextOverlay = overlay.nextSetBit(0);
+
+				@Override
+				public boolean hasNext() {
+					return baseIterator.hasNext() || (nextOverlay >= 0);
+				}
+
+				@Override
+				public Integer next() {
+					if (baseIterator.hasNext()) {
+						return baseIterator.next();
+					}
+					if (nextOverlay >= 0) {
+						int ret = nextOverlay;
+						nextOverlay = overlay.nextSetBit(nextOverlay + 1);
+						return ret;
+					}
+					throw new NoSuchElementException();
+				}
+			};
+		}
+
+		/**
+		 * Add an atom id to or remove it from the overlay.
+		 *
+		 * @param i
+		 *            an atom id that is not contained in the base set
+		 * @param value
+		 *            'true' if the id should be added, 'false' if it should
+		 *            be removed
+		 */
+		void set(int i, boolean value) {
+			if (overlay.get(i) != value) {
+				overlay.set(i, value);
+				size += value ? 1 : -1;
+			}
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+}
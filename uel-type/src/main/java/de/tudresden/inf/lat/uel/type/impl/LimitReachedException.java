@@ -0,0 +1,38 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+/**
+ * Signals that a unification algorithm stopped because it reached one of its
+ * resource limits. This is a special kind of interruption, so that it can be
+ * thrown at all points where an algorithm checks whether it was interrupted.
+ * The algorithms catch this exception themselves and report the reached limit
+ * via
+ * {@link de.tudresden.inf.lat.uel.type.api.UnificationAlgorithm#getReachedLimit()}.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class LimitReachedException extends InterruptedException {
+
+	private static final long serialVersionUID = 3018409553296377157L;
+
+	private final ResourceLimits.Limit limit;
+
+	/**
+	 * Construct a new exception.
+	 *
+	 * @param limit
+	 *            the reached limit
+	 */
+	public LimitReachedException(ResourceLimits.Limit limit) {
+		super("Resource limit reached: " + limit);
+		this.limit = limit;
+	}
+
+	/**
+	 * @return the reached limit
+	 */
+	public ResourceLimits.Limit getLimit() {
+		return limit;
+	}
+
+}
@@ -0,0 +1,345 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A registry of typed metrics that a unification algorithm updates during its
+ * computation. Counters and timers are updated incrementally, so reading them
+ * is cheap and can be done from another thread, e.g. a UI or a monitoring
+ * component, while the algorithm is still running.
+ *
+ * Metrics are identified by their names and are listed in the order in which
+ * they were registered. Asking for an existing name returns the existing
+ * metric, but a name cannot be used for two metrics of different kinds.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class Metrics {
+
+	/**
+	 * A monotonically increasing count, e.g. the number of clauses.
+	 */
+	public static class Counter {
+
+		private final AtomicLong value = new AtomicLong();
+
+		private Counter() {
+		}
+
+		/**
+		 * Increase the counter by the given amount.
+		 *
+		 * @param delta
+		 *            a non-negative number
+		 */
+		public void add(long delta) {
+			value.addAndGet(delta);
+		}
+
+		/**
+		 * Returns the current value of this counter.
+		 *
+		 * @return the current count
+		 */
+		public long get() {
+			return value.get();
+		}
+
+		/**
+		 * Increase the counter by 1.
+		 */
+		public void increment() {
+			value.incrementAndGet();
+		}
+
+	}
+
+	/**
+	 * A value that can change arbitrarily, e.g. the current size of a data
+	 * structure.
+	 */
+	public static class Gauge {
+
+		private volatile double value = 0;
+
+		private Gauge() {
+		}
+
+		/**
+		 * Returns the current value of this gauge.
+		 *
+		 * @return the current value
+		 */
+		public double get() {
+			return value;
+		}
+
+		/**
+		 * Set the value of this gauge.
+		 *
+		 * @param value
+		 *            the new value
+		 */
+		public void set(double value) {
+			this.value = value;
+		}
+
+	}
+
+	/**
+	 * Accumulates the durations of repeated executions of a phase of the
+	 * computation, with nanosecond resolution.
+	 */
+	public static class Timer {
+
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+
+		private Timer() {
+		}
+
+		/**
+		 * Returns the number of recorded durations.
+		 *
+		 * @return the number of recorded durations
+		 */
+		public long getCount() {
+			return count.get();
+		}
+
+		/**
+		 * Returns the longest recorded duration.
+		 *
+		 * @return the maximal duration in nanoseconds
+		 */
+		public long getMaxNanos() {
+			return maxNanos.get();
+		}
+
+		/**
+		 * Returns the sum of all recorded durations.
+		 *
+		 * @return the total duration in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return totalNanos.get();
+		}
+
+		/**
+		 * Record a duration.
+		 *
+		 * @param nanos
+		 *            the duration in nanoseconds
+		 */
+		public void record(long nanos) {
+			count.incrementAndGet();
+			totalNanos.addAndGet(nanos);
+			long max;
+			do {
+				max = maxNanos.get();
+			} while (nanos > max && !maxNanos.compareAndSet(max, nanos));
+		}
+
+		/**
+		 * Start measuring a duration.
+		 *
+		 * @return the start time, to be passed to {@link #stop(long)}
+		 */
+		public long start() {
+			return System.nanoTime();
+		}
+
+		/**
+		 * Record the duration since the given start time.
+		 *
+		 * @param startTime
+		 *            a value returned by {@link #start()}
+		 * @return the recorded duration in nanoseconds
+		 */
+		public long stop(long startTime) {
+			long nanos = System.nanoTime() - startTime;
+			record(nanos);
+			return nanos;
+		}
+
+	}
+
+	private static void appendString(StringBuilder sb, String str) {
+		sb.append('"');
+		for (int i = 0; i < str.length(); i++) {
+			char c = str.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+			}
+		}
+		sb.append('"');
+	}
+
+	private static void appendValue(StringBuilder sb, double value) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			// not representable in JSON
+			sb.append("null");
+		} else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+			sb.append((long) value);
+		} else {
+			sb.append(value);
+		}
+	}
+
+	private final Map<String, Object> metrics = new LinkedHashMap<String, Object>();
+
+	/**
+	 * Construct an empty registry.
+	 */
+	public Metrics() {
+	}
+
+	/**
+	 * Returns the counter with the given name, registering it if necessary.
+	 *
+	 * @param name
+	 *            the name of the counter
+	 * @return the counter
+	 */
+	public Counter counter(String name) {
+		return get(name, Counter.class);
+	}
+
+	/**
+	 * Returns the gauge with the given name, registering it if necessary.
+	 *
+	 * @param name
+	 *            the name of the gauge
+	 * @return the gauge
+	 */
+	public Gauge gauge(String name) {
+		return get(name, Gauge.class);
+	}
+
+	private synchronized <T> T get(String name, Class<T> type) {
+		Object metric = metrics.get(name);
+		if (metric == null) {
+			if (type == Counter.class) {
+				metric = new Counter();
+			} else if (type == Gauge.class) {
+				metric = new Gauge();
+			} else {
+				metric = new Timer();
+			}
+			metrics.put(name, metric);
+		}
+		if (!type.isInstance(metric)) {
+			throw new IllegalArgumentException("The metric '" + name + "' is not a " + type.getSimpleName() + ".");
+		}
+		return type.cast(metric);
+	}
+
+	/**
+	 * Registers all metrics of another registry under prefixed names. The
+	 * metrics are shared, i.e., later updates in the other registry are also
+	 * visible in this one. Metrics that are registered in the other registry
+	 * afterwards are only included by calling this method again.
+	 *
+	 * @param prefix
+	 *            the prefix of the names
+	 * @param other
+	 *            the other registry
+	 */
+	public synchronized void include(String prefix, Metrics other) {
+		for (Map.Entry<String, Object> e : other.getAll().entrySet()) {
+			String name = prefix + e.getKey();
+			Object metric = metrics.get(name);
+			if ((metric != null) && (metric != e.getValue())) {
+				throw new IllegalArgumentException("The metric '" + name + "' is already registered.");
+			}
+			metrics.put(name, e.getValue());
+		}
+	}
+
+	/**
+	 * Returns all registered metrics, in the order of their registration.
+	 *
+	 * @return an unmodifiable snapshot mapping names to Counter, Gauge, and
+	 *         Timer objects
+	 */
+	public synchronized Map<String, Object> getAll() {
+		return Collections.unmodifiableMap(new LinkedHashMap<String, Object>(metrics));
+	}
+
+	/**
+	 * Returns the registered timer with the given name, registering it if
+	 * necessary.
+	 *
+	 * @param name
+	 *            the name of the timer
+	 * @return the timer
+	 */
+	public Timer timer(String name) {
+		return get(name, Timer.class);
+	}
+
+	/**
+	 * Exports the current values of all metrics as a JSON object with the
+	 * members 'counters', 'gauges', and 'timers'. Each timer is represented by
+	 * an object with the members 'count', 'totalNanos', and 'maxNanos'.
+	 *
+	 * @return a JSON representation of this registry
+	 */
+	public String toJson() {
+		StringBuilder counters = new StringBuilder();
+		StringBuilder gauges = new StringBuilder();
+		StringBuilder timers = new StringBuilder();
+		for (Map.Entry<String, Object> e : getAll().entrySet()) {
+			Object metric = e.getValue();
+			StringBuilder sb = (metric instanceof Counter) ? counters : (metric instanceof Gauge) ? gauges : timers;
+			if (sb.length() > 0) {
+				sb.append(',');
+			}
+			appendString(sb, e.getKey());
+			sb.append(':');
+			if (metric instanceof Counter) {
+				sb.append(((Counter) metric).get());
+			} else if (metric instanceof Gauge) {
+				appendValue(sb, ((Gauge) metric).get());
+			} else {
+				Timer timer = (Timer) metric;
+				sb.append("{\"count\":").append(timer.getCount());
+				sb.append(",\"totalNanos\":").append(timer.getTotalNanos());
+				sb.append(",\"maxNanos\":").append(timer.getMaxNanos());
+				sb.append('}');
+			}
+		}
+		return "{\"counters\":{" + counters + "},\"gauges\":{" + gauges + "},\"timers\":{" + timers + "}}";
+	}
+
+	@Override
+	public String toString() {
+		return toJson();
+	}
+
+}
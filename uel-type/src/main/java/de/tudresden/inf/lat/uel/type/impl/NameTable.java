@@ -0,0 +1,417 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import de.tudresden.inf.lat.uel.type.api.IndexedSet;
+
+/**
+ * An indexed set of names (IRIs) that stores each name as a pair of a shared
+ * prefix and a local part. The prefix is everything up to and including the
+ * last '#' or '/' of the name, and is stored only once for all names in the
+ * same namespace. The local parts are stored consecutively in a single char
+ * array. Name strings are only created when they are requested via
+ * {@link #get(int)} or the iterator; {@link #getIndex(String)} compares the
+ * given string directly against the stored representation. The most recently
+ * created strings are kept in a small cache of fixed size, so that repeated
+ * requests for the same names do not allocate new strings.
+ *
+ * Like {@link IndexedSetImpl}, this set does not support removal of elements.
+ *
+ * @author Stefan Borgwardt
+ */
+public class NameTable extends AbstractSet<String> implements IndexedSet<String> {
+
+	private static final int CACHE_SIZE = 256;
+	private static final int FREE = 0;
+	private static final int INITIAL_CAPACITY = 16;
+
+	private char[] arena = new char[256];
+	private int arenaSize = 0;
+	// direct-mapped cache of created names; since indices are never reused,
+	// the entries never become stale
+	private final CachedName[] cache = new CachedName[CACHE_SIZE];
+	private int[] hashes;
+	private int[] localLengths;
+	private int[] localStarts;
+	private int maxIndex = 0;
+	// prefix ids start at 1, 0 means that the index is unused
+	private int[] prefixIds;
+	private final ArrayIndexedSet<String> prefixes = new ArrayIndexedSet<String>();
+	private int size = 0;
+	// open addressing table containing the indices, with an offset of 1
+	private int[] slots;
+
+	/**
+	 * Constructs a new name table.
+	 */
+	public NameTable() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Constructs a new name table with enough initial space for the given
+	 * number of names.
+	 *
+	 * @param expectedSize
+	 *            the expected number of names
+	 */
+	public NameTable(int expectedSize) {
+		int capacity = INITIAL_CAPACITY;
+		while (capacity < 2 * expectedSize) {
+			capacity <<= 1;
+		}
+		hashes = new int[expectedSize + 1];
+		localLengths = new int[expectedSize + 1];
+		localStarts = new int[expectedSize + 1];
+		prefixIds = new int[expectedSize + 1];
+		slots = new int[capacity];
+	}
+
+	private static int mix(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static int splitPosition(String name) {
+		return Math.max(name.lastIndexOf('#'), name.lastIndexOf('/')) + 1;
+	}
+
+	@Override
+	public boolean add(String element) {
+		if (element == null) {
+			throw new NullPointerException();
+		}
+		return add(element, getNextIndex());
+	}
+
+	@Override
+	public boolean add(String element, Integer index) {
+		if (element == null) {
+			throw new NullPointerException();
+		}
+		int slot = findSlot(element);
+		if (slots[slot] != FREE) {
+			int oldIndex = slots[slot] - 1;
+			if (oldIndex != index) {
+				throw new IllegalArgumentException("Element '" + element + "' has already index " + oldIndex
+						+ " but new index " + index + " was given.");
+			}
+			return false;
+		}
+		String oldElement = get(index);
+		if (oldElement != null) {
+			throw new IllegalArgumentException("Index " + index + " has been used for element '" + oldElement
+					+ "' but new element '" + element + "' was given.");
+		}
+		insert(slot, element, index);
+		return true;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends String> elements) {
+		if (elements == null) {
+			throw new NullPointerException();
+		}
+
+		boolean ret = false;
+		for (String elem : elements) {
+			boolean changed = add(elem);
+			ret = ret || changed;
+		}
+		return ret;
+	}
+
+	@Override
+	public int addAndGetIndex(String element) {
+		if (element == null) {
+			throw new IllegalArgumentException("Null argument.");
+		}
+
+		int slot = findSlot(element);
+		if (slots[slot] != FREE) {
+			return slots[slot] - 1;
+		}
+		int index = maxIndex + 1;
+		insert(slot, element, index);
+		return index;
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean contains(Object element) {
+		if (element == null) {
+			throw new NullPointerException();
+		}
+
+		return (element instanceof String) && (slots[findSlot((String) element)] != FREE);
+	}
+
+	private boolean entryEquals(int index, String name) {
+		String prefix = prefixes.get(prefixIds[index]);
+		int length = localLengths[index];
+		if ((name.length() != prefix.length() + length) || !name.startsWith(prefix)) {
+			return false;
+		}
+		int start = localStarts[index];
+		int offset = prefix.length();
+		for (int i = 0; i < length; i++) {
+			if (arena[start + i] != name.charAt(offset + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int findSlot(String name) {
+		int hash = name.hashCode();
+		int mask = slots.length - 1;
+		int slot = mix(hash) & mask;
+		while (slots[slot] != FREE) {
+			int index = slots[slot] - 1;
+			if ((hashes[index] == hash) && entryEquals(index, name)) {
+				break;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	@Override
+	public String get(int id) {
+		if ((id < 0) || (id >= prefixIds.length) || (prefixIds[id] == 0)) {
+			return null;
+		}
+		int cacheSlot = id & (CACHE_SIZE - 1);
+		CachedName cached = cache[cacheSlot];
+		if ((cached != null) && (cached.index == id)) {
+			return cached.name;
+		}
+		String prefix = prefixes.get(prefixIds[id]);
+		StringBuilder sb = new StringBuilder(prefix.length() + localLengths[id]);
+		sb.append(prefix);
+		sb.append(arena, localStarts[id], localLengths[id]);
+		String name = sb.toString();
+		cache[cacheSlot] = new CachedName(id, name);
+		return name;
+	}
+
+	@Override
+	public int getIndex(String element) {
+		int slot = findSlot(element);
+		return (slots[slot] == FREE) ? -1 : slots[slot] - 1;
+	}
+
+	@Override
+	public Set<Integer> getIndices() {
+		return new AbstractSet<Integer>() {
+
+			@Override
+			public boolean contains(Object o) {
+				if (!(o instanceof Integer)) {
+					return false;
+				}
+				int index = (Integer) o;
+				return (index >= 0) && (index < prefixIds.length) && (prefixIds[index] != 0);
+			}
+
+			@Override
+			public Iterator<Integer> iterator() {
+				return new IndexIterator<Integer>() {
+					@Override
+					Integer current(int index) {
+						return index;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public Integer getMaxIndex() {
+		return maxIndex;
+	}
+
+	@Override
+	public Integer getNextIndex() {
+		return maxIndex + 1;
+	}
+
+	private void insert(int slot, String element, int index) {
+		if (index < 0) {
+			throw new IllegalArgumentException("Negative index: " + index);
+		}
+		if (index >= prefixIds.length) {
+			int length = Math.max(index + 1, 2 * prefixIds.length);
+			hashes = Arrays.copyOf(hashes, length);
+			localLengths = Arrays.copyOf(localLengths, length);
+			localStarts = Arrays.copyOf(localStarts, length);
+			prefixIds = Arrays.copyOf(prefixIds, length);
+		}
+
+		int split = splitPosition(element);
+		int localLength = element.length() - split;
+		if (arenaSize + localLength > arena.length) {
+			arena = Arrays.copyOf(arena, Math.max(arenaSize + localLength, 2 * arena.length));
+		}
+		element.getChars(split, element.length(), arena, arenaSize);
+
+		hashes[index] = element.hashCode();
+		localStarts[index] = arenaSize;
+		localLengths[index] = localLength;
+		prefixIds[index] = prefixes.addAndGetIndex(element.substring(0, split));
+		arenaSize += localLength;
+
+		slots[slot] = index + 1;
+		if (maxIndex < index) {
+			maxIndex = index;
+		}
+		size++;
+		if (2 * size > slots.length) {
+			rehash();
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+		return new IndexIterator<String>() {
+			@Override
+			String current(int index) {
+				return get(index);
+			}
+		};
+	}
+
+	private void rehash() {
+		int[] oldSlots = slots;
+		slots = new int[2 * oldSlots.length];
+		int mask = slots.length - 1;
+		for (int i = 0; i < oldSlots.length; i++) {
+			if (oldSlots[i] != FREE) {
+				int slot = mix(hashes[oldSlots[i] - 1]) & mask;
+				while (slots[slot] != FREE) {
+					slot = (slot + 1) & mask;
+				}
+				slots[slot] = oldSlots[i];
+			}
+		}
+	}
+
+	@Override
+	public boolean remove(Object element) {
+		if (element == null) {
+			throw new NullPointerException();
+		}
+
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> elements) {
+		if (elements == null) {
+			throw new NullPointerException();
+		}
+
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> elements) {
+		if (elements == null) {
+			throw new NullPointerException();
+		}
+
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int index = 0; index <= maxIndex; index++) {
+			String element = get(index);
+			if (element != null) {
+				if (sb.length() > 1) {
+					sb.append(", ");
+				}
+				sb.append(index);
+				sb.append("=");
+				sb.append(element);
+			}
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+
+	/**
+	 * A name together with its index. The fields are final, so that the
+	 * entries can be read by several threads without synchronization.
+	 */
+	private static final class CachedName {
+
+		private final int index;
+		private final String name;
+
+		CachedName(int index, String name) {
+			this.index = index;
+			this.name = name;
+		}
+
+	}
+
+	/**
+	 * Iterates over all used indices in increasing order.
+	 */
+	private abstract class IndexIterator<S> implements Iterator<S> {
+
+		private int next = advance(0);
+
+		private int advance(int index) {
+			while ((index <= maxIndex) && (prefixIds[index] == 0)) {
+				index++;
+			}
+			return index;
+		}
+
+		abstract S current(int index);
+
+		@Override
+		public boolean hasNext() {
+			return next <= maxIndex;
+		}
+
+		@Override
+		public S next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			S ret = current(next);
+			next = advance(next + 1);
+			return ret;
+		}
+
+	}
+
+}
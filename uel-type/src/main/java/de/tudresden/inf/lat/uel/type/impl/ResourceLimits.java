@@ -0,0 +1,234 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits on the resources that a unification algorithm may use. The limits
+ * are checked cooperatively by the algorithms at the same points where they
+ * check for interruption, and are additionally passed on to the underlying
+ * solvers where possible. If a limit is reached, the computation of the
+ * current unifier stops as if no further unifiers existed, and the reached
+ * limit can be retrieved using
+ * {@link de.tudresden.inf.lat.uel.type.api.UnificationAlgorithm#getReachedLimit()}.
+ *
+ * Objects of this class are immutable; the methods 'with...' return modified
+ * copies.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public final class ResourceLimits {
+
+	/**
+	 * The kinds of limits.
+	 */
+	public enum Limit {
+		/**
+		 * The wall-clock deadline has passed.
+		 */
+		DEADLINE,
+		/**
+		 * The approximate heap usage exceeded the memory budget.
+		 */
+		MEMORY,
+		/**
+		 * The maximal number of search nodes (conflicts for SAT and ASP
+		 * solvers) was exceeded.
+		 */
+		NODES
+	}
+
+	private static final long UNLIMITED = Long.MAX_VALUE;
+
+	/**
+	 * Resource limits that do not restrict the computation.
+	 */
+	public static final ResourceLimits NONE = new ResourceLimits(UNLIMITED, UNLIMITED, UNLIMITED);
+
+	private final long deadline;
+	private final long maxMemory;
+	private final long maxNodes;
+
+	private ResourceLimits(long deadline, long maxNodes, long maxMemory) {
+		this.deadline = deadline;
+		this.maxNodes = maxNodes;
+		this.maxMemory = maxMemory;
+	}
+
+	/**
+	 * Check all limits.
+	 *
+	 * @param nodes
+	 *            the number of search nodes explored so far
+	 * @throws LimitReachedException
+	 *             if one of the limits has been reached
+	 */
+	public void check(long nodes) throws LimitReachedException {
+		Limit limit = getReachedLimit(nodes);
+		if (limit != null) {
+			throw new LimitReachedException(limit);
+		}
+	}
+
+	/**
+	 * Returns the deadline, if there is one.
+	 *
+	 * @return the deadline as a value of System.nanoTime(), or Long.MAX_VALUE
+	 *         if there is no deadline
+	 */
+	public long getDeadline() {
+		return deadline;
+	}
+
+	/**
+	 * Returns the approximate heap budget.
+	 *
+	 * @return the maximal number of used heap bytes, or Long.MAX_VALUE if the
+	 *         memory is not restricted
+	 */
+	public long getMaxMemory() {
+		return maxMemory;
+	}
+
+	/**
+	 * Returns the maximal number of search nodes.
+	 *
+	 * @return the maximal number of search nodes, or Long.MAX_VALUE if it is
+	 *         not restricted
+	 */
+	public long getMaxNodes() {
+		return maxNodes;
+	}
+
+	/**
+	 * Determines which limit has been reached, if any.
+	 *
+	 * @param nodes
+	 *            the number of search nodes explored so far
+	 * @return the reached limit, or 'null' if the computation can continue
+	 */
+	public Limit getReachedLimit(long nodes) {
+		if (hasDeadline() && System.nanoTime() - deadline >= 0) {
+			return Limit.DEADLINE;
+		}
+		if (nodes > maxNodes) {
+			return Limit.NODES;
+		}
+		if (hasMaxMemory()) {
+			Runtime runtime = Runtime.getRuntime();
+			if (runtime.totalMemory() - runtime.freeMemory() > maxMemory) {
+				return Limit.MEMORY;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the time until the deadline.
+	 *
+	 * @param unit
+	 *            the time unit of the result
+	 * @return the remaining time (at least 0), or Long.MAX_VALUE if there is
+	 *         no deadline
+	 */
+	public long getRemainingTime(TimeUnit unit) {
+		if (!hasDeadline()) {
+			return Long.MAX_VALUE;
+		}
+		return unit.convert(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return 'true' iff there is a deadline
+	 */
+	public boolean hasDeadline() {
+		return deadline != UNLIMITED;
+	}
+
+	/**
+	 * @return 'true' iff there is a heap budget
+	 */
+	public boolean hasMaxMemory() {
+		return maxMemory != UNLIMITED;
+	}
+
+	/**
+	 * @return 'true' iff the number of search nodes is restricted
+	 */
+	public boolean hasMaxNodes() {
+		return maxNodes != UNLIMITED;
+	}
+
+	@Override
+	public String toString() {
+		return "deadline in " + (hasDeadline() ? getRemainingTime(TimeUnit.MILLISECONDS) + " ms" : "-")
+				+ ", max. nodes " + (hasMaxNodes() ? maxNodes : "-") + ", max. memory "
+				+ (hasMaxMemory() ? maxMemory + " bytes" : "-");
+	}
+
+	/**
+	 * Set the deadline.
+	 *
+	 * @param deadline
+	 *            the deadline as a value of System.nanoTime()
+	 * @return a copy of these limits with the new deadline
+	 */
+	public ResourceLimits withDeadline(long deadline) {
+		return new ResourceLimits(deadline, maxNodes, maxMemory);
+	}
+
+	/**
+	 * Set the approximate heap budget. It is compared to the heap usage of
+	 * the whole JVM, not only of the unification algorithm.
+	 *
+	 * @param maxMemory
+	 *            the maximal number of used heap bytes
+	 * @return a copy of these limits with the new heap budget
+	 */
+	public ResourceLimits withMaxMemory(long maxMemory) {
+		if (maxMemory < 0) {
+			throw new IllegalArgumentException("The memory budget cannot be negative.");
+		}
+		return new ResourceLimits(deadline, maxNodes, maxMemory);
+	}
+
+	/**
+	 * Set the maximal number of search nodes. Depending on the algorithm,
+	 * these are nodes of the search tree or conflicts of the underlying
+	 * solver.
+	 *
+	 * @param maxNodes
+	 *            the maximal number of search nodes
+	 * @return a copy of these limits with the new node budget
+	 */
+	public ResourceLimits withMaxNodes(long maxNodes) {
+		if (maxNodes < 0) {
+			throw new IllegalArgumentException("The node budget cannot be negative.");
+		}
+		return new ResourceLimits(deadline, maxNodes, maxMemory);
+	}
+
+	/**
+	 * Set a deadline relative to the current time.
+	 *
+	 * @param timeout
+	 *            the time until the deadline
+	 * @param unit
+	 *            the time unit of 'timeout'
+	 * @return a copy of these limits with the new deadline
+	 */
+	public ResourceLimits withTimeout(long timeout, TimeUnit unit) {
+		if (timeout < 0) {
+			throw new IllegalArgumentException("The timeout cannot be negative.");
+		}
+		long now = System.nanoTime();
+		long deadline = now + unit.toNanos(timeout);
+		if ((deadline < now) || (deadline == UNLIMITED)) {
+			// saturate instead of overflowing, but stay distinct from the
+			// value that means 'no deadline'
+			deadline = UNLIMITED - 1;
+		}
+		return withDeadline(deadline);
+	}
+
+}
@@ -0,0 +1,157 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A precomputed closure of a type hierarchy in which each type has at most
+ * one direct supertype, i.e., the hierarchy is a forest. Each type is labeled
+ * with the positions at which a depth-first traversal of the forest enters
+ * and leaves it. A type is a subtype of another type iff its interval is
+ * contained in the interval of the other type, which can be checked in
+ * constant time instead of walking up the chain of direct supertypes.
+ *
+ * Atoms that are not part of the hierarchy are only subtypes of themselves,
+ * as in the default implementation of 'Goal.subtypeOrEquals'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public final class TypeHierarchy {
+
+	private static final int NONE = 0;
+
+	private int[] enter = new int[16];
+	private int[] leave = new int[16];
+
+	/**
+	 * Construct the closure of a type hierarchy.
+	 *
+	 * @param types
+	 *            the atom ids of the types
+	 * @param directSupertype
+	 *            returns the direct supertype of a type, or 'null' if it has
+	 *            none
+	 * @throws IllegalArgumentException
+	 *             if the direct supertypes contain a cycle
+	 */
+	public TypeHierarchy(Set<Integer> types, Function<Integer, Integer> directSupertype) {
+		// collect the types together with all their supertypes
+		Map<Integer, List<Integer>> subtypes = new HashMap<Integer, List<Integer>>();
+		List<Integer> roots = new ArrayList<Integer>();
+		Set<Integer> visited = new HashSet<Integer>();
+		Deque<Integer> toVisit = new ArrayDeque<Integer>(types);
+		while (!toVisit.isEmpty()) {
+			Integer type = toVisit.pop();
+			if (visited.add(type)) {
+				Integer supertype = directSupertype.apply(type);
+				if (supertype == null) {
+					roots.add(type);
+				} else {
+					subtypes.computeIfAbsent(supertype, t -> new ArrayList<Integer>()).add(type);
+					toVisit.push(supertype);
+				}
+			}
+		}
+
+		// label the types by a depth-first traversal starting from the roots
+		int counter = 0;
+		Deque<Integer> stack = new ArrayDeque<Integer>();
+		for (Integer root : roots) {
+			stack.push(root);
+			while (!stack.isEmpty()) {
+				Integer type = stack.peek();
+				if (getLabel(enter, type) == NONE) {
+					counter++;
+					enter = setLabel(enter, type, counter);
+					for (Integer subtype : subtypes.getOrDefault(type, Collections.emptyList())) {
+						stack.push(subtype);
+					}
+				} else {
+					stack.pop();
+					counter++;
+					leave = setLabel(leave, type, counter);
+				}
+			}
+		}
+
+		for (Integer type : visited) {
+			if (getLabel(enter, type) == NONE) {
+				// types on a cycle are not reachable from any root
+				throw new IllegalArgumentException("The type hierarchy contains a cycle.");
+			}
+		}
+	}
+
+	private static int getLabel(int[] labels, Integer atomId) {
+		if ((atomId == null) || (atomId < 0) || (atomId >= labels.length)) {
+			return NONE;
+		}
+		return labels[atomId];
+	}
+
+	private static int[] setLabel(int[] labels, Integer atomId, int label) {
+		if (atomId >= labels.length) {
+			labels = Arrays.copyOf(labels, Math.max(atomId + 1, 2 * labels.length));
+		}
+		labels[atomId] = label;
+		return labels;
+	}
+
+	/**
+	 * Check whether two types are disjoint, i.e., neither is a subtype of the
+	 * other.
+	 *
+	 * @param type1
+	 *            the first type
+	 * @param type2
+	 *            the second type
+	 * @return 'true' iff the types are disjoint
+	 */
+	public boolean areDisjoint(Integer type1, Integer type2) {
+		return !subtypeOrEquals(type1, type2) && !subtypeOrEquals(type2, type1);
+	}
+
+	/**
+	 * Check whether an atom belongs to the type hierarchy.
+	 *
+	 * @param atomId
+	 *            the atom id
+	 * @return 'true' iff the atom is a type or the supertype of a type
+	 */
+	public boolean contains(Integer atomId) {
+		return getLabel(enter, atomId) != NONE;
+	}
+
+	/**
+	 * Check whether one type is a subtype of another one.
+	 *
+	 * @param type1
+	 *            the possible subtype
+	 * @param type2
+	 *            the possible supertype
+	 * @return 'true' iff 'type1' is equal to 'type2' or a (transitive)
+	 *         subtype of it
+	 */
+	public boolean subtypeOrEquals(Integer type1, Integer type2) {
+		if (type1 == null) {
+			return false;
+		}
+		int enter1 = getLabel(enter, type1);
+		int enter2 = getLabel(enter, type2);
+		if ((enter1 == NONE) || (enter2 == NONE)) {
+			return type1.equals(type2);
+		}
+		return (enter2 <= enter1) && (leave[type1] <= leave[type2]);
+	}
+
+}
@@ -3,21 +3,58 @@ package de.tudresden.inf.lat.uel.type.impl;
 import java.util.Map;
 import java.util.Set;
 
+import de.tudresden.inf.lat.uel.type.api.Definition;
+
 public class Unifier {
-	private final DefinitionSet definitions;
+	private final CompactDefinitionSet compactDefinitions;
+	// created from the compact definitions on first access
+	private volatile DefinitionSet definitions;
 	private final Map<Integer, Set<Integer>> typeAssignment;
 
+	public Unifier(CompactDefinitionSet definitions) {
+		this(definitions, null);
+	}
+
+	public Unifier(CompactDefinitionSet definitions, Map<Integer, Set<Integer>> typeAssignment) {
+		this.compactDefinitions = definitions;
+		this.definitions = null;
+		this.typeAssignment = typeAssignment;
+	}
+
 	public Unifier(DefinitionSet definitions) {
+		this.compactDefinitions = null;
 		this.definitions = definitions;
 		this.typeAssignment = null;
 	}
 
 	public Unifier(DefinitionSet definitions, Map<Integer, Set<Integer>> typeAssignment) {
+		this.compactDefinitions = null;
 		this.definitions = definitions;
 		this.typeAssignment = typeAssignment;
 	}
 
 	public DefinitionSet getDefinitions() {
+		DefinitionSet ret = definitions;
+		if (ret == null) {
+			// concurrent callers may each create a copy, but all copies are
+			// equal
+			ret = compactDefinitions.asDefinitionSet();
+			definitions = ret;
+		}
+		return ret;
+	}
+
+	/**
+	 * Return the definitions of this unifier without copying compact
+	 * definitions into a DefinitionSet.
+	 * 
+	 * @return a map from the definienda to their definitions, which must not
+	 *         be modified
+	 */
+	public Map<Integer, Definition> getDefinitionMap() {
+		if (compactDefinitions != null) {
+			return compactDefinitions.asMap();
+		}
 		return definitions;
 	}
 
@@ -33,11 +70,18 @@ public class Unifier {
 		if ((o == null) || !o.getClass().equals(this.getClass())) {
 			return false;
 		}
-		return definitions.equals(((Unifier) o).definitions);
+		Unifier other = (Unifier) o;
+		if ((compactDefinitions != null) && (other.compactDefinitions != null)) {
+			return compactDefinitions.equals(other.compactDefinitions);
+		}
+		return getDefinitions().equals(other.getDefinitions());
 	}
 
 	@Override
 	public int hashCode() {
-		return definitions.hashCode();
+		if (compactDefinitions != null) {
+			return compactDefinitions.hashCode();
+		}
+		return getDefinitions().hashCode();
 	}
 }
@@ -0,0 +1,256 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.tudresden.inf.lat.uel.type.api.UnificationAlgorithm;
+
+/**
+ * Publishes the unifiers computed by a unification algorithm to a subscriber,
+ * with backpressure. The nested interfaces have the same shape as
+ * java.util.concurrent.Flow.Subscriber and Flow.Subscription, which are not
+ * available in Java 8.
+ *
+ * The algorithm runs in tasks submitted to the given executor, and only while
+ * the subscriber has outstanding demand: after requesting n unifiers, the
+ * subscriber receives at most n calls to {@link Subscriber#onNext(Unifier)},
+ * and the algorithm is not asked for further unifiers until more are
+ * requested. Thus, the subscriber determines how far ahead of its own
+ * processing the algorithm may run. All signals to the subscriber are issued
+ * sequentially from the executor's threads.
+ *
+ * Since a unification algorithm can only be run once, a publisher accepts
+ * only a single subscriber. Cancelling the subscription or an exception
+ * during the computation cleans up the algorithm. If the algorithm stops
+ * because it reached one of its resource limits, the subscriber is notified of
+ * a {@link LimitReachedException} instead of the completion.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class UnifierPublisher {
+
+	/**
+	 * Receives the unifiers of a publisher.
+	 */
+	public interface Subscriber {
+
+		/**
+		 * Called after all unifiers have been published. This is not called
+		 * if the algorithm reached a resource limit before finding all
+		 * unifiers.
+		 */
+		void onComplete();
+
+		/**
+		 * Called if the computation failed. No further signals follow.
+		 *
+		 * @param throwable
+		 *            the reason for the failure
+		 */
+		void onError(Throwable throwable);
+
+		/**
+		 * Called for each unifier, at most as often as requested.
+		 *
+		 * @param unifier
+		 *            the next unifier
+		 */
+		void onNext(Unifier unifier);
+
+		/**
+		 * Called before any other signal.
+		 *
+		 * @param subscription
+		 *            the subscription that can be used to request unifiers
+		 */
+		void onSubscribe(Subscription subscription);
+
+	}
+
+	/**
+	 * Controls the flow of unifiers to a subscriber.
+	 */
+	public interface Subscription {
+
+		/**
+		 * Stop the computation. Some unifiers may still be delivered if they
+		 * have already been computed.
+		 */
+		void cancel();
+
+		/**
+		 * Request more unifiers. The demand is cumulative; Long.MAX_VALUE
+		 * means that the demand is unbounded.
+		 *
+		 * @param n
+		 *            the (positive) number of additional unifiers
+		 */
+		void request(long n);
+
+	}
+
+	private final UnificationAlgorithm algorithm;
+	private final Executor executor;
+	private final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+	/**
+	 * Construct a new publisher.
+	 *
+	 * @param algorithm
+	 *            the algorithm computing the unifiers
+	 * @param executor
+	 *            the executor running the algorithm
+	 */
+	public UnifierPublisher(UnificationAlgorithm algorithm, Executor executor) {
+		this.algorithm = algorithm;
+		this.executor = executor;
+	}
+
+	/**
+	 * Subscribe to the unifiers of the algorithm. Only the first subscriber
+	 * receives unifiers; all later ones are immediately notified of an
+	 * IllegalStateException.
+	 *
+	 * @param subscriber
+	 *            the subscriber
+	 */
+	public void subscribe(Subscriber subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException();
+		}
+		if (!subscribed.compareAndSet(false, true)) {
+			subscriber.onSubscribe(new Subscription() {
+				@Override
+				public void cancel() {
+				}
+
+				@Override
+				public void request(long n) {
+				}
+			});
+			subscriber.onError(new IllegalStateException("The unifiers have already been published."));
+			return;
+		}
+		subscriber.onSubscribe(new UnifierSubscription(subscriber));
+	}
+
+	/**
+	 * The subscription of the single subscriber. All computations and signals
+	 * happen in the method 'run', which is never executed concurrently with
+	 * itself: 'pending' counts the requests and cancellations that have not
+	 * been processed yet, and a new task is only submitted when it was zero.
+	 */
+	private class UnifierSubscription implements Subscription, Runnable {
+
+		private volatile boolean cancelled = false;
+		private final AtomicLong demand = new AtomicLong(0);
+		private volatile Throwable error = null;
+		private final AtomicInteger pending = new AtomicInteger(0);
+		private final Subscriber subscriber;
+		// only accessed in 'run'
+		private boolean terminated = false;
+
+		UnifierSubscription(Subscriber subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			schedule();
+		}
+
+		private void produce() {
+			boolean found;
+			try {
+				found = algorithm.computeNextUnifier();
+			} catch (InterruptedException ex) {
+				if (!(ex instanceof LimitReachedException)) {
+					Thread.currentThread().interrupt();
+				}
+				terminate();
+				subscriber.onError(ex);
+				return;
+			} catch (RuntimeException ex) {
+				terminate();
+				subscriber.onError(ex);
+				return;
+			}
+			if (cancelled) {
+				terminate();
+			} else if (found) {
+				if (demand.get() != Long.MAX_VALUE) {
+					demand.decrementAndGet();
+				}
+				subscriber.onNext(algorithm.getUnifier());
+			} else if (algorithm.getReachedLimit() != null) {
+				// the search was stopped before all unifiers were found
+				LimitReachedException ex = new LimitReachedException(algorithm.getReachedLimit());
+				terminate();
+				subscriber.onError(ex);
+			} else {
+				// all unifiers have been found, there is nothing to clean up
+				terminated = true;
+				subscriber.onComplete();
+			}
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				error = new IllegalArgumentException("The number of requested unifiers must be positive: " + n);
+				cancelled = true;
+			} else {
+				long current, updated;
+				do {
+					current = demand.get();
+					updated = current + n;
+					if (updated < 0) {
+						// overflow
+						updated = Long.MAX_VALUE;
+					}
+				} while (!demand.compareAndSet(current, updated));
+			}
+			schedule();
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			while (true) {
+				while (!terminated) {
+					if (cancelled) {
+						terminate();
+						if (error != null) {
+							subscriber.onError(error);
+						}
+					} else if (demand.get() > 0) {
+						produce();
+					} else {
+						break;
+					}
+				}
+				missed = pending.addAndGet(-missed);
+				if (missed == 0) {
+					return;
+				}
+			}
+		}
+
+		private void schedule() {
+			if (pending.getAndIncrement() == 0) {
+				executor.execute(this);
+			}
+		}
+
+		private void terminate() {
+			terminated = true;
+			algorithm.cleanup();
+		}
+
+	}
+
+}
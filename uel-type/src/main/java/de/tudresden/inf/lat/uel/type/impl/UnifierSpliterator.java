@@ -0,0 +1,74 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import de.tudresden.inf.lat.uel.type.api.UnificationAlgorithm;
+
+/**
+ * A spliterator that computes the unifiers of a unification algorithm on
+ * demand: each call to {@link #tryAdvance(Consumer)} triggers exactly one call
+ * to {@link UnificationAlgorithm#computeNextUnifier()}, so the algorithm never
+ * runs ahead of the consumer. Since the algorithms are inherently sequential,
+ * this spliterator cannot be split.
+ *
+ * If the computing thread is interrupted, the algorithm is cleaned up, the
+ * interrupt flag of the thread is restored, and no further unifiers are
+ * returned. If the algorithm stops because it reached one of its resource
+ * limits, the spliterator throws a CompletionException caused by a
+ * {@link LimitReachedException}, so that a stream over the unifiers is not
+ * mistaken for complete.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class UnifierSpliterator extends Spliterators.AbstractSpliterator<Unifier> {
+
+	private final UnificationAlgorithm algorithm;
+	private boolean finished = false;
+
+	/**
+	 * Construct a new spliterator for the given algorithm.
+	 *
+	 * @param algorithm
+	 *            the unification algorithm
+	 */
+	public UnifierSpliterator(UnificationAlgorithm algorithm) {
+		super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+		this.algorithm = algorithm;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super Unifier> action) {
+		if (finished) {
+			return false;
+		}
+		try {
+			if (algorithm.computeNextUnifier()) {
+				action.accept(algorithm.getUnifier());
+				return true;
+			}
+		} catch (LimitReachedException ex) {
+			finished = true;
+			algorithm.cleanup();
+			throw new CompletionException(ex);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			algorithm.cleanup();
+		}
+		finished = true;
+		if (algorithm.getReachedLimit() != null) {
+			throw new CompletionException(new LimitReachedException(algorithm.getReachedLimit()));
+		}
+		return false;
+	}
+
+	@Override
+	public Spliterator<Unifier> trySplit() {
+		// splitting would compute a batch of unifiers in advance
+		return null;
+	}
+
+}
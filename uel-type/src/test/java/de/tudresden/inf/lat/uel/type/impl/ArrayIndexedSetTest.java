@@ -0,0 +1,113 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for 'ArrayIndexedSet'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class ArrayIndexedSetTest {
+
+	/**
+	 * An element with few distinct hash codes, to exercise the collision
+	 * handling.
+	 */
+	private static class Element {
+		private final int value;
+
+		Element(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return (o instanceof Element) && (((Element) o).value == value);
+		}
+
+		@Override
+		public int hashCode() {
+			return value % 7;
+		}
+
+		@Override
+		public String toString() {
+			return "e" + value;
+		}
+	}
+
+	@Test
+	public void testAgainstIndexedSetImpl() {
+		Random random = new Random(0);
+		ArrayIndexedSet<Element> set = new ArrayIndexedSet<Element>(1);
+		IndexedSetImpl<Element> expected = new IndexedSetImpl<Element>();
+		for (int i = 0; i < 1000; i++) {
+			Element element = new Element(random.nextInt(400));
+			if (expected.contains(element) || random.nextBoolean()) {
+				Assertions.assertEquals(expected.addAndGetIndex(element), set.addAndGetIndex(element));
+			} else {
+				// like IndexedSetImpl, add() uses the next index even for existing elements
+				Assertions.assertEquals(expected.add(element), set.add(element));
+			}
+		}
+
+		Assertions.assertEquals(expected.size(), set.size());
+		Assertions.assertEquals(expected.getMaxIndex(), set.getMaxIndex());
+		Assertions.assertEquals(expected.getNextIndex(), set.getNextIndex());
+		Assertions.assertEquals(new ArrayList<Element>(expected), new ArrayList<Element>(set));
+		for (int value = 0; value < 410; value++) {
+			Element element = new Element(value);
+			Assertions.assertEquals(expected.contains(element), set.contains(element));
+			Assertions.assertEquals(expected.getIndex(element), set.getIndex(element));
+		}
+		for (int index = -1; index <= set.getNextIndex(); index++) {
+			Assertions.assertEquals(expected.get(index), set.get(index));
+			Assertions.assertEquals(expected.getIndices().contains(index), set.getIndices().contains(index));
+		}
+	}
+
+	@Test
+	public void testExplicitIndices() {
+		ArrayIndexedSet<String> set = new ArrayIndexedSet<String>();
+		Assertions.assertTrue(set.add("B", 40));
+		Assertions.assertTrue(set.add("A", 2));
+		Assertions.assertFalse(set.add("A", 2));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> set.add("A", 3));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> set.add("C", 40));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> set.add("C", -1));
+		Assertions.assertEquals(41, (int) set.getNextIndex());
+		Assertions.assertEquals(41, set.addAndGetIndex("C"));
+		Assertions.assertEquals(40, set.addAndGetIndex("B"));
+		Assertions.assertEquals(-1, set.getIndex("D"));
+		Assertions.assertEquals(-1, set.getIndex(null));
+		Assertions.assertNull(set.get(3));
+		Assertions.assertNull(set.get(100));
+
+		// iteration follows the indices
+		List<String> elements = new ArrayList<String>(set);
+		Assertions.assertEquals(Arrays.asList("A", "B", "C"), elements);
+		Assertions.assertEquals(Arrays.asList(2, 40, 41), new ArrayList<Integer>(set.getIndices()));
+		Assertions.assertEquals(3, set.getIndices().size());
+	}
+
+	@Test
+	public void testUnsupportedOperations() {
+		ArrayIndexedSet<String> set = new ArrayIndexedSet<String>();
+		set.add("A");
+		Assertions.assertThrows(NullPointerException.class, () -> set.add(null));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> set.addAndGetIndex(null));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> set.remove("A"));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> set.removeAll(Arrays.asList("A")));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> set.retainAll(Arrays.asList("B")));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> set.clear());
+		Assertions.assertTrue(set.contains("A"));
+	}
+
+}
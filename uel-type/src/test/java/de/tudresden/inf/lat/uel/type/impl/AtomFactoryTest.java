@@ -0,0 +1,118 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.Atom;
+
+/**
+ * Test class for 'AtomFactory'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class AtomFactoryTest {
+
+	@Test
+	public void testCanonicalAtoms() {
+		Random random = new Random(0);
+		AtomFactory factory = new AtomFactory();
+		Map<Atom, Integer> expected = new HashMap<Atom, Integer>();
+		for (int i = 0; i < 2000; i++) {
+			ConceptName name = factory.conceptName(random.nextInt(100));
+			Atom atom = random.nextBoolean() ? name : factory.existentialRestriction(random.nextInt(10), name);
+			Integer old = expected.putIfAbsent(atom, atom.getAtomId());
+			if (old != null) {
+				Assertions.assertEquals((int) old, (int) atom.getAtomId());
+				Assertions.assertSame(factory.get(old), atom);
+			}
+		}
+
+		// the atom ids are consecutive and start at 1
+		Assertions.assertEquals(expected.size(), factory.size());
+		Assertions.assertEquals(expected.size(), (int) factory.getMaxIndex());
+		Assertions.assertEquals(expected.size() + 1, (int) factory.getNextIndex());
+		Assertions.assertNull(factory.get(0));
+		Assertions.assertNull(factory.get(factory.getNextIndex()));
+		int index = 1;
+		for (Atom atom : factory) {
+			Assertions.assertEquals(index, (int) atom.getAtomId());
+			Assertions.assertEquals(index, factory.getIndex(atom));
+			Assertions.assertTrue(factory.getIndices().contains(index));
+			index++;
+		}
+		Assertions.assertEquals(expected.size(), factory.getIndices().size());
+	}
+
+	@Test
+	public void testForeignAtoms() {
+		AtomFactory other = new AtomFactory();
+		ConceptName a = other.conceptName(7);
+		ConceptName b = other.conceptName(3);
+		ExistentialRestriction er = other.existentialRestriction(2, b);
+
+		AtomFactory factory = new AtomFactory();
+		Assertions.assertNull(factory.findConceptName(3));
+		Assertions.assertNull(factory.findExistentialRestriction(2, b));
+		Assertions.assertEquals(-1, factory.getIndex(er));
+		Assertions.assertFalse(factory.contains(a));
+
+		// the filler is created before the existential restriction
+		Atom canonical = factory.canonical(er);
+		Assertions.assertEquals(er, canonical);
+		Assertions.assertNotSame(er, canonical);
+		Assertions.assertEquals(2, (int) canonical.getAtomId());
+		Assertions.assertEquals(1, (int) factory.findConceptName(3).getAtomId());
+		Assertions.assertSame(canonical, factory.findExistentialRestriction(2, b));
+		Assertions.assertSame(canonical, factory.canonical(canonical));
+		Assertions.assertEquals(2, factory.getIndex(er));
+		Assertions.assertEquals(3, factory.addAndGetIndex(a));
+		Assertions.assertTrue(factory.contains(a));
+		Assertions.assertEquals(Arrays.asList(factory.get(1), canonical, factory.get(3)),
+				new ArrayList<Atom>(factory));
+	}
+
+	@Test
+	public void testEquality() {
+		AtomFactory factory = new AtomFactory();
+		ConceptName b = factory.conceptName(3);
+		ConceptName c = factory.conceptName(4);
+		// both existential restrictions have the same hash code
+		ExistentialRestriction first = factory.existentialRestriction(31, b);
+		ExistentialRestriction second = factory.existentialRestriction(0, c);
+		Assertions.assertEquals(first.hashCode(), second.hashCode());
+		Assertions.assertNotEquals(first, second);
+
+		// atoms that are not canonical or belong to another factory are
+		// compared structurally
+		ExistentialRestriction plain = new ExistentialRestriction(31, b);
+		Assertions.assertEquals(0, plain.getAtomId());
+		Assertions.assertEquals(first, plain);
+		Assertions.assertEquals(plain, first);
+		Assertions.assertNotEquals(second, plain);
+		AtomFactory other = new AtomFactory();
+		ExistentialRestriction foreign = other.existentialRestriction(31, other.conceptName(3));
+		Assertions.assertEquals(first, foreign);
+		Assertions.assertEquals(foreign, first);
+		Assertions.assertNotEquals(second, foreign);
+	}
+
+	@Test
+	public void testUnsupportedOperations() {
+		AtomFactory factory = new AtomFactory();
+		ConceptName name = factory.conceptName(1);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> factory.addAndGetIndex(null));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> factory.add(name));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> factory.add(name, 5));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> factory.addAll(Arrays.asList(name)));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> factory.remove(name));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> factory.clear());
+	}
+
+}
@@ -0,0 +1,98 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+
+/**
+ * Test class for 'AtomManagerImpl'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class AtomManagerImplTest {
+
+	@Test
+	public void testUndefIndex() {
+		AtomManager atomManager = new AtomManagerImpl();
+		Integer a = atomManager.createConceptName("A", false);
+		Integer b = atomManager.createConceptName("B", false);
+		atomManager.makeUserVariable(a);
+
+		Assertions.assertNull(atomManager.getUndefConceptName(a));
+		Integer undef = atomManager.createUndefConceptName(a);
+		Assertions.assertEquals(undef, atomManager.createUndefConceptName(a));
+		Assertions.assertEquals(undef, atomManager.getUndefConceptName(a));
+		Assertions.assertNull(atomManager.getUndefConceptName(b));
+		Assertions.assertNull(atomManager.getUndefConceptName(undef));
+		Assertions.assertEquals("A" + AtomManager.UNDEF_SUFFIX, atomManager.printConceptName(undef));
+		Assertions.assertEquals(new HashSet<Integer>(Arrays.asList(undef)), atomManager.getUndefNames());
+
+		// the origin of an UNDEF name stays a variable
+		Assertions.assertEquals(a, atomManager.removeUndef(undef));
+		Assertions.assertTrue(atomManager.getUserVariables().contains(a));
+		Assertions.assertFalse(atomManager.getConstants().contains(a));
+	}
+
+	@Test
+	public void testRemoveUndef() {
+		AtomManager atomManager = new AtomManagerImpl();
+		Integer a = atomManager.createConceptName("A", true);
+		Integer undef = atomManager.createUndefConceptName(a);
+		Assertions.assertFalse(atomManager.getConstants().contains(a));
+		Assertions.assertEquals(a, atomManager.removeUndef(undef));
+		Assertions.assertTrue(atomManager.getConstants().contains(a));
+
+		// names that were not created by 'createUndefConceptName' are
+		// recognized by their suffix
+		Integer bUndef = atomManager.createConceptName("B" + AtomManager.UNDEF_SUFFIX, false);
+		Integer b = atomManager.removeUndef(bUndef);
+		Assertions.assertEquals("B", atomManager.printConceptName(b));
+		Assertions.assertFalse(atomManager.getUndefNames().contains(bUndef));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> atomManager.removeUndef(a));
+	}
+
+	@Test
+	public void testRoleGroupIndex() {
+		AtomManager atomManager = new AtomManagerImpl();
+		Integer a = atomManager.createConceptName("A", false);
+		Integer b = atomManager.createConceptName("B", false);
+
+		Assertions.assertNull(atomManager.getRoleGroupConceptName(a));
+		Integer roleGroup = atomManager.createRoleGroupConceptName(a);
+		Assertions.assertEquals(roleGroup, atomManager.createRoleGroupConceptName(a));
+		Assertions.assertEquals(roleGroup, atomManager.getRoleGroupConceptName(a));
+		Assertions.assertEquals(a, atomManager.getRoleGroupOrigin(roleGroup));
+		Assertions.assertNull(atomManager.getRoleGroupOrigin(a));
+		Assertions.assertNull(atomManager.getRoleGroupConceptName(b));
+		Assertions.assertEquals("A" + AtomManager.ROLEGROUP_SUFFIX, atomManager.printConceptName(roleGroup));
+		// role group names are only types and not marked as constants
+		Assertions.assertFalse(atomManager.getConstants().contains(roleGroup));
+	}
+
+	@Test
+	public void testFillerIndex() {
+		AtomManager atomManager = new AtomManagerImpl();
+		Integer a = atomManager.createConceptName("A", false);
+		Integer b = atomManager.createConceptName("B", false);
+		Integer c = atomManager.createConceptName("C", false);
+		Integer ra = atomManager.createExistentialRestriction("r", a);
+		Integer sa = atomManager.createExistentialRestriction("s", a);
+		Integer rb = atomManager.createExistentialRestriction("r", b);
+		Assertions.assertEquals(ra, atomManager.createExistentialRestriction("r", a));
+
+		Assertions.assertEquals(new HashSet<Integer>(Arrays.asList(ra, sa)),
+				atomManager.getExistentialRestrictionsWithFiller(a));
+		Assertions.assertEquals(new HashSet<Integer>(Arrays.asList(rb)),
+				atomManager.getExistentialRestrictionsWithFiller(b));
+		Assertions.assertTrue(atomManager.getExistentialRestrictionsWithFiller(c).isEmpty());
+		Assertions.assertTrue(atomManager.getExistentialRestrictionsWithFiller(ra).isEmpty());
+		Assertions.assertThrows(UnsupportedOperationException.class,
+				() -> atomManager.getExistentialRestrictionsWithFiller(a).add(rb));
+	}
+
+}
@@ -0,0 +1,106 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.Definition;
+
+/**
+ * Test class for 'CompactDefinitionSet'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class CompactDefinitionSetTest {
+
+	@Test
+	public void testAgainstDefinitionSet() {
+		Random random = new Random(0);
+		CompactDefinitionSet compact = new CompactDefinitionSet(1);
+		DefinitionSet expected = new DefinitionSet();
+		for (int i = 0; i < 500; i++) {
+			int definiendum = 1 + random.nextInt(200);
+			int[] definiens = new int[random.nextInt(5)];
+			for (int j = 0; j < definiens.length; j++) {
+				definiens[j] = 1 + random.nextInt(50);
+			}
+			boolean primitive = random.nextBoolean();
+			expected.add(new Definition(definiendum, IntArraySet.of(definiens), primitive));
+			compact.put(definiendum, definiens, primitive);
+		}
+
+		Assertions.assertEquals(expected.size(), compact.size());
+		Assertions.assertEquals(expected, compact.asDefinitionSet());
+		Assertions.assertEquals(expected, compact.asMap());
+		Assertions.assertEquals(expected.hashCode(), compact.hashCode());
+		for (int definiendum = 0; definiendum <= 201; definiendum++) {
+			Definition def = expected.getDefinition(definiendum);
+			Assertions.assertEquals(def != null, compact.containsDefiniendum(definiendum));
+			Assertions.assertEquals(def, compact.asMap().get(definiendum));
+			if (def != null) {
+				Assertions.assertEquals(def.getRight(), compact.getDefiniens(definiendum));
+				Assertions.assertEquals(def.isPrimitive(), compact.isPrimitive(definiendum));
+			}
+		}
+	}
+
+	@Test
+	public void testOrderAndReplacement() {
+		CompactDefinitionSet set = new CompactDefinitionSet();
+		set.put(3, new int[] { 7, 5 }, false);
+		set.put(1, new HashSet<Integer>(Arrays.asList(2)), true);
+		set.put(3, IntArraySet.of(4), true);
+
+		Assertions.assertEquals(2, set.size());
+		Assertions.assertEquals(IntArraySet.of(4), set.getDefiniens(3));
+		Assertions.assertTrue(set.isPrimitive(3));
+		Assertions.assertNull(set.getDefiniens(2));
+		Assertions.assertFalse(set.isPrimitive(2));
+
+		// the definitions are kept in the order in which they were added
+		List<Integer> definienda = new ArrayList<Integer>(set.asMap().keySet());
+		Assertions.assertEquals(Arrays.asList(3, 1), definienda);
+	}
+
+	@Test
+	public void testEquality() {
+		CompactDefinitionSet first = new CompactDefinitionSet();
+		first.put(1, new int[] { 2, 3 }, false);
+		first.put(4, new int[0], true);
+		CompactDefinitionSet second = new CompactDefinitionSet();
+		second.put(4, new int[0], true);
+		second.put(1, new int[] { 3, 2, 3 }, false);
+		Assertions.assertEquals(first, second);
+		Assertions.assertEquals(first.hashCode(), second.hashCode());
+
+		second.put(4, new int[0], false);
+		Assertions.assertNotEquals(first, second);
+	}
+
+	@Test
+	public void testViewIsReadOnly() {
+		CompactDefinitionSet set = new CompactDefinitionSet();
+		set.put(1, new int[] { 2 }, false);
+		Map<Integer, Definition> view = set.asMap();
+		DefinitionSet copy = set.asDefinitionSet();
+		Assertions.assertThrows(UnsupportedOperationException.class,
+				() -> view.put(5, new Definition(5, IntArraySet.of(6), false)));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> view.remove(1));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> view.clear());
+
+		// the view reflects later changes, but the copy does not
+		set.put(5, new int[] { 6 }, false);
+		Assertions.assertEquals(2, view.size());
+		Assertions.assertTrue(view.containsKey(5));
+		Assertions.assertEquals(1, copy.size());
+		Assertions.assertFalse(copy.containsKey(5));
+	}
+
+}
@@ -0,0 +1,204 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.Goal;
+import de.tudresden.inf.lat.uel.type.api.UnificationAlgorithm;
+
+/**
+ * Test class for 'DecomposedUnificationAlgorithm'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class DecomposedUnificationAlgorithmTest {
+
+	/**
+	 * Returns a fixed number of unifiers, each assigning a different constant
+	 * to all variables of the component. If the number is negative, the
+	 * algorithm waits until it is interrupted.
+	 */
+	private static final class ScriptedAlgorithm implements UnificationAlgorithm {
+
+		private final Goal goal;
+		private final Metrics metrics = new Metrics();
+		private final int numberOfUnifiers;
+		private int current = 0;
+		private volatile boolean interrupted = false;
+
+		ScriptedAlgorithm(Goal goal, int numberOfUnifiers) {
+			this.goal = goal;
+			this.numberOfUnifiers = numberOfUnifiers;
+		}
+
+		@Override
+		public void cleanup() {
+		}
+
+		@Override
+		public boolean computeNextUnifier() throws InterruptedException {
+			metrics.counter("scripted.calls").increment();
+			if (numberOfUnifiers < 0) {
+				try {
+					Thread.sleep(Long.MAX_VALUE);
+				} catch (InterruptedException e) {
+					interrupted = true;
+					throw e;
+				}
+			}
+			if (current == numberOfUnifiers) {
+				return false;
+			}
+			current++;
+			return true;
+		}
+
+		@Override
+		public List<Entry<String, String>> getInfo() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public Metrics getMetrics() {
+			return metrics;
+		}
+
+		@Override
+		public ResourceLimits.Limit getReachedLimit() {
+			return null;
+		}
+
+		@Override
+		public Unifier getUnifier() {
+			CompactDefinitionSet definitions = new CompactDefinitionSet();
+			for (Integer varId : goal.getAtomManager().getVariables()) {
+				definitions.put(varId, new int[] { current }, false);
+			}
+			return new Unifier(definitions);
+		}
+
+		@Override
+		public void setCallbackPreprocessing(Runnable r) {
+		}
+
+		@Override
+		public void setResourceLimits(ResourceLimits limits) {
+		}
+
+		@Override
+		public void setShortFormMap(Function<String, String> map) {
+		}
+
+	}
+
+	private static GoalDecomposition threeComponents() {
+		GoalBuilder builder = new GoalBuilder();
+		int a = builder.conceptName("A");
+		for (String name : new String[] { "X", "Y", "Z" }) {
+			builder.subsumption(new int[] { builder.userVariable(name) }, new int[] { a });
+		}
+		GoalDecomposition decomposition = GoalDecomposition.decompose(builder.build());
+		Assertions.assertEquals(3, decomposition.getComponents().size());
+		return decomposition;
+	}
+
+	private static Set<String> unifiers(UnificationAlgorithm algorithm) throws InterruptedException {
+		Set<String> unifiers = new HashSet<String>();
+		while (algorithm.computeNextUnifier()) {
+			Assertions.assertTrue(unifiers.add(algorithm.getUnifier().getDefinitions().toString()));
+		}
+		return unifiers;
+	}
+
+	@Test
+	public void testCombinations() throws InterruptedException {
+		int[] counts = { 2, 3, 1 };
+		List<Goal> components = new ArrayList<Goal>();
+		DecomposedUnificationAlgorithm algorithm = new DecomposedUnificationAlgorithm(threeComponents(), goal -> {
+			components.add(goal);
+			return new ScriptedAlgorithm(goal, counts[components.size() - 1]);
+		});
+		Assertions.assertEquals(6, unifiers(algorithm).size());
+		Assertions.assertNull(algorithm.getReachedLimit());
+	}
+
+	@Test
+	public void testParallelCombinations() throws InterruptedException {
+		int[] counts = { 2, 3, 4 };
+		int[] index = { 0 };
+		Set<String> sequential = unifiers(new DecomposedUnificationAlgorithm(threeComponents(),
+				goal -> new ScriptedAlgorithm(goal, counts[index[0]++ % 3])));
+		Set<String> parallel = unifiers(new DecomposedUnificationAlgorithm(threeComponents(),
+				goal -> new ScriptedAlgorithm(goal, counts[index[0]++ % 3]), true));
+		Assertions.assertEquals(24, sequential.size());
+		Assertions.assertEquals(sequential, parallel);
+	}
+
+	@Test
+	public void testComponentMetrics() throws InterruptedException {
+		DecomposedUnificationAlgorithm algorithm = new DecomposedUnificationAlgorithm(threeComponents(),
+				goal -> new ScriptedAlgorithm(goal, 2));
+		unifiers(algorithm);
+		Metrics metrics = algorithm.getMetrics();
+		Assertions.assertEquals(8, metrics.counter("unifiers").get());
+		// the unifiers of the components are cached, so each component is asked
+		// once for each of its unifiers and once more to detect the end
+		for (int i = 1; i <= 3; i++) {
+			Assertions.assertEquals(3, metrics.counter("component" + i + ".scripted.calls").get());
+		}
+	}
+
+	@Test
+	public void testDeadline() throws InterruptedException {
+		DecomposedUnificationAlgorithm algorithm = new DecomposedUnificationAlgorithm(threeComponents(),
+				goal -> new ScriptedAlgorithm(goal, 2));
+		algorithm.setResourceLimits(ResourceLimits.NONE.withDeadline(System.nanoTime()));
+		Assertions.assertFalse(algorithm.computeNextUnifier());
+		Assertions.assertEquals(ResourceLimits.Limit.DEADLINE, algorithm.getReachedLimit());
+	}
+
+	@Test
+	public void testDeadlineDuringEnumeration() throws InterruptedException {
+		DecomposedUnificationAlgorithm algorithm = new DecomposedUnificationAlgorithm(threeComponents(),
+				goal -> new ScriptedAlgorithm(goal, 2));
+		Assertions.assertTrue(algorithm.computeNextUnifier());
+		algorithm.setResourceLimits(ResourceLimits.NONE.withDeadline(System.nanoTime()));
+		Assertions.assertFalse(algorithm.computeNextUnifier());
+		Assertions.assertEquals(ResourceLimits.Limit.DEADLINE, algorithm.getReachedLimit());
+	}
+
+	@Test
+	public void testParallelFailureInterruptsOtherComponents() throws InterruptedException {
+		List<ScriptedAlgorithm> algorithms = new ArrayList<ScriptedAlgorithm>();
+		int[] counts = { 0, -1, -1 };
+		DecomposedUnificationAlgorithm algorithm = new DecomposedUnificationAlgorithm(threeComponents(), goal -> {
+			ScriptedAlgorithm a = new ScriptedAlgorithm(goal, counts[algorithms.size()]);
+			algorithms.add(a);
+			return a;
+		}, true);
+
+		Assertions.assertFalse(algorithm.computeNextUnifier());
+		Assertions.assertFalse(Thread.currentThread().isInterrupted());
+
+		// the blocked components are either interrupted or never started
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		for (ScriptedAlgorithm a : algorithms.subList(1, 3)) {
+			while ((a.metrics.counter("scripted.calls").get() > 0) && !a.interrupted
+					&& (System.nanoTime() < deadline)) {
+				Thread.sleep(10);
+			}
+			Assertions.assertTrue((a.metrics.counter("scripted.calls").get() == 0) || a.interrupted);
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+
+/**
+ * Test class for 'DenseAtomManagerImpl'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class DenseAtomManagerImplTest {
+
+	private static void assertSameState(AtomManager expected, AtomManager actual) {
+		Assertions.assertEquals(expected.size(), actual.size());
+		Assertions.assertEquals(expected.getConstants(), actual.getConstants());
+		Assertions.assertEquals(expected.getVariables(), actual.getVariables());
+		Assertions.assertEquals(expected.getUserVariables(), actual.getUserVariables());
+		Assertions.assertEquals(expected.getDefinitionVariables(), actual.getDefinitionVariables());
+		Assertions.assertEquals(expected.getFlatteningVariables(), actual.getFlatteningVariables());
+		Assertions.assertEquals(expected.getUndefNames(), actual.getUndefNames());
+		Assertions.assertEquals(expected.getExistentialRestrictions(), actual.getExistentialRestrictions());
+		Assertions.assertEquals(expected.getRoleIds(), actual.getRoleIds());
+		Assertions.assertEquals(expected.getNonvariableAtoms(), actual.getNonvariableAtoms());
+		for (Integer roleId : expected.getRoleIds()) {
+			Assertions.assertEquals(expected.getRoleName(roleId), actual.getRoleName(roleId));
+			Assertions.assertEquals(expected.getExistentialRestrictions(roleId),
+					actual.getExistentialRestrictions(roleId));
+		}
+		for (int atomId = 1; atomId <= expected.size() + 1; atomId++) {
+			Assertions.assertEquals(expected.getAtom(atomId), actual.getAtom(atomId));
+			Assertions.assertEquals(expected.getChild(atomId), actual.getChild(atomId));
+			Assertions.assertEquals(expected.getRoleId(atomId), actual.getRoleId(atomId));
+			Assertions.assertEquals(expected.getUndefConceptName(atomId), actual.getUndefConceptName(atomId));
+			Assertions.assertEquals(expected.getRoleGroupConceptName(atomId), actual.getRoleGroupConceptName(atomId));
+			Assertions.assertEquals(expected.getRoleGroupOrigin(atomId), actual.getRoleGroupOrigin(atomId));
+			Assertions.assertEquals(expected.getExistentialRestrictionsWithFiller(atomId),
+					actual.getExistentialRestrictionsWithFiller(atomId));
+			if ((atomId <= expected.size()) && expected.getAtom(atomId).isConceptName()) {
+				Assertions.assertEquals(expected.printConceptName(atomId), actual.printConceptName(atomId));
+			}
+		}
+	}
+
+	@Test
+	public void testAgainstAtomManagerImpl() {
+		Random random = new Random(0);
+		AtomManager expected = new AtomManagerImpl();
+		AtomManager actual = new DenseAtomManagerImpl();
+		List<Integer> conceptNames = new ArrayList<Integer>();
+		for (int i = 0; i < 2000; i++) {
+			int operation = random.nextInt(10);
+			if ((operation < 3) || conceptNames.isEmpty()) {
+				String name = "A" + random.nextInt(150);
+				boolean onlyTypes = random.nextInt(5) == 0;
+				Integer atomId = expected.createConceptName(name, onlyTypes);
+				Assertions.assertEquals(atomId, actual.createConceptName(name, onlyTypes));
+				conceptNames.add(atomId);
+				continue;
+			}
+			Integer atomId = conceptNames.get(random.nextInt(conceptNames.size()));
+			switch (operation) {
+			case 3:
+				String roleName = "r" + random.nextInt(8);
+				Assertions.assertEquals(expected.createExistentialRestriction(roleName, atomId),
+						actual.createExistentialRestriction(roleName, atomId));
+				break;
+			case 4:
+				expected.makeUserVariable(atomId);
+				actual.makeUserVariable(atomId);
+				break;
+			case 5:
+				expected.makeDefinitionVariable(atomId);
+				actual.makeDefinitionVariable(atomId);
+				break;
+			case 6:
+				expected.makeFlatteningVariable(atomId);
+				actual.makeFlatteningVariable(atomId);
+				break;
+			case 7:
+				expected.makeConstant(atomId);
+				actual.makeConstant(atomId);
+				break;
+			case 8:
+				Integer undefId = expected.createUndefConceptName(atomId);
+				Assertions.assertEquals(undefId, actual.createUndefConceptName(atomId));
+				conceptNames.add(undefId);
+				if (random.nextBoolean()) {
+					Assertions.assertEquals(expected.removeUndef(undefId), actual.removeUndef(undefId));
+				}
+				break;
+			default:
+				Integer roleGroupId = expected.createRoleGroupConceptName(atomId);
+				Assertions.assertEquals(roleGroupId, actual.createRoleGroupConceptName(atomId));
+				conceptNames.add(roleGroupId);
+				break;
+			}
+		}
+		Integer roleId = expected.getRoleId("r0");
+		Assertions.assertEquals(roleId, actual.getRoleId("r0"));
+		Assertions.assertEquals(expected.createBlankExistentialRestriction(roleId),
+				actual.createBlankExistentialRestriction(roleId));
+
+		assertSameState(expected, actual);
+	}
+
+	@Test
+	public void testInvalidArguments() {
+		AtomManager atomManager = new DenseAtomManagerImpl();
+		Integer a = atomManager.createConceptName("A", false);
+		Integer er = atomManager.createExistentialRestriction("r", a);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> atomManager.getConceptName(er));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> atomManager.getExistentialRestriction(a));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> atomManager.makeUserVariable(er));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> atomManager.removeUndef(a));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> atomManager.printRoleName(a));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> atomManager.printRoleName(-1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> atomManager.printRoleName(1000));
+		Assertions.assertNull(atomManager.getChild(a));
+		Assertions.assertNull(atomManager.getRoleId(a));
+		Assertions.assertTrue(atomManager.getExistentialRestrictions(42).isEmpty());
+		Assertions.assertTrue(atomManager.getExistentialRestrictionsWithFiller(er).isEmpty());
+
+		// the returned sets are read-only views of the current state
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> atomManager.getConstants().add(er));
+		atomManager.makeUserVariable(a);
+		Assertions.assertTrue(atomManager.getConstants().isEmpty());
+	}
+
+}
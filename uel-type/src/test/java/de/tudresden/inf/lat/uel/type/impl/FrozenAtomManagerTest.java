@@ -0,0 +1,109 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+
+/**
+ * Test class for 'FrozenAtomManager'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class FrozenAtomManagerTest {
+
+	@Test
+	public void testSnapshotIsIndependent() {
+		AtomManager source = new AtomManagerImpl();
+		Integer a = source.createConceptName("A", false);
+		Integer x = source.createConceptName("X", false);
+		source.makeUserVariable(x);
+		Integer rx = source.createExistentialRestriction("r", x);
+
+		AtomManager frozen = source.freeze();
+		Integer b = source.createConceptName("B", false);
+		source.makeUserVariable(a);
+
+		Assertions.assertEquals(3, frozen.size());
+		Assertions.assertEquals(Collections.singleton(a), frozen.getConstants());
+		Assertions.assertEquals(Collections.singleton(x), frozen.getUserVariables());
+		Assertions.assertTrue(frozen.getAtom(x).isVariable());
+		Assertions.assertTrue(frozen.getExistentialRestriction(rx).getConceptName().isVariable());
+		Assertions.assertNull(frozen.getAtom(b));
+		Assertions.assertEquals(2, frozen.getNonvariableAtoms().size());
+	}
+
+	@Test
+	public void testLookups() {
+		AtomManager source = new AtomManagerImpl();
+		Integer a = source.createConceptName("A", false);
+		Integer b = source.createConceptName("B", false);
+		Integer ra = source.createExistentialRestriction("r", a);
+		Integer sa = source.createExistentialRestriction("s", a);
+		Integer rb = source.createExistentialRestriction("r", b);
+
+		FrozenAtomManager frozen = new FrozenAtomManager(source);
+		Integer r = frozen.getRoleId("r");
+		Assertions.assertEquals(source.getRoleId("r"), r);
+		Assertions.assertEquals(a, frozen.getChild(ra));
+		Assertions.assertEquals(r, frozen.getRoleId(rb));
+		Assertions.assertEquals(ra, frozen.getIndex(source.getAtom(ra)));
+		Assertions.assertEquals(new HashSet<Integer>(Arrays.asList(ra, rb)),
+				frozen.getExistentialRestrictions(r));
+		Assertions.assertEquals(Collections.singleton(sa), frozen.getExistentialRestrictions(frozen.getRoleId("s")));
+		Assertions.assertEquals(new HashSet<Integer>(Arrays.asList(ra, sa)),
+				frozen.getExistentialRestrictionsWithFiller(a));
+		Assertions.assertTrue(frozen.getExistentialRestrictions(frozen.getMaxRoleId() + 1).isEmpty());
+		Assertions.assertEquals(3, frozen.getExistentialRestrictions().size());
+		Assertions.assertEquals("A", frozen.printConceptName(a));
+		Assertions.assertEquals("s", frozen.printRoleName(sa));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> frozen.printRoleName(a));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> frozen.printRoleName(frozen.size() + 1));
+	}
+
+	@Test
+	public void testCreateOnlyReturnsExistingAtoms() {
+		AtomManager source = new AtomManagerImpl();
+		Integer a = source.createConceptName("A", false);
+		Integer ra = source.createExistentialRestriction("r", a);
+		Integer undef = source.createUndefConceptName(a);
+
+		AtomManager frozen = source.freeze();
+		Assertions.assertSame(frozen, frozen.freeze());
+		Assertions.assertEquals(a, frozen.createConceptName("A", false));
+		Assertions.assertEquals(ra, frozen.createExistentialRestriction("r", a));
+		Assertions.assertEquals(undef, frozen.createUndefConceptName(a));
+		frozen.makeConstant(a);
+
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> frozen.createConceptName("B", false));
+		Assertions.assertThrows(UnsupportedOperationException.class,
+				() -> frozen.createExistentialRestriction("s", a));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> frozen.makeUserVariable(a));
+	}
+
+	@Test
+	public void testSetViews() {
+		AtomManager source = new AtomManagerImpl();
+		Set<Integer> expected = new HashSet<Integer>();
+		for (int i = 0; i < 100; i++) {
+			Integer atomId = source.createConceptName("X" + i, false);
+			if (i % 3 == 0) {
+				source.makeUserVariable(atomId);
+				expected.add(atomId);
+			}
+		}
+
+		AtomManager frozen = source.freeze();
+		Assertions.assertEquals(expected, frozen.getUserVariables());
+		Assertions.assertEquals(expected.size(), frozen.getVariables().size());
+		Assertions.assertEquals(100 - expected.size(), frozen.getConstants().size());
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> frozen.getVariables().add(1));
+	}
+
+}
@@ -0,0 +1,145 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.api.Goal;
+import de.tudresden.inf.lat.uel.type.api.Subsumption;
+
+/**
+ * Test class for 'GoalBuilder'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class GoalBuilderTest {
+
+	@Test
+	public void testAtoms() {
+		GoalBuilder builder = new GoalBuilder();
+		AtomManager atomManager = builder.getAtomManager();
+		int x = builder.userVariable("X");
+		int a = builder.conceptName("A");
+		int rb = builder.existentialRestriction("r", "B");
+
+		Assertions.assertEquals(a, builder.conceptName("A"));
+		Assertions.assertEquals(rb, builder.existentialRestriction("r", builder.conceptName("B")));
+		Assertions.assertTrue(atomManager.getUserVariables().contains(x));
+		Assertions.assertTrue(atomManager.getConstants().contains(a));
+		Assertions.assertTrue(atomManager.getConstants().contains(atomManager.getChild(rb)));
+		Assertions.assertEquals("r", atomManager.printRoleName(rb));
+		// the filler of an existential restriction must be a concept name
+		Assertions.assertThrows(IllegalArgumentException.class, () -> builder.existentialRestriction("r", rb));
+	}
+
+	@Test
+	public void testAxioms() {
+		GoalBuilder builder = new GoalBuilder();
+		int x = builder.userVariable("X");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		builder.subsumption(new int[] { x }, new int[] { a, b }).subsumption(new int[] { x, x },
+				new int[] { b, a });
+		builder.equation(new int[] { x }, new int[] { a });
+		Goal positive = builder.build();
+
+		// duplicate atoms and the order of atoms are irrelevant
+		Assertions.assertEquals(1, positive.getSubsumptions().size());
+		Subsumption subsumption = positive.getSubsumptions().iterator().next();
+		Assertions.assertEquals(new HashSet<Integer>(Arrays.asList(x)), subsumption.getLeft());
+		Assertions.assertEquals(new HashSet<Integer>(Arrays.asList(a, b)), subsumption.getRight());
+		Assertions.assertEquals(1, positive.getEquations().size());
+		Assertions.assertFalse(positive.hasNegativePart());
+
+		builder.dissubsumption(new int[] { a }, new int[] { x });
+		Goal negative = builder.build();
+		Assertions.assertTrue(negative.hasNegativePart());
+		Assertions.assertEquals(1, negative.getDissubsumptions().size());
+		Assertions.assertTrue(new GoalBuilder().disequation(new int[] {}, new int[] {}).build().hasNegativePart());
+
+		// goals built earlier are not affected by later changes
+		Assertions.assertTrue(positive.getDissubsumptions().isEmpty());
+		Assertions.assertThrows(UnsupportedOperationException.class,
+				() -> positive.getSubsumptions().add(subsumption));
+	}
+
+	@Test
+	public void testUnknownAtoms() {
+		GoalBuilder builder = new GoalBuilder();
+		int a = builder.conceptName("A");
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> builder.subsumption(new int[] { a }, new int[] { a + 1 }));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> builder.define(a, 0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> builder.flatten(a, 42));
+		Assertions.assertTrue(builder.build().getSubsumptions().isEmpty());
+		Assertions.assertTrue(builder.build().getDefinitions().isEmpty());
+	}
+
+	@Test
+	public void testDefinitions() {
+		GoalBuilder builder = new GoalBuilder();
+		AtomManager atomManager = builder.getAtomManager();
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		int c = builder.conceptName("C");
+		int rb = builder.existentialRestriction("r", b);
+		builder.define(a, b, rb);
+		builder.definePrimitive(c, b);
+
+		Goal goal = builder.build();
+		Assertions.assertEquals(new HashSet<Integer>(Arrays.asList(b, rb)), goal.getDefiniens(a));
+		Integer undef = atomManager.getUndefConceptName(c);
+		Assertions.assertNotNull(undef);
+		Assertions.assertEquals(new HashSet<Integer>(Arrays.asList(b, undef)), goal.getDefiniens(c));
+		Assertions.assertTrue(atomManager.getDefinitionVariables().contains(a));
+		Assertions.assertTrue(atomManager.getDefinitionVariables().contains(c));
+		Assertions.assertTrue(atomManager.getUndefNames().contains(undef));
+
+		// a concept name can only be defined once, and only concept names can
+		// be defined
+		Assertions.assertThrows(IllegalArgumentException.class, () -> builder.define(a, b));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> builder.definePrimitive(c, b));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> builder.define(rb, b));
+	}
+
+	@Test
+	public void testDefinePrimitiveWithDuplicates() {
+		GoalBuilder builder = new GoalBuilder();
+		AtomManager atomManager = builder.getAtomManager();
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		builder.definePrimitive(a, b, b, b);
+
+		Integer undef = atomManager.getUndefConceptName(a);
+		Assertions.assertEquals(new HashSet<Integer>(Arrays.asList(b, undef)), builder.build().getDefiniens(a));
+	}
+
+	@Test
+	public void testFlatten() {
+		GoalBuilder builder = new GoalBuilder();
+		AtomManager atomManager = builder.getAtomManager();
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		int ra = builder.existentialRestriction("r", a);
+
+		// a single concept name is its own flattening
+		Assertions.assertEquals(a, builder.flatten(a));
+		Assertions.assertEquals(a, builder.flatten(a, a));
+
+		int var = builder.flatten(a, b);
+		Assertions.assertEquals(var, builder.flatten(b, a, b));
+		Assertions.assertTrue(atomManager.getFlatteningVariables().contains(var));
+		Assertions.assertEquals(new HashSet<Integer>(Arrays.asList(a, b)), builder.build().getDefiniens(var));
+
+		int varRa = builder.flatten(ra);
+		Assertions.assertNotEquals(var, varRa);
+		Assertions.assertTrue(atomManager.getFlatteningVariables().contains(varRa));
+		Assertions.assertEquals(new HashSet<Integer>(Arrays.asList(ra)), builder.build().getDefiniens(varRa));
+		Assertions.assertEquals(2, builder.build().getDefinitions().size());
+	}
+
+}
@@ -0,0 +1,150 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+import de.tudresden.inf.lat.uel.type.api.Definition;
+import de.tudresden.inf.lat.uel.type.api.Goal;
+import de.tudresden.inf.lat.uel.type.api.Subsumption;
+
+/**
+ * Test class for 'GoalCompaction'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class GoalCompactionTest {
+
+	@Test
+	public void testUnreachableAtomsAreRemoved() {
+		GoalBuilder builder = new GoalBuilder();
+		int unused = builder.conceptName("Unused");
+		int x = builder.userVariable("X");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		builder.existentialRestriction("s", unused);
+		int rb = builder.existentialRestriction("r", b);
+		int y = builder.userVariable("Y");
+		int undefA = builder.getAtomManager().createUndefConceptName(a);
+		builder.subsumption(new int[] { x }, new int[] { rb });
+		builder.subsumption(new int[] { undefA }, new int[] { x });
+		Goal goal = builder.build();
+
+		GoalCompaction compaction = GoalCompaction.compact(goal);
+		Assertions.assertTrue(compaction.isNontrivial());
+		Assertions.assertEquals(2, compaction.getNumberOfRemovedAtoms());
+		Assertions.assertNull(compaction.getCompactId(unused));
+
+		// the remaining atoms keep their names, markings, and relative order
+		AtomManager atomManager = compaction.getGoal().getAtomManager();
+		AtomManager original = goal.getAtomManager();
+		int previous = 0;
+		for (int atomId : new int[] { x, a, b, rb, y, undefA }) {
+			Integer compactId = compaction.getCompactId(atomId);
+			Assertions.assertTrue(compactId > previous);
+			previous = compactId;
+			Assertions.assertEquals(atomId, (int) compaction.getOriginalId(compactId));
+			Assertions.assertEquals(original.getAtom(atomId).isConceptName(),
+					atomManager.getAtom(compactId).isConceptName());
+		}
+		Assertions.assertEquals(6, atomManager.size());
+		Assertions.assertEquals("r", atomManager.printRoleName(compaction.getCompactId(rb)));
+		Assertions.assertEquals(compaction.getCompactId(b), atomManager.getChild(compaction.getCompactId(rb)));
+		// 'A' is only reachable as the origin of its UNDEF name
+		Assertions.assertEquals(compaction.getCompactId(undefA),
+				atomManager.getUndefConceptName(compaction.getCompactId(a)));
+		Assertions.assertEquals(original.printConceptName(undefA),
+				atomManager.printConceptName(compaction.getCompactId(undefA)));
+		Assertions.assertEquals(IntArraySet.of(compaction.getCompactId(x), compaction.getCompactId(y)),
+				atomManager.getUserVariables());
+		Assertions.assertTrue(atomManager.getConstants().contains(compaction.getCompactId(a)));
+
+		Set<Subsumption> subsumptions = compaction.getGoal().getSubsumptions();
+		Assertions.assertEquals(2, subsumptions.size());
+		Assertions.assertTrue(subsumptions.contains(new Subsumption(IntArraySet.of(compaction.getCompactId(x)),
+				IntArraySet.of(compaction.getCompactId(rb)))));
+	}
+
+	@Test
+	public void testUnifierExpansion() {
+		GoalBuilder builder = new GoalBuilder();
+		builder.conceptName("Unused");
+		int x = builder.userVariable("X");
+		int a = builder.conceptName("A");
+		int d = builder.conceptName("D");
+		builder.define(d, a);
+		builder.subsumption(new int[] { x }, new int[] { a });
+		Goal goal = builder.build();
+
+		GoalCompaction compaction = GoalCompaction.compact(goal);
+		Assertions.assertEquals(1, compaction.getNumberOfRemovedAtoms());
+		Definition definition = compaction.getGoal().getDefinition(compaction.getCompactId(d));
+		Assertions.assertEquals(IntArraySet.of(compaction.getCompactId(a)), definition.getDefiniens());
+
+		CompactDefinitionSet compactDefinitions = new CompactDefinitionSet();
+		compactDefinitions.put(compaction.getCompactId(x), new int[] { compaction.getCompactId(a) }, false);
+		compactDefinitions.put(compaction.getCompactId(d), new int[] { compaction.getCompactId(a) }, false);
+		CompactDefinitionSet expected = new CompactDefinitionSet();
+		expected.put(x, new int[] { a }, false);
+		expected.put(d, new int[] { a }, false);
+		Assertions.assertEquals(new Unifier(expected), compaction.expand(new Unifier(compactDefinitions)));
+	}
+
+	@Test
+	public void testAtomManagerFactory() {
+		GoalBuilder builder = new GoalBuilder();
+		builder.conceptName("Unused");
+		int x = builder.userVariable("X");
+		int a = builder.conceptName("A");
+		int ra = builder.existentialRestriction("r", a);
+		builder.subsumption(new int[] { x }, new int[] { ra });
+		Goal goal = builder.build();
+
+		GoalCompaction compaction = GoalCompaction.compact(goal, AtomManagerImpl::new);
+		AtomManager atomManager = compaction.getGoal().getAtomManager();
+		Assertions.assertTrue(atomManager instanceof AtomManagerImpl);
+		Assertions.assertEquals(3, atomManager.size());
+		Assertions.assertEquals("r", atomManager.printRoleName(compaction.getCompactId(ra)));
+		Assertions.assertEquals(compaction.getCompactId(a), atomManager.getChild(compaction.getCompactId(ra)));
+		Assertions.assertTrue(atomManager.getUserVariables().contains(compaction.getCompactId(x)));
+
+		// unknown atom ids have no compact id
+		Assertions.assertNull(compaction.getCompactId(0));
+		Assertions.assertNull(compaction.getCompactId(-1));
+		Assertions.assertNull(compaction.getCompactId(goal.getAtomManager().size() + 1));
+	}
+
+	@Test
+	public void testGoalWithTypesIsNotCompacted() {
+		GoalBuilder builder = new GoalBuilder();
+		builder.conceptName("Unused");
+		int x = builder.userVariable("X");
+		int a = builder.conceptName("A");
+		builder.subsumption(new int[] { x }, new int[] { a });
+		AtomManager atomManager = builder.getAtomManager();
+		Goal goal = new Goal() {
+			@Override
+			public AtomManager getAtomManager() {
+				return atomManager;
+			}
+
+			@Override
+			public Set<Integer> getTypes() {
+				return Collections.singleton(a);
+			}
+		};
+
+		GoalCompaction compaction = GoalCompaction.compact(goal);
+		Assertions.assertFalse(compaction.isNontrivial());
+		Assertions.assertSame(goal, compaction.getGoal());
+		Assertions.assertEquals(0, compaction.getNumberOfRemovedAtoms());
+		Assertions.assertEquals(x, (int) compaction.getCompactId(x));
+		Unifier unifier = new Unifier(new CompactDefinitionSet());
+		Assertions.assertSame(unifier, compaction.expand(unifier));
+	}
+
+}
@@ -0,0 +1,89 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.Goal;
+
+/**
+ * Test class for 'GoalDecomposition'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class GoalDecompositionTest {
+
+	@Test
+	public void testComponentsAreVariableDisjoint() {
+		GoalBuilder builder = new GoalBuilder();
+		int x = builder.userVariable("X");
+		int y = builder.userVariable("Y");
+		int z = builder.userVariable("Z");
+		int u = builder.userVariable("U");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		int rx = builder.existentialRestriction("r", x);
+		builder.subsumption(new int[] { x }, new int[] { a });
+		builder.subsumption(new int[] { y }, new int[] { rx });
+		builder.subsumption(new int[] { z }, new int[] { b });
+		builder.subsumption(new int[] { a }, new int[] { b });
+		Goal goal = builder.build();
+
+		GoalDecomposition decomposition = GoalDecomposition.decompose(goal);
+		Assertions.assertTrue(decomposition.isNontrivial());
+		// {X, Y}, {Z}, and the ground axiom
+		Assertions.assertEquals(3, decomposition.getComponents().size());
+		Assertions.assertEquals(Collections.singleton(u), decomposition.getUnconstrainedVariables());
+
+		Set<Integer> variables = new HashSet<Integer>();
+		int numberOfAxioms = 0;
+		for (Goal component : decomposition.getComponents()) {
+			for (Integer varId : component.getAtomManager().getVariables()) {
+				Assertions.assertTrue(variables.add(varId), "variable in two components: " + varId);
+			}
+			numberOfAxioms += component.getSubsumptions().size();
+		}
+		Assertions.assertEquals(new HashSet<Integer>(Arrays.asList(x, y, z)), variables);
+		Assertions.assertEquals(4, numberOfAxioms);
+	}
+
+	@Test
+	public void testGoalWithDissubsumptionIsNotSplit() {
+		// 'A ⋢ X' can only be solved by 'X = B', where 'B' occurs only in the
+		// other axiom
+		GoalBuilder builder = new GoalBuilder();
+		int x = builder.userVariable("X");
+		int y = builder.userVariable("Y");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		builder.dissubsumption(new int[] { a }, new int[] { x });
+		builder.subsumption(new int[] { y }, new int[] { b });
+		Goal goal = builder.build();
+
+		GoalDecomposition decomposition = GoalDecomposition.decompose(goal);
+		Assertions.assertFalse(decomposition.isNontrivial());
+		Assertions.assertEquals(Collections.singletonList(goal), decomposition.getComponents());
+	}
+
+	@Test
+	public void testGoalWithDisequationIsNotSplit() {
+		GoalBuilder builder = new GoalBuilder();
+		int x = builder.userVariable("X");
+		int y = builder.userVariable("Y");
+		int a = builder.conceptName("A");
+		int b = builder.conceptName("B");
+		builder.disequation(new int[] { a }, new int[] { x });
+		builder.subsumption(new int[] { y }, new int[] { b });
+		Goal goal = builder.build();
+
+		GoalDecomposition decomposition = GoalDecomposition.decompose(goal);
+		Assertions.assertFalse(decomposition.isNontrivial());
+		Assertions.assertEquals(1, decomposition.getComponents().size());
+	}
+
+}
@@ -0,0 +1,109 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.Goal;
+
+/**
+ * Test class for 'GoalFingerprint'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class GoalFingerprintTest {
+
+	/**
+	 * X ⊑ ∃r.(A ⊓ B), ∃s.(A ⊓ C) ≡ Y, Y ⊑ X
+	 */
+	private static Goal createGoal(boolean reversed, boolean otherRole) {
+		GoalBuilder builder = new GoalBuilder();
+		int x;
+		int y;
+		int a;
+		int b;
+		int c;
+		if (reversed) {
+			c = builder.conceptName("C");
+			b = builder.conceptName("B");
+			a = builder.conceptName("A");
+			y = builder.userVariable("Y");
+			x = builder.userVariable("X");
+		} else {
+			x = builder.userVariable("X");
+			y = builder.userVariable("Y");
+			a = builder.conceptName("A");
+			b = builder.conceptName("B");
+			c = builder.conceptName("C");
+		}
+		// the flattening variables are numbered differently in both orders
+		int ac;
+		int ab;
+		if (reversed) {
+			ac = builder.flatten(a, c);
+			ab = builder.flatten(b, a);
+		} else {
+			ab = builder.flatten(a, b);
+			ac = builder.flatten(c, a);
+		}
+		int rab = builder.existentialRestriction(otherRole ? "t" : "r", ab);
+		int sac = builder.existentialRestriction("s", ac);
+		builder.subsumption(new int[] { x }, new int[] { rab });
+		if (reversed) {
+			builder.equation(new int[] { y }, new int[] { sac });
+		} else {
+			builder.equation(new int[] { sac }, new int[] { y });
+		}
+		builder.subsumption(new int[] { y }, new int[] { x });
+		return builder.build();
+	}
+
+	@Test
+	public void testIndependentOfAtomIds() {
+		Goal goal = createGoal(false, false);
+		Goal reversed = createGoal(true, false);
+		Assertions.assertNotEquals(goal.getAtomManager().printConceptName(1),
+				reversed.getAtomManager().printConceptName(1));
+		Assertions.assertEquals(GoalFingerprint.canonicalForm(goal), GoalFingerprint.canonicalForm(reversed));
+		Assertions.assertEquals(GoalFingerprint.of(goal), GoalFingerprint.of(reversed));
+		Assertions.assertEquals(GoalFingerprint.of(goal).hashCode(), GoalFingerprint.of(reversed).hashCode());
+	}
+
+	@Test
+	public void testDifferentGoals() {
+		Assertions.assertNotEquals(GoalFingerprint.of(createGoal(false, false)),
+				GoalFingerprint.of(createGoal(false, true)));
+
+		// changing the variables changes the fingerprint
+		Goal goal = createGoal(false, false);
+		GoalFingerprint before = GoalFingerprint.of(goal);
+		goal.getAtomManager().makeUserVariable(goal.getAtomManager().createConceptName("B", false));
+		Assertions.assertNotEquals(before, GoalFingerprint.of(goal));
+	}
+
+	@Test
+	public void testNamesWithSyntax() {
+		// X ⊑ A ⊓ B and X ⊑ "A>, <B" must not share their canonical form
+		GoalBuilder twoNames = new GoalBuilder();
+		int x = twoNames.userVariable("X");
+		twoNames.subsumption(new int[] { x },
+				new int[] { twoNames.conceptName("A"), twoNames.conceptName("B") });
+		GoalBuilder oneName = new GoalBuilder();
+		int y = oneName.userVariable("X");
+		oneName.subsumption(new int[] { y }, new int[] { oneName.conceptName("A>, <B") });
+		Assertions.assertNotEquals(GoalFingerprint.canonicalForm(twoNames.build()),
+				GoalFingerprint.canonicalForm(oneName.build()));
+	}
+
+	@Test
+	public void testRepresentation() {
+		GoalFingerprint fingerprint = new GoalFingerprint(0x0123456789abcdefL, -1L);
+		Assertions.assertEquals("0123456789abcdefffffffffffffffff", fingerprint.toString());
+		Assertions.assertEquals(0x0123456789abcdefL, fingerprint.getHigh());
+		Assertions.assertEquals(-1L, fingerprint.getLow());
+		Assertions.assertEquals(new GoalFingerprint(0x0123456789abcdefL, -1L), fingerprint);
+		Assertions.assertNotEquals(new GoalFingerprint(-1L, 0x0123456789abcdefL), fingerprint);
+		Assertions.assertEquals(32, GoalFingerprint.of(new GoalBuilder().build()).toString().length());
+	}
+
+}
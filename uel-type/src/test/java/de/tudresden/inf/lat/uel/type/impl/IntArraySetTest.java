@@ -0,0 +1,71 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for 'IntArraySet'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class IntArraySetTest {
+
+	@Test
+	public void testConstruction() {
+		IntArraySet set = IntArraySet.of(5, -3, 5, 0, 12, -3);
+		Assertions.assertEquals(4, set.size());
+		Assertions.assertArrayEquals(new int[] { -3, 0, 5, 12 }, set.toIntArray());
+		Assertions.assertEquals(-3, set.getInt(0));
+		Assertions.assertEquals(12, set.getInt(3));
+		Assertions.assertEquals(set, IntArraySet.of(Arrays.asList(12, 0, -3, 5, 0)));
+		Assertions.assertSame(set, IntArraySet.of(set));
+		Assertions.assertSame(IntArraySet.EMPTY, IntArraySet.of());
+		Assertions.assertSame(IntArraySet.EMPTY, IntArraySet.of(new HashSet<Integer>()));
+
+		// the arguments are not modified
+		int[] elements = { 3, 1, 2 };
+		IntArraySet.of(elements);
+		Assertions.assertArrayEquals(new int[] { 3, 1, 2 }, elements);
+		set.toIntArray()[0] = 42;
+		Assertions.assertEquals(-3, set.getInt(0));
+	}
+
+	@Test
+	public void testNormalize() {
+		Assertions.assertArrayEquals(new int[] { 1, 2, 3 }, IntArraySet.normalize(new int[] { 3, 1, 2, 3, 1 }));
+		int[] sorted = { 1, 2, 3 };
+		Assertions.assertSame(sorted, IntArraySet.normalize(sorted));
+		Assertions.assertSame(IntArraySet.EMPTY, IntArraySet.wrap(new int[0]));
+	}
+
+	@Test
+	public void testSetContract() {
+		IntArraySet set = IntArraySet.of(7, 1, 4);
+		Set<Integer> expected = new HashSet<Integer>(Arrays.asList(1, 4, 7));
+		Assertions.assertEquals(expected, set);
+		Assertions.assertEquals(set, expected);
+		Assertions.assertEquals(expected.hashCode(), set.hashCode());
+		Assertions.assertNotEquals(IntArraySet.of(1, 4), set);
+		Assertions.assertTrue(set.contains(4));
+		Assertions.assertTrue(set.containsInt(7));
+		Assertions.assertFalse(set.contains(5));
+		Assertions.assertFalse(set.contains("4"));
+		Assertions.assertTrue(IntArraySet.EMPTY.isEmpty());
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> set.add(3));
+
+		List<Integer> iterated = new ArrayList<Integer>();
+		set.iterator().forEachRemaining(iterated::add);
+		Assertions.assertEquals(Arrays.asList(1, 4, 7), iterated);
+		List<Integer> visited = new ArrayList<Integer>();
+		set.forEachInt(visited::add);
+		Assertions.assertEquals(iterated, visited);
+	}
+
+}
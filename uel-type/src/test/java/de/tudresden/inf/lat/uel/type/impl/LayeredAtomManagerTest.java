@@ -0,0 +1,114 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.api.AtomManager;
+
+/**
+ * Test class for 'LayeredAtomManager'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class LayeredAtomManagerTest {
+
+	private static void assertSize(Set<Integer> set) {
+		Assertions.assertEquals(new HashSet<Integer>(set).size(), set.size());
+	}
+
+	@Test
+	public void testBaseMarkingsAreIgnored() {
+		AtomManager base = new AtomManagerImpl();
+		Integer x = base.createConceptName("X", false);
+		Integer rx = base.createExistentialRestriction("r", x);
+		base.makeUserVariable(x);
+
+		LayeredAtomManager layered = new LayeredAtomManager(base);
+		Assertions.assertTrue(layered.getVariables().isEmpty());
+		Assertions.assertTrue(layered.getUserVariables().isEmpty());
+		Assertions.assertFalse(layered.getAtom(x).isVariable());
+		Assertions.assertFalse(layered.getExistentialRestriction(rx).getConceptName().isVariable());
+
+		// a variable of the base can be a constant in the overlay
+		Assertions.assertEquals(x, layered.createConceptName("X", false));
+		Assertions.assertTrue(layered.getConstants().contains(x));
+		Assertions.assertTrue(layered.getAtom(x).isConstant());
+		Assertions.assertEquals(1, layered.getNonvariableAtoms().stream().filter(a -> a.getAtomId() == x).count());
+	}
+
+	@Test
+	public void testOverlaysAreIndependent() {
+		AtomManager base = new AtomManagerImpl();
+		Integer x = base.createConceptName("X", false);
+		Integer rx = base.createExistentialRestriction("r", x);
+
+		LayeredAtomManager first = new LayeredAtomManager(base);
+		LayeredAtomManager second = new LayeredAtomManager(base);
+		first.makeUserVariable(x);
+		second.makeConstant(x);
+
+		Assertions.assertTrue(first.getUserVariables().contains(x));
+		Assertions.assertTrue(first.getExistentialRestriction(rx).getConceptName().isVariable());
+		Assertions.assertFalse(second.getVariables().contains(x));
+		Assertions.assertFalse(second.getExistentialRestriction(rx).getConceptName().isVariable());
+		Assertions.assertTrue(base.getConstants().contains(x));
+		Assertions.assertFalse(base.getAtom(x).isVariable());
+	}
+
+	@Test
+	public void testNewAtomsContinueAfterBase() {
+		AtomManager base = new AtomManagerImpl();
+		Integer a = base.createConceptName("A", false);
+		Integer ra = base.createExistentialRestriction("r", a);
+
+		LayeredAtomManager layered = new LayeredAtomManager(base);
+		Assertions.assertEquals(ra, layered.createExistentialRestriction("r", a));
+		Integer b = layered.createConceptName("B", false);
+		Integer sb = layered.createExistentialRestriction("s", b);
+		Integer rb = layered.createExistentialRestriction("r", b);
+		Assertions.assertEquals(base.size() + 1, (int) b);
+		Assertions.assertEquals(base.size() + 3, layered.size());
+		Assertions.assertEquals(b, layered.getChild(sb));
+		Assertions.assertEquals(layered.getRoleId("r"), layered.getRoleId(rb));
+		Assertions.assertEquals(sb, layered.getIndex(layered.getAtom(sb)));
+		Assertions.assertEquals(-1, (int) base.getRoleId("s"));
+
+		Set<Integer> expected = new HashSet<Integer>();
+		expected.add(ra);
+		expected.add(rb);
+		Assertions.assertEquals(expected, layered.getExistentialRestrictions(layered.getRoleId("r")));
+		expected.add(sb);
+		Assertions.assertEquals(expected, layered.getExistentialRestrictions());
+	}
+
+	@Test
+	public void testSizes() {
+		AtomManager base = new AtomManagerImpl();
+		Integer a = base.createConceptName("A", false);
+		base.createExistentialRestriction("r", a);
+		Integer x = base.createConceptName("X", false);
+		base.makeUserVariable(x);
+
+		LayeredAtomManager layered = new LayeredAtomManager(base);
+		Integer y = layered.createConceptName("Y", false);
+		layered.createExistentialRestriction("r", y);
+		layered.makeUserVariable(x);
+		layered.makeUserVariable(y);
+		layered.makeConstant(y);
+		layered.createUndefConceptName(a);
+
+		assertSize(layered.getConstants());
+		assertSize(layered.getVariables());
+		assertSize(layered.getUserVariables());
+		assertSize(layered.getExistentialRestrictions());
+		assertSize(layered.getUndefNames());
+		Assertions.assertEquals(1, layered.getVariables().size());
+		Assertions.assertEquals(2, layered.getExistentialRestrictions().size());
+		Assertions.assertEquals(1, layered.getUndefNames().size());
+	}
+
+}
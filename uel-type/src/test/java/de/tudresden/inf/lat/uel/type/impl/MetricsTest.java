@@ -0,0 +1,67 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for 'Metrics'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class MetricsTest {
+
+	@Test
+	public void testRegistration() {
+		Metrics metrics = new Metrics();
+		Metrics.Counter counter = metrics.counter("b");
+		counter.increment();
+		counter.add(2);
+		metrics.gauge("a").set(0.5);
+		metrics.timer("c").record(7);
+		metrics.timer("c").record(3);
+
+		Assertions.assertSame(counter, metrics.counter("b"));
+		Assertions.assertEquals(3, metrics.counter("b").get());
+		Assertions.assertEquals(0.5, metrics.gauge("a").get());
+		Assertions.assertEquals(2, metrics.timer("c").getCount());
+		Assertions.assertEquals(10, metrics.timer("c").getTotalNanos());
+		Assertions.assertEquals(7, metrics.timer("c").getMaxNanos());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> metrics.timer("b"));
+
+		// the metrics are listed in the order of their registration
+		Assertions.assertEquals(Arrays.asList("b", "a", "c"), new ArrayList<String>(metrics.getAll().keySet()));
+	}
+
+	@Test
+	public void testJson() {
+		Metrics metrics = new Metrics();
+		metrics.counter("clauses").add(42);
+		metrics.gauge("ratio \"x\"").set(Double.NaN);
+		metrics.gauge("size").set(3);
+		metrics.timer("solving").record(5);
+		Assertions.assertEquals("{\"counters\":{\"clauses\":42},\"gauges\":{\"ratio \\\"x\\\"\":null,\"size\":3},"
+				+ "\"timers\":{\"solving\":{\"count\":1,\"totalNanos\":5,\"maxNanos\":5}}}", metrics.toJson());
+		Assertions.assertEquals("{\"counters\":{},\"gauges\":{},\"timers\":{}}", new Metrics().toJson());
+	}
+
+	@Test
+	public void testInclude() {
+		Metrics component = new Metrics();
+		component.counter("nodes").increment();
+		Metrics metrics = new Metrics();
+		metrics.include("component1.", component);
+		component.counter("nodes").increment();
+		Assertions.assertEquals(2, metrics.counter("component1.nodes").get());
+
+		// including the same metrics again is allowed, but not other ones
+		metrics.include("component1.", component);
+		Metrics other = new Metrics();
+		other.counter("nodes");
+		Assertions.assertThrows(IllegalArgumentException.class, () -> metrics.include("component1.", other));
+	}
+
+}
@@ -0,0 +1,84 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for 'NameTable'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class NameTableTest {
+
+	@Test
+	public void testNamesWithSharedPrefixes() {
+		NameTable table = new NameTable(1);
+		Map<String, Integer> expected = new HashMap<String, Integer>();
+		String[] prefixes = { "http://example.org/onto#", "http://example.org/other/", "urn:x:", "" };
+		for (int i = 0; i < 1000; i++) {
+			String name = prefixes[i % prefixes.length] + "Name" + (i / 2);
+			int index = table.addAndGetIndex(name);
+			Integer old = expected.putIfAbsent(name, index);
+			if (old != null) {
+				Assertions.assertEquals((int) old, index);
+			}
+		}
+
+		Assertions.assertEquals(expected.size(), table.size());
+		Assertions.assertEquals(expected.size(), (int) table.getMaxIndex());
+		for (Map.Entry<String, Integer> e : expected.entrySet()) {
+			Assertions.assertEquals((int) e.getValue(), table.getIndex(e.getKey()));
+			Assertions.assertEquals(e.getKey(), table.get(e.getValue()));
+			Assertions.assertTrue(table.contains(e.getKey()));
+		}
+		// same hash structure, but different names
+		Assertions.assertEquals(-1, table.getIndex("http://example.org/onto#Name"));
+		Assertions.assertEquals(-1, table.getIndex("http://example.org/onto/Name0"));
+		Assertions.assertFalse(table.contains("Name10000"));
+		Assertions.assertNull(table.get(table.getNextIndex()));
+	}
+
+	@Test
+	public void testRepeatedGet() {
+		NameTable table = new NameTable();
+		table.add("http://a#A", 1);
+		table.add("http://a#B", 257);
+		String a = table.get(1);
+		Assertions.assertSame(a, table.get(1));
+
+		// both indices share a cache entry
+		Assertions.assertEquals("http://a#B", table.get(257));
+		Assertions.assertEquals("http://a#A", table.get(1));
+		Assertions.assertEquals("http://a#B", table.get(257));
+	}
+
+	@Test
+	public void testExplicitIndices() {
+		NameTable table = new NameTable();
+		Assertions.assertTrue(table.add("http://a#B", 5));
+		Assertions.assertTrue(table.add("http://a#A", 2));
+		Assertions.assertFalse(table.add("http://a#A", 2));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> table.add("http://a#A", 3));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> table.add("http://a#C", 5));
+		Assertions.assertEquals(6, (int) table.getNextIndex());
+		Assertions.assertTrue(table.add("http://a#C"));
+		Assertions.assertEquals(6, table.getIndex("http://a#C"));
+
+		// iteration follows the indices
+		List<String> names = new ArrayList<String>(table);
+		Assertions.assertEquals(Arrays.asList("http://a#A", "http://a#B", "http://a#C"), names);
+		Assertions.assertEquals(Arrays.asList(2, 5, 6), new ArrayList<Integer>(table.getIndices()));
+		Assertions.assertTrue(table.getIndices().contains(5));
+		Assertions.assertFalse(table.getIndices().contains(3));
+		Assertions.assertEquals("{2=http://a#A, 5=http://a#B, 6=http://a#C}", table.toString());
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> table.remove("http://a#A"));
+	}
+
+}
@@ -0,0 +1,73 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for 'ResourceLimits'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class ResourceLimitsTest {
+
+	@Test
+	public void testNoLimits() throws LimitReachedException {
+		Assertions.assertFalse(ResourceLimits.NONE.hasDeadline());
+		Assertions.assertFalse(ResourceLimits.NONE.hasMaxNodes());
+		Assertions.assertFalse(ResourceLimits.NONE.hasMaxMemory());
+		Assertions.assertEquals(Long.MAX_VALUE, ResourceLimits.NONE.getRemainingTime(TimeUnit.SECONDS));
+		Assertions.assertNull(ResourceLimits.NONE.getReachedLimit(Long.MAX_VALUE));
+		ResourceLimits.NONE.check(Long.MAX_VALUE);
+	}
+
+	@Test
+	public void testDeadline() {
+		ResourceLimits passed = ResourceLimits.NONE.withDeadline(System.nanoTime() - 1);
+		Assertions.assertTrue(passed.hasDeadline());
+		Assertions.assertEquals(0, passed.getRemainingTime(TimeUnit.NANOSECONDS));
+		Assertions.assertEquals(ResourceLimits.Limit.DEADLINE, passed.getReachedLimit(0));
+		LimitReachedException e = Assertions.assertThrows(LimitReachedException.class, () -> passed.check(0));
+		Assertions.assertEquals(ResourceLimits.Limit.DEADLINE, e.getLimit());
+
+		ResourceLimits future = ResourceLimits.NONE.withTimeout(1, TimeUnit.HOURS);
+		Assertions.assertNull(future.getReachedLimit(0));
+		Assertions.assertTrue(future.getRemainingTime(TimeUnit.MINUTES) > 50);
+
+		// very long timeouts do not wrap around
+		ResourceLimits distant = ResourceLimits.NONE.withTimeout(Long.MAX_VALUE, TimeUnit.DAYS);
+		Assertions.assertTrue(distant.hasDeadline());
+		Assertions.assertTrue(distant.getDeadline() > System.nanoTime());
+		Assertions.assertNull(distant.getReachedLimit(0));
+		Assertions.assertTrue(distant.getRemainingTime(TimeUnit.DAYS) > 1000);
+	}
+
+	@Test
+	public void testMaxNodes() {
+		ResourceLimits limits = ResourceLimits.NONE.withMaxNodes(10);
+		Assertions.assertTrue(limits.hasMaxNodes());
+		Assertions.assertFalse(ResourceLimits.NONE.hasMaxNodes());
+		Assertions.assertNull(limits.getReachedLimit(10));
+		Assertions.assertEquals(ResourceLimits.Limit.NODES, limits.getReachedLimit(11));
+		// the deadline is checked first
+		Assertions.assertEquals(ResourceLimits.Limit.DEADLINE,
+				limits.withDeadline(System.nanoTime() - 1).getReachedLimit(11));
+	}
+
+	@Test
+	public void testMaxMemory() {
+		Assertions.assertEquals(ResourceLimits.Limit.MEMORY, ResourceLimits.NONE.withMaxMemory(0).getReachedLimit(0));
+		Assertions.assertNull(ResourceLimits.NONE.withMaxMemory(Long.MAX_VALUE - 1).getReachedLimit(0));
+	}
+
+	@Test
+	public void testInvalidArguments() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ResourceLimits.NONE.withMaxNodes(-1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ResourceLimits.NONE.withMaxMemory(-1));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> ResourceLimits.NONE.withTimeout(-1, TimeUnit.SECONDS));
+	}
+
+}
@@ -0,0 +1,109 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.function.Function;
+
+import de.tudresden.inf.lat.uel.type.api.UnificationAlgorithm;
+
+/**
+ * A unification algorithm for testing that returns a fixed number of
+ * unifiers. The i-th unifier defines the atom id 1 as the singleton set {i}.
+ * The algorithm records how often it was asked for the next unifier and
+ * whether it was cleaned up.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+class ScriptedUnificationAlgorithm implements UnificationAlgorithm {
+
+	private final int numberOfUnifiers;
+	private RuntimeException failure = null;
+	private ResourceLimits.Limit limit = null;
+	private ResourceLimits.Limit reachedLimit = null;
+	private int current = 0;
+	private final Metrics metrics = new Metrics();
+	volatile int calls = 0;
+	volatile int cleanups = 0;
+
+	ScriptedUnificationAlgorithm(int numberOfUnifiers) {
+		this.numberOfUnifiers = numberOfUnifiers;
+	}
+
+	static int index(Unifier unifier) {
+		return unifier.getDefinitions().getDefiniens(1).iterator().next();
+	}
+
+	/**
+	 * Throw the given exception instead of computing the unifier after the
+	 * last one.
+	 */
+	ScriptedUnificationAlgorithm failWith(RuntimeException failure) {
+		this.failure = failure;
+		return this;
+	}
+
+	/**
+	 * Report that the given limit was reached instead of computing the
+	 * unifier after the last one.
+	 */
+	ScriptedUnificationAlgorithm stopWith(ResourceLimits.Limit limit) {
+		this.limit = limit;
+		return this;
+	}
+
+	@Override
+	public void cleanup() {
+		cleanups++;
+	}
+
+	@Override
+	public boolean computeNextUnifier() throws InterruptedException {
+		calls++;
+		if (current == numberOfUnifiers) {
+			if (failure != null) {
+				throw failure;
+			}
+			reachedLimit = limit;
+			return false;
+		}
+		current++;
+		return true;
+	}
+
+	@Override
+	public List<Entry<String, String>> getInfo() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public ResourceLimits.Limit getReachedLimit() {
+		return reachedLimit;
+	}
+
+	@Override
+	public Unifier getUnifier() {
+		CompactDefinitionSet definitions = new CompactDefinitionSet();
+		definitions.put(1, new int[] { current }, false);
+		return new Unifier(definitions);
+	}
+
+	@Override
+	public void setCallbackPreprocessing(Runnable r) {
+	}
+
+	@Override
+	public void setResourceLimits(ResourceLimits limits) {
+	}
+
+	@Override
+	public void setShortFormMap(Function<String, String> map) {
+	}
+
+}
@@ -0,0 +1,89 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for 'TypeHierarchy'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class TypeHierarchyTest {
+
+	private static boolean walkUp(Map<Integer, Integer> directSupertype, Integer type1, Integer type2) {
+		for (Integer type = type1; type != null; type = directSupertype.get(type)) {
+			if (type.equals(type2)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Test
+	public void testAgainstSupertypeChains() {
+		Random random = new Random(0);
+		for (int round = 0; round < 20; round++) {
+			// a forest in which each type has a smaller supertype
+			Map<Integer, Integer> directSupertype = new HashMap<Integer, Integer>();
+			for (int type = 2; type <= 60; type++) {
+				if (random.nextInt(5) != 0) {
+					directSupertype.put(type, 1 + random.nextInt(type - 1));
+				}
+			}
+			// only some types are given explicitly, the others are supertypes
+			Set<Integer> types = new HashSet<Integer>();
+			for (int type = 30; type <= 60; type++) {
+				types.add(type);
+			}
+			TypeHierarchy hierarchy = new TypeHierarchy(types, directSupertype::get);
+
+			for (int type1 = 1; type1 <= 62; type1++) {
+				for (int type2 = 1; type2 <= 62; type2++) {
+					boolean expected = walkUp(directSupertype, type1, type2);
+					boolean contained = hierarchy.contains(type1) && hierarchy.contains(type2);
+					Assertions.assertEquals(contained ? expected : (type1 == type2),
+							hierarchy.subtypeOrEquals(type1, type2));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testAtomsOutsideOfHierarchy() {
+		Map<Integer, Integer> directSupertype = new HashMap<Integer, Integer>();
+		directSupertype.put(3, 2);
+		directSupertype.put(2, 1);
+		directSupertype.put(4, 1);
+		TypeHierarchy hierarchy = new TypeHierarchy(new HashSet<Integer>(Arrays.asList(3, 4)), directSupertype::get);
+
+		Assertions.assertTrue(hierarchy.contains(1));
+		Assertions.assertFalse(hierarchy.contains(5));
+		Assertions.assertFalse(hierarchy.contains(1000));
+		Assertions.assertTrue(hierarchy.subtypeOrEquals(3, 1));
+		Assertions.assertFalse(hierarchy.subtypeOrEquals(1, 3));
+		Assertions.assertTrue(hierarchy.areDisjoint(3, 4));
+		Assertions.assertFalse(hierarchy.areDisjoint(2, 3));
+		Assertions.assertTrue(hierarchy.subtypeOrEquals(1000, 1000));
+		Assertions.assertFalse(hierarchy.subtypeOrEquals(1000, 1));
+		Assertions.assertFalse(hierarchy.subtypeOrEquals(null, 1));
+	}
+
+	@Test
+	public void testCycle() {
+		Map<Integer, Integer> directSupertype = new HashMap<Integer, Integer>();
+		directSupertype.put(1, 2);
+		directSupertype.put(2, 3);
+		directSupertype.put(3, 2);
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new TypeHierarchy(new HashSet<Integer>(Arrays.asList(1)), directSupertype::get));
+	}
+
+}
@@ -0,0 +1,212 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.tudresden.inf.lat.uel.type.impl.UnifierPublisher.Subscriber;
+import de.tudresden.inf.lat.uel.type.impl.UnifierPublisher.Subscription;
+
+/**
+ * Test class for 'UnifierPublisher'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class UnifierPublisherTest {
+
+	// runs each task immediately in the calling thread
+	private static final Executor DIRECT = Runnable::run;
+
+	/**
+	 * Records all signals it receives.
+	 */
+	private static class RecordingSubscriber implements Subscriber {
+
+		final CountDownLatch done = new CountDownLatch(1);
+		volatile boolean completed = false;
+		volatile Throwable error = null;
+		final List<Integer> indexes = new ArrayList<Integer>();
+		Subscription subscription = null;
+
+		@Override
+		public void onComplete() {
+			Assertions.assertFalse(isTerminated());
+			completed = true;
+			done.countDown();
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			Assertions.assertFalse(isTerminated());
+			error = throwable;
+			done.countDown();
+		}
+
+		@Override
+		public void onNext(Unifier unifier) {
+			Assertions.assertFalse(isTerminated());
+			indexes.add(ScriptedUnificationAlgorithm.index(unifier));
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			Assertions.assertNull(this.subscription);
+			this.subscription = subscription;
+		}
+
+		boolean isTerminated() {
+			return completed || (error != null);
+		}
+
+	}
+
+	@Test
+	public void testDemand() {
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(3);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		algorithm.publisher(DIRECT).subscribe(subscriber);
+		Assertions.assertEquals(0, algorithm.calls);
+
+		subscriber.subscription.request(2);
+		Assertions.assertEquals(Arrays.asList(1, 2), subscriber.indexes);
+		Assertions.assertEquals(2, algorithm.calls);
+		Assertions.assertFalse(subscriber.isTerminated());
+
+		subscriber.subscription.request(5);
+		Assertions.assertEquals(Arrays.asList(1, 2, 3), subscriber.indexes);
+		Assertions.assertTrue(subscriber.completed);
+		Assertions.assertEquals(4, algorithm.calls);
+		Assertions.assertEquals(0, algorithm.cleanups);
+
+		// requests after the end are ignored
+		subscriber.subscription.request(1);
+		Assertions.assertEquals(4, algorithm.calls);
+	}
+
+	@Test
+	public void testUnboundedDemand() {
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(5);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		algorithm.publisher(DIRECT).subscribe(subscriber);
+		subscriber.subscription.request(Long.MAX_VALUE);
+		subscriber.subscription.request(Long.MAX_VALUE);
+		Assertions.assertEquals(Arrays.asList(1, 2, 3, 4, 5), subscriber.indexes);
+		Assertions.assertTrue(subscriber.completed);
+	}
+
+	@Test
+	public void testRequestFromOnNext() {
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(4);
+		RecordingSubscriber subscriber = new RecordingSubscriber() {
+			@Override
+			public void onNext(Unifier unifier) {
+				super.onNext(unifier);
+				subscription.request(1);
+			}
+		};
+		algorithm.publisher(DIRECT).subscribe(subscriber);
+		subscriber.subscription.request(1);
+		Assertions.assertEquals(Arrays.asList(1, 2, 3, 4), subscriber.indexes);
+		Assertions.assertTrue(subscriber.completed);
+	}
+
+	@Test
+	public void testCancel() {
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(10);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		algorithm.publisher(DIRECT).subscribe(subscriber);
+		subscriber.subscription.request(1);
+		subscriber.subscription.cancel();
+		Assertions.assertEquals(1, algorithm.cleanups);
+
+		subscriber.subscription.request(3);
+		subscriber.subscription.cancel();
+		Assertions.assertEquals(Arrays.asList(1), subscriber.indexes);
+		Assertions.assertEquals(1, algorithm.calls);
+		Assertions.assertEquals(1, algorithm.cleanups);
+		Assertions.assertFalse(subscriber.isTerminated());
+	}
+
+	@Test
+	public void testInvalidRequest() {
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(10);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		algorithm.publisher(DIRECT).subscribe(subscriber);
+		subscriber.subscription.request(0);
+		Assertions.assertTrue(subscriber.error instanceof IllegalArgumentException);
+		Assertions.assertEquals(0, algorithm.calls);
+		Assertions.assertEquals(1, algorithm.cleanups);
+	}
+
+	@Test
+	public void testFailure() {
+		IllegalStateException failure = new IllegalStateException();
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(1).failWith(failure);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		algorithm.publisher(DIRECT).subscribe(subscriber);
+		subscriber.subscription.request(5);
+		Assertions.assertEquals(Arrays.asList(1), subscriber.indexes);
+		Assertions.assertSame(failure, subscriber.error);
+		Assertions.assertEquals(1, algorithm.cleanups);
+	}
+
+	@Test
+	public void testLimit() {
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(2)
+				.stopWith(ResourceLimits.Limit.NODES);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		algorithm.publisher(DIRECT).subscribe(subscriber);
+		subscriber.subscription.request(5);
+		Assertions.assertEquals(Arrays.asList(1, 2), subscriber.indexes);
+		Assertions.assertFalse(subscriber.completed);
+		Assertions.assertTrue(subscriber.error instanceof LimitReachedException);
+		Assertions.assertEquals(ResourceLimits.Limit.NODES, ((LimitReachedException) subscriber.error).getLimit());
+		Assertions.assertEquals(1, algorithm.cleanups);
+		Assertions.assertFalse(Thread.interrupted());
+	}
+
+	@Test
+	public void testSingleSubscriber() {
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(1);
+		UnifierPublisher publisher = algorithm.publisher(DIRECT);
+		RecordingSubscriber first = new RecordingSubscriber();
+		RecordingSubscriber second = new RecordingSubscriber();
+		publisher.subscribe(first);
+		publisher.subscribe(second);
+		Assertions.assertNotNull(second.subscription);
+		Assertions.assertTrue(second.error instanceof IllegalStateException);
+		Assertions.assertFalse(first.isTerminated());
+		Assertions.assertThrows(NullPointerException.class, () -> publisher.subscribe(null));
+	}
+
+	@Test
+	public void testExecutor() throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(100);
+			RecordingSubscriber subscriber = new RecordingSubscriber();
+			algorithm.publisher(executor).subscribe(subscriber);
+			for (int i = 0; i < 50; i++) {
+				subscriber.subscription.request(3);
+			}
+			Assertions.assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+			Assertions.assertTrue(subscriber.completed);
+			Assertions.assertEquals(100, subscriber.indexes.size());
+			for (int i = 0; i < 100; i++) {
+				Assertions.assertEquals(i + 1, (int) subscriber.indexes.get(i));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,110 @@
+package de.tudresden.inf.lat.uel.type.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for 'UnifierSpliterator'.
+ *
+ * @author Stefan Borgwardt
+ *
+ */
+public class UnifierSpliteratorTest {
+
+	@Test
+	public void testAllUnifiers() {
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(3);
+		List<Integer> indexes = algorithm.stream().map(ScriptedUnificationAlgorithm::index)
+				.collect(Collectors.toList());
+		Assertions.assertEquals(Arrays.asList(1, 2, 3), indexes);
+		Assertions.assertEquals(4, algorithm.calls);
+	}
+
+	@Test
+	public void testComputesOnDemand() {
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(10);
+		Spliterator<Unifier> spliterator = algorithm.spliterator();
+		Assertions.assertEquals(0, algorithm.calls);
+		Assertions.assertTrue(spliterator.tryAdvance(unifier -> {
+		}));
+		Assertions.assertEquals(1, algorithm.calls);
+		Assertions.assertNull(spliterator.trySplit());
+		Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+
+		try (Stream<Unifier> stream = algorithm.stream()) {
+			Assertions.assertEquals(2, stream.limit(2).count());
+		}
+		Assertions.assertEquals(3, algorithm.calls);
+		Assertions.assertEquals(1, algorithm.cleanups);
+	}
+
+	@Test
+	public void testNoFurtherCallsAfterEnd() {
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(0);
+		Spliterator<Unifier> spliterator = algorithm.spliterator();
+		Assertions.assertFalse(spliterator.tryAdvance(unifier -> Assertions.fail("no further unifiers expected")));
+		Assertions.assertFalse(spliterator.tryAdvance(unifier -> Assertions.fail("no further unifiers expected")));
+		Assertions.assertEquals(1, algorithm.calls);
+		Assertions.assertEquals(0, algorithm.cleanups);
+	}
+
+	@Test
+	public void testInterrupt() {
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(0) {
+			@Override
+			public boolean computeNextUnifier() throws InterruptedException {
+				calls++;
+				throw new InterruptedException();
+			}
+		};
+		try {
+			Assertions.assertEquals(0, algorithm.stream().count());
+			Assertions.assertTrue(Thread.currentThread().isInterrupted());
+			Assertions.assertEquals(1, algorithm.cleanups);
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+	@Test
+	public void testLimit() {
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(2)
+				.stopWith(ResourceLimits.Limit.DEADLINE);
+		Spliterator<Unifier> spliterator = algorithm.spliterator();
+		Assertions.assertTrue(spliterator.tryAdvance(unifier -> {
+		}));
+		Assertions.assertTrue(spliterator.tryAdvance(unifier -> {
+		}));
+		CompletionException ex = Assertions.assertThrows(CompletionException.class,
+				() -> spliterator.tryAdvance(unifier -> Assertions.fail("no further unifiers expected")));
+		Assertions.assertTrue(ex.getCause() instanceof LimitReachedException);
+		Assertions.assertEquals(ResourceLimits.Limit.DEADLINE, ((LimitReachedException) ex.getCause()).getLimit());
+
+		// the spliterator stays finished
+		Assertions.assertFalse(spliterator.tryAdvance(unifier -> Assertions.fail("no further unifiers expected")));
+		Assertions.assertEquals(3, algorithm.calls);
+
+		ScriptedUnificationAlgorithm streamed = new ScriptedUnificationAlgorithm(2)
+				.stopWith(ResourceLimits.Limit.DEADLINE);
+		Assertions.assertThrows(CompletionException.class, () -> streamed.stream().count());
+	}
+
+	@Test
+	public void testFailure() {
+		ScriptedUnificationAlgorithm algorithm = new ScriptedUnificationAlgorithm(1)
+				.failWith(new IllegalStateException());
+		Spliterator<Unifier> spliterator = algorithm.spliterator();
+		Assertions.assertTrue(spliterator.tryAdvance(unifier -> {
+		}));
+		Assertions.assertThrows(IllegalStateException.class, () -> spliterator.tryAdvance(unifier -> {
+		}));
+	}
+
+}